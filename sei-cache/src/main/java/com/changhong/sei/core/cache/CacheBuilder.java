@@ -14,6 +14,10 @@ import org.springframework.util.StringUtils;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -49,6 +53,11 @@ public class CacheBuilder {
 
     private static final Lock PROVIDER_LOCK = new ReentrantLock();
 
+    /**
+     * 正在加载的缓存键，同一缓存键并发未命中时只加载一次
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> loadingMap = new ConcurrentHashMap<>();
+
     /**
      * 初始化缓存提供者 默认优先级：先本地缓存，后分布式缓存
      **/
@@ -232,6 +241,74 @@ public class CacheBuilder {
         return obj;
     }
 
+    /**
+     * 查询缓存，没有缓存时调用loader加载并写入所有缓存提供者(过期时间为默认过期时间)
+     * 命中低优先级缓存提供者时回填高优先级缓存提供者；同一缓存键并发未命中时只调用一次loader，其他线程等待并共享加载结果
+     *
+     * @param key    缓存键 不可为空
+     * @param loader 如没有缓存，调用该函数加载对象，返回null时不缓存 可为空
+     **/
+    @SuppressWarnings("unchecked")
+    public <T extends Object> T getOrLoad(String key, Function<String, T> loader) {
+        if (StringUtils.isEmpty(key)) {
+            return null;
+        }
+        T obj = getAndBackfill(key);
+        if (obj != null || loader == null) {
+            return obj;
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> loading = loadingMap.putIfAbsent(key, future);
+        if (loading != null) {
+            // 其他线程正在加载
+            try {
+                return (T) loading.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            // 再次检查，避免并发时重复加载
+            obj = getAndBackfill(key);
+            if (obj == null) {
+                obj = loader.apply(key);
+                if (obj != null) {
+                    set(key, obj, cacheProperties.getExpire());
+                }
+            }
+            future.complete(obj);
+            return obj;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadingMap.remove(key, future);
+        }
+    }
+
+    /**
+     * 按优先级查询缓存，命中低优先级缓存提供者时回填高优先级缓存提供者
+     *
+     * @param key 缓存键 不可为空
+     **/
+    private <T extends Object> T getAndBackfill(String key) {
+        List<CacheProviderService> providers = getCacheProviders();
+        for (int i = 0; i < providers.size(); i++) {
+            T obj = providers.get(i).get(key);
+            if (obj != null) {
+                for (int j = 0; j < i; j++) {
+                    providers.get(j).set(key, obj, cacheProperties.getExpire());
+                }
+                return obj;
+            }
+        }
+        return null;
+    }
+
     /**
      * 设置缓存键值  直接向缓存中插入或覆盖值
      *
@@ -261,6 +338,16 @@ public class CacheBuilder {
         }
     }
 
+    /**
+     * 设置缓存键值  向所有缓存提供者插入或覆盖值(过期时间为默认过期时间)
+     *
+     * @param key 缓存键 不可为空
+     * @param obj 缓存值 不可为空
+     **/
+    public <T extends Object> void put(String key, T obj) {
+        set(key, obj, cacheProperties.getExpire());
+    }
+
     /**
      * 移除缓存
      *
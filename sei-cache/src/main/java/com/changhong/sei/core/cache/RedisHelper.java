@@ -1,20 +1,64 @@
 package com.changhong.sei.core.cache;
 
+import com.changhong.sei.core.log.LogUtil;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
 
 /**
  * 实现功能：redis操作帮助类
+ * 写入并设置有效期的操作通过SET EX或Lua脚本(EVALSHA，服务端未缓存时退回EVAL)原子执行；批量操作(mget、mset、hmgetAll、sSetBatch、lSetBatch)
+ * 使用流水线一次往返发送，返回{@link RedisResult}
  *
  * @author 马超(Vision.Mac)
  * @version 1.0.00  2021-11-01 22:52
  */
 public class RedisHelper {
+    /**
+     * Lua脚本单次调用展开的参数上限
+     */
+    private static final int SCRIPT_CHUNK = 1000;
+    /**
+     * 批量添加集合成员并设置有效期(毫秒)，KEYS[1]=键 ARGV[1]=有效期 ARGV[2..]=成员，返回新增数量
+     */
+    private static final RedisScript<Long> SADD_EXPIRE = script("local n = 0",
+            "for i = 2, #ARGV, " + SCRIPT_CHUNK + " do",
+            "    n = n + redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + " + (SCRIPT_CHUNK - 1) + ", #ARGV)))",
+            "end",
+            "if tonumber(ARGV[1]) > 0 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end",
+            "return n");
+    /**
+     * 批量追加列表元素并设置有效期(毫秒)，KEYS[1]=键 ARGV[1]=有效期 ARGV[2..]=元素，返回列表长度
+     */
+    private static final RedisScript<Long> RPUSH_EXPIRE = script("local n = 0",
+            "for i = 2, #ARGV, " + SCRIPT_CHUNK + " do",
+            "    n = redis.call('RPUSH', KEYS[1], unpack(ARGV, i, math.min(i + " + (SCRIPT_CHUNK - 1) + ", #ARGV)))",
+            "end",
+            "if tonumber(ARGV[1]) > 0 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end",
+            "return n");
+    /**
+     * 批量设置哈希项并设置有效期(毫秒)，KEYS[1]=键 ARGV[1]=有效期 ARGV[2..]=项、值交替，返回项数
+     */
+    private static final RedisScript<Long> HMSET_EXPIRE = script(
+            "for i = 2, #ARGV, " + SCRIPT_CHUNK + " do",
+            "    redis.call('HMSET', KEYS[1], unpack(ARGV, i, math.min(i + " + (SCRIPT_CHUNK - 1) + ", #ARGV)))",
+            "end",
+            "if tonumber(ARGV[1]) > 0 then redis.call('PEXPIRE', KEYS[1], ARGV[1]) end",
+            "return (#ARGV - 1) / 2");
+
     private final RedisTemplate<String, Object> redisTemplate;
 
     public RedisHelper(final RedisTemplate<String, Object> redisTemplate) {
@@ -28,8 +72,8 @@ public class RedisHelper {
             }
 
             return true;
-        } catch (Exception var5) {
-            var5.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -41,8 +85,8 @@ public class RedisHelper {
     public boolean hasKey(String key) {
         try {
             return this.redisTemplate.hasKey(key);
-        } catch (Exception var3) {
-            var3.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -65,8 +109,8 @@ public class RedisHelper {
         try {
             this.redisTemplate.opsForValue().set(key, value);
             return true;
-        } catch (Exception var4) {
-            var4.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -80,8 +124,8 @@ public class RedisHelper {
             }
 
             return true;
-        } catch (Exception var6) {
-            var6.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -95,8 +139,8 @@ public class RedisHelper {
             }
 
             return true;
-        } catch (Exception var7) {
-            var7.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -129,22 +173,23 @@ public class RedisHelper {
         try {
             this.redisTemplate.opsForHash().putAll(key, map);
             return true;
-        } catch (Exception var4) {
-            var4.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
 
     public boolean hmset(String key, Map<String, Object> map, long time) {
         try {
-            this.redisTemplate.opsForHash().putAll(key, map);
             if (time > 0L) {
-                this.expire(key, time);
+                this.redisTemplate.execute((RedisCallback<Long>) connection -> hmsetExpire(connection, key, map, time));
+            } else {
+                this.redisTemplate.opsForHash().putAll(key, map);
             }
 
             return true;
-        } catch (Exception var6) {
-            var6.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -153,22 +198,24 @@ public class RedisHelper {
         try {
             this.redisTemplate.opsForHash().put(key, item, value);
             return true;
-        } catch (Exception var5) {
-            var5.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
 
     public boolean hset(String key, String item, Object value, long time) {
         try {
-            this.redisTemplate.opsForHash().put(key, item, value);
             if (time > 0L) {
-                this.expire(key, time);
+                this.redisTemplate.execute((RedisCallback<Long>) connection ->
+                        hmsetExpire(connection, key, Collections.singletonMap(item, value), time));
+            } else {
+                this.redisTemplate.opsForHash().put(key, item, value);
             }
 
             return true;
-        } catch (Exception var7) {
-            var7.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -192,8 +239,8 @@ public class RedisHelper {
     public Set<Object> sGet(String key) {
         try {
             return this.redisTemplate.opsForSet().members(key);
-        } catch (Exception var3) {
-            var3.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return null;
         }
     }
@@ -201,8 +248,8 @@ public class RedisHelper {
     public boolean sHasKey(String key, Object value) {
         try {
             return this.redisTemplate.opsForSet().isMember(key, value);
-        } catch (Exception var4) {
-            var4.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -210,21 +257,22 @@ public class RedisHelper {
     public long sSet(String key, Object... values) {
         try {
             return this.redisTemplate.opsForSet().add(key, values);
-        } catch (Exception var4) {
-            var4.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return 0L;
         }
     }
 
     public long sSetAndTime(String key, long time, Object... values) {
         try {
-            Long count = this.redisTemplate.opsForSet().add(key, values);
-            if (time > 0L) {
-                this.expire(key, time);
+            if (values == null || values.length == 0) {
+                return 0L;
             }
-            return count;
-        } catch (Exception var6) {
-            var6.printStackTrace();
+            Long count = this.redisTemplate.execute((RedisCallback<Long>) connection ->
+                    evalExpire(connection, SADD_EXPIRE, key, Arrays.asList(values), time));
+            return count == null ? 0L : count;
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return 0L;
         }
     }
@@ -232,8 +280,8 @@ public class RedisHelper {
     public long sGetSetSize(String key) {
         try {
             return this.redisTemplate.opsForSet().size(key);
-        } catch (Exception var3) {
-            var3.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return 0L;
         }
     }
@@ -242,8 +290,8 @@ public class RedisHelper {
         try {
             Long count = this.redisTemplate.opsForSet().remove(key, values);
             return count;
-        } catch (Exception var4) {
-            var4.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return 0L;
         }
     }
@@ -251,8 +299,8 @@ public class RedisHelper {
     public List<Object> lGet(String key, long start, long end) {
         try {
             return this.redisTemplate.opsForList().range(key, start, end);
-        } catch (Exception var7) {
-            var7.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return null;
         }
     }
@@ -260,8 +308,8 @@ public class RedisHelper {
     public long lGetListSize(String key) {
         try {
             return this.redisTemplate.opsForList().size(key);
-        } catch (Exception var3) {
-            var3.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return 0L;
         }
     }
@@ -269,8 +317,8 @@ public class RedisHelper {
     public Object lGetIndex(String key, long index) {
         try {
             return this.redisTemplate.opsForList().index(key, index);
-        } catch (Exception var5) {
-            var5.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return null;
         }
     }
@@ -279,22 +327,20 @@ public class RedisHelper {
         try {
             this.redisTemplate.opsForList().rightPush(key, value);
             return true;
-        } catch (Exception var4) {
-            var4.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
 
     public boolean lSet(String key, Object value, long time) {
         try {
-            this.redisTemplate.opsForList().rightPush(key, value);
-            if (time > 0L) {
-                this.expire(key, time);
-            }
+            this.redisTemplate.execute((RedisCallback<Long>) connection ->
+                    evalExpire(connection, RPUSH_EXPIRE, key, Collections.singletonList(value), time));
 
             return true;
-        } catch (Exception var6) {
-            var6.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -303,22 +349,22 @@ public class RedisHelper {
         try {
             this.redisTemplate.opsForList().rightPushAll(key, value);
             return true;
-        } catch (Exception var4) {
-            var4.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
 
     public boolean lSet(String key, List<Object> value, long time) {
         try {
-            this.redisTemplate.opsForList().rightPushAll(key, value);
-            if (time > 0L) {
-                this.expire(key, time);
+            if (!value.isEmpty()) {
+                this.redisTemplate.execute((RedisCallback<Long>) connection ->
+                        evalExpire(connection, RPUSH_EXPIRE, key, value, time));
             }
 
             return true;
-        } catch (Exception var6) {
-            var6.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -327,8 +373,8 @@ public class RedisHelper {
         try {
             this.redisTemplate.opsForList().set(key, index, value);
             return true;
-        } catch (Exception var6) {
-            var6.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
             return false;
         }
     }
@@ -337,9 +383,349 @@ public class RedisHelper {
         try {
             Long remove = this.redisTemplate.opsForList().remove(key, count, value);
             return remove;
-        } catch (Exception var6) {
-            var6.printStackTrace();
+        } catch (Exception e) {
+            LogUtil.error("redis操作异常: " + key, e);
+            return 0L;
+        }
+    }
+
+    ////////////////////////////////////// 批量操作 //////////////////////////////////////
+
+    /**
+     * 批量获取(一次MGET)
+     *
+     * @param keys 键清单
+     * @return 存在的键及值
+     */
+    public RedisResult<Map<String, Object>> mget(Collection<String> keys) {
+        List<String> keyList = distinct(keys);
+        if (keyList.isEmpty()) {
+            return RedisResult.success(new LinkedHashMap<>());
+        }
+        try {
+            List<Object> values = this.redisTemplate.opsForValue().multiGet(keyList);
+            Map<String, Object> data = new LinkedHashMap<>();
+            if (values != null) {
+                for (int i = 0; i < keyList.size() && i < values.size(); i++) {
+                    if (values.get(i) != null) {
+                        data.put(keyList.get(i), values.get(i));
+                    }
+                }
+            }
+            return RedisResult.success(data);
+        } catch (Exception e) {
+            return fail("mget", keyList, e);
+        }
+    }
+
+    /**
+     * 批量设置，所有键使用相同的有效期(流水线执行SET EX)
+     *
+     * @param values 键及值
+     * @param time   有效期(秒)，小于等于0时永久有效
+     * @return 各键的写入结果(1:成功)
+     */
+    public RedisResult<Map<String, Long>> mset(Map<String, Object> values, long time) {
+        return mset(values, key -> time);
+    }
+
+    /**
+     * 批量设置，各键使用各自的有效期(流水线执行SET EX)
+     *
+     * @param values 键及值
+     * @param times  各键的有效期(秒)，没有或小于等于0时永久有效
+     * @return 各键的写入结果(1:成功)
+     */
+    public RedisResult<Map<String, Long>> mset(Map<String, Object> values, Map<String, Long> times) {
+        return mset(values, key -> {
+            Long time = times.get(key);
+            return time == null ? 0L : time;
+        });
+    }
+
+    private RedisResult<Map<String, Long>> mset(Map<String, Object> values, ToLongFunction<String> timeOf) {
+        return pipelineWrite("mset", values.keySet(), (connection, key) -> {
+            long time = timeOf.applyAsLong(key);
+            connection.stringCommands().set(rawKey(key), rawValue(values.get(key)),
+                    time > 0L ? Expiration.seconds(time) : Expiration.persistent(), RedisStringCommands.SetOption.upsert());
+        });
+    }
+
+    /**
+     * 获取哈希的多个项(一次HMGET)
+     *
+     * @param key   键
+     * @param items 项清单
+     * @return 存在的项及值
+     */
+    public RedisResult<Map<String, Object>> hmget(String key, Collection<String> items) {
+        List<String> itemList = distinct(items);
+        if (itemList.isEmpty()) {
+            return RedisResult.success(new LinkedHashMap<>());
+        }
+        try {
+            List<Object> values = this.redisTemplate.opsForHash().multiGet(key, new ArrayList<>(itemList));
+            Map<String, Object> data = new LinkedHashMap<>();
+            for (int i = 0; i < itemList.size() && i < values.size(); i++) {
+                if (values.get(i) != null) {
+                    data.put(itemList.get(i), values.get(i));
+                }
+            }
+            return RedisResult.success(data);
+        } catch (Exception e) {
+            return fail("hmget", Collections.singletonList(key), e);
+        }
+    }
+
+    /**
+     * 批量获取多个哈希的全部项(流水线执行HGETALL)
+     *
+     * @param keys 键清单
+     * @return 存在的键及其全部项
+     */
+    @SuppressWarnings("unchecked")
+    public RedisResult<Map<String, Map<Object, Object>>> hmgetAll(Collection<String> keys) {
+        List<String> keyList = distinct(keys);
+        if (keyList.isEmpty()) {
+            return RedisResult.success(new LinkedHashMap<>());
+        }
+        try {
+            List<Object> results = this.redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keyList) {
+                    connection.hashCommands().hGetAll(rawKey(key));
+                }
+                return null;
+            });
+            Map<String, Map<Object, Object>> data = new LinkedHashMap<>();
+            for (int i = 0; i < keyList.size() && i < results.size(); i++) {
+                Object result = results.get(i);
+                if (result instanceof Map && !((Map<?, ?>) result).isEmpty()) {
+                    data.put(keyList.get(i), (Map<Object, Object>) result);
+                }
+            }
+            return RedisResult.success(data);
+        } catch (Exception e) {
+            return fail("hmgetAll", keyList, e);
+        }
+    }
+
+    /**
+     * 批量向多个集合添加成员并设置有效期(流水线执行，每个键通过Lua脚本原子执行SADD及PEXPIRE)
+     *
+     * @param values 键及成员
+     * @param time   有效期(秒)，小于等于0时不设置
+     * @return 各键新增的成员数
+     */
+    public RedisResult<Map<String, Long>> sSetBatch(Map<String, ? extends Collection<?>> values, long time) {
+        return pipelineWrite("sSetBatch", nonEmptyKeys(values), SADD_EXPIRE, (connection, key) ->
+                evalExpire(connection, SADD_EXPIRE, key, values.get(key), time));
+    }
+
+    /**
+     * 批量向多个列表追加元素并设置有效期(流水线执行，每个键通过Lua脚本原子执行RPUSH及PEXPIRE)
+     *
+     * @param values 键及元素
+     * @param time   有效期(秒)，小于等于0时不设置
+     * @return 各键追加后的列表长度
+     */
+    public RedisResult<Map<String, Long>> lSetBatch(Map<String, ? extends Collection<?>> values, long time) {
+        return pipelineWrite("lSetBatch", nonEmptyKeys(values), RPUSH_EXPIRE, (connection, key) ->
+                evalExpire(connection, RPUSH_EXPIRE, key, values.get(key), time));
+    }
+
+    /**
+     * 流水线执行写命令，每个键一条命令
+     */
+    private RedisResult<Map<String, Long>> pipelineWrite(String operation, Collection<String> keys,
+                                                         BiConsumer<RedisConnection, String> command) {
+        return pipelineWrite(operation, keys, null, command);
+    }
+
+    /**
+     * 流水线执行写命令，每个键一条命令
+     * 命令为EVALSHA时，流水线中无法即时退回EVAL：服务端未缓存脚本(NOSCRIPT)的键在加载脚本后重试一次
+     */
+    private RedisResult<Map<String, Long>> pipelineWrite(String operation, Collection<String> keys,
+                                                         RedisScript<Long> script,
+                                                         BiConsumer<RedisConnection, String> command) {
+        List<String> keyList = new ArrayList<>(keys);
+        if (keyList.isEmpty()) {
+            return RedisResult.success(new LinkedHashMap<>());
+        }
+        List<Object> results;
+        try {
+            results = executePipelined(keyList, command);
+            if (script != null) {
+                List<String> retryKeys = new ArrayList<>();
+                for (int i = 0; i < keyList.size() && i < results.size(); i++) {
+                    if (isNoScript(results.get(i))) {
+                        retryKeys.add(keyList.get(i));
+                    }
+                }
+                if (!retryKeys.isEmpty()) {
+                    this.redisTemplate.execute((RedisCallback<String>) connection ->
+                            connection.scriptingCommands().scriptLoad(scriptBytes(script)));
+                    List<Object> retried = executePipelined(retryKeys, command);
+                    results = new ArrayList<>(results);
+                    for (int i = 0, j = 0; i < keyList.size() && i < results.size(); i++) {
+                        if (isNoScript(results.get(i))) {
+                            results.set(i, j < retried.size() ? retried.get(j) : null);
+                            j++;
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            return fail(operation, keyList, e);
+        }
+        Map<String, Long> data = new LinkedHashMap<>();
+        List<String> failedKeys = new ArrayList<>();
+        Exception exception = null;
+        for (int i = 0; i < keyList.size(); i++) {
+            Object result = i < results.size() ? results.get(i) : null;
+            if (result instanceof Exception) {
+                failedKeys.add(keyList.get(i));
+                if (exception == null) {
+                    exception = (Exception) result;
+                }
+            } else {
+                data.put(keyList.get(i), toLong(result));
+            }
+        }
+        if (failedKeys.isEmpty()) {
+            return RedisResult.success(data);
+        }
+        LogUtil.error("redis批量操作" + operation + "部分失败: " + failedKeys, exception);
+        return RedisResult.partial(operation + "失败" + failedKeys.size() + "个键", data, failedKeys, exception);
+    }
+
+    private List<Object> executePipelined(List<String> keyList, BiConsumer<RedisConnection, String> command) {
+        try {
+            return this.redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String key : keyList) {
+                    command.accept(connection, key);
+                }
+                return null;
+            });
+        } catch (RedisPipelineException e) {
+            // 部分命令失败，失败命令的结果为异常
+            return e.getPipelineResult();
+        }
+    }
+
+    private Long evalExpire(RedisConnection connection, RedisScript<Long> script, String key, Collection<?> values, long time) {
+        byte[][] keysAndArgs = new byte[values.size() + 2][];
+        keysAndArgs[0] = rawKey(key);
+        keysAndArgs[1] = rawTime(time);
+        int i = 2;
+        for (Object value : values) {
+            keysAndArgs[i++] = rawValue(value);
+        }
+        return evalSha(connection, script, keysAndArgs);
+    }
+
+    private Long hmsetExpire(RedisConnection connection, String key, Map<String, Object> map, long time) {
+        if (map.isEmpty()) {
             return 0L;
         }
+        byte[][] keysAndArgs = new byte[map.size() * 2 + 2][];
+        keysAndArgs[0] = rawKey(key);
+        keysAndArgs[1] = rawTime(time);
+        int i = 2;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            keysAndArgs[i++] = rawHashKey(entry.getKey());
+            keysAndArgs[i++] = rawHashValue(entry.getValue());
+        }
+        return evalSha(connection, HMSET_EXPIRE, keysAndArgs);
+    }
+
+    /**
+     * 按SHA1执行已缓存的脚本，服务端未缓存时退回EVAL(同时缓存脚本)
+     * 流水线中命令结果延迟返回，NOSCRIPT由{@link #pipelineWrite(String, Collection, RedisScript, BiConsumer)}重试
+     */
+    private static Long evalSha(RedisConnection connection, RedisScript<Long> script, byte[][] keysAndArgs) {
+        try {
+            return connection.scriptingCommands().evalSha(script.getSha1(), ReturnType.INTEGER, 1, keysAndArgs);
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            return connection.scriptingCommands().eval(scriptBytes(script), ReturnType.INTEGER, 1, keysAndArgs);
+        }
+    }
+
+    private static boolean isNoScript(Object result) {
+        Throwable e = result instanceof Throwable ? (Throwable) result : null;
+        while (e != null) {
+            if (e.getMessage() != null && e.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+            e = e.getCause() == e ? null : e.getCause();
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawKey(String key) {
+        return ((RedisSerializer<String>) this.redisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawValue(Object value) {
+        return ((RedisSerializer<Object>) this.redisTemplate.getValueSerializer()).serialize(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawHashKey(String item) {
+        return ((RedisSerializer<String>) this.redisTemplate.getHashKeySerializer()).serialize(item);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawHashValue(Object value) {
+        return ((RedisSerializer<Object>) this.redisTemplate.getHashValueSerializer()).serialize(value);
+    }
+
+    /**
+     * 有效期参数(毫秒)
+     */
+    private static byte[] rawTime(long time) {
+        return String.valueOf(time > 0L ? TimeUnit.SECONDS.toMillis(time) : 0L).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static RedisScript<Long> script(String... lines) {
+        return new DefaultRedisScript<>(String.join("\n", lines), Long.class);
+    }
+
+    private static byte[] scriptBytes(RedisScript<Long> script) {
+        return script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long toLong(Object result) {
+        if (result instanceof Number) {
+            return ((Number) result).longValue();
+        }
+        if (result instanceof Boolean) {
+            return (Boolean) result ? 1L : 0L;
+        }
+        return 0L;
+    }
+
+    private static List<String> distinct(Collection<String> keys) {
+        return keys == null ? Collections.emptyList() : new ArrayList<>(new LinkedHashSet<>(keys));
+    }
+
+    private static List<String> nonEmptyKeys(Map<String, ? extends Collection<?>> values) {
+        List<String> keys = new ArrayList<>(values.size());
+        for (Map.Entry<String, ? extends Collection<?>> entry : values.entrySet()) {
+            if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+
+    private static <T> RedisResult<T> fail(String operation, Collection<String> keys, Exception e) {
+        LogUtil.error("redis批量操作" + operation + "异常: " + keys.size() + "个键", e);
+        return RedisResult.fail(operation + "异常: " + e.getMessage(), e);
     }
 }
@@ -0,0 +1,121 @@
+package com.changhong.sei.core.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * 实现功能：
+ * redis操作结果
+ * 批量操作部分失败时为失败结果，数据为成功的部分，失败的键见{@link #getFailedKeys()}
+ *
+ * @param <T> 数据类型
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:40
+ */
+public class RedisResult<T> implements Serializable {
+    private static final long serialVersionUID = -2236185934172620373L;
+
+    private final boolean success;
+    private final String message;
+    private final T data;
+    private final List<String> failedKeys;
+    private final transient Exception exception;
+
+    private RedisResult(boolean success, String message, T data, List<String> failedKeys, Exception exception) {
+        this.success = success;
+        this.message = message;
+        this.data = data;
+        this.failedKeys = failedKeys;
+        this.exception = exception;
+    }
+
+    /**
+     * 操作成功
+     *
+     * @param data 数据
+     * @param <T>  数据类型
+     * @return 操作结果
+     */
+    public static <T> RedisResult<T> success(T data) {
+        return new RedisResult<>(true, "", data, Collections.emptyList(), null);
+    }
+
+    /**
+     * 操作失败
+     *
+     * @param message   失败的消息
+     * @param exception 异常
+     * @param <T>       数据类型
+     * @return 操作结果
+     */
+    public static <T> RedisResult<T> fail(String message, Exception exception) {
+        return new RedisResult<>(false, message, null, Collections.emptyList(), exception);
+    }
+
+    /**
+     * 批量操作部分失败
+     *
+     * @param message    失败的消息
+     * @param data       成功部分的数据
+     * @param failedKeys 失败的键
+     * @param exception  第一个异常
+     * @param <T>        数据类型
+     * @return 操作结果
+     */
+    public static <T> RedisResult<T> partial(String message, T data, List<String> failedKeys, Exception exception) {
+        return new RedisResult<>(false, message, data, Collections.unmodifiableList(failedKeys), exception);
+    }
+
+    /**
+     * @return 操作成功
+     */
+    public boolean successful() {
+        return success;
+    }
+
+    /**
+     * @return 操作失败
+     */
+    public boolean failed() {
+        return !success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public T getData() {
+        return data;
+    }
+
+    /**
+     * 成功时返回数据，否则返回默认值
+     *
+     * @param other 默认值
+     * @return 数据
+     */
+    public T orElse(T other) {
+        return success && Objects.nonNull(data) ? data : other;
+    }
+
+    public List<String> getFailedKeys() {
+        return failedKeys;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", RedisResult.class.getSimpleName() + "[", "]")
+                .add("success=" + success)
+                .add("message='" + message + "'")
+                .add("data=" + data)
+                .add("failedKeys=" + failedKeys)
+                .toString();
+    }
+}
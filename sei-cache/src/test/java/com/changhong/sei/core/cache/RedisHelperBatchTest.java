@@ -0,0 +1,169 @@
+package com.changhong.sei.core.cache;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.*;
+
+/**
+ * 实现功能：
+ * redis批量操作(本地内嵌redis)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 14:30
+ */
+public class RedisHelperBatchTest {
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, Object> redisTemplate;
+    private static RedisHelper redisHelper;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        // 与RedisAutoConfiguration的序列化配置一致
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
+        redisTemplate.setDefaultSerializer(new JdkSerializationRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        redisHelper = new RedisHelper(redisTemplate);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Before
+    public void flush() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+    }
+
+    @Test
+    public void msetAndMget() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        Map<String, Long> times = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            values.put("k" + i, "v" + i);
+            if (i % 2 == 0) {
+                times.put("k" + i, 100L);
+            }
+        }
+        RedisResult<Map<String, Long>> written = redisHelper.mset(values, times);
+        Assert.assertTrue(written.successful());
+        Assert.assertEquals(10, written.getData().size());
+        Assert.assertTrue(redisHelper.getExpire("k0") > 0);
+        Assert.assertEquals(-1L, redisHelper.getExpire("k1"));
+
+        RedisResult<Map<String, Object>> result = redisHelper.mget(Arrays.asList("k0", "k3", "missing"));
+        Assert.assertTrue(result.successful());
+        Assert.assertEquals(2, result.getData().size());
+        Assert.assertEquals("v3", result.getData().get("k3"));
+    }
+
+    @Test
+    public void hashBatchRead() {
+        Map<String, Object> hash = new HashMap<>();
+        hash.put("a", 1);
+        hash.put("b", 2);
+        Assert.assertTrue(redisHelper.hmset("h1", hash, 100));
+        Assert.assertTrue(redisHelper.getExpire("h1") > 0);
+        Assert.assertTrue(redisHelper.hset("h2", "c", 3, 100));
+
+        RedisResult<Map<String, Map<Object, Object>>> all = redisHelper.hmgetAll(Arrays.asList("h1", "h2", "h3"));
+        Assert.assertTrue(all.successful());
+        Assert.assertEquals(2, all.getData().size());
+        Assert.assertEquals(2, all.getData().get("h1").get("b"));
+
+        RedisResult<Map<String, Object>> items = redisHelper.hmget("h1", Arrays.asList("a", "x"));
+        Assert.assertEquals(Collections.singletonMap("a", 1), items.getData());
+    }
+
+    @Test
+    public void setAndListBulkWrite() {
+        Assert.assertEquals(3L, redisHelper.sSetAndTime("s0", 100, "a", "b", "c"));
+        Assert.assertTrue(redisHelper.getExpire("s0") > 0);
+
+        Map<String, List<Object>> values = new LinkedHashMap<>();
+        List<Object> members = new ArrayList<>();
+        // 超过脚本单次展开的参数上限
+        for (int i = 0; i < 2500; i++) {
+            members.add("m" + i);
+        }
+        values.put("s1", members);
+        values.put("s2", Arrays.asList("x", "y", "x"));
+        RedisResult<Map<String, Long>> sets = redisHelper.sSetBatch(values, 100);
+        Assert.assertTrue(sets.successful());
+        Assert.assertEquals(Long.valueOf(2500), sets.getData().get("s1"));
+        Assert.assertEquals(Long.valueOf(2), sets.getData().get("s2"));
+        Assert.assertTrue(redisHelper.getExpire("s1") > 0);
+
+        RedisResult<Map<String, Long>> lists = redisHelper.lSetBatch(values, 0);
+        Assert.assertTrue(lists.successful());
+        Assert.assertEquals(Long.valueOf(3), lists.getData().get("s2"));
+    }
+
+    @Test
+    public void typedFailure() {
+        // 类型错误(对字符串执行SADD)
+        redisHelper.set("str", "value");
+        Map<String, List<Object>> values = new LinkedHashMap<>();
+        values.put("str", Collections.singletonList("a"));
+        values.put("ok", Collections.singletonList("b"));
+        RedisResult<Map<String, Long>> result = redisHelper.sSetBatch(values, 100);
+        Assert.assertTrue(result.failed());
+        Assert.assertEquals(Collections.singletonList("str"), result.getFailedKeys());
+        Assert.assertEquals(Long.valueOf(1), result.getData().get("ok"));
+        Assert.assertNotNull(result.getException());
+    }
+
+    @Test
+    public void scriptCacheFlushed() {
+        // 服务端脚本缓存被清空(重启或SCRIPT FLUSH)后，单个写入退回EVAL，流水线写入加载脚本后重试
+        redisTemplate.execute(connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        }, true);
+        Assert.assertTrue(redisHelper.hset("h", "a", 1, 100));
+        Assert.assertTrue(redisHelper.getExpire("h") > 0);
+
+        redisTemplate.execute(connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        }, true);
+        Map<String, List<Object>> values = new LinkedHashMap<>();
+        values.put("s1", Arrays.asList("a", "b"));
+        values.put("s2", Collections.singletonList("c"));
+        RedisResult<Map<String, Long>> result = redisHelper.sSetBatch(values, 100);
+        Assert.assertTrue(result.successful());
+        Assert.assertEquals(Long.valueOf(2), result.getData().get("s1"));
+        Assert.assertEquals(Long.valueOf(1), result.getData().get("s2"));
+        Assert.assertTrue(redisHelper.getExpire("s2") > 0);
+    }
+}
@@ -1,11 +1,15 @@
 package com.changhong.sei.core.config;
 
 import com.changhong.sei.core.config.properties.global.GlobalProperties;
+import com.changhong.sei.core.config.properties.http.HttpClientProperties;
 import com.changhong.sei.core.config.properties.mock.MockUserProperties;
 import com.changhong.sei.core.context.ApplicationContextHolder;
 import com.changhong.sei.core.context.ApplicationReadyEventListener;
+import com.changhong.sei.core.context.SessionUserTokenCache;
 import com.changhong.sei.core.context.mock.LocalMockUser;
 import com.changhong.sei.core.context.mock.MockUser;
+import com.changhong.sei.core.util.HttpClientPool;
+import com.changhong.sei.core.util.HttpUtils;
 import com.changhong.sei.core.util.JwtTokenUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.validator.HibernateValidator;
@@ -35,7 +39,7 @@ import java.util.Locale;
 @AutoConfigureOrder(Ordered.HIGHEST_PRECEDENCE)
 @Configuration
 @EnableAspectJAutoProxy
-@EnableConfigurationProperties({GlobalProperties.class, MockUserProperties.class})
+@EnableConfigurationProperties({GlobalProperties.class, MockUserProperties.class, HttpClientProperties.class})
 public class DefaultAutoConfiguration {
     public static final String SEI_CONTEXT_BEAN_NAME = "seiContext";
 
@@ -75,6 +79,30 @@ public class DefaultAutoConfiguration {
         return jwtTokenUtil;
     }
 
+    /**
+     * 已验证token缓存
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SessionUserTokenCache sessionUserTokenCache(JwtTokenUtil jwtTokenUtil, Environment env) {
+        // 最大缓存数
+        int maximumSize = env.getProperty("sei.security.jwt.cache.maximum-size", Integer.class, SessionUserTokenCache.DEFAULT_MAXIMUM_SIZE);
+        // 最长缓存时间（秒）
+        long ttl = env.getProperty("sei.security.jwt.cache.ttl", Long.class, SessionUserTokenCache.DEFAULT_TTL);
+        return new SessionUserTokenCache(jwtTokenUtil, maximumSize, ttl);
+    }
+
+    /**
+     * HttpUtils共享连接池
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public HttpClientPool httpClientPool(HttpClientProperties properties) {
+        HttpClientPool pool = new HttpClientPool(properties);
+        HttpUtils.setPool(pool);
+        return pool;
+    }
+
 //    @Bean
 //    @Primary
 //    public ObjectMapper jacksonObjectMapper() {
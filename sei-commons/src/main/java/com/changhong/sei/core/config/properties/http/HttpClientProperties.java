@@ -0,0 +1,125 @@
+package com.changhong.sei.core.config.properties.http;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 实现功能：
+ * HttpUtils共享连接池配置
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:15
+ */
+@ConfigurationProperties("sei.http.client")
+public class HttpClientProperties {
+    /**
+     * 连接池最大连接数
+     */
+    private int maxTotal = 128;
+    /**
+     * 每个路由默认最大连接数
+     */
+    private int defaultMaxPerRoute = 128;
+    /**
+     * 指定路由最大连接数，key为路由地址(如 https://host:port)
+     */
+    private Map<String, Integer> maxPerRoute = new LinkedHashMap<>();
+    /**
+     * 服务端未指定Keep-Alive时连接保持时间（毫秒）
+     */
+    private long keepAlive = 30 * 1000;
+    /**
+     * 空闲连接回收时间（毫秒）
+     */
+    private long maxIdleTime = 60 * 1000;
+    /**
+     * 连接空闲多久后复用前需校验（毫秒）
+     */
+    private int validateAfterInactivity = 2000;
+    /**
+     * 从连接池获取连接的超时时间（毫秒），连接池耗尽时等待超过该时间抛出ConnectionPoolTimeoutException
+     */
+    private int connectionRequestTimeout = 10 * 1000;
+    /**
+     * 异步请求线程数
+     */
+    private int asyncThreads = 16;
+    /**
+     * 异步请求队列大小，队列已满时异步请求以RejectedExecutionException失败
+     */
+    private int asyncQueueCapacity = 1000;
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getDefaultMaxPerRoute() {
+        return defaultMaxPerRoute;
+    }
+
+    public void setDefaultMaxPerRoute(int defaultMaxPerRoute) {
+        this.defaultMaxPerRoute = defaultMaxPerRoute;
+    }
+
+    public Map<String, Integer> getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(Map<String, Integer> maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(long keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public int getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(int validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public int getAsyncThreads() {
+        return asyncThreads;
+    }
+
+    public void setAsyncThreads(int asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+
+    public int getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    public void setAsyncQueueCapacity(int asyncQueueCapacity) {
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+}
@@ -1,6 +1,5 @@
 package com.changhong.sei.core.context;
 
-import com.changhong.sei.core.BaseVersion;
 import com.changhong.sei.core.Version;
 import com.changhong.sei.core.commoms.constant.Constants;
 import com.changhong.sei.core.log.LogUtil;
@@ -12,8 +11,6 @@ import com.changhong.sei.util.IdGenerator;
 import com.changhong.sei.util.thread.ThreadLocalUtil;
 import io.jsonwebtoken.Claims;
 import org.apache.commons.lang3.StringUtils;
-import org.reflections.Reflections;
-import org.reflections.scanners.SubTypesScanner;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -41,7 +38,6 @@ public final class ContextUtil implements Constants {
      */
     private static volatile Version currentVersion = null;
     private static volatile Version platformVersion = null;
-    private static Set<Version> versionSet;
 
     /**
      * 获取当前用户的Id
@@ -267,9 +263,6 @@ public final class ContextUtil implements Constants {
     }
 
     public static SessionUser getSessionUser(String token) throws Exception {
-        SessionUser sessionUser = new SessionUser();
-        sessionUser.setToken(token);
-
         if (StringUtils.isNotBlank(token)) {
             JwtTokenUtil jwtTokenUtil;
             try {
@@ -279,19 +272,53 @@ public final class ContextUtil implements Constants {
             }
 
             Claims claims = jwtTokenUtil.getClaimFromToken(token);
-            //sessionUser.setSessionId(jwtTokenUtil.getRandomKeyFromToken(token));
-            sessionUser.setSessionId(claims.get(JwtTokenUtil.RANDOM_KEY, String.class));
-            sessionUser.setTenantCode(claims.get("tenant", String.class));
-            sessionUser.setAccount(claims.get("account", String.class));
-            String loginAccount = claims.get("loginAccount", String.class);
-            sessionUser.setLoginAccount(StringUtils.isBlank(loginAccount) ? sessionUser.getAccount() : loginAccount);
-            sessionUser.setUserId(claims.get("userId", String.class));
-            sessionUser.setUserName(claims.get("userName", String.class));
-            sessionUser.setUserType(EnumUtils.getEnum(UserType.class, (String) claims.get("userType")));
-            sessionUser.setLocale(claims.get("locale", String.class));
-            sessionUser.setAuthorityPolicy(EnumUtils.getEnum(UserAuthorityPolicy.class, (String) claims.get("authorityPolicy")));
-            sessionUser.setIp(claims.get("ip", String.class));
+            return getSessionUser(claims, token);
+        } else {
+            SessionUser sessionUser = new SessionUser();
+            sessionUser.setToken(token);
+            return sessionUser;
+        }
+    }
+
+    /**
+     * 注销token(用户登出或token失效时调用)
+     * 当前服务的已验证token缓存在token过期前不再认可该token
+     *
+     * @param token token
+     */
+    public static void revokeToken(String token) {
+        SessionUserTokenCache tokenCache;
+        try {
+            tokenCache = ApplicationContextHolder.getBean(SessionUserTokenCache.class);
+        } catch (Exception e) {
+            // 未启用已验证token缓存
+            return;
         }
+        tokenCache.revoke(token);
+    }
+
+    /**
+     * 由已验证的token claims构建会话用户
+     *
+     * @param claims token的payload部分
+     * @param token  token
+     * @return 返回会话用户
+     */
+    public static SessionUser getSessionUser(Claims claims, String token) {
+        SessionUser sessionUser = new SessionUser();
+        sessionUser.setToken(token);
+        //sessionUser.setSessionId(jwtTokenUtil.getRandomKeyFromToken(token));
+        sessionUser.setSessionId(claims.get(JwtTokenUtil.RANDOM_KEY, String.class));
+        sessionUser.setTenantCode(claims.get("tenant", String.class));
+        sessionUser.setAccount(claims.get("account", String.class));
+        String loginAccount = claims.get("loginAccount", String.class);
+        sessionUser.setLoginAccount(StringUtils.isBlank(loginAccount) ? sessionUser.getAccount() : loginAccount);
+        sessionUser.setUserId(claims.get("userId", String.class));
+        sessionUser.setUserName(claims.get("userName", String.class));
+        sessionUser.setUserType(EnumUtils.getEnum(UserType.class, (String) claims.get("userType")));
+        sessionUser.setLocale(claims.get("locale", String.class));
+        sessionUser.setAuthorityPolicy(EnumUtils.getEnum(UserAuthorityPolicy.class, (String) claims.get("authorityPolicy")));
+        sessionUser.setIp(claims.get("ip", String.class));
         return sessionUser;
     }
 
@@ -428,28 +455,16 @@ public final class ContextUtil implements Constants {
     }
 
     /**
-     * 获取依赖版本
+     * 获取依赖版本(首次调用时读取版本索引，只加载一次)
      */
     public static Set<Version> getDependVersions() {
-        if (versionSet == null) {
-            versionSet = new HashSet<>();
-        }
-        if (versionSet.isEmpty()) {
-            Version version;
-            Reflections reflections = new Reflections("com.changhong", new SubTypesScanner(true));
-            Set<Class<? extends BaseVersion>> allClasses = reflections.getSubTypesOf(BaseVersion.class);
-            for (Class<? extends BaseVersion> clazz : allClasses) {
-                try {
-                    version = clazz.newInstance();
-                } catch (InstantiationException | IllegalAccessException e) {
-                    version = null;
-                    LogUtil.error("读取应用版本异常", e);
-                }
-                if (Objects.nonNull(version) && !Objects.equals(Version.UNDEFINED, version.getName())) {
-                    versionSet.add(version);
-                }
-            }
-        }
-        return versionSet;
+        return DependVersionsHolder.VERSIONS;
+    }
+
+    /**
+     * 依赖版本(类初始化保证只加载一次且线程安全)
+     */
+    private static final class DependVersionsHolder {
+        private static final Set<Version> VERSIONS = VersionIndex.load();
     }
 }
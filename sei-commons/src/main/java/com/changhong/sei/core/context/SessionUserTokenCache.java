@@ -0,0 +1,284 @@
+package com.changhong.sei.core.context;
+
+import com.changhong.sei.core.util.JwtTokenUtil;
+import com.changhong.sei.enums.UserAuthorityPolicy;
+import com.changhong.sei.enums.UserType;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 实现功能：
+ * 已验证token缓存
+ * 同一token在有效期内只做一次签名验证及claims解析，缓存以token摘要为key，按token的exp过期，支持主动注销
+ * 缓存项记录验证时的签名密钥，密钥变更后已缓存的token重新验证
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:40
+ */
+public class SessionUserTokenCache implements MeterBinder {
+    /**
+     * 默认最大缓存数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+    /**
+     * 默认最长缓存时间(秒)
+     */
+    public static final long DEFAULT_TTL = 600;
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final int maximumSize;
+    private final long ttlMillis;
+
+    /**
+     * 已验证的token
+     */
+    private final Map<String, CachedUser> cache = new ConcurrentHashMap<>();
+    /**
+     * 已注销的token及其过期时间
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder verifyCount = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+
+    public SessionUserTokenCache(JwtTokenUtil jwtTokenUtil) {
+        this(jwtTokenUtil, DEFAULT_MAXIMUM_SIZE, DEFAULT_TTL);
+    }
+
+    /**
+     * @param jwtTokenUtil jwt工具
+     * @param maximumSize  最大缓存数
+     * @param ttl          最长缓存时间(秒)，token剩余有效期更短时以token为准
+     */
+    public SessionUserTokenCache(JwtTokenUtil jwtTokenUtil, int maximumSize, long ttl) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.maximumSize = maximumSize;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttl);
+    }
+
+    /**
+     * 获取token对应的会话用户
+     * 每次返回新的会话用户实例，调用方修改不会影响缓存
+     *
+     * @param token token
+     * @return 返回会话用户
+     * @throws Exception token不合法、已过期或已注销
+     */
+    public SessionUser getSessionUser(String token) throws Exception {
+        if (StringUtils.isBlank(token)) {
+            return ContextUtil.getSessionUser(token);
+        }
+        String key = DigestUtils.sha256Hex(token);
+        long now = System.currentTimeMillis();
+        if (!revoked.isEmpty()) {
+            Long revokedUntil = revoked.get(key);
+            if (revokedUntil != null) {
+                if (revokedUntil > now) {
+                    throw new JwtException("token已注销");
+                }
+                revoked.remove(key, revokedUntil);
+            }
+        }
+
+        String secret = jwtTokenUtil.getJwtSecret();
+        CachedUser cachedUser = cache.get(key);
+        if (cachedUser != null) {
+            if (cachedUser.expiresAt > now && StringUtils.equals(cachedUser.secret, secret)) {
+                hitCount.increment();
+                return cachedUser.toSessionUser(token);
+            }
+            cache.remove(key, cachedUser);
+        }
+        missCount.increment();
+
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = jwtTokenUtil.getClaimFromToken(token);
+        } finally {
+            verifyCount.increment();
+            verifyNanos.add(System.nanoTime() - start);
+        }
+        SessionUser sessionUser = ContextUtil.getSessionUser(claims, token);
+
+        long expiresAt = now + ttlMillis;
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            expiresAt = Math.min(expiresAt, expiration.getTime());
+        }
+        if (cache.size() >= maximumSize) {
+            evict(now);
+        }
+        cache.put(key, new CachedUser(sessionUser, secret, expiresAt));
+        return sessionUser;
+    }
+
+    /**
+     * 注销token，在token过期前再次使用将认证失败(用户登出时通过{@link ContextUtil#revokeToken(String)}调用)
+     *
+     * @param token token
+     */
+    public void revoke(String token) {
+        if (StringUtils.isBlank(token)) {
+            return;
+        }
+        String key = DigestUtils.sha256Hex(token);
+        long revokedUntil = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(jwtTokenUtil.getJwtExpiration());
+        try {
+            Date expiration = jwtTokenUtil.getExpirationDateFromToken(token);
+            if (expiration != null) {
+                revokedUntil = expiration.getTime();
+            }
+        } catch (Exception ignored) {
+            // token不合法或已过期，按最长有效期注销
+        }
+        revoked.put(key, revokedUntil);
+        cache.remove(key);
+    }
+
+    /**
+     * 清空已验证token缓存(不影响已注销的token)
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 清理过期缓存，仍超出最大缓存数时随机淘汰十分之一
+     */
+    private void evict(long now) {
+        cache.values().removeIf(cachedUser -> cachedUser.expiresAt <= now);
+        revoked.values().removeIf(revokedUntil -> revokedUntil <= now);
+        if (cache.size() < maximumSize) {
+            return;
+        }
+        int overflow = cache.size() - maximumSize + Math.max(1, maximumSize / 10);
+        Iterator<String> iterator = cache.keySet().iterator();
+        while (overflow-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return 返回缓存命中率
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getVerifyCount() {
+        return verifyCount.sum();
+    }
+
+    /**
+     * @return 返回签名验证累计耗时(纳秒)
+     */
+    public long getVerifyNanos() {
+        return verifyNanos.sum();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sei.session.token.cache", this, SessionUserTokenCache::getHitCount)
+                .tag("result", "hit")
+                .description("已验证token缓存命中次数")
+                .register(registry);
+        FunctionCounter.builder("sei.session.token.cache", this, SessionUserTokenCache::getMissCount)
+                .tag("result", "miss")
+                .description("已验证token缓存未命中次数")
+                .register(registry);
+        Gauge.builder("sei.session.token.cache.hit.rate", this, SessionUserTokenCache::getHitRate)
+                .description("已验证token缓存命中率")
+                .register(registry);
+        Gauge.builder("sei.session.token.cache.size", this, SessionUserTokenCache::size)
+                .description("已验证token缓存数")
+                .register(registry);
+        FunctionTimer.builder("sei.session.token.verify", this,
+                SessionUserTokenCache::getVerifyCount, SessionUserTokenCache::getVerifyNanos, TimeUnit.NANOSECONDS)
+                .description("token签名验证及解析耗时")
+                .register(registry);
+    }
+
+    /**
+     * 缓存的会话用户，不可变
+     */
+    private static final class CachedUser {
+        private final String sessionId;
+        private final String userId;
+        private final String account;
+        private final String loginAccount;
+        private final String userName;
+        private final String tenantCode;
+        private final UserType userType;
+        private final UserAuthorityPolicy authorityPolicy;
+        private final String ip;
+        private final String locale;
+        /**
+         * 验证时的签名密钥
+         */
+        private final String secret;
+        private final long expiresAt;
+
+        private CachedUser(SessionUser user, String secret, long expiresAt) {
+            this.sessionId = user.getSessionId();
+            this.userId = user.getUserId();
+            this.account = user.getAccount();
+            this.loginAccount = user.getLoginAccount();
+            this.userName = user.getUserName();
+            this.tenantCode = user.getTenantCode();
+            this.userType = user.getUserType();
+            this.authorityPolicy = user.getAuthorityPolicy();
+            this.ip = user.getIp();
+            this.locale = user.getLocale();
+            this.secret = secret;
+            this.expiresAt = expiresAt;
+        }
+
+        private SessionUser toSessionUser(String token) {
+            SessionUser user = new SessionUser();
+            user.setToken(token);
+            user.setSessionId(sessionId);
+            user.setUserId(userId);
+            user.setAccount(account);
+            user.setLoginAccount(loginAccount);
+            user.setUserName(userName);
+            user.setTenantCode(tenantCode);
+            user.setUserType(userType);
+            user.setAuthorityPolicy(authorityPolicy);
+            user.setIp(ip);
+            user.setLocale(locale);
+            return user;
+        }
+    }
+}
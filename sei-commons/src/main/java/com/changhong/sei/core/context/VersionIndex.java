@@ -0,0 +1,151 @@
+package com.changhong.sei.core.context;
+
+import com.changhong.sei.core.BaseVersion;
+import com.changhong.sei.core.Version;
+import com.changhong.sei.core.log.LogUtil;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 实现功能：
+ * 读取依赖版本
+ * 优先读取编译期生成的版本索引({@link #INDEX_LOCATION}，由sei-core-processor模块的VersionIndexProcessor生成)，
+ * 只有没有索引的classpath根路径(如旧版本的jar、未启用处理器的应用)才使用Reflections扫描。
+ * sei-core的各模块编译时均已生成索引；应用模块启用索引需在编译期引用处理器：
+ * <pre>
+ * // gradle
+ * annotationProcessor "com.changhong.sei:sei-core-processor:$sei_version"
+ * // maven: maven-compiler-plugin的annotationProcessorPaths中加入
+ * // com.changhong.sei:sei-core-processor(同时列出其他已使用的处理器，如lombok)
+ * </pre>
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 14:40
+ */
+final class VersionIndex {
+    /**
+     * 索引文件位置(与VersionIndexProcessor.INDEX_LOCATION一致)
+     */
+    static final String INDEX_LOCATION = "META-INF/sei/versions";
+    private static final String BASE_PACKAGE = "com.changhong";
+
+    private VersionIndex() {
+    }
+
+    /**
+     * 加载依赖版本
+     *
+     * @return 依赖版本(不可修改)
+     */
+    static Set<Version> load() {
+        long start = System.currentTimeMillis();
+        ClassLoader classLoader = getClassLoader();
+
+        Set<String> classNames = new LinkedHashSet<>();
+        Set<String> indexedRoots = new HashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                readIndex(url, classNames);
+                String location = url.toExternalForm();
+                indexedRoots.add(normalize(location.substring(0, location.length() - INDEX_LOCATION.length())));
+            }
+        } catch (IOException e) {
+            LogUtil.error("读取版本索引异常", e);
+        }
+
+        Set<Version> versions = new HashSet<>();
+        for (String className : classNames) {
+            try {
+                Class<?> clazz = Class.forName(className, true, classLoader);
+                if (BaseVersion.class.isAssignableFrom(clazz)) {
+                    addVersion(versions, clazz.asSubclass(BaseVersion.class));
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                // 增量编译后残留的类名
+                LogUtil.debug("版本索引中的类不存在: {}", className);
+            }
+        }
+
+        // 没有索引的根路径
+        List<URL> unindexed = new ArrayList<>();
+        for (URL url : ClasspathHelper.forPackage(BASE_PACKAGE, classLoader)) {
+            if (!indexedRoots.contains(normalize(url.toExternalForm()))) {
+                unindexed.add(url);
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            Reflections reflections = new Reflections(new ConfigurationBuilder()
+                    .setUrls(unindexed)
+                    .addClassLoader(classLoader)
+                    .filterInputsBy(new FilterBuilder().includePackage(BASE_PACKAGE))
+                    .setScanners(new SubTypesScanner(true)));
+            for (Class<? extends BaseVersion> clazz : reflections.getSubTypesOf(BaseVersion.class)) {
+                addVersion(versions, clazz);
+            }
+        }
+        LogUtil.info("加载依赖版本{}个, 索引{}个, 扫描{}个路径, 耗时{}ms",
+                versions.size(), classNames.size(), unindexed.size(), System.currentTimeMillis() - start);
+        return Collections.unmodifiableSet(versions);
+    }
+
+    private static void addVersion(Set<Version> versions, Class<? extends BaseVersion> clazz) {
+        Version version;
+        try {
+            version = clazz.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            version = null;
+            LogUtil.error("读取应用版本异常", e);
+        }
+        if (Objects.nonNull(version) && !Objects.equals(Version.UNDEFINED, version.getName())) {
+            versions.add(version);
+        }
+    }
+
+    private static void readIndex(URL url, Set<String> classNames) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    classNames.add(line);
+                }
+            }
+        } catch (IOException e) {
+            LogUtil.error("读取版本索引异常: " + url, e);
+        }
+    }
+
+    /**
+     * 统一根路径格式：jar:file:/a.jar!/ 与 file:/a.jar 视为同一路径
+     */
+    private static String normalize(String root) {
+        String path = root;
+        if (path.startsWith("jar:")) {
+            path = path.substring(4);
+        }
+        if (path.endsWith("!/")) {
+            path = path.substring(0, path.length() - 2);
+        }
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path;
+    }
+
+    private static ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader == null ? VersionIndex.class.getClassLoader() : classLoader;
+    }
+}
@@ -0,0 +1,148 @@
+package com.changhong.sei.core.context.async;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 实现功能：
+ * 异步任务线程池监控指标
+ * 任务提交时包装一次，统计排队数、执行中任务数、拒绝(由调用线程执行)次数、排队等待时间及执行时间
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 16:05
+ */
+public class AsyncTaskMetrics implements MeterBinder {
+    /**
+     * 执行模式(pool、virtual、work-stealing)，创建时确定，注册指标后不再变化
+     */
+    private final String mode;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+
+    public AsyncTaskMetrics() {
+        this(ThreadPoolTaskConfig.MODE_POOL);
+    }
+
+    /**
+     * @param mode 执行模式(作为指标的mode标签)
+     */
+    public AsyncTaskMetrics(String mode) {
+        this.mode = mode;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * 包装任务(提交时调用)
+     *
+     * @param task 任务
+     * @return 统计排队及执行时间的任务
+     */
+    public Runnable wrap(Runnable task) {
+        final long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+        return () -> {
+            long startedAt = System.nanoTime();
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            waitNanos.add(startedAt - submittedAt);
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                executionNanos.add(System.nanoTime() - startedAt);
+                completedCount.increment();
+            }
+        };
+    }
+
+    /**
+     * 已包装的任务未能提交
+     */
+    void abandoned() {
+        queued.decrementAndGet();
+    }
+
+    /**
+     * 任务被拒绝(由调用线程执行)
+     */
+    public void rejected() {
+        rejectedCount.increment();
+    }
+
+    /**
+     * @return 已提交尚未开始执行的任务数
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return 正在执行的任务数
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * @return 累计排队等待时间(纳秒)
+     */
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * @return 累计执行时间(纳秒)
+     */
+    public long getExecutionNanos() {
+        return executionNanos.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sei.async.executor.queued", this, AsyncTaskMetrics::getQueued)
+                .tag("mode", mode)
+                .description("已提交尚未开始执行的异步任务数")
+                .register(registry);
+        Gauge.builder("sei.async.executor.active", this, AsyncTaskMetrics::getActive)
+                .tag("mode", mode)
+                .description("正在执行的异步任务数")
+                .register(registry);
+        FunctionCounter.builder("sei.async.executor.rejected", this, AsyncTaskMetrics::getRejectedCount)
+                .tag("mode", mode)
+                .description("异步任务被拒绝由调用线程执行的次数")
+                .register(registry);
+        FunctionTimer.builder("sei.async.executor.wait", this,
+                AsyncTaskMetrics::getCompletedCount, AsyncTaskMetrics::getWaitNanos, TimeUnit.NANOSECONDS)
+                .tag("mode", mode)
+                .description("异步任务排队等待时间")
+                .register(registry);
+        FunctionTimer.builder("sei.async.executor.execution", this,
+                AsyncTaskMetrics::getCompletedCount, AsyncTaskMetrics::getExecutionNanos, TimeUnit.NANOSECONDS)
+                .tag("mode", mode)
+                .description("异步任务执行时间")
+                .register(registry);
+    }
+}
@@ -1,25 +1,48 @@
 package com.changhong.sei.core.context.async;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 实现功能：线程池配置
  * 默认情况下，在创建了线程池后，线程池中的线程数为0，当有任务来之后，就会创建一个线程去执行任务，
  * 当线程池中的线程数目达到corePoolSize后，就会把到达的任务放到缓存队列当中；
  * 当队列满了，就继续创建线程，当线程数量大于等于maxPoolSize后，开始使用拒绝策略拒绝
+ * sei.asyc-task.mode=virtual时使用虚拟线程执行(JDK不支持时退化为并行数为maxPoolSize的work-stealing线程池)，
+ * 同时执行的任务数超过maxConcurrency后由调用线程执行
  *
  * @author 马超(Vision.Mac)
  * @version 1.0.00  2020-03-10 00:23
  */
 @Configuration
 @EnableAsync
-public class ThreadPoolTaskConfig implements AsyncConfigurer {
+public class ThreadPoolTaskConfig implements AsyncConfigurer, DisposableBean {
+    /**
+     * 固定线程池模式(默认)
+     */
+    public static final String MODE_POOL = "pool";
+    /**
+     * 虚拟线程模式
+     */
+    public static final String MODE_VIRTUAL = "virtual";
+    /**
+     * 虚拟线程模式在不支持虚拟线程的JDK上退化为work-stealing线程池
+     */
+    public static final String MODE_WORK_STEALING = "work-stealing";
+
+    /**
+     * 执行模式：pool、virtual
+     */
+    @Value("${sei.asyc-task.mode:pool}")
+    private String mode;
 
     /**
      * 核心线程数（默认线程数）线程池维护线程的最小数量
@@ -46,13 +69,60 @@ public class ThreadPoolTaskConfig implements AsyncConfigurer {
      */
     @Value("${sei.asyc-task.threadNamePrefix:SEI-Executor-}")
     private String threadNamePrefix;
+    /**
+     * 虚拟线程模式下同时执行(含排队)的最大任务数
+     */
+    @Value("${sei.asyc-task.maxConcurrency:10000}")
+    private int maxConcurrency;
+    /**
+     * 关闭时等待任务执行完成的时间(秒)
+     */
+    @Value("${sei.asyc-task.awaitTerminationSeconds:30}")
+    private int awaitTerminationSeconds;
+
+    private AsyncTaskMetrics metrics;
+    private Executor asyncExecutor;
+
+    /**
+     * 异步任务执行器监控指标
+     * 执行模式在注册指标前确定(虚拟线程模式按JDK是否支持虚拟线程区分virtual和work-stealing)
+     */
+    @Bean
+    public synchronized AsyncTaskMetrics asyncTaskMetrics() {
+        if (metrics == null) {
+            metrics = new AsyncTaskMetrics(resolveMode());
+        }
+        return metrics;
+    }
+
+    /**
+     * @return 实际的执行模式
+     */
+    private String resolveMode() {
+        if (!MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            return MODE_POOL;
+        }
+        return VirtualThreadTaskExecutor.isVirtualThreadSupported() ? MODE_VIRTUAL : MODE_WORK_STEALING;
+    }
 
     /**
      * The {@link Executor} instance to be used when processing async
      * method invocations.
      */
     @Override
-    public Executor getAsyncExecutor() {
+    public synchronized Executor getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            AsyncTaskMetrics taskMetrics = asyncTaskMetrics();
+            if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+                asyncExecutor = VirtualThreadTaskExecutor.create(threadNamePrefix, maxPoolSize, maxConcurrency, taskMetrics);
+            } else {
+                asyncExecutor = createThreadPoolExecutor(taskMetrics);
+            }
+        }
+        return asyncExecutor;
+    }
+
+    private Executor createThreadPoolExecutor(AsyncTaskMetrics metrics) {
         CustomThreadPoolTaskExecutor executor = new CustomThreadPoolTaskExecutor();
         executor.setCorePoolSize(corePoolSize);
         executor.setMaxPoolSize(maxPoolSize);
@@ -64,11 +134,24 @@ public class ThreadPoolTaskConfig implements AsyncConfigurer {
 
         // 增加 TaskDecorator 属性的配置
         //executor.setTaskDecorator(new ContextTaskDecorator());
+        // 统计排队及执行时间
+        executor.setTaskDecorator(metrics::wrap);
 
         // 线程池对拒绝任务的处理策略 CallerRunsPolicy：由调用线程（提交任务的线程）处理该任务
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        final ThreadPoolExecutor.CallerRunsPolicy callerRunsPolicy = new ThreadPoolExecutor.CallerRunsPolicy();
+        executor.setRejectedExecutionHandler((runnable, threadPoolExecutor) -> {
+            metrics.rejected();
+            callerRunsPolicy.rejectedExecution(runnable, threadPoolExecutor);
+        });
         // 初始化
         executor.initialize();
         return executor;
     }
+
+    @Override
+    public synchronized void destroy() {
+        if (asyncExecutor instanceof VirtualThreadTaskExecutor) {
+            ((VirtualThreadTaskExecutor) asyncExecutor).shutdown(awaitTerminationSeconds, TimeUnit.SECONDS);
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package com.changhong.sei.core.context.async;
+
+import com.alibaba.ttl.TtlRunnable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实现功能：
+ * 虚拟线程异步任务执行器
+ * JDK支持虚拟线程时每个任务使用一个虚拟线程执行(阻塞IO不占用平台线程)，否则退化为有界的work-stealing线程池；
+ * 同时执行(含排队)的任务数超过上限时由调用线程执行。任务通过TransmittableThreadLocal传递上下文
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 16:20
+ */
+public class VirtualThreadTaskExecutor extends TaskExecutorAdapter {
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadTaskExecutor.class);
+
+    private final ExecutorService executorService;
+    private final boolean virtual;
+
+    private VirtualThreadTaskExecutor(ExecutorService executorService, boolean virtual,
+                                      int maxConcurrency, AsyncTaskMetrics metrics) {
+        super(new LimitedExecutor(executorService, new Semaphore(maxConcurrency), metrics));
+        this.executorService = executorService;
+        this.virtual = virtual;
+    }
+
+    /**
+     * @return 当前JDK是否支持虚拟线程(JDK 21+)
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            // JDK 19/20未启用预览特性时调用会抛出异常
+            Thread.class.getMethod("ofVirtual").invoke(null);
+            return true;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 创建执行器
+     *
+     * @param threadNamePrefix 线程名前缀
+     * @param parallelism      不支持虚拟线程时work-stealing线程池的并行数
+     * @param maxConcurrency   同时执行(含排队)的最大任务数
+     * @param metrics          监控指标(执行模式应与{@link #isVirtualThreadSupported()}一致)
+     * @return 执行器
+     */
+    public static VirtualThreadTaskExecutor create(String threadNamePrefix, int parallelism,
+                                                   int maxConcurrency, AsyncTaskMetrics metrics) {
+        ExecutorService virtualExecutor = isVirtualThreadSupported() ? newVirtualThreadExecutor(threadNamePrefix) : null;
+        if (virtualExecutor != null) {
+            LOG.info("异步任务使用虚拟线程执行, 最大并发任务数: {}", maxConcurrency);
+            return new VirtualThreadTaskExecutor(virtualExecutor, true, maxConcurrency, metrics);
+        }
+        LOG.info("当前JDK不支持虚拟线程, 异步任务使用work-stealing线程池执行, 并行数: {}, 最大并发任务数: {}",
+                parallelism, maxConcurrency);
+        return new VirtualThreadTaskExecutor(newWorkStealingPool(threadNamePrefix, parallelism), false,
+                maxConcurrency, metrics);
+    }
+
+    /**
+     * @return 是否使用虚拟线程
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 关闭执行器，等待已提交的任务执行完成
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(timeout, unit)) {
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器(JDK 21+)，不支持时返回null
+     */
+    private static ExecutorService newVirtualThreadExecutor(String threadNamePrefix) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newWorkStealingPool(String threadNamePrefix, int parallelism) {
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadNamePrefix + thread.getPoolIndex());
+            return thread;
+        };
+        // asyncMode：提交的任务按先进先出执行
+        return new ForkJoinPool(Math.max(1, parallelism), threadFactory, null, true);
+    }
+
+    /**
+     * 限制同时执行(含排队)的任务数，超过时由调用线程执行
+     */
+    private static final class LimitedExecutor implements Executor {
+        private final ExecutorService executorService;
+        private final Semaphore permits;
+        private final AsyncTaskMetrics metrics;
+
+        private LimitedExecutor(ExecutorService executorService, Semaphore permits, AsyncTaskMetrics metrics) {
+            this.executorService = executorService;
+            this.permits = permits;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!permits.tryAcquire()) {
+                metrics.rejected();
+                if (executorService.isShutdown()) {
+                    throw new RejectedExecutionException("异步任务执行器已关闭");
+                }
+                task.run();
+                return;
+            }
+            Runnable runnable = metrics.wrap(TtlRunnable.get(task));
+            try {
+                executorService.execute(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                metrics.abandoned();
+                throw e;
+            }
+        }
+    }
+}
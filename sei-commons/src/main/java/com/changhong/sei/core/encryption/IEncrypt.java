@@ -1,6 +1,9 @@
 package com.changhong.sei.core.encryption;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 实现功能：加解密支持接口
@@ -24,4 +27,36 @@ public interface IEncrypt {
      * 解密方法
      */
     String decrypt(String decryptStr);
+
+    /**
+     * 批量加密方法
+     *
+     * @param values 明文清单
+     * @return 密文清单(顺序与明文一致)
+     */
+    default List<String> encryptAll(Collection<String> values) {
+        List<String> result = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                result.add(value == null ? null : encrypt(value));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量解密方法
+     *
+     * @param values 密文清单
+     * @return 明文清单(顺序与密文一致)
+     */
+    default List<String> decryptAll(Collection<String> values) {
+        List<String> result = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                result.add(value == null ? null : decrypt(value));
+            }
+        }
+        return result;
+    }
 }
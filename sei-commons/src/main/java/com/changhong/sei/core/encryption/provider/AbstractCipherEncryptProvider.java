@@ -0,0 +1,223 @@
+package com.changhong.sei.core.encryption.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Cipher;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 实现功能：
+ * 对称加解密提供者
+ * 每个线程持有各自初始化好的加密器、解密器(doFinal后自动恢复到初始化状态，无需重复init)，调用之间无锁竞争；
+ * 密文格式与原有实现一致：hex(base64(密文字节))，编解码直接在字节数组上进行
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:12
+ */
+public abstract class AbstractCipherEncryptProvider extends AbstractEncryptProvider {
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractCipherEncryptProvider.class);
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    /**
+     * 批量加解密时超过该数量才并行处理
+     */
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final ThreadLocal<Cipher> encryptors = ThreadLocal.withInitial(() -> newCipher(Cipher.ENCRYPT_MODE));
+    private final ThreadLocal<Cipher> decryptors = ThreadLocal.withInitial(() -> newCipher(Cipher.DECRYPT_MODE));
+
+    AbstractCipherEncryptProvider(String password) {
+        super(password);
+    }
+
+    /**
+     * 创建并初始化加解密器
+     *
+     * @param mode {@link Cipher#ENCRYPT_MODE} 或 {@link Cipher#DECRYPT_MODE}
+     * @return 已初始化的加解密器
+     * @throws GeneralSecurityException 算法、密钥异常
+     */
+    protected abstract Cipher createCipher(int mode) throws GeneralSecurityException;
+
+    /**
+     * @return 算法名称(用于日志)
+     */
+    protected abstract String getAlgorithm();
+
+    private Cipher newCipher(int mode) {
+        try {
+            return createCipher(mode);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(getAlgorithm() + "加解密器初始化失败", e);
+        }
+    }
+
+    /**
+     * 加密
+     */
+    @Override
+    public String encrypt(String encryptStr) {
+        try {
+            return toHex(Base64.getEncoder().encode(encryptBytes(encryptStr.getBytes(CHARSET_DEFAULT))));
+        } catch (Exception e) {
+            LOG.error(getAlgorithm() + "加密出错", e);
+        }
+        return null;
+    }
+
+    /**
+     * 解密
+     */
+    @Override
+    public String decrypt(String decryptStr) {
+        try {
+            return new String(decryptBytes(Base64.getDecoder().decode(fromHex(decryptStr))), CHARSET_DEFAULT);
+        } catch (Exception e) {
+            LOG.error(getAlgorithm() + "解密出错", e);
+        }
+        return null;
+    }
+
+    /**
+     * 加密字节(不做base64及hex编码)
+     *
+     * @param data 明文
+     * @return 密文
+     * @throws GeneralSecurityException 加密异常
+     */
+    public byte[] encryptBytes(byte[] data) throws GeneralSecurityException {
+        return doFinal(encryptors, data);
+    }
+
+    /**
+     * 解密字节(不做base64及hex解码)
+     *
+     * @param data 密文
+     * @return 明文
+     * @throws GeneralSecurityException 解密异常
+     */
+    public byte[] decryptBytes(byte[] data) throws GeneralSecurityException {
+        return doFinal(decryptors, data);
+    }
+
+    /**
+     * 加密缓冲区剩余的字节(不做base64及hex编码)
+     *
+     * @param input 明文
+     * @return 密文(已flip，可直接读取)
+     * @throws GeneralSecurityException 加密异常
+     */
+    public ByteBuffer encrypt(ByteBuffer input) throws GeneralSecurityException {
+        return doFinal(encryptors, input);
+    }
+
+    /**
+     * 解密缓冲区剩余的字节(不做base64及hex解码)
+     *
+     * @param input 密文
+     * @return 明文(已flip，可直接读取)
+     * @throws GeneralSecurityException 解密异常
+     */
+    public ByteBuffer decrypt(ByteBuffer input) throws GeneralSecurityException {
+        return doFinal(decryptors, input);
+    }
+
+    /**
+     * 批量加密，数量较多时并行处理
+     *
+     * @param values 明文清单
+     * @return 密文清单(顺序与明文一致，加密失败的为null)
+     */
+    @Override
+    public List<String> encryptAll(Collection<String> values) {
+        return batch(values, this::encrypt);
+    }
+
+    /**
+     * 批量解密，数量较多时并行处理
+     *
+     * @param values 密文清单
+     * @return 明文清单(顺序与密文一致，解密失败的为null)
+     */
+    @Override
+    public List<String> decryptAll(Collection<String> values) {
+        return batch(values, this::decrypt);
+    }
+
+    private List<String> batch(Collection<String> values, Function<String, String> function) {
+        if (values == null || values.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Function<String, String> nullSafe = value -> value == null ? null : function.apply(value);
+        if (values.size() < PARALLEL_THRESHOLD) {
+            List<String> result = new ArrayList<>(values.size());
+            for (String value : values) {
+                result.add(nullSafe.apply(value));
+            }
+            return result;
+        }
+        return values.parallelStream().map(nullSafe).collect(Collectors.toList());
+    }
+
+    private byte[] doFinal(ThreadLocal<Cipher> ciphers, byte[] data) throws GeneralSecurityException {
+        try {
+            return ciphers.get().doFinal(data);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            // 异常后加解密器状态不确定，下次重新创建
+            ciphers.remove();
+            throw e;
+        }
+    }
+
+    private ByteBuffer doFinal(ThreadLocal<Cipher> ciphers, ByteBuffer input) throws GeneralSecurityException {
+        Cipher cipher = ciphers.get();
+        try {
+            ByteBuffer output = ByteBuffer.allocate(cipher.getOutputSize(input.remaining()));
+            cipher.doFinal(input, output);
+            output.flip();
+            return output;
+        } catch (GeneralSecurityException | RuntimeException e) {
+            ciphers.remove();
+            throw e;
+        }
+    }
+
+    /**
+     * 转为小写hex字符串(与HexUtils.toHexString一致)
+     */
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length << 1];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            chars[j++] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            chars[j++] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * hex字符串转为字节(大小写均可)
+     */
+    static byte[] fromHex(String hex) {
+        int length = hex.length();
+        if ((length & 1) != 0) {
+            throw new IllegalArgumentException("hex字符串长度必须为偶数");
+        }
+        byte[] bytes = new byte[length >> 1];
+        for (int i = 0, j = 0; j < bytes.length; j++) {
+            int high = Character.digit(hex.charAt(i++), 16);
+            int low = Character.digit(hex.charAt(i++), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("无效的hex字符串: " + hex);
+            }
+            bytes[j] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
@@ -1,6 +1,5 @@
 package com.changhong.sei.core.encryption.provider;
 
-import org.apache.tomcat.util.buf.HexUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,19 +8,20 @@ import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.AlgorithmParameterSpec;
-import java.util.Base64;
 
 /**
  * 实现功能：
  * aes加解密处理组件，
  * 兼容原aes算法，仅仅在原算法基础上增加了hex处理
+ * 每个线程使用各自的加解密器，密文格式不变
  *
  * @author 马超(Vision.Mac)
  * @version 1.0.00  2020-01-07 16:30
  */
-public class AesEncryptProvider extends AbstractEncryptProvider {
+public class AesEncryptProvider extends AbstractCipherEncryptProvider {
     private static final Logger LOG = LoggerFactory.getLogger(AesEncryptProvider.class);
     /**
      * 默认密钥，当密钥不够使用于补位
@@ -38,16 +38,6 @@ public class AesEncryptProvider extends AbstractEncryptProvider {
      */
     private final String AES_CBC_ALGORITHM = "AES/CBC/PKCS5Padding";
 
-    /**
-     * 加密器
-     */
-    private final Cipher encryptor;
-
-    /**
-     * 解密器
-     */
-    private final Cipher decryptor;
-
     /**
      * key
      */
@@ -56,7 +46,7 @@ public class AesEncryptProvider extends AbstractEncryptProvider {
     /**
      * iv信息
      */
-    private AlgorithmParameterSpec ivParam;
+    private final AlgorithmParameterSpec ivParam;
 
     /**
      * 构造函数
@@ -67,8 +57,8 @@ public class AesEncryptProvider extends AbstractEncryptProvider {
         String key = str.substring(0, 16);
         String iv = str.substring(16, 32);
         try {
-            this.encryptor = Cipher.getInstance(AES_CBC_ALGORITHM);
-            this.decryptor = Cipher.getInstance(AES_CBC_ALGORITHM);
+            // 校验算法
+            Cipher.getInstance(AES_CBC_ALGORITHM);
         } catch (NoSuchAlgorithmException e1) {
             LOG.error("Not a valid encryption algorithm", e1);
             throw new IllegalArgumentException("Not a valid encryption algorithm", e1);
@@ -80,36 +70,15 @@ public class AesEncryptProvider extends AbstractEncryptProvider {
         this.ivParam = new IvParameterSpec(iv.getBytes(CHARSET_DEFAULT));
     }
 
-    /**
-     * 加密
-     */
     @Override
-    public String encrypt(String encryptStr) {
-        synchronized (this.encryptor) {
-            try {
-                encryptor.init(Cipher.ENCRYPT_MODE, secretKey, ivParam);
-                byte[] encodes = Base64.getEncoder().encode(encryptor.doFinal(encryptStr.getBytes(CHARSET_DEFAULT)));
-                return HexUtils.toHexString(encodes);
-            } catch (Exception e) {
-                LOG.error(ENCRYPT_AES + "加密出错", e);
-            }
-        }
-        return null;
+    protected Cipher createCipher(int mode) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(AES_CBC_ALGORITHM);
+        cipher.init(mode, secretKey, ivParam);
+        return cipher;
     }
 
-    /**
-     * 解密
-     */
     @Override
-    public String decrypt(String decryptStr) {
-        synchronized (this.decryptor) {
-            try {
-                decryptor.init(Cipher.DECRYPT_MODE, secretKey, ivParam);
-                return new String(decryptor.doFinal(Base64.getDecoder().decode(HexUtils.fromHexString(decryptStr))), CHARSET_DEFAULT);
-            } catch (Exception e) {
-                LOG.error(ENCRYPT_AES + "解密出错", e);
-            }
-        }
-        return null;
+    protected String getAlgorithm() {
+        return ENCRYPT_AES;
     }
 }
@@ -1,6 +1,5 @@
 package com.changhong.sei.core.encryption.provider;
 
-import org.apache.tomcat.util.buf.HexUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,20 +7,21 @@ import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.DESKeySpec;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
-import java.util.Base64;
 
 /**
  * Des加解密处理组件，兼容原ekp算法
  * 仅仅在原算法基础上增加了hex处理
+ * 每个线程使用各自的加解密器，密文格式不变
  *
  * @author 马超(Vision.Mac)
  * @version 1.0.00  2020-01-07 16:30
  */
-public class DesEncryptProvider extends AbstractEncryptProvider {
+public class DesEncryptProvider extends AbstractCipherEncryptProvider {
     private static final Logger LOG = LoggerFactory.getLogger(DesEncryptProvider.class);
     /**
      * md5加密标示
@@ -38,16 +38,6 @@ public class DesEncryptProvider extends AbstractEncryptProvider {
      */
     private final String DES_CBC_ALGORITHM = "DES/ECB/PKCS5Padding";
 
-    /**
-     * 加密器
-     */
-    private final Cipher encryptor;
-
-    /**
-     * 解密器
-     */
-    private final Cipher decryptor;
-
     /**
      * key
      */
@@ -59,8 +49,8 @@ public class DesEncryptProvider extends AbstractEncryptProvider {
     public DesEncryptProvider(String password) {
         super(password);
         try {
-            this.encryptor = Cipher.getInstance(DES_CBC_ALGORITHM);
-            this.decryptor = Cipher.getInstance(DES_CBC_ALGORITHM);
+            // 校验算法
+            Cipher.getInstance(DES_CBC_ALGORITHM);
             DESKeySpec dks = new DESKeySpec(password.getBytes(CHARSET_DEFAULT));
             SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(
                     ENCRYPT_DES);
@@ -77,36 +67,15 @@ public class DesEncryptProvider extends AbstractEncryptProvider {
         }
     }
 
-    /**
-     * 加密
-     */
     @Override
-    public String encrypt(String encryptStr) {
-        synchronized (this.encryptor) {
-            try {
-                encryptor.init(Cipher.ENCRYPT_MODE, secretKey);
-                byte[] encodes = Base64.getEncoder().encode(encryptor.doFinal(encryptStr.getBytes(CHARSET_DEFAULT)));
-                return HexUtils.toHexString(encodes);
-            } catch (Exception e) {
-                LOG.error(ENCRYPT_DES + "加密出错", e);
-            }
-        }
-        return null;
+    protected Cipher createCipher(int mode) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(DES_CBC_ALGORITHM);
+        cipher.init(mode, secretKey);
+        return cipher;
     }
 
-    /**
-     * 解密
-     */
     @Override
-    public String decrypt(String decryptStr) {
-        synchronized (this.decryptor) {
-            try {
-                decryptor.init(Cipher.DECRYPT_MODE, secretKey);
-                return new String(decryptor.doFinal(Base64.getDecoder().decode(HexUtils.fromHexString(decryptStr))), CHARSET_DEFAULT);
-            } catch (Exception e) {
-                LOG.error(ENCRYPT_DES + "解密出错", e);
-            }
-        }
-        return null;
+    protected String getAlgorithm() {
+        return ENCRYPT_DES;
     }
 }
@@ -1,6 +1,7 @@
 package com.changhong.sei.core.log;
 
 import com.changhong.sei.core.commoms.constant.Constants;
+import com.changhong.sei.core.log.support.CallerLocator;
 import com.changhong.sei.core.util.JsonUtils;
 import org.slf4j.*;
 import org.slf4j.spi.LocationAwareLogger;
@@ -22,16 +23,17 @@ public class LogUtil implements Constants {
     private static final String FQCN = LogUtil.class.getName();
     public static final String BIZ_LOG = "BIZ_LOG";
 
+    /**
+     * 获取调用类(可重复使用)
+     */
+    private static final CallerContext CALLER_CONTEXT = new CallerContext();
+
     /**
      * 获取适配日志器，供内部调用
      */
     private static LocationAwareLogger getLocationAwareLogger() {
         //获取调用 error,info,debug静态类的类名
-        String className = new SecurityManager() {
-            String getClassName() {
-                return getClassContext()[3].getName();
-            }
-        }.getClassName();
+        String className = CALLER_CONTEXT.getCallerClassName();
         return (LocationAwareLogger) LoggerFactory.getLogger(className);
     }
 
@@ -67,21 +69,11 @@ public class LogUtil implements Constants {
     }
 
     public static void bizLogWithArgs(String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(MarkerFactory.getMarker(BIZ_LOG),
-                FQCN, LocationAwareLogger.INFO_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(MarkerFactory.getMarker(BIZ_LOG), LocationAwareLogger.INFO_INT, msg, null, args);
     }
 
     public static void bizLogWithArgs(String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(MarkerFactory.getMarker(BIZ_LOG),
-                FQCN, LocationAwareLogger.INFO_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(MarkerFactory.getMarker(BIZ_LOG), LocationAwareLogger.INFO_INT, msg, throwable, args);
     }
 
     ////////////////////////////////////////////////////////////////////////////////////
@@ -111,19 +103,11 @@ public class LogUtil implements Constants {
     }
 
     public static void traceWithArgs(String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.TRACE_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.TRACE_INT, msg, null, args);
     }
 
     public static void traceWithArgs(String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.TRACE_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.TRACE_INT, msg, throwable, args);
     }
 
     public static boolean isTraceEnabled(Marker marker) {
@@ -151,19 +135,11 @@ public class LogUtil implements Constants {
     }
 
     public static void traceWithArgs(Marker marker, String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.TRACE_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.TRACE_INT, msg, null, args);
     }
 
     public static void traceWithArgs(Marker marker, String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.TRACE_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.TRACE_INT, msg, throwable, args);
     }
 
     public static boolean isInfoEnabled() {
@@ -191,19 +167,11 @@ public class LogUtil implements Constants {
     }
 
     public static void infoWithArgs(String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.INFO_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.INFO_INT, msg, null, args);
     }
 
     public static void infoWithArgs(String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.INFO_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.INFO_INT, msg, throwable, args);
     }
 
     public static boolean isInfoEnabled(Marker marker) {
@@ -231,19 +199,11 @@ public class LogUtil implements Constants {
     }
 
     public static void infoWithArgs(Marker marker, String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.TRACE_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.INFO_INT, msg, null, args);
     }
 
     public static void infoWithArgs(Marker marker, String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.TRACE_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.INFO_INT, msg, throwable, args);
     }
 
     public static boolean isDebugEnabled() {
@@ -271,19 +231,11 @@ public class LogUtil implements Constants {
     }
 
     public static void debugWithArgs(String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.DEBUG_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.DEBUG_INT, msg, null, args);
     }
 
     public static void debugWithArgs(String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.DEBUG_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.DEBUG_INT, msg, throwable, args);
     }
 
     public static boolean isDebugEnabled(Marker marker) {
@@ -311,19 +263,11 @@ public class LogUtil implements Constants {
     }
 
     public static void debugWithArgs(Marker marker, String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.DEBUG_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.DEBUG_INT, msg, null, args);
     }
 
     public static void debugWithArgs(Marker marker, String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.DEBUG_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.DEBUG_INT, msg, throwable, args);
     }
 
     public static boolean isWarnEnabled() {
@@ -351,19 +295,11 @@ public class LogUtil implements Constants {
     }
 
     public static void warnWithArgs(String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.WARN_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.WARN_INT, msg, null, args);
     }
 
     public static void warnWithArgs(String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.WARN_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.WARN_INT, msg, throwable, args);
     }
 
     public static boolean isWarnEnabled(Marker marker) {
@@ -391,19 +327,11 @@ public class LogUtil implements Constants {
     }
 
     public static void warnWithArgs(Marker marker, String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.WARN_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.WARN_INT, msg, null, args);
     }
 
     public static void warnWithArgs(Marker marker, String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.WARN_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.WARN_INT, msg, throwable, args);
     }
 
     public static boolean isErrorEnabled() {
@@ -431,19 +359,11 @@ public class LogUtil implements Constants {
     }
 
     public static void errorWithArgs(String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.ERROR_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.ERROR_INT, msg, null, args);
     }
 
     public static void errorWithArgs(String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(null, FQCN, LocationAwareLogger.ERROR_INT, msg, new Object[]{}, throwable);
-
-        clearMDC(data);
+        logWithArgs(null, LocationAwareLogger.ERROR_INT, msg, throwable, args);
     }
 
     public static boolean isErrorEnabled(Marker marker) {
@@ -471,26 +391,49 @@ public class LogUtil implements Constants {
     }
 
     public static void errorWithArgs(Marker marker, String msg, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
-
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.TRACE_INT, msg, new Object[]{}, null);
-
-        clearMDC(data);
+        logWithArgs(marker, LocationAwareLogger.ERROR_INT, msg, null, args);
     }
 
     public static void errorWithArgs(Marker marker, String msg, Throwable throwable, Object... args) {
-        Map<String, String> data = insertIntoMDC(args);
+        logWithArgs(marker, LocationAwareLogger.ERROR_INT, msg, throwable, args);
+    }
 
-        getLocationAwareLogger().log(marker, FQCN, LocationAwareLogger.TRACE_INT, msg, new Object[]{}, throwable);
+    /**
+     * 带参数的日志：日志级别未启用时直接返回，不定位调用位置也不序列化参数
+     */
+    private static void logWithArgs(Marker marker, int level, String msg, Throwable throwable, Object... args) {
+        LocationAwareLogger logger = getLocationAwareLogger();
+        if (!isEnabled(logger, marker, level)) {
+            return;
+        }
+        Map<String, String> data = insertIntoMDC(args);
+        try {
+            logger.log(marker, FQCN, level, msg, new Object[]{}, throwable);
+        } finally {
+            clearMDC(data);
+        }
+    }
 
-        clearMDC(data);
+    private static boolean isEnabled(LocationAwareLogger logger, Marker marker, int level) {
+        switch (level) {
+            case LocationAwareLogger.TRACE_INT:
+                return logger.isTraceEnabled(marker);
+            case LocationAwareLogger.DEBUG_INT:
+                return logger.isDebugEnabled(marker);
+            case LocationAwareLogger.INFO_INT:
+                return logger.isInfoEnabled(marker);
+            case LocationAwareLogger.WARN_INT:
+                return logger.isWarnEnabled(marker);
+            default:
+                return logger.isErrorEnabled(marker);
+        }
     }
 
     private static Map<String, String> insertIntoMDC(Object... args) {
         Map<String, String> data = new HashMap<>();
-        StackTraceElement[] elements = Thread.currentThread().getStackTrace();
-        if (elements.length >= 4) {
-            StackTraceElement element = elements[3];
+        // 只遍历到第一个非LogUtil的栈帧
+        CallerLocator.Location element = CallerLocator.locate(FQCN);
+        if (Objects.nonNull(element)) {
             data.put(MDC_CLASS_NAME, MDC.get(MDC_CLASS_NAME));
             MDC.put(MDC_CLASS_NAME, element.getClassName());
 
@@ -530,4 +473,19 @@ public class LogUtil implements Constants {
             MDC.put(MDC_ARGS, temp);
         }
     }
+
+    /**
+     * 通过类上下文获取调用LogUtil的类(不生成调用栈)
+     */
+    private static final class CallerContext extends SecurityManager {
+        String getCallerClassName() {
+            Class<?>[] classes = getClassContext();
+            for (Class<?> clazz : classes) {
+                if (clazz != CallerContext.class && clazz != LogUtil.class) {
+                    return clazz.getName();
+                }
+            }
+            return LogUtil.class.getName();
+        }
+    }
 }
@@ -1,9 +1,11 @@
 package com.changhong.sei.core.log.config;
 
+import com.changhong.sei.core.log.config.properties.LogProperties;
 import com.changhong.sei.core.log.support.LogContext;
 import com.changhong.sei.core.log.support.LogProcessor;
 import org.slf4j.Logger;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -17,10 +19,14 @@ import org.springframework.context.annotation.Import;
 @Configuration
 @ConditionalOnClass({Logger.class})
 @Import({LogContext.class})
+@EnableConfigurationProperties({LogProperties.class})
 public class LogAutoConfiguration {
 
     @Bean
-    public LogProcessor logProcessor() {
-        return new LogProcessor();
+    public LogProcessor logProcessor(LogProperties properties) {
+        LogProcessor processor = new LogProcessor();
+        // 参数及返回结果json最大长度
+        processor.setMaxLength(properties.getMaxLength());
+        return processor;
     }
 }
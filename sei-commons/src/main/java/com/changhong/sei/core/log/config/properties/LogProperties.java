@@ -1,5 +1,8 @@
 package com.changhong.sei.core.log.config.properties;
 
+import com.changhong.sei.core.log.support.LogProcessor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
 /**
  * 实现功能：
  * 日志配置
@@ -7,8 +10,18 @@ package com.changhong.sei.core.log.config.properties;
  * @author 马超(Vision.Mac)
  * @version 1.0.00  2020-02-05 21:25
  */
-//@ConfigurationProperties("sei.log")
+@ConfigurationProperties("sei.log")
 public class LogProperties {
+    /**
+     * 日志注解记录的参数及返回结果json最大长度，超出部分截断(小于等于0时不截断)
+     */
+    private int maxLength = LogProcessor.DEFAULT_MAX_LENGTH;
 
+    public int getMaxLength() {
+        return maxLength;
+    }
 
+    public void setMaxLength(int maxLength) {
+        this.maxLength = maxLength;
+    }
 }
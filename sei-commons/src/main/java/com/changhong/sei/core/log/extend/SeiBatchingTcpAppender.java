@@ -0,0 +1,521 @@
+package com.changhong.sei.core.log.extend;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.Duration;
+import com.changhong.sei.core.log.support.LogContext;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 实现功能：
+ * 批量发送的TCP日志appender(如发送到logstash)
+ * 日志在调用线程编码(会话用户等线程变量在此时读取)后放入无锁有界队列，由独立的发送线程按批量大小或时间间隔批量写入socket，
+ * 调用线程不等待网络IO。队列满时按溢出策略处理：
+ * <ul>
+ * <li>{@link OverflowPolicy#DROP_DEBUG_FIRST 队列超过阈值时先丢弃DEBUG及以下日志, 队列满时丢弃新日志(默认)}</li>
+ * <li>{@link OverflowPolicy#DROP_OLDEST 丢弃最旧的日志}</li>
+ * <li>{@link OverflowPolicy#BLOCK 等待队列空间, 超过blockTimeout后丢弃}</li>
+ * </ul>
+ * <pre>
+ * &lt;appender name="LOG_STASH" class="com.changhong.sei.core.log.extend.SeiBatchingTcpAppender"&gt;
+ *     &lt;destination&gt;127.0.0.1:5044&lt;/destination&gt;
+ *     &lt;queueSize&gt;8192&lt;/queueSize&gt;
+ *     &lt;batchSize&gt;256&lt;/batchSize&gt;
+ *     &lt;flushInterval&gt;200 milliseconds&lt;/flushInterval&gt;
+ *     &lt;overflowPolicy&gt;DROP_DEBUG_FIRST&lt;/overflowPolicy&gt;
+ *     &lt;encoder class="net.logstash.logback.encoder.LoggingEventCompositeJsonEncoder"&gt;...&lt;/encoder&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:15
+ */
+public class SeiBatchingTcpAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 队列超过阈值时先丢弃DEBUG及以下日志，队列满时丢弃新日志
+         */
+        DROP_DEBUG_FIRST,
+        /**
+         * 丢弃最旧的日志
+         */
+        DROP_OLDEST,
+        /**
+         * 等待队列空间，超时后丢弃新日志
+         */
+        BLOCK
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int DROPPED_WARN_FREQUENCY = 1000;
+    /**
+     * DROP_OLDEST策略下腾出队列位置的最大尝试次数(其他线程已占位但尚未入队时队列可能暂时为空)，超过后丢弃新日志
+     */
+    private static final int DROP_OLDEST_ATTEMPTS = 16;
+
+    private Encoder<ILoggingEvent> encoder;
+    private String destination;
+    private int queueSize = 8192;
+    private int batchSize = 256;
+    private int writeBufferSize = 8192;
+    /**
+     * DROP_DEBUG_FIRST策略下开始丢弃DEBUG日志的队列占用比例
+     */
+    private int discardingThresholdPercent = 80;
+    private Duration flushInterval = Duration.buildByMilliseconds(200);
+    private Duration blockTimeout = Duration.buildByMilliseconds(100);
+    private Duration connectionTimeout = Duration.buildBySeconds(5);
+    private Duration reconnectionDelay = Duration.buildBySeconds(5);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_DEBUG_FIRST;
+
+    private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    /**
+     * 已占用的队列位置(包含正在入队的日志)
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+
+    private InetSocketAddress address;
+    private int discardingThreshold;
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        int errors = 0;
+        if (Objects.isNull(encoder)) {
+            addError("No encoder was configured for appender " + name + ".");
+            errors++;
+        }
+        try {
+            address = parseDestination(destination);
+        } catch (IllegalArgumentException e) {
+            addError("Invalid destination [" + destination + "] for appender " + name + ".", e);
+            errors++;
+        }
+        if (queueSize < 1 || batchSize < 1) {
+            addError("queueSize and batchSize must be positive for appender " + name + ".");
+            errors++;
+        }
+        if (errors > 0) {
+            return;
+        }
+        // 不论日志等级是什么都不影响bizLog的日志输出
+        LogContext.addBizMarkerFilter();
+
+        discardingThreshold = Math.max(1, queueSize * discardingThresholdPercent / 100);
+        if (!encoder.isStarted()) {
+            encoder.start();
+        }
+        running = true;
+        Thread thread = new Thread(this::writeLoop, "sei-log-tcp-" + (name == null ? "appender" : name));
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(flushInterval.getMilliseconds() + connectionTimeout.getMilliseconds());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        encoder.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (overflowPolicy == OverflowPolicy.DROP_DEBUG_FIRST
+                && queued.get() >= discardingThreshold && isDiscardable(event)) {
+            drop();
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = encoder.encode(event);
+        } catch (RuntimeException e) {
+            addWarn("Failed to encode event for appender " + name + ".", e);
+            return;
+        }
+        if (Objects.nonNull(bytes) && bytes.length > 0) {
+            enqueue(bytes);
+        }
+    }
+
+    /**
+     * 按溢出策略入队
+     */
+    private void enqueue(byte[] bytes) {
+        long deadline = 0;
+        int attempts = 0;
+        int size;
+        for (; ; ) {
+            size = queued.get();
+            if (size < queueSize) {
+                if (queued.compareAndSet(size, size + 1)) {
+                    break;
+                }
+                continue;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                if (++attempts > DROP_OLDEST_ATTEMPTS) {
+                    drop();
+                    return;
+                }
+                if (Objects.nonNull(queue.poll())) {
+                    queued.decrementAndGet();
+                    drop();
+                } else {
+                    Thread.yield();
+                }
+            } else if (overflowPolicy == OverflowPolicy.BLOCK && isStarted()) {
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + TimeUnit.MILLISECONDS.toNanos(blockTimeout.getMilliseconds());
+                } else if (now - deadline >= 0) {
+                    drop();
+                    return;
+                }
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            } else {
+                drop();
+                return;
+            }
+        }
+        queue.offer(bytes);
+        if (size + 1 == batchSize) {
+            // 达到批量大小，唤醒发送线程
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private void drop() {
+        droppedCount.increment();
+        long dropped = droppedCount.sum();
+        if (dropped % DROPPED_WARN_FREQUENCY == 1) {
+            addWarn("Log queue of appender " + name + " is full, " + dropped + " events dropped so far.");
+        }
+    }
+
+    /**
+     * DEBUG及以下日志可优先丢弃
+     */
+    private static boolean isDiscardable(ILoggingEvent event) {
+        return event.getLevel().toInt() <= Level.DEBUG_INT;
+    }
+
+    /**
+     * 发送线程：队列达到批量大小或等待超过flushInterval后批量发送
+     */
+    private void writeLoop() {
+        Socket socket = null;
+        OutputStream out = null;
+        long lastConnectAttempt = 0;
+        long pendingSince = 0;
+        long flushNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval.getMilliseconds());
+        long reconnectNanos = TimeUnit.MILLISECONDS.toNanos(reconnectionDelay.getMilliseconds());
+        try {
+            while (running || queued.get() > 0) {
+                try {
+                    int size = queued.get();
+                    long now = System.nanoTime();
+                    if (size == 0) {
+                        pendingSince = 0;
+                        LockSupport.parkNanos(this, flushNanos);
+                        continue;
+                    }
+                    if (running && size < batchSize) {
+                        if (pendingSince == 0) {
+                            pendingSince = now;
+                        }
+                        long wait = pendingSince + flushNanos - now;
+                        if (wait > 0) {
+                            LockSupport.parkNanos(this, wait);
+                            continue;
+                        }
+                    }
+                    pendingSince = 0;
+
+                    if (Objects.isNull(out)) {
+                        if (lastConnectAttempt != 0 && now - lastConnectAttempt < reconnectNanos) {
+                            if (!running) {
+                                // 停止时无法连接，丢弃剩余日志
+                                break;
+                            }
+                            LockSupport.parkNanos(this, Math.min(flushNanos, reconnectNanos));
+                            continue;
+                        }
+                        lastConnectAttempt = now;
+                        try {
+                            socket = connect();
+                            out = new BufferedOutputStream(socket.getOutputStream(), writeBufferSize);
+                            byte[] header = encoder.headerBytes();
+                            if (Objects.nonNull(header) && header.length > 0) {
+                                out.write(header);
+                            }
+                        } catch (IOException e) {
+                            addWarn("Failed to connect to " + destination + " for appender " + name + ".", e);
+                            closeQuietly(socket);
+                            socket = null;
+                            out = null;
+                            continue;
+                        }
+                    }
+                    try {
+                        writeBatch(out);
+                    } catch (IOException e) {
+                        addWarn("Failed to send log events to " + destination + ", reconnecting.", e);
+                        closeQuietly(socket);
+                        socket = null;
+                        out = null;
+                        lastConnectAttempt = System.nanoTime();
+                    }
+                } catch (RuntimeException e) {
+                    // 编码器等抛出的运行时异常不能终止发送线程，重新连接后继续发送
+                    addError("Unexpected error in sender thread of appender " + name + ".", e);
+                    closeQuietly(socket);
+                    socket = null;
+                    out = null;
+                    lastConnectAttempt = System.nanoTime();
+                    pendingSince = 0;
+                }
+            }
+        } finally {
+            if (Objects.nonNull(out)) {
+                try {
+                    byte[] footer = encoder.footerBytes();
+                    if (Objects.nonNull(footer) && footer.length > 0) {
+                        out.write(footer);
+                    }
+                    out.flush();
+                } catch (IOException ignored) {
+                }
+            }
+            closeQuietly(socket);
+            int remaining = queued.getAndSet(0);
+            if (remaining > 0) {
+                droppedCount.add(remaining);
+            }
+            queue.clear();
+        }
+    }
+
+    /**
+     * 写入一批日志并flush，失败的日志计入失败数
+     */
+    private void writeBatch(OutputStream out) throws IOException {
+        int written = 0;
+        int count = 0;
+        try {
+            byte[] bytes;
+            while (count < batchSize && Objects.nonNull(bytes = queue.poll())) {
+                queued.decrementAndGet();
+                count++;
+                out.write(bytes);
+                written++;
+            }
+            out.flush();
+            sentCount.add(written);
+            batchCount.increment();
+        } catch (IOException e) {
+            // 缓冲区内尚未确认发送的日志
+            failedCount.add(count);
+            throw e;
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setKeepAlive(true);
+            socket.setTcpNoDelay(false);
+            socket.connect(new InetSocketAddress(address.getHostString(), address.getPort()),
+                    (int) connectionTimeout.getMilliseconds());
+            return socket;
+        } catch (IOException e) {
+            closeQuietly(socket);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (Objects.nonNull(socket)) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static InetSocketAddress parseDestination(String destination) {
+        if (Objects.isNull(destination) || destination.trim().isEmpty()) {
+            throw new IllegalArgumentException("destination is required");
+        }
+        String value = destination.trim();
+        int index = value.lastIndexOf(':');
+        if (index <= 0 || index == value.length() - 1) {
+            throw new IllegalArgumentException("destination must be host:port");
+        }
+        // 每次连接时重新解析，以便目标地址变化(如容器重建)后可重新连接
+        return InetSocketAddress.createUnresolved(value.substring(0, index).trim(),
+                Integer.parseInt(value.substring(index + 1).trim()));
+    }
+
+    /**
+     * @return 队列中等待发送的日志数
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * @return 因队列满或停止时未发送而丢弃的日志数
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * @return 已发送的日志数
+     */
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    /**
+     * @return 发送失败的日志数
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * @return 已发送的批次数
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public Encoder<ILoggingEvent> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    public void setWriteBufferSize(int writeBufferSize) {
+        this.writeBufferSize = writeBufferSize;
+    }
+
+    public int getDiscardingThresholdPercent() {
+        return discardingThresholdPercent;
+    }
+
+    public void setDiscardingThresholdPercent(int discardingThresholdPercent) {
+        this.discardingThresholdPercent = discardingThresholdPercent;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getBlockTimeout() {
+        return blockTimeout;
+    }
+
+    public void setBlockTimeout(Duration blockTimeout) {
+        this.blockTimeout = blockTimeout;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Duration getReconnectionDelay() {
+        return reconnectionDelay;
+    }
+
+    public void setReconnectionDelay(Duration reconnectionDelay) {
+        this.reconnectionDelay = reconnectionDelay;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+}
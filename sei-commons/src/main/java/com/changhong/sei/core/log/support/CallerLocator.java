@@ -0,0 +1,194 @@
+package com.changhong.sei.core.log.support;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 实现功能：
+ * 日志调用位置定位
+ * 只向上遍历有限的栈帧，找到第一个不属于日志工具类的调用方法即停止，不生成完整的调用栈：
+ * JDK9+使用StackWalker，JDK8使用JavaLangAccess按下标读取单个栈帧，均不可用时退化为完整调用栈
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:26
+ */
+public final class CallerLocator {
+    /**
+     * 最多遍历的栈帧数
+     */
+    private static final int MAX_DEPTH = 16;
+    private static final String SELF = CallerLocator.class.getName();
+
+    private static final Strategy STRATEGY = createStrategy();
+
+    private CallerLocator() {
+    }
+
+    /**
+     * 定位调用位置
+     *
+     * @param loggerClassName 日志工具类名(该类及本类的栈帧被跳过)
+     * @return 调用位置，未找到时返回null
+     */
+    public static Location locate(String loggerClassName) {
+        try {
+            return STRATEGY.locate(loggerClassName);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static boolean skip(String className, String loggerClassName) {
+        // 本类及其内部类
+        return className.startsWith(SELF) || loggerClassName.equals(className);
+    }
+
+    private static Strategy createStrategy() {
+        Strategy strategy = StackWalkerStrategy.create();
+        if (strategy == null) {
+            strategy = JavaLangAccessStrategy.create();
+        }
+        return strategy == null ? CallerLocator::locateByStackTrace : strategy;
+    }
+
+    private static Location locateByStackTrace(String loggerClassName) {
+        StackTraceElement[] elements = new Throwable().getStackTrace();
+        int depth = Math.min(elements.length, MAX_DEPTH);
+        for (int i = 0; i < depth; i++) {
+            if (!skip(elements[i].getClassName(), loggerClassName)) {
+                return new Location(elements[i].getClassName(), elements[i].getMethodName());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 调用位置
+     */
+    public static final class Location {
+        private final String className;
+        private final String methodName;
+
+        Location(String className, String methodName) {
+            this.className = className;
+            this.methodName = methodName;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Strategy {
+        Location locate(String loggerClassName) throws Throwable;
+    }
+
+    /**
+     * JDK9+：StackWalker.getInstance().walk(...)，按需逐帧遍历
+     */
+    private static final class StackWalkerStrategy implements Strategy {
+        private final Object walker;
+        private final MethodHandle walk;
+        private final MethodHandle getClassName;
+        private final MethodHandle getMethodName;
+
+        private StackWalkerStrategy(Object walker, MethodHandle walk, MethodHandle getClassName, MethodHandle getMethodName) {
+            this.walker = walker;
+            this.walk = walk;
+            this.getClassName = getClassName;
+            this.getMethodName = getMethodName;
+        }
+
+        static Strategy create() {
+            try {
+                Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+                Class<?> frameClass = Class.forName("java.lang.StackWalker$StackFrame");
+                // walk为caller-sensitive方法，需使用完整权限的lookup
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                Object walker = lookup.findStatic(walkerClass, "getInstance", MethodType.methodType(walkerClass)).invoke();
+                MethodHandle walk = lookup.findVirtual(walkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+                        .asType(MethodType.methodType(Object.class, Object.class, Function.class));
+                MethodType stringGetter = MethodType.methodType(String.class, Object.class);
+                MethodHandle getClassName = lookup.findVirtual(frameClass, "getClassName", MethodType.methodType(String.class))
+                        .asType(stringGetter);
+                MethodHandle getMethodName = lookup.findVirtual(frameClass, "getMethodName", MethodType.methodType(String.class))
+                        .asType(stringGetter);
+                return new StackWalkerStrategy(walker, walk, getClassName, getMethodName);
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Location locate(String loggerClassName) throws Throwable {
+            Function<Stream<Object>, Optional<Location>> function = frames -> frames.limit(MAX_DEPTH)
+                    .map(this::toLocation)
+                    .filter(location -> !skip(location.className, loggerClassName))
+                    .findFirst();
+            Object location = walk.invokeExact(walker, (Function) function);
+            return ((Optional<Location>) location).orElse(null);
+        }
+
+        private Location toLocation(Object frame) {
+            try {
+                return new Location((String) getClassName.invokeExact(frame), (String) getMethodName.invokeExact(frame));
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * JDK8：SharedSecrets.getJavaLangAccess().getStackTraceElement(throwable, index)，只读取需要的栈帧
+     */
+    private static final class JavaLangAccessStrategy implements Strategy {
+        private final MethodHandle getStackTraceDepth;
+        private final MethodHandle getStackTraceElement;
+
+        private JavaLangAccessStrategy(MethodHandle getStackTraceDepth, MethodHandle getStackTraceElement) {
+            this.getStackTraceDepth = getStackTraceDepth;
+            this.getStackTraceElement = getStackTraceElement;
+        }
+
+        static Strategy create() {
+            try {
+                Class<?> sharedSecrets = Class.forName("sun.misc.SharedSecrets");
+                Class<?> accessClass = Class.forName("sun.misc.JavaLangAccess");
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                Object access = lookup.findStatic(sharedSecrets, "getJavaLangAccess", MethodType.methodType(accessClass)).invoke();
+                MethodHandle depth = lookup.findVirtual(accessClass, "getStackTraceDepth",
+                        MethodType.methodType(int.class, Throwable.class)).bindTo(access);
+                MethodHandle element = lookup.findVirtual(accessClass, "getStackTraceElement",
+                        MethodType.methodType(StackTraceElement.class, Throwable.class, int.class)).bindTo(access);
+                // 验证可用
+                int ignored = (int) depth.invokeExact(new Throwable());
+                return new JavaLangAccessStrategy(depth, element);
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+
+        @Override
+        public Location locate(String loggerClassName) throws Throwable {
+            Throwable throwable = new Throwable();
+            int depth = Math.min((int) getStackTraceDepth.invokeExact(throwable), MAX_DEPTH);
+            for (int i = 0; i < depth; i++) {
+                StackTraceElement element = (StackTraceElement) getStackTraceElement.invokeExact(throwable, i);
+                if (!skip(element.getClassName(), loggerClassName)) {
+                    return new Location(element.getClassName(), element.getMethodName());
+                }
+            }
+            return null;
+        }
+    }
+}
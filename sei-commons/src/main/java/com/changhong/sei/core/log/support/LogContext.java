@@ -2,6 +2,7 @@ package com.changhong.sei.core.log.support;
 
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.turbo.MarkerFilter;
+import ch.qos.logback.classic.turbo.TurboFilter;
 import ch.qos.logback.core.spi.FilterReply;
 import com.changhong.sei.core.log.LogUtil;
 import org.slf4j.LoggerFactory;
@@ -13,6 +14,10 @@ import org.springframework.context.ApplicationContextAware;
  * 上下文工具
  */
 public class LogContext implements ApplicationContextAware {
+    /**
+     * 业务日志过滤器名称
+     */
+    private static final String BIZ_MARKER_FILTER = "sei-biz-marker-filter";
     /**
      * 上下文
      */
@@ -53,13 +58,22 @@ public class LogContext implements ApplicationContextAware {
      * <p>
      * 如果值是neutral，就会有下一个filter进行判断,如果已经没有后续filter，那么会对这个日志事件进行处理;
      * 如果判断是accept，那么就会立即对该日志事件进行处理，不再进行后续判断
+     * <p>
+     * 多个appender启动时均会调用，只添加一次(每个turbo filter在每次日志调用时都会执行)
      */
-    public static void addBizMarkerFilter() {
+    public static synchronized void addBizMarkerFilter() {
+        LoggerContext context = getLoggerContext();
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (BIZ_MARKER_FILTER.equals(filter.getName())) {
+                return;
+            }
+        }
         MarkerFilter markerFilter = new MarkerFilter();
+        markerFilter.setName(BIZ_MARKER_FILTER);
         markerFilter.setMarker(LogUtil.BIZ_LOG);
         markerFilter.setOnMatch(FilterReply.ACCEPT.name());
         markerFilter.setOnMismatch(FilterReply.NEUTRAL.name());
         markerFilter.start();
-        getLoggerContext().addTurboFilter(markerFilter);
+        context.addTurboFilter(markerFilter);
     }
 }
@@ -9,7 +9,6 @@ import com.changhong.sei.core.log.annotation.Log;
 import com.changhong.sei.core.log.annotation.ParamLog;
 import com.changhong.sei.core.log.annotation.ResultLog;
 import com.changhong.sei.core.log.annotation.ThrowingLog;
-import com.changhong.sei.core.util.JsonUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -21,7 +20,7 @@ import org.slf4j.MDC;
 import org.springframework.core.annotation.Order;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
+import java.lang.ref.WeakReference;
 import java.util.Objects;
 
 /**
@@ -31,6 +30,27 @@ import java.util.Objects;
 @Order(1)
 public class LogProcessor implements Constants {
     private static final Logger log = LoggerFactory.getLogger(LogProcessor.class);
+    /**
+     * 参数及返回结果json默认最大长度
+     */
+    public static final int DEFAULT_MAX_LENGTH = 4096;
+    /**
+     * 当前线程最近一次记录的异常
+     */
+    private static final ThreadLocal<WeakReference<Throwable>> LAST_THROWABLE = ThreadLocal.withInitial(() -> new WeakReference<>(null));
+
+    /**
+     * 参数及返回结果json最大长度，超出部分截断
+     */
+    private int maxLength = DEFAULT_MAX_LENGTH;
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(int maxLength) {
+        this.maxLength = maxLength;
+    }
 
     /**
      * 打印参数日志
@@ -40,12 +60,12 @@ public class LogProcessor implements Constants {
     @Before("@annotation(com.changhong.sei.core.log.annotation.ParamLog)")
     public void beforePrint(JoinPoint joinPoint) {
         if (this.isEnable()) {
-            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-            ParamLog annotation = signature.getMethod().getAnnotation(ParamLog.class);
+            MethodMetadata metadata = MethodMetadata.of((MethodSignature) joinPoint.getSignature());
+            ParamLog annotation = metadata.getParamLog();
             MethodInfo methodInfo = this.beforePrint(
-                    signature,
+                    metadata,
                     joinPoint.getArgs(),
-                    annotation.paramFilter(),
+                    metadata.getParamLogParamIndexes(),
                     annotation.value(),
                     annotation.level(),
                     annotation.position()
@@ -64,11 +84,12 @@ public class LogProcessor implements Constants {
     @AfterReturning(value = "@annotation(com.changhong.sei.core.log.annotation.ResultLog)", returning = "result")
     public void afterPrint(JoinPoint joinPoint, Object result) {
         if (this.isEnable()) {
-            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-            ResultLog annotation = signature.getMethod().getAnnotation(ResultLog.class);
+            MethodMetadata metadata = MethodMetadata.of((MethodSignature) joinPoint.getSignature());
+            ResultLog annotation = metadata.getResultLog();
             MethodInfo methodInfo = this.afterPrint(
-                    signature,
+                    metadata,
                     joinPoint.getArgs(),
+                    null,
                     result,
                     annotation.value(),
                     annotation.level(),
@@ -93,48 +114,50 @@ public class LogProcessor implements Constants {
         if (!this.isEnable()) {
             return;
         }
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String className = signature.getDeclaringTypeName();
-        Method method = signature.getMethod();
-        String methodName = method.getName();
-        Object[] args = joinPoint.getArgs();
-        MethodInfo methodInfo = MethodParser.getMethodInfo(className, methodName, signature.getParameterNames(), args);
-        MDC.put(MDC_CLASS_NAME, className);
-        MDC.put(MDC_METHOD_NAME, methodName);
-        if (Objects.nonNull(args)) {
-            try {
-                if (args.length == 1) {
-                    MDC.put(MDC_ARGS, JsonUtils.toJson(args[0]));
-                } else {
-                    MDC.put(MDC_ARGS, JsonUtils.toJson(args));
-                }
-            } catch (Exception ignored) {
+        MethodMetadata metadata = MethodMetadata.of((MethodSignature) joinPoint.getSignature());
+        String busName = null;
+        Annotation annotation = null;
+        Class<? extends LogCallback> callback = null;
+        ThrowingLog throwingLogAnnotation = metadata.getThrowingLog();
+        if (throwingLogAnnotation != null) {
+            annotation = throwingLogAnnotation;
+            busName = throwingLogAnnotation.value();
+            callback = throwingLogAnnotation.callback();
+        } else {
+            Log logAnnotation = metadata.getLog();
+            if (logAnnotation != null) {
+                annotation = logAnnotation;
+                busName = logAnnotation.value();
+                callback = logAnnotation.callback();
             }
         }
+        // 未标注日志注解的切入点, 同一异常在调用链上只记录一次(由最内层切入点记录)
+        boolean logged = annotation == null && LAST_THROWABLE.get().get() == throwable;
+        Logger logger = metadata.getLogger();
+        if (logged || !logger.isErrorEnabled()) {
+            this.callback(callback, annotation, null, metadata, joinPoint.getArgs());
+            return;
+        }
+
+        Object[] args = joinPoint.getArgs();
+        MethodInfo methodInfo = metadata.newMethodInfo(args, true);
+        MDC.put(MDC_CLASS_NAME, metadata.getClassName());
+        MDC.put(MDC_METHOD_NAME, metadata.getMethodName());
+        String argsJson = MethodMetadata.renderArgs(args, null, maxLength);
+        if (Objects.nonNull(argsJson)) {
+            MDC.put(MDC_ARGS, argsJson);
+        }
         try {
-            String busName = ExceptionUtils.getRootCauseMessage(throwable);
-            Annotation annotation = null;
-            Class<? extends LogCallback> callback = null;
-            ThrowingLog throwingLogAnnotation = method.getAnnotation(ThrowingLog.class);
-            if (throwingLogAnnotation != null) {
-                annotation = throwingLogAnnotation;
-                busName = throwingLogAnnotation.value();
-                callback = throwingLogAnnotation.callback();
-            } else {
-                Log logAnnotation = method.getAnnotation(Log.class);
-                if (logAnnotation != null) {
-                    annotation = logAnnotation;
-                    busName = logAnnotation.value();
-                    callback = logAnnotation.callback();
-                }
+            if (busName == null) {
+                busName = ExceptionUtils.getRootCauseMessage(throwable);
             }
-
-            LoggerFactory.getLogger(className).error(busName, throwable);
+            logger.error(busName, throwable);
+            LAST_THROWABLE.set(new WeakReference<>(throwable));
 
             // 执行回调
             this.callback(callback, annotation, methodInfo, null);
         } catch (Exception e) {
-            log.error("{}.{}方法错误: {}", className, methodName, e.getMessage());
+            log.error("{}.{}方法错误: {}", metadata.getClassName(), metadata.getMethodName(), e.getMessage());
         } finally {
             MDC.remove(MDC_CLASS_NAME);
             MDC.remove(MDC_METHOD_NAME);
@@ -151,21 +174,22 @@ public class LogProcessor implements Constants {
      */
     @Around(value = "@annotation(com.changhong.sei.core.log.annotation.Log)")
     public Object aroundPrint(ProceedingJoinPoint joinPoint) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         Object[] args = joinPoint.getArgs();
         Object result;
         if (this.isEnable()) {
-            Log annotation = signature.getMethod().getAnnotation(Log.class);
+            MethodMetadata metadata = MethodMetadata.of((MethodSignature) joinPoint.getSignature());
+            Log annotation = metadata.getLog();
             this.beforePrint(
-                    signature,
+                    metadata,
                     args,
-                    annotation.paramFilter(),
+                    metadata.getLogParamIndexes(),
                     annotation.value(),
                     annotation.level(),
                     annotation.position()
             );
             result = joinPoint.proceed(args);
-            MethodInfo methodInfo = this.afterPrint(signature, args, result, annotation.value(), annotation.level(), annotation.position());
+            MethodInfo methodInfo = this.afterPrint(metadata, args, metadata.getLogParamIndexes(), result,
+                    annotation.value(), annotation.level(), annotation.position());
             // 执行回调
             this.callback(annotation.callback(), annotation, methodInfo, result);
         } else {
@@ -177,51 +201,30 @@ public class LogProcessor implements Constants {
     /**
      * 打印参数日志
      *
-     * @param signature        方法签名
-     * @param args             参数列表
-     * @param filterParamNames 参数过滤列表
-     * @param busName          业务名称
-     * @param level            日志级别
-     * @param position         代码定位开启标志
+     * @param metadata     方法元数据
+     * @param args         参数列表
+     * @param paramIndexes 参数过滤后输出的参数下标
+     * @param busName      业务名称
+     * @param level        日志级别
+     * @param position     代码定位开启标志
      * @return 返回方法信息
      */
-    private MethodInfo beforePrint(MethodSignature signature, Object[] args, String[] filterParamNames, String busName, Level level, Position position) {
-        String className = signature.getDeclaringTypeName();
-        Method method = signature.getMethod();
-        String methodName = method.getName();
-        MethodInfo methodInfo = null;
-        MDC.put(MDC_CLASS_NAME, className);
-        MDC.put(MDC_METHOD_NAME, methodName);
-        if (Objects.nonNull(args)) {
-            try {
-                if (args.length == 1) {
-                    MDC.put(MDC_ARGS, JsonUtils.toJson(args[0]));
-                } else {
-                    MDC.put(MDC_ARGS, JsonUtils.toJson(args));
-                }
-            } catch (Exception ignored) {
-            }
+    private MethodInfo beforePrint(MethodMetadata metadata, Object[] args, int[] paramIndexes, String busName, Level level, Position position) {
+        MethodInfo methodInfo = metadata.newMethodInfo(args, this.isLocate(position));
+        // 目标日志器未开启对应级别时，不做参数序列化
+        if (!metadata.isEnabled(level)) {
+            return methodInfo;
+        }
+        MDC.put(MDC_CLASS_NAME, metadata.getClassName());
+        MDC.put(MDC_METHOD_NAME, metadata.getMethodName());
+        String argsJson = MethodMetadata.renderArgs(args, paramIndexes, maxLength);
+        if (Objects.nonNull(argsJson)) {
+            MDC.put(MDC_ARGS, argsJson);
         }
         try {
-            if (log.isDebugEnabled()) {
-                if (position == Position.DEFAULT || position == Position.ENABLED) {
-                    methodInfo = MethodParser.getMethodInfo(className, methodName, signature.getParameterNames(), args);
-                    this.print(methodInfo.getClassAllName(), level, busName);
-                } else {
-                    methodInfo = MethodParser.getMethodInfo(signature, args, MethodInfo.NATIVE_LINE_NUMBER);
-                    this.print(methodInfo.getClassAllName(), level, busName);
-                }
-            } else {
-                if (position == Position.ENABLED) {
-                    methodInfo = MethodParser.getMethodInfo(className, methodName, signature.getParameterNames(), args);
-                    this.print(methodInfo.getClassAllName(), level, busName);
-                } else {
-                    methodInfo = MethodParser.getMethodInfo(signature, args, MethodInfo.NATIVE_LINE_NUMBER);
-                    this.print(methodInfo.getClassAllName(), level, busName);
-                }
-            }
+            this.print(metadata.getLogger(), level, busName);
         } catch (Exception e) {
-            log.error("{}.{}方法错误: {}", className, methodName, e.getMessage());
+            log.error("{}.{}方法错误: {}", metadata.getClassName(), metadata.getMethodName(), e.getMessage());
         } finally {
             MDC.remove(MDC_CLASS_NAME);
             MDC.remove(MDC_METHOD_NAME);
@@ -233,56 +236,35 @@ public class LogProcessor implements Constants {
     /**
      * 打印返回值日志
      *
-     * @param signature 方法签名
-     * @param result    返回结果
-     * @param busName   业务名称
-     * @param level     日志级别
-     * @param position  代码定位开启标志
+     * @param metadata     方法元数据
+     * @param args         参数列表
+     * @param paramIndexes 参数过滤后输出的参数下标
+     * @param result       返回结果
+     * @param busName      业务名称
+     * @param level        日志级别
+     * @param position     代码定位开启标志
      * @return 返回方法信息
      */
-    private MethodInfo afterPrint(MethodSignature signature, Object[] args, Object result, String busName, Level level, Position position) {
-        String className = signature.getDeclaringTypeName();
-        Method method = signature.getMethod();
-        String methodName = method.getName();
-        MethodInfo methodInfo = null;
-        MDC.put(MDC_CLASS_NAME, className);
-        MDC.put(MDC_METHOD_NAME, methodName);
-        if (Objects.nonNull(args)) {
-            try {
-                if (args.length == 1) {
-                    MDC.put(MDC_ARGS, JsonUtils.toJson(args[0]));
-                } else {
-                    MDC.put(MDC_ARGS, JsonUtils.toJson(args));
-                }
-            } catch (Exception ignored) {
-            }
+    private MethodInfo afterPrint(MethodMetadata metadata, Object[] args, int[] paramIndexes, Object result, String busName, Level level, Position position) {
+        MethodInfo methodInfo = metadata.newMethodInfo(args, this.isLocate(position));
+        // 目标日志器未开启对应级别时，不做参数及结果序列化
+        if (!metadata.isEnabled(level)) {
+            return methodInfo;
+        }
+        MDC.put(MDC_CLASS_NAME, metadata.getClassName());
+        MDC.put(MDC_METHOD_NAME, metadata.getMethodName());
+        String argsJson = MethodMetadata.renderArgs(args, paramIndexes, maxLength);
+        if (Objects.nonNull(argsJson)) {
+            MDC.put(MDC_ARGS, argsJson);
         }
-
         try {
-            StringBuilder msg = new StringBuilder();
-            msg.append(busName);
+            String msg = busName;
             if (Objects.nonNull(result)) {
-                msg.append(" 处理结果: ").append(JsonUtils.toJson(result));
-            }
-            if (log.isDebugEnabled()) {
-                if (position == Position.DEFAULT || position == Position.ENABLED) {
-                    methodInfo = MethodParser.getMethodInfo(className, methodName, signature.getParameterNames(), args);
-                    this.print(methodInfo.getClassAllName(), level, msg.toString());
-                } else {
-                    methodInfo = MethodParser.getMethodInfo(signature, args, MethodInfo.NATIVE_LINE_NUMBER);
-                    this.print(methodInfo.getClassAllName(), level, msg.toString());
-                }
-            } else {
-                if (position == Position.ENABLED) {
-                    methodInfo = MethodParser.getMethodInfo(className, methodName, signature.getParameterNames(), args);
-                    this.print(methodInfo.getClassAllName(), level, msg.toString());
-                } else {
-                    methodInfo = MethodParser.getMethodInfo(signature, args, MethodInfo.NATIVE_LINE_NUMBER);
-                    this.print(methodInfo.getClassAllName(), level, msg.toString());
-                }
+                msg = busName + " 处理结果: " + MethodMetadata.renderResult(result, maxLength);
             }
+            this.print(metadata.getLogger(), level, msg);
         } catch (Exception e) {
-            log.error("{}.{}方法错误: {}", className, methodName, e.getMessage());
+            log.error("{}.{}方法错误: {}", metadata.getClassName(), metadata.getMethodName(), e.getMessage());
         } finally {
             MDC.remove(MDC_CLASS_NAME);
             MDC.remove(MDC_METHOD_NAME);
@@ -291,6 +273,33 @@ public class LogProcessor implements Constants {
         return methodInfo;
     }
 
+    /**
+     * 是否进行代码定位
+     *
+     * @param position 代码定位开启标志
+     * @return 返回布尔值
+     */
+    private boolean isLocate(Position position) {
+        if (log.isDebugEnabled()) {
+            return position == Position.DEFAULT || position == Position.ENABLED;
+        } else {
+            return position == Position.ENABLED;
+        }
+    }
+
+    /**
+     * 执行回调(未构建方法信息时按需构建)
+     */
+    private void callback(Class<? extends LogCallback> callback, Annotation annotation, MethodInfo methodInfo, MethodMetadata metadata, Object[] args) {
+        if (callback == null || annotation == null || callback == VoidLogCallback.class) {
+            return;
+        }
+        if (methodInfo == null) {
+            methodInfo = metadata.newMethodInfo(args, true);
+        }
+        this.callback(callback, annotation, methodInfo, null);
+    }
+
     /**
      * 执行回调
      *
@@ -315,11 +324,11 @@ public class LogProcessor implements Constants {
     /**
      * 打印信息
      *
-     * @param level 日志级别
+     * @param logger 日志器
+     * @param level  日志级别
      * @param msg   输出信息
      */
-    private void print(String className, Level level, String msg) {
-        Logger logger = LoggerFactory.getLogger(className);
+    private void print(Logger logger, Level level, String msg) {
         switch (level) {
             case DEBUG:
                 logger.debug(msg);
@@ -0,0 +1,247 @@
+package com.changhong.sei.core.log.support;
+
+import com.changhong.sei.core.log.Level;
+import com.changhong.sei.core.log.annotation.Log;
+import com.changhong.sei.core.log.annotation.ParamLog;
+import com.changhong.sei.core.log.annotation.ResultLog;
+import com.changhong.sei.core.log.annotation.ThrowingLog;
+import com.changhong.sei.core.util.JsonUtils;
+import javassist.CtMethod;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 切面方法元数据
+ * 每个方法只解析一次(注解、参数名、代码行号、日志器等)，避免每次调用都通过Javassist和反射解析
+ */
+final class MethodMetadata {
+    /**
+     * 截断标记
+     */
+    private static final String TRUNCATED = "...(truncated)";
+    /**
+     * 方法元数据缓存
+     */
+    private static final Map<Method, MethodMetadata> CACHE = new ConcurrentHashMap<>(256);
+
+    private final String className;
+    private final String classSimpleName;
+    private final String methodName;
+    private final List<String> paramNames;
+    private final Logger logger;
+
+    private final Log log;
+    private final ParamLog paramLog;
+    private final ResultLog resultLog;
+    private final ThrowingLog throwingLog;
+    /**
+     * 按参数过滤后需要输出的参数下标, null表示全部输出
+     */
+    private final int[] logParamIndexes;
+    private final int[] paramLogParamIndexes;
+
+    /**
+     * 代码行号，首次需要代码定位时通过Javassist解析
+     */
+    private volatile Integer lineNumber;
+
+    private MethodMetadata(MethodSignature signature) {
+        Method method = signature.getMethod();
+        this.className = signature.getDeclaringTypeName();
+        this.classSimpleName = signature.getDeclaringType().getSimpleName();
+        this.methodName = method.getName();
+        String[] parameterNames = signature.getParameterNames();
+        if (parameterNames == null) {
+            this.paramNames = Collections.emptyList();
+        } else {
+            this.paramNames = Collections.unmodifiableList(Arrays.asList(parameterNames.clone()));
+        }
+        this.logger = LoggerFactory.getLogger(className);
+
+        this.log = method.getAnnotation(Log.class);
+        this.paramLog = method.getAnnotation(ParamLog.class);
+        this.resultLog = method.getAnnotation(ResultLog.class);
+        this.throwingLog = method.getAnnotation(ThrowingLog.class);
+        this.logParamIndexes = Objects.isNull(log) ? null : paramIndexes(paramNames, log.paramFilter());
+        this.paramLogParamIndexes = Objects.isNull(paramLog) ? null : paramIndexes(paramNames, paramLog.paramFilter());
+    }
+
+    /**
+     * 获取方法元数据
+     *
+     * @param signature 方法签名
+     * @return 返回方法元数据
+     */
+    static MethodMetadata of(MethodSignature signature) {
+        Method method = signature.getMethod();
+        MethodMetadata metadata = CACHE.get(method);
+        if (metadata == null) {
+            metadata = CACHE.computeIfAbsent(method, m -> new MethodMetadata(signature));
+        }
+        return metadata;
+    }
+
+    /**
+     * 计算过滤后的参数下标
+     */
+    private static int[] paramIndexes(List<String> paramNames, String[] filter) {
+        if (filter == null || filter.length == 0 || paramNames.isEmpty()) {
+            return null;
+        }
+        Set<String> filterSet = new HashSet<>(Arrays.asList(filter));
+        int[] indexes = new int[paramNames.size()];
+        int count = 0;
+        for (int i = 0; i < paramNames.size(); i++) {
+            if (!filterSet.contains(paramNames.get(i))) {
+                indexes[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    Logger getLogger() {
+        return logger;
+    }
+
+    Log getLog() {
+        return log;
+    }
+
+    ParamLog getParamLog() {
+        return paramLog;
+    }
+
+    ResultLog getResultLog() {
+        return resultLog;
+    }
+
+    ThrowingLog getThrowingLog() {
+        return throwingLog;
+    }
+
+    int[] getLogParamIndexes() {
+        return logParamIndexes;
+    }
+
+    int[] getParamLogParamIndexes() {
+        return paramLogParamIndexes;
+    }
+
+    /**
+     * 判断日志器在指定级别是否启用
+     *
+     * @param level 日志级别
+     * @return 返回布尔值
+     */
+    boolean isEnabled(Level level) {
+        switch (level) {
+            case DEBUG:
+                return logger.isDebugEnabled();
+            case INFO:
+                return logger.isInfoEnabled();
+            case WARN:
+                return logger.isWarnEnabled();
+            case ERROR:
+                return logger.isErrorEnabled();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 创建本次调用的方法信息
+     *
+     * @param args   参数值
+     * @param locate 是否进行代码定位
+     * @return 返回方法信息
+     */
+    MethodInfo newMethodInfo(Object[] args, boolean locate) {
+        int line = locate ? resolveLineNumber() : MethodInfo.NATIVE_LINE_NUMBER;
+        return new MethodInfo(className, classSimpleName, methodName, paramNames, args, line);
+    }
+
+    /**
+     * 解析代码行号，只在首次需要时解析一次
+     */
+    private int resolveLineNumber() {
+        Integer line = lineNumber;
+        if (line == null) {
+            try {
+                CtMethod ctMethod = MethodParser.getMethod(className, methodName);
+                line = ctMethod.getMethodInfo().getLineNumber(0);
+            } catch (Exception e) {
+                line = MethodInfo.NATIVE_LINE_NUMBER;
+            }
+            lineNumber = line;
+        }
+        return line;
+    }
+
+    /**
+     * 渲染参数
+     *
+     * @param args      参数值
+     * @param indexes   需要输出的参数下标, null表示全部输出
+     * @param maxLength 最大长度
+     * @return 返回参数json，无参数时返回null
+     */
+    static String renderArgs(Object[] args, int[] indexes, int maxLength) {
+        if (Objects.isNull(args)) {
+            return null;
+        }
+        Object[] values = args;
+        if (indexes != null && indexes.length != args.length) {
+            values = new Object[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                values[i] = args[indexes[i]];
+            }
+        }
+        try {
+            if (values.length == 1) {
+                return truncate(JsonUtils.toJson(values[0]), maxLength);
+            } else {
+                return truncate(JsonUtils.toJson(values), maxLength);
+            }
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * 渲染返回结果
+     *
+     * @param result    返回结果
+     * @param maxLength 最大长度
+     * @return 返回结果json
+     */
+    static String renderResult(Object result, int maxLength) {
+        try {
+            return truncate(JsonUtils.toJson(result), maxLength);
+        } catch (Exception e) {
+            return String.valueOf(result);
+        }
+    }
+
+    /**
+     * 按最大长度截断
+     */
+    static String truncate(String str, int maxLength) {
+        if (str == null || maxLength <= 0 || str.length() <= maxLength) {
+            return str;
+        }
+        return str.substring(0, maxLength) + TRUNCATED;
+    }
+}
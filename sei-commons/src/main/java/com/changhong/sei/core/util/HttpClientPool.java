@@ -0,0 +1,304 @@
+package com.changhong.sei.core.util;
+
+import com.changhong.sei.core.config.properties.http.HttpClientProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 实现功能：
+ * HttpUtils共享的http/https连接池
+ * 连接复用(Keep-Alive)、空闲连接回收、按路由限制连接数，并提供异步请求线程池及连接池监控指标
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:32
+ */
+public class HttpClientPool implements MeterBinder, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(HttpClientPool.class);
+
+    private final MeteredConnectionManager connectionManager;
+    private final CloseableHttpClient client;
+    private final RequestConfig defaultRequestConfig;
+    private volatile boolean closed;
+    private final ThreadPoolExecutor asyncExecutor;
+
+    private final LongAdder leaseCount = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+    private final LongAdder asyncRejectedCount = new LongAdder();
+
+    public HttpClientPool(HttpClientProperties properties) {
+        // 设置协议http和https对应的处理socket链接工厂的对象(https绕过证书)
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.INSTANCE)
+                .register("https", createSSLInsecureSocketFactory())
+                .build();
+        this.connectionManager = new MeteredConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getDefaultMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(properties.getValidateAfterInactivity());
+        if (Objects.nonNull(properties.getMaxPerRoute())) {
+            for (Map.Entry<String, Integer> entry : properties.getMaxPerRoute().entrySet()) {
+                connectionManager.setMaxPerRoute(createRoute(entry.getKey()), entry.getValue());
+            }
+        }
+
+        // 服务端未指定Keep-Alive时，使用配置的连接保持时间
+        final long keepAlive = properties.getKeepAlive();
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : keepAlive;
+        };
+        this.defaultRequestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(properties.getConnectionRequestTimeout())
+                .build();
+        this.client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .setDefaultRequestConfig(defaultRequestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getMaxIdleTime(), TimeUnit.MILLISECONDS)
+                .build();
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.asyncExecutor = new ThreadPoolExecutor(properties.getAsyncThreads(), properties.getAsyncThreads(),
+                60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.getAsyncQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sei-http-async-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    // 队列已满或已关闭：拒绝执行，不占用调用线程
+                    asyncRejectedCount.increment();
+                    throw new RejectedExecutionException(executor.isShutdown() ? "HttpClient连接池已关闭" : "异步请求队列已满");
+                });
+        this.asyncExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return 返回共享的httpclient
+     */
+    public CloseableHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * 请求级配置需以此为基础(RequestConfig.copy)，否则会覆盖获取连接的超时时间
+     *
+     * @return 返回连接池默认的请求配置
+     */
+    public RequestConfig getDefaultRequestConfig() {
+        return defaultRequestConfig;
+    }
+
+    /**
+     * 队列已满时抛出RejectedExecutionException
+     *
+     * @return 返回异步请求线程池
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    /**
+     * 在异步请求线程池中执行
+     * 队列已满时不在调用线程中执行，返回以RejectedExecutionException失败的CompletableFuture
+     *
+     * @param supplier 请求
+     * @return 返回请求结果
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, asyncExecutor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * @return 返回连接池统计(已租用、等待、可用、最大连接数)
+     */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * @return 返回指定路由的连接池统计
+     */
+    public PoolStats getStats(String url) {
+        return connectionManager.getStats(createRoute(url));
+    }
+
+    public long getLeaseCount() {
+        return leaseCount.sum();
+    }
+
+    /**
+     * @return 返回从连接池获取连接的累计等待时间(纳秒)
+     */
+    public long getLeaseWaitNanos() {
+        return leaseWaitNanos.sum();
+    }
+
+    public long getAsyncRejectedCount() {
+        return asyncRejectedCount.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sei.http.client.connections", this, pool -> pool.getTotalStats().getLeased())
+                .tag("state", "leased")
+                .description("已租用连接数")
+                .register(registry);
+        Gauge.builder("sei.http.client.connections", this, pool -> pool.getTotalStats().getAvailable())
+                .tag("state", "available")
+                .description("空闲连接数")
+                .register(registry);
+        Gauge.builder("sei.http.client.connections.pending", this, pool -> pool.getTotalStats().getPending())
+                .description("等待获取连接的请求数")
+                .register(registry);
+        Gauge.builder("sei.http.client.connections.max", this, pool -> pool.getTotalStats().getMax())
+                .description("最大连接数")
+                .register(registry);
+        FunctionTimer.builder("sei.http.client.connections.wait", this,
+                HttpClientPool::getLeaseCount, HttpClientPool::getLeaseWaitNanos, TimeUnit.NANOSECONDS)
+                .description("从连接池获取连接的等待时间")
+                .register(registry);
+        Gauge.builder("sei.http.client.async.queued", asyncExecutor, executor -> executor.getQueue().size())
+                .description("异步请求排队数")
+                .register(registry);
+        FunctionCounter.builder("sei.http.client.async.rejected", this, HttpClientPool::getAsyncRejectedCount)
+                .description("异步请求队列已满被拒绝的次数")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        asyncExecutor.shutdown();
+        try {
+            client.close();
+        } catch (IOException e) {
+            LOG.warn("关闭HttpClient连接池异常", e);
+        }
+    }
+
+    /**
+     * @return 是否已关闭
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 由url创建路由
+     */
+    private static HttpRoute createRoute(String url) {
+        HttpHost host = HttpHost.create(url);
+        boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+        if (host.getPort() < 0) {
+            host = new HttpHost(host.getHostName(), secure ? 443 : 80, host.getSchemeName());
+        }
+        return new HttpRoute(host, null, secure);
+    }
+
+    /**
+     * 描述: 创建 SSL连接工厂（绕过证书）
+     */
+    private static SSLConnectionSocketFactory createSSLInsecureSocketFactory() {
+        try {
+            SSLContext sslcontext = SSLContext.getInstance("TLS");
+            // 实现一个X509TrustManager接口，用于绕过验证，不用修改里面的方法
+            X509TrustManager trustManager = new X509TrustManager() {
+                @Override
+                public void checkClientTrusted(java.security.cert.X509Certificate[] paramArrayOfX509Certificate, String paramString) {
+                }
+
+                @Override
+                public void checkServerTrusted(java.security.cert.X509Certificate[] paramArrayOfX509Certificate, String paramString) {
+                }
+
+                @Override
+                public java.security.cert.X509Certificate[] getAcceptedIssuers() {
+                    return null;
+                }
+            };
+            sslcontext.init(null, new TrustManager[]{trustManager}, null);
+            return new SSLConnectionSocketFactory(sslcontext);
+        } catch (GeneralSecurityException e) {
+            LOG.error("创建SSL连接工厂异常", e);
+            return SSLConnectionSocketFactory.getSocketFactory();
+        }
+    }
+
+    /**
+     * 记录获取连接等待时间的连接池
+     */
+    private final class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private MeteredConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry) {
+            super(socketFactoryRegistry);
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            final ConnectionRequest request = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit tunit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return request.get(timeout, tunit);
+                    } finally {
+                        leaseCount.increment();
+                        leaseWaitNanos.add(System.nanoTime() - start);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+}
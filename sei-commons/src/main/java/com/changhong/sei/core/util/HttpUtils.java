@@ -1,5 +1,6 @@
 package com.changhong.sei.core.util;
 
+import com.changhong.sei.core.config.properties.http.HttpClientProperties;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.*;
 import org.apache.http.client.HttpClient;
@@ -8,38 +9,27 @@ import org.apache.http.client.config.RequestConfig.Builder;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.config.Registry;
-import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.ConnectTimeoutException;
-import org.apache.http.conn.socket.ConnectionSocketFactory;
-import org.apache.http.conn.socket.PlainConnectionSocketFactory;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.entity.mime.content.ByteArrayBody;
 import org.apache.http.entity.mime.content.ContentBody;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.util.EntityUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.URLEncoder;
-import java.security.GeneralSecurityException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 实现功能：
@@ -58,15 +48,36 @@ public final class HttpUtils {
     //默认mime类型
     public static final String MIMETYPE_URLENCODE = "application/x-www-form-urlencoded";
     public static final String MIMETYPE_JSON = "application/json";
-    //全局HttpClient
-    private static HttpClient client;
+    //全局连接池(http和https共用)，启用自动配置时由 sei.http.client 配置替换
+    private static volatile HttpClientPool pool = new HttpClientPool(new HttpClientProperties());
 
-    //静态初始化httpclient
-    static {
-        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
-        cm.setMaxTotal(128);
-        cm.setDefaultMaxPerRoute(128);
-        client = HttpClients.custom().setConnectionManager(cm).build();
+    /**
+     * 描述: 替换全局连接池，原连接池将被关闭
+     * 参数：(参数列表)
+     *
+     * @param httpClientPool--连接池
+     */
+    public static void setPool(HttpClientPool httpClientPool) {
+        Objects.requireNonNull(httpClientPool, "httpClientPool");
+        HttpClientPool old = pool;
+        pool = httpClientPool;
+        if (old != httpClientPool) {
+            old.close();
+        }
+    }
+
+    /**
+     * 描述: 全局连接池
+     */
+    public static HttpClientPool getPool() {
+        return pool;
+    }
+
+    /**
+     * 描述: 全局连接池统计(已租用、等待、可用、最大连接数)
+     */
+    public static PoolStats getPoolStats() {
+        return pool.getTotalStats();
     }
 
     /**
@@ -234,27 +245,12 @@ public final class HttpUtils {
                 }
             }
             //设置配置参数
-            Builder customReqConf = RequestConfig.custom();
-            if (connTimeout != null) {
-                customReqConf.setConnectTimeout(connTimeout);
-            }
-            if (readTimeout != null) {
-                customReqConf.setSocketTimeout(readTimeout);
-            }
-            post.setConfig(customReqConf.build());
+            post.setConfig(createRequestConfig(connTimeout, readTimeout));
             result = responseText(client.execute(post));
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         } finally {
             post.releaseConnection();
-            if (url.startsWith("https") && client instanceof CloseableHttpClient) {
-                try {
-                    ((CloseableHttpClient) client).close();
-                } catch (IOException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
-                }
-            }
         }
         return result;
     }
@@ -290,27 +286,12 @@ public final class HttpUtils {
                 }
             }
             // 设置参数
-            Builder customReqConf = RequestConfig.custom();
-            if (connTimeout != null) {
-                customReqConf.setConnectTimeout(connTimeout);
-            }
-            if (readTimeout != null) {
-                customReqConf.setSocketTimeout(readTimeout);
-            }
-            post.setConfig(customReqConf.build());
+            post.setConfig(createRequestConfig(connTimeout, readTimeout));
             result = responseText(client.execute(post));
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         } finally {
             post.releaseConnection();
-            if (url.startsWith("https") && client instanceof CloseableHttpClient) {
-                try {
-                    ((CloseableHttpClient) client).close();
-                } catch (IOException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
-                }
-            }
         }
         return result;
     }
@@ -336,31 +317,33 @@ public final class HttpUtils {
         }
         try {
             // 设置参数
-            Builder customReqConf = RequestConfig.custom();
-            if (connTimeout != null) {
-                customReqConf.setConnectTimeout(connTimeout);
-            }
-            if (readTimeout != null) {
-                customReqConf.setSocketTimeout(readTimeout);
-            }
-            get.setConfig(customReqConf.build());
+            get.setConfig(createRequestConfig(connTimeout, readTimeout));
             result = responseText(client.execute(get));
         } catch (Exception e) {
             throw new RuntimeException(e.getMessage(), e);
         } finally {
             get.releaseConnection();
-            if (url.startsWith("https") && client instanceof CloseableHttpClient) {
-                try {
-                    ((CloseableHttpClient) client).close();
-                } catch (IOException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
-                }
-            }
         }
         return result;
     }
 
+    /**
+     * 描述: 以连接池默认配置为基础创建请求配置，保留获取连接的超时时间
+     *
+     * @param connTimeout--连接超时时间
+     * @param readTimeout--读取响应超时时间
+     */
+    private static RequestConfig createRequestConfig(Integer connTimeout, Integer readTimeout) {
+        Builder customReqConf = RequestConfig.copy(pool.getDefaultRequestConfig());
+        if (connTimeout != null) {
+            customReqConf.setConnectTimeout(connTimeout);
+        }
+        if (readTimeout != null) {
+            customReqConf.setSocketTimeout(readTimeout);
+        }
+        return customReqConf.build();
+    }
+
     /**
      * 描述: http or https 文件中转上传
      * 参数：(参数列表)
@@ -388,76 +371,83 @@ public final class HttpUtils {
             throw new RuntimeException(e.getMessage(), e);
         } finally {
             post.releaseConnection();
-            if (serverUrl.startsWith("https") && client instanceof CloseableHttpClient) {
-                try {
-                    ((CloseableHttpClient) client).close();
-                } catch (IOException e) {
-                    // TODO Auto-generated catch block
-                    e.printStackTrace();
-                }
-            }
         }
         return result;
     }
 
     /**
-     * 描述: 创建 SSL连接（绕过证书）
+     * 描述: 异步 http or https post请求（body体参数json）
      * 参数：(参数列表)
+     *
+     * @param url--请求链接
+     * @param parameterStr--body体参数json的string格式
+     * @param headers--请求头部参数
      */
-    private static CloseableHttpClient createSSLInsecureClient() {
-        try {
-            SSLContext sslcontext = SSLContext.getInstance("SSLv3");
-            // 实现一个X509TrustManager接口，用于绕过验证，不用修改里面的方法
-            X509TrustManager trustManager = new X509TrustManager() {
-                @Override
-                public void checkClientTrusted(java.security.cert.X509Certificate[] paramArrayOfX509Certificate, String paramString) {
-                }
+    public static CompletableFuture<String> sendPostAsync(String url, String parameterStr, Map<String, String> headers) {
+        return postAsync(url, parameterStr, MIMETYPE_JSON, CHARSET, headers, CONNTIMEOUT, READTIMEOUT);
+    }
 
-                @Override
-                public void checkServerTrusted(java.security.cert.X509Certificate[] paramArrayOfX509Certificate, String paramString) {
-                }
+    /**
+     * 描述: 异步 http or https get请求
+     * 参数：(参数列表)
+     *
+     * @param url--请求链接
+     * @param headers--请求头键值对
+     */
+    public static CompletableFuture<String> sendGetAsync(String url, Map<String, String> headers) {
+        return getAsync(url, CHARSET, headers, CONNTIMEOUT, READTIMEOUT);
+    }
 
-                @Override
-                public java.security.cert.X509Certificate[] getAcceptedIssuers() {
-                    return null;
-                }
-            };
-            sslcontext.init(null, new TrustManager[]{trustManager}, null);
-
-            //设置协议http和https对应的处理socket链接工厂的对象
-            Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
-                    .register("http", PlainConnectionSocketFactory.INSTANCE)
-                    .register("https", new SSLConnectionSocketFactory(sslcontext))
-                    .build();
-            PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
-            return HttpClients.custom().setConnectionManager(connManager).build();
-
-//            SSLContext sslContext = new SSLContextBuilder().loadTrustMaterial(null, (chain, authType) -> true).build();
-//            SSLConnectionSocketFactory sslsf = new SSLConnectionSocketFactory(
-//                    sslContext, new X509HostnameVerifier() {
-//                @Override
-//                public boolean verify(String arg0, SSLSession arg1) {
-//                    return true;
-//                }
-//
-//                @Override
-//                public void verify(String host, SSLSocket ssl) {
-//                }
-//
-//                @Override
-//                public void verify(String host, X509Certificate cert) {
-//                }
-//
-//                @Override
-//                public void verify(String host, String[] cns,
-//                                   String[] subjectAlts) {
-//                }
-//            });
-//            return HttpClients.custom().setSSLSocketFactory(sslsf).build();
-        } catch (GeneralSecurityException e) {
-            e.printStackTrace();
-            return null;
+    /**
+     * 描述: 异步 http or https post请求处理方法(requestbody传参)
+     * 在共享连接池上由异步请求线程池执行，线程池队列已满时返回以RejectedExecutionException失败的结果
+     * 参数：(参数列表)
+     *
+     * @param url--请求链接
+     * @param body--RequestBody
+     * @param mimeType--消息类型
+     * @param charset--字符编码
+     * @param headers--请求头键值对
+     * @param connTimeout--连接超时时间
+     * @param readTimeout--读取响应超时时间
+     */
+    public static CompletableFuture<String> postAsync(String url, String body, String mimeType, String charset, Map<String, String> headers, Integer connTimeout, Integer readTimeout) {
+        return pool.supplyAsync(() -> post(url, body, mimeType, charset, headers, connTimeout, readTimeout));
+    }
+
+    /**
+     * 描述: 异步 http or https get请求处理方法
+     * 在共享连接池上由异步请求线程池执行，线程池队列已满时返回以RejectedExecutionException失败的结果
+     * 参数：(参数列表)
+     *
+     * @param url--请求链接
+     * @param charset--字符编码
+     * @param headers--请求头键值对
+     * @param connTimeout--连接超时时间
+     * @param readTimeout--响应超时时间
+     */
+    public static CompletableFuture<String> getAsync(String url, String charset, Map<String, String> headers, Integer connTimeout, Integer readTimeout) {
+        return pool.supplyAsync(() -> get(url, charset, headers, connTimeout, readTimeout));
+    }
+
+    /**
+     * 描述: 合并批量异步请求，所有请求完成后按原顺序返回结果，任一请求异常时整体异常
+     * 参数：(参数列表)
+     *
+     * @param futures--异步请求
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        if (futures == null || futures.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<T> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
     }
 
     /**
@@ -488,10 +478,12 @@ public final class HttpUtils {
      */
     public static String responseText(HttpResponse res) {
         try {
+            HttpEntity entity = res.getEntity();
             if (HttpStatus.SC_OK == res.getStatusLine().getStatusCode()) {
-                HttpEntity entity = res.getEntity();
                 return EntityUtils.toString(entity, CHARSET);
             }
+            // 读完响应体, 使连接可归还连接池复用
+            EntityUtils.consumeQuietly(entity);
         } catch (Exception e) {
             // TODO: handle exception
             e.printStackTrace();
@@ -504,13 +496,8 @@ public final class HttpUtils {
      * 参数：(参数列表)
      */
     public static HttpClient createClient(String url) {
-        if (url.startsWith("https")) {
-            // 执行 Https 请求.创建自定义的httpclient对象
-            return createSSLInsecureClient();
-        } else {
-            // 执行 Http 请求.
-            return HttpUtils.client;
-        }
+        // http与https请求共用连接池, 连接可复用(https绕过证书)
+        return pool.getClient();
     }
 
     ////////////////////////////////////////////////////////////
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
 import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
@@ -15,12 +16,17 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <strong>实现功能:</strong>.
@@ -57,6 +63,12 @@ import java.util.*;
  *     // 获取Mapper对象
  *     {@link JsonUtils JsonUtil}.mapper();
  * </pre>
+ * <pre>
+ *     // 直接写入输出流/从输入流读取(不经过中间字符串, 不关闭流)
+ *     {@link JsonUtils JsonUtil}.toJson(user, outputStream);
+ *     {@link JsonUtils JsonUtil}.fromJson(inputStream, User.class);
+ * </pre>
+ * 每种Inclusion共用一个ObjectMapper(只读, 线程安全)，排除属性通过缓存的ObjectWriter实现，不修改共享的ObjectMapper
  *
  * @author 马超(Vision.Mac)
  * @version 1.0.1 2017-04-14 16:12
@@ -69,10 +81,36 @@ import java.util.*;
 @SuppressWarnings("unchecked")
 public final class JsonUtils {
 
+    /**
+     * 排除属性的过滤器id(需在类上标注@JsonFilter("customFilter"))
+     */
+    private static final String CUSTOM_FILTER = "customFilter";
+    /**
+     * 缓存的ObjectWriter最大数量(超过后清空)
+     */
+    private static final int MAX_CACHED_WRITERS = 512;
+
+    /**
+     * 按Inclusion缓存的ObjectMapper(创建后不再修改)
+     */
+    private static final Map<JsonInclude.Include, ObjectMapper> MAPPERS = new EnumMap<>(JsonInclude.Include.class);
+    /**
+     * 按Inclusion及排除属性缓存的ObjectWriter
+     */
+    private static final ConcurrentMap<WriterKey, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
     private static final ObjectMapper DEFAULT_OBJECT_MAPPER;
+    /**
+     * 反序列化使用的ObjectMapper
+     */
+    private static final ObjectMapper READER_OBJECT_MAPPER;
 
     static {
-        DEFAULT_OBJECT_MAPPER = generateMapper(JsonInclude.Include.ALWAYS);
+        for (JsonInclude.Include include : JsonInclude.Include.values()) {
+            MAPPERS.put(include, generateMapper(include));
+        }
+        DEFAULT_OBJECT_MAPPER = MAPPERS.get(JsonInclude.Include.ALWAYS);
+        READER_OBJECT_MAPPER = MAPPERS.get(JsonInclude.Include.NON_NULL);
     }
 
     /**
@@ -109,6 +147,8 @@ public final class JsonUtils {
 
         //空对象不要抛异常
         objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        //未指定排除属性时，标注了@JsonFilter的类输出全部属性
+        objectMapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
 
         //单引号处理
         objectMapper.configure(JsonParser.Feature.ALLOW_SINGLE_QUOTES, true);
@@ -153,8 +193,7 @@ public final class JsonUtils {
             return null;
         } else {
             try {
-                ObjectMapper om = mapper();
-                return clazz.equals(String.class) ? (T) json : om.readValue(json, clazz);
+                return clazz.equals(String.class) ? (T) json : READER_OBJECT_MAPPER.readValue(json, clazz);
             } catch (Exception e) {
                 throw new RuntimeException(e.getMessage(), e);
             }
@@ -174,7 +213,7 @@ public final class JsonUtils {
             return null;
         } else {
             try {
-                ObjectMapper om = mapper();
+                ObjectMapper om = READER_OBJECT_MAPPER;
 //                JavaType javaType = om.getTypeFactory().constructParametricType(ArrayList.class, clazz);
                 JavaType javaType = om.getTypeFactory().constructCollectionType(List.class, clazz);
                 return om.readValue(json, javaType);
@@ -186,24 +225,20 @@ public final class JsonUtils {
     }
 
     public static Map<String, Object> object2Map(Object o) {
-        ObjectMapper om = mapper();
-        return om.convertValue(o, Map.class);
+        return READER_OBJECT_MAPPER.convertValue(o, Map.class);
     }
 
     /**
      * 将 json 字段串转换为 数据.
      */
     public static <T> T[] json2Array(String json, Class<T[]> clazz) throws IOException {
-        ObjectMapper om = mapper();
-        return om.readValue(json, clazz);
+        return READER_OBJECT_MAPPER.readValue(json, clazz);
 
     }
 
     public static <T> T node2Object(JsonNode jsonNode, Class<T> clazz) {
         try {
-            ObjectMapper om = mapper();
-            T t = om.treeToValue(jsonNode, clazz);
-            return t;
+            return READER_OBJECT_MAPPER.treeToValue(jsonNode, clazz);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("将 Json 转换为对象时异常,数据是:" + jsonNode.toString(), e);
         }
@@ -211,7 +246,7 @@ public final class JsonUtils {
 
     public static JsonNode object2Node(Object o) {
         try {
-            ObjectMapper om = mapper();
+            ObjectMapper om = READER_OBJECT_MAPPER;
             if (o == null) {
                 return om.createObjectNode();
             } else {
@@ -292,19 +327,116 @@ public final class JsonUtils {
             return (String) src;
         } else {
             try {
-                ObjectMapper om = (null == inclusion) ? DEFAULT_OBJECT_MAPPER : generateMapper(inclusion);
-                if (null != properties && properties.length > 0) {
-                    FilterProvider fp = new SimpleFilterProvider().addFilter("customFilter", SimpleBeanPropertyFilter.serializeAllExcept(properties));
-                    om.setFilterProvider(fp);
-                }
-
-                return om.writeValueAsString(src);
+                return writer(inclusion, properties).writeValueAsString(src);
             } catch (Exception e) {
                 throw new RuntimeException(e.getMessage(), e);
             }
         }
     }
 
+    /**
+     * 将对象转换成json并写入输出流(不关闭输出流)
+     *
+     * @param <T> 泛型
+     * @param src 对象
+     * @param out 输出流
+     */
+    public static <T> void toJson(T src, OutputStream out) {
+        toJson(src, out, null);
+    }
+
+    /**
+     * 将对象转换成json并写入输出流(不关闭输出流), 可以设置输出属性
+     *
+     * @param <T>        泛型
+     * @param src        对象
+     * @param out        输出流
+     * @param inclusion  传入一个枚举值, 设置输出属性
+     * @param properties 过滤属性(排除的属性)
+     */
+    public static <T> void toJson(T src, OutputStream out, JsonInclude.Include inclusion, String... properties) {
+        if (null == src) {
+            return;
+        }
+        try {
+            if (src instanceof String) {
+                out.write(((String) src).getBytes(StandardCharsets.UTF_8));
+            } else {
+                writer(inclusion, properties).writeValue(out, src);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从输入流读取json并转换成对象(不关闭输入流)
+     *
+     * @param <T>   泛型
+     * @param in    输入流
+     * @param clazz 泛型类型
+     * @return 返回对象
+     */
+    public static <T> T fromJson(InputStream in, Class<T> clazz) {
+        if (null == in) {
+            return null;
+        }
+        try {
+            return READER_OBJECT_MAPPER.readerFor(clazz).without(JsonParser.Feature.AUTO_CLOSE_SOURCE).readValue(in);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 从输入流读取json并转换成对象(不关闭输入流)
+     *
+     * @param <T>  泛型
+     * @param in   输入流
+     * @param type 引用类型
+     * @return 返回对象
+     */
+    public static <T> T fromJson(InputStream in, TypeReference<T> type) {
+        if (null == in) {
+            return null;
+        }
+        try {
+            return READER_OBJECT_MAPPER.readerFor(type).without(JsonParser.Feature.AUTO_CLOSE_SOURCE).readValue(in);
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取指定Inclusion及排除属性的ObjectWriter(线程安全, 按参数缓存)
+     *
+     * @param inclusion  输出属性, 为空时全部列入
+     * @param properties 排除的属性
+     * @return ObjectWriter
+     */
+    private static ObjectWriter writer(JsonInclude.Include inclusion, String... properties) {
+        JsonInclude.Include include = (null == inclusion) ? JsonInclude.Include.ALWAYS : inclusion;
+        WriterKey key = new WriterKey(include, properties);
+        ObjectWriter writer = WRITERS.get(key);
+        if (null == writer) {
+            ObjectMapper om = MAPPERS.get(include);
+            if (null != properties && properties.length > 0) {
+                FilterProvider fp = new SimpleFilterProvider().setFailOnUnknownId(false)
+                        .addFilter(CUSTOM_FILTER, SimpleBeanPropertyFilter.serializeAllExcept(properties));
+                writer = om.writer(fp);
+            } else {
+                writer = om.writer();
+            }
+            // 写入输出流时不关闭输出流
+            writer = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (WRITERS.size() >= MAX_CACHED_WRITERS) {
+                WRITERS.clear();
+            }
+            WRITERS.putIfAbsent(key, writer);
+        }
+        return writer;
+    }
+
     /**
      * 将对象转换成json, 传入配置对象
      * <pre>
@@ -405,6 +537,38 @@ public final class JsonUtils {
 
     ////////////////////////
 
+    /**
+     * ObjectWriter缓存键
+     */
+    private static final class WriterKey {
+        private final JsonInclude.Include include;
+        private final String[] properties;
+        private final int hash;
+
+        private WriterKey(JsonInclude.Include include, String[] properties) {
+            this.include = include;
+            this.properties = (null == properties || properties.length == 0) ? null : properties.clone();
+            this.hash = 31 * include.hashCode() + Arrays.hashCode(this.properties);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WriterKey)) {
+                return false;
+            }
+            WriterKey that = (WriterKey) o;
+            return include == that.include && Arrays.equals(properties, that.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
     /**
      * 当序列化类型为array，list、set时，当值为空时，序列化成[]
      * 为数值类型时，当值为空时，序列化成0
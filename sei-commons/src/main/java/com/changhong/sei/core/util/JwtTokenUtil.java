@@ -20,6 +20,10 @@ public final class JwtTokenUtil {
 
     private String jwtSecret = "SecretKey_ECMP";
     private Integer jwtExpiration = 36000;
+    /**
+     * 签名密钥，由jwtSecret生成一次后复用
+     */
+    private volatile SecretKey signingKey;
 
     public String getJwtSecret() {
         return jwtSecret;
@@ -27,6 +31,7 @@ public final class JwtTokenUtil {
 
     public void setJwtSecret(String jwtSecret) {
         this.jwtSecret = jwtSecret;
+        this.signingKey = null;
     }
 
     public Integer getJwtExpiration() {
@@ -104,12 +109,17 @@ public final class JwtTokenUtil {
 
     /**
      * 由字符串生成加密key
+     * 密钥只在首次使用或jwtSecret变更后生成一次
      *
-     * @return
+     * @return 返回签名密钥
      */
     private SecretKey generalKey() {
-        byte[] encodedKey = Base64.encodeBase64(jwtSecret.getBytes());
-        SecretKey key = new SecretKeySpec(encodedKey, 0, encodedKey.length, "AES");
+        SecretKey key = signingKey;
+        if (key == null) {
+            byte[] encodedKey = Base64.encodeBase64(jwtSecret.getBytes());
+            key = new SecretKeySpec(encodedKey, 0, encodedKey.length, "AES");
+            signingKey = key;
+        }
         return key;
     }
 
@@ -0,0 +1,85 @@
+package com.changhong.sei.core.context;
+
+import com.changhong.sei.core.util.JwtTokenUtil;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 已验证token缓存的命中、过期、注销及签名密钥变更
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 16:20
+ */
+class SessionUserTokenCacheTest {
+    private JwtTokenUtil jwtTokenUtil;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        jwtTokenUtil.setJwtSecret("test-secret");
+        SessionUser user = new SessionUser();
+        user.setUserId("u1");
+        user.setAccount("admin");
+        user.setTenantCode("10044");
+        token = ContextUtil.generateToken(user, jwtTokenUtil);
+    }
+
+    @Test
+    void hit() throws Exception {
+        SessionUserTokenCache cache = new SessionUserTokenCache(jwtTokenUtil);
+        SessionUser first = cache.getSessionUser(token);
+        first.setUserName("changed");
+        SessionUser second = cache.getSessionUser(token);
+
+        assertEquals("u1", second.getUserId());
+        assertEquals("10044", second.getTenantCode());
+        assertEquals(token, second.getToken());
+        // 每次返回新的实例，调用方修改不影响缓存
+        assertNotSame(first, second);
+        assertNotEquals("changed", second.getUserName());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getVerifyCount());
+    }
+
+    @Test
+    void expiry() throws Exception {
+        SessionUserTokenCache cache = new SessionUserTokenCache(jwtTokenUtil, 100, 1);
+        cache.getSessionUser(token);
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertEquals("u1", cache.getSessionUser(token).getUserId());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getVerifyCount());
+    }
+
+    @Test
+    void revoke() throws Exception {
+        SessionUserTokenCache cache = new SessionUserTokenCache(jwtTokenUtil);
+        cache.getSessionUser(token);
+        cache.revoke(token);
+        assertThrows(JwtException.class, () -> cache.getSessionUser(token));
+        assertEquals(0, cache.size());
+
+        // 其他token不受影响
+        SessionUser other = new SessionUser();
+        other.setUserId("u2");
+        assertEquals("u2", cache.getSessionUser(ContextUtil.generateToken(other, jwtTokenUtil)).getUserId());
+    }
+
+    @Test
+    void secretChanged() throws Exception {
+        SessionUserTokenCache cache = new SessionUserTokenCache(jwtTokenUtil);
+        cache.getSessionUser(token);
+        jwtTokenUtil.setJwtSecret("rotated-secret");
+        // 原密钥签名的token不再由缓存认可
+        assertThrows(JwtException.class, () -> cache.getSessionUser(token));
+        assertEquals(0, cache.getHitCount());
+    }
+}
@@ -0,0 +1,120 @@
+package com.changhong.sei.core.context.async;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 异步任务执行器监控指标及虚拟线程模式的退化
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 15:50
+ */
+class AsyncTaskMetricsTest {
+
+    @Test
+    void recordsQueuedActiveAndTimes() throws Exception {
+        AsyncTaskMetrics metrics = new AsyncTaskMetrics(ThreadPoolTaskConfig.MODE_POOL);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = metrics.wrap(() -> {
+            started.countDown();
+            await(release);
+        });
+        Runnable quick = metrics.wrap(() -> {
+        });
+        assertEquals(2, registry.get("sei.async.executor.queued").tag("mode", "pool").gauge().value());
+
+        Thread thread = new Thread(blocking);
+        thread.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(1, registry.get("sei.async.executor.queued").gauge().value());
+        assertEquals(1, registry.get("sei.async.executor.active").tag("mode", "pool").gauge().value());
+
+        release.countDown();
+        thread.join(5000);
+        quick.run();
+        metrics.rejected();
+
+        assertEquals(0, registry.get("sei.async.executor.queued").gauge().value());
+        assertEquals(0, registry.get("sei.async.executor.active").gauge().value());
+        assertEquals(2, registry.get("sei.async.executor.execution").functionTimer().count());
+        assertEquals(2, registry.get("sei.async.executor.wait").functionTimer().count());
+        assertTrue(registry.get("sei.async.executor.execution").functionTimer().totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(1, registry.get("sei.async.executor.rejected").functionCounter().count());
+    }
+
+    @Test
+    void poolMode() {
+        ThreadPoolTaskConfig config = new ThreadPoolTaskConfig();
+        ReflectionTestUtils.setField(config, "mode", ThreadPoolTaskConfig.MODE_POOL);
+        assertEquals(ThreadPoolTaskConfig.MODE_POOL, config.asyncTaskMetrics().getMode());
+    }
+
+    /**
+     * 虚拟线程模式：JDK不支持时退化为work-stealing线程池，指标在注册前即标记实际的执行模式
+     */
+    @Test
+    void virtualModeFallsBack() throws Exception {
+        ThreadPoolTaskConfig config = new ThreadPoolTaskConfig();
+        ReflectionTestUtils.setField(config, "mode", ThreadPoolTaskConfig.MODE_VIRTUAL);
+        ReflectionTestUtils.setField(config, "threadNamePrefix", "test-async-");
+        ReflectionTestUtils.setField(config, "maxPoolSize", 2);
+        ReflectionTestUtils.setField(config, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(config, "awaitTerminationSeconds", 5);
+
+        boolean virtual = VirtualThreadTaskExecutor.isVirtualThreadSupported();
+        String expectedMode = virtual ? ThreadPoolTaskConfig.MODE_VIRTUAL : ThreadPoolTaskConfig.MODE_WORK_STEALING;
+        AsyncTaskMetrics metrics = config.asyncTaskMetrics();
+        assertEquals(expectedMode, metrics.getMode());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        Executor executor = config.getAsyncExecutor();
+        assertSame(metrics, config.asyncTaskMetrics());
+        assertTrue(executor instanceof VirtualThreadTaskExecutor);
+        assertEquals(virtual, ((VirtualThreadTaskExecutor) executor).isVirtual());
+
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 2; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    await(release);
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // 超过最大并发任务数时由调用线程执行
+            AtomicReference<Thread> runner = new AtomicReference<>();
+            executor.execute(() -> runner.set(Thread.currentThread()));
+            assertSame(Thread.currentThread(), runner.get());
+            assertEquals(1, registry.get("sei.async.executor.rejected").tag("mode", expectedMode).functionCounter().count());
+            assertEquals(2, registry.get("sei.async.executor.active").tag("mode", expectedMode).gauge().value());
+        } finally {
+            release.countDown();
+            config.destroy();
+        }
+        assertEquals(2, metrics.getCompletedCount());
+        assertEquals(0, metrics.getActive());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.changhong.sei.core.encryption.provider;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * AES/DES加解密与原实现(共享同步Cipher)的密文一致
+ * 固定的密文由原实现生成，明文只使用ASCII字符(与平台默认编码无关)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 17:10
+ */
+class CipherEncryptProviderTest {
+    private static final List<String> PLAINS = Arrays.asList("", "admin", "P@ssw0rd!", "0123456789abcdef",
+            "jdbc:mysql://10.4.208.86:3306/sei_demo?useSSL=false");
+    /**
+     * 密钥sei
+     */
+    private static final List<String> AES_CIPHERS = Arrays.asList(
+            "5a694b334f385a31796e654e7872745733756b6351773d3d",
+            "446e3364597731384130722b747543507949706a4b673d3d",
+            "6f6935495562734f7a32786653595178785a7a6945673d3d",
+            "4b666e6b746851666335396b7a7273333934696747375a704e4a6e455750324f554b685a583755793365673d",
+            "61425668344a454a4b4662714d6972623953705a6d467945676355594c6741724b6e476d794f6539594d304841373545514b6e5957317059654975684e67516e776878676430484938722b34496f4341345367644f413d3d");
+    /**
+     * 密钥12345678
+     */
+    private static final List<String> DES_CIPHERS = Arrays.asList(
+            "2f726c5a7439526b4c38733d",
+            "544d52323959746e4750493d",
+            "35675147486741476149786f656c624e74592f6851413d3d",
+            "6937523644504370596d307030585144656f763274763635576266555a432f4c",
+            "49694c796650374e45376f5562316c62706a2f54765a724f30674d4b366776776e3462754b6d79556241304f596b54584e397350796c36343663595a6866444b31516337507979343737453d");
+
+    @Test
+    void aes() {
+        AesEncryptProvider provider = new AesEncryptProvider("sei");
+        for (int i = 0; i < PLAINS.size(); i++) {
+            assertEquals(AES_CIPHERS.get(i), provider.encrypt(PLAINS.get(i)));
+            assertEquals(PLAINS.get(i), provider.decrypt(AES_CIPHERS.get(i)));
+        }
+        // 解密兼容大写的十六进制
+        assertEquals("admin", provider.decrypt(AES_CIPHERS.get(1).toUpperCase()));
+        // 密钥不同时解密失败
+        assertNull(new AesEncryptProvider("other").decrypt(AES_CIPHERS.get(1)));
+    }
+
+    @Test
+    void des() {
+        DesEncryptProvider provider = new DesEncryptProvider("12345678");
+        for (int i = 0; i < PLAINS.size(); i++) {
+            assertEquals(DES_CIPHERS.get(i), provider.encrypt(PLAINS.get(i)));
+            assertEquals(PLAINS.get(i), provider.decrypt(DES_CIPHERS.get(i)));
+        }
+        assertNull(provider.decrypt("zz"));
+    }
+
+    /**
+     * 批量加解密(少量顺序执行，超过并行阈值时并行执行)的结果及顺序与逐个一致
+     */
+    @Test
+    void encryptAllAndDecryptAll() {
+        AesEncryptProvider aes = new AesEncryptProvider("sei");
+        DesEncryptProvider des = new DesEncryptProvider("12345678");
+        assertEquals(AES_CIPHERS, aes.encryptAll(PLAINS));
+        assertEquals(PLAINS, aes.decryptAll(AES_CIPHERS));
+        assertEquals(DES_CIPHERS, des.encryptAll(PLAINS));
+        assertEquals(PLAINS, des.decryptAll(DES_CIPHERS));
+
+        List<String> plains = new ArrayList<>();
+        List<String> aesCiphers = new ArrayList<>();
+        List<String> desCiphers = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int index = i % PLAINS.size();
+            plains.add(i == 500 ? null : PLAINS.get(index));
+            aesCiphers.add(i == 500 ? null : AES_CIPHERS.get(index));
+            desCiphers.add(i == 500 ? null : DES_CIPHERS.get(index));
+        }
+        assertEquals(aesCiphers, aes.encryptAll(plains));
+        assertEquals(plains, aes.decryptAll(aesCiphers));
+        assertEquals(desCiphers, des.encryptAll(plains));
+        assertEquals(plains, des.decryptAll(desCiphers));
+
+        assertTrue(aes.encryptAll(Collections.emptyList()).isEmpty());
+        assertTrue(aes.decryptAll(null).isEmpty());
+    }
+}
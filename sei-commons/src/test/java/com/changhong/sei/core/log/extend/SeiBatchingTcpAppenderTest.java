@@ -0,0 +1,209 @@
+package com.changhong.sei.core.log.extend;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.encoder.EncoderBase;
+import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.util.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 批量发送的TCP日志appender(本地ServerSocket接收)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 15:20
+ */
+class SeiBatchingTcpAppenderTest {
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final Logger logger = loggerContext.getLogger(SeiBatchingTcpAppenderTest.class);
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private ServerSocket server;
+    private SeiBatchingTcpAppender appender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    connections.incrementAndGet();
+                    Thread reader = new Thread(() -> read(socket));
+                    reader.setDaemon(true);
+                    reader.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (appender != null) {
+            appender.stop();
+        }
+        server.close();
+    }
+
+    @Test
+    void sendsInBatches() throws Exception {
+        appender = appender(new LineEncoder(0), 5, 64, Duration.buildBySeconds(10));
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.INFO, "message" + i));
+        }
+        List<String> lines = take(10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("message" + i, lines.get(i));
+        }
+        waitFor(() -> appender.getSentCount() == 10);
+        assertEquals(2, appender.getBatchCount());
+        assertEquals(0, appender.getDroppedCount());
+        assertEquals(1, connections.get());
+    }
+
+    /**
+     * 发送线程中的运行时异常记录为错误，发送线程继续运行
+     */
+    @Test
+    void runtimeExceptionKeepsSenderRunning() throws Exception {
+        appender = appender(new LineEncoder(1), 1, 64, Duration.buildByMilliseconds(50));
+        appender.doAppend(event(Level.INFO, "first"));
+        appender.doAppend(event(Level.INFO, "second"));
+
+        List<String> lines = take(2);
+        assertEquals("first", lines.get(0));
+        assertEquals("second", lines.get(1));
+        assertTrue(connections.get() >= 2);
+        boolean reported = false;
+        for (Status status : loggerContext.getStatusManager().getCopyOfStatusList()) {
+            if (status.getLevel() == Status.ERROR && status.getThrowable() instanceof IllegalStateException) {
+                reported = true;
+            }
+        }
+        assertTrue(reported);
+    }
+
+    /**
+     * 队列满时丢弃最旧的日志，停止时发送剩余的日志
+     */
+    @Test
+    void dropOldest() throws Exception {
+        appender = appender(new LineEncoder(0), 100, 4, Duration.buildBySeconds(10));
+        appender.setOverflowPolicy(SeiBatchingTcpAppender.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.INFO, "message" + i));
+        }
+        assertEquals(4, appender.getQueuedCount());
+        assertEquals(6, appender.getDroppedCount());
+
+        appender.stop();
+        List<String> lines = take(4);
+        for (int i = 0; i < 4; i++) {
+            assertEquals("message" + (i + 6), lines.get(i));
+        }
+    }
+
+    private SeiBatchingTcpAppender appender(LineEncoder encoder, int batchSize, int queueSize, Duration flushInterval) {
+        encoder.setContext(loggerContext);
+        SeiBatchingTcpAppender tcpAppender = new SeiBatchingTcpAppender();
+        tcpAppender.setContext(loggerContext);
+        tcpAppender.setName("test");
+        tcpAppender.setEncoder(encoder);
+        tcpAppender.setDestination("127.0.0.1:" + server.getLocalPort());
+        tcpAppender.setBatchSize(batchSize);
+        tcpAppender.setQueueSize(queueSize);
+        tcpAppender.setFlushInterval(flushInterval);
+        tcpAppender.setReconnectionDelay(Duration.buildByMilliseconds(50));
+        tcpAppender.start();
+        assertTrue(tcpAppender.isStarted());
+        return tcpAppender;
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+    }
+
+    private void read(Socket socket) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                received.add(line);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    private List<String> take(int count) throws InterruptedException {
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String line = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(line, "received " + lines);
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    /**
+     * 每条日志一行；前failures次获取header时抛出运行时异常
+     */
+    private static class LineEncoder extends EncoderBase<ILoggingEvent> {
+        private final AtomicInteger failures;
+
+        LineEncoder(int failures) {
+            this.failures = new AtomicInteger(failures);
+        }
+
+        @Override
+        public byte[] headerBytes() {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("header failed");
+            }
+            return null;
+        }
+
+        @Override
+        public byte[] encode(ILoggingEvent event) {
+            return (event.getFormattedMessage() + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] footerBytes() {
+            return null;
+        }
+    }
+}
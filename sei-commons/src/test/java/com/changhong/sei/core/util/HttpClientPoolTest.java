@@ -0,0 +1,170 @@
+package com.changhong.sei.core.util;
+
+import com.changhong.sei.core.config.properties.http.HttpClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * HttpUtils共享连接池的连接复用、超时及连接池耗尽
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:00
+ */
+class HttpClientPoolTest {
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fast", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(1500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "slow".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        server.stop(0);
+    }
+
+    @AfterEach
+    void resetPool() {
+        HttpUtils.setPool(new HttpClientPool(new HttpClientProperties()));
+    }
+
+    @Test
+    void reuseConnection() {
+        HttpClientPool pool = new HttpClientPool(new HttpClientProperties());
+        HttpUtils.setPool(pool);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", HttpUtils.get(baseUrl + "/fast", HttpUtils.CHARSET, null, 1000, 1000));
+        }
+        assertEquals(3, pool.getLeaseCount());
+        // Keep-Alive：三次请求复用同一个连接
+        assertEquals(1, pool.getTotalStats().getAvailable());
+        assertEquals(0, pool.getTotalStats().getLeased());
+    }
+
+    @Test
+    void readTimeout() {
+        HttpUtils.setPool(new HttpClientPool(new HttpClientProperties()));
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> HttpUtils.get(baseUrl + "/slow", HttpUtils.CHARSET, null, 1000, 200));
+        assertTrue(e.getCause() instanceof SocketTimeoutException, String.valueOf(e.getCause()));
+    }
+
+    @Test
+    void poolExhausted() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxTotal(1);
+        properties.setDefaultMaxPerRoute(1);
+        properties.setConnectionRequestTimeout(200);
+        HttpClientPool pool = new HttpClientPool(properties);
+        HttpUtils.setPool(pool);
+
+        // 占用唯一的连接
+        CompletableFuture<String> slow = HttpUtils.getAsync(baseUrl + "/slow", HttpUtils.CHARSET, null, 1000, 5000);
+        long deadline = System.currentTimeMillis() + 1000;
+        while (pool.getTotalStats().getLeased() == 0 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(1, pool.getTotalStats().getLeased());
+
+        // 请求级的连接/读取超时不覆盖连接池的获取连接超时
+        long start = System.currentTimeMillis();
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> HttpUtils.get(baseUrl + "/fast", HttpUtils.CHARSET, null, 1000, 1000));
+        assertTrue(e.getCause() instanceof ConnectionPoolTimeoutException, String.valueOf(e.getCause()));
+        assertTrue(System.currentTimeMillis() - start < 1500);
+
+        assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 异步请求队列已满时返回失败的结果，不阻塞调用线程
+     */
+    @Test
+    void asyncQueueFull() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setAsyncThreads(1);
+        properties.setAsyncQueueCapacity(1);
+        HttpClientPool pool = new HttpClientPool(properties);
+        HttpUtils.setPool(pool);
+
+        // 占用唯一的线程及队列
+        CompletableFuture<String> running = HttpUtils.getAsync(baseUrl + "/slow", HttpUtils.CHARSET, null, 1000, 5000);
+        CompletableFuture<String> queued = HttpUtils.getAsync(baseUrl + "/slow", HttpUtils.CHARSET, null, 1000, 5000);
+
+        long start = System.currentTimeMillis();
+        CompletableFuture<String> rejected = HttpUtils.getAsync(baseUrl + "/slow", HttpUtils.CHARSET, null, 1000, 5000);
+        assertTrue(System.currentTimeMillis() - start < 500);
+        assertTrue(rejected.isCompletedExceptionally());
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(e.getCause() instanceof RejectedExecutionException, String.valueOf(e.getCause()));
+        assertEquals(1, pool.getAsyncRejectedCount());
+        assertFalse(running.isCompletedExceptionally());
+        assertFalse(queued.isCompletedExceptionally());
+    }
+
+    @Test
+    void defaultConnectionRequestTimeoutIsFinite() {
+        assertTrue(new HttpClientProperties().getConnectionRequestTimeout() > 0);
+        HttpClientPool pool = new HttpClientPool(new HttpClientProperties());
+        try {
+            assertEquals(new HttpClientProperties().getConnectionRequestTimeout(),
+                    pool.getDefaultRequestConfig().getConnectionRequestTimeout());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void setPoolClosesPrevious() {
+        HttpClientPool first = new HttpClientPool(new HttpClientProperties());
+        HttpClientPool second = new HttpClientPool(new HttpClientProperties());
+        HttpUtils.setPool(first);
+        HttpUtils.setPool(second);
+        assertTrue(first.isClosed());
+        assertFalse(second.isClosed());
+        assertSame(second, HttpUtils.getPool());
+        // 同一个连接池重复设置不关闭
+        HttpUtils.setPool(second);
+        assertFalse(second.isClosed());
+    }
+}
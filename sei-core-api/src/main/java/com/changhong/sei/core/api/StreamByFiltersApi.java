@@ -0,0 +1,32 @@
+package com.changhong.sei.core.api;
+
+import com.changhong.sei.core.dto.BaseEntityDto;
+import com.changhong.sei.core.dto.serach.Search;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.io.IOException;
+
+/**
+ * <strong>实现功能:</strong>
+ * <p>流式查询业务实体API接口</p>
+ * <p>查询结果不分页，仅在需要导出等大数据量场景的服务API中按需继承；实现由BaseEntityController提供</p>
+ *
+ * @param <T> BaseEntityDto的子类
+ * @author agent
+ * @version 1.0.00  2026-10-19 14:10
+ */
+public interface StreamByFiltersApi<T extends BaseEntityDto> {
+    /**
+     * 流式查询业务实体
+     * 查询结果以JSON数组分块输出(chunked)，元素为T
+     *
+     * @param search 查询参数
+     * @throws IOException 写出响应异常(如客户端断开连接)
+     */
+    @PostMapping(path = "streamByFilters", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "流式查询业务实体", notes = "查询结果以JSON数组分块输出，适用于导出等大数据量场景")
+    void streamByFilters(@RequestBody Search search) throws IOException;
+}
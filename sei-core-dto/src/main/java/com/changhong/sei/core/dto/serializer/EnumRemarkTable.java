@@ -0,0 +1,260 @@
+package com.changhong.sei.core.dto.serializer;
+
+import com.changhong.sei.util.EnumUtils;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 实现功能：
+ * 枚举多语言描述表
+ * 每个枚举类型只解析一次描述(Remark)及序列化属性名，多语言描述按语言环境延迟计算并缓存，
+ * 多语言资源重新加载后(超过刷新间隔或调用{@link #invalidate()})重新计算
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:40
+ */
+public final class EnumRemarkTable {
+    private static final Logger LOG = LoggerFactory.getLogger(EnumRemarkTable.class);
+
+    private static final ClassValue<EnumRemarkTable> TABLES = new ClassValue<EnumRemarkTable>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected EnumRemarkTable computeValue(Class<?> type) {
+            return new EnumRemarkTable((Class<? extends Enum<?>>) type);
+        }
+    };
+
+    /**
+     * 多语言解析器
+     */
+    private static volatile MessageResolver resolver;
+    /**
+     * 刷新间隔(毫秒)，与多语言资源的缓存时间一致
+     */
+    private static volatile long refreshInterval = 120000L;
+    /**
+     * 版本号，失效时递增
+     */
+    private static volatile int generation;
+
+    private final SerializableString fieldName;
+    private final String[] remarks;
+    private final ConcurrentMap<Locale, Messages> messages = new ConcurrentHashMap<>();
+
+    private EnumRemarkTable(Class<? extends Enum<?>> type) {
+        //新增属性：枚举类型+Remark
+        this.fieldName = new SerializedString(StringUtils.uncapitalize(type.getSimpleName()) + "Remark");
+        Enum<?>[] constants = type.getEnumConstants();
+        this.remarks = new String[constants.length];
+        for (Enum<?> constant : constants) {
+            remarks[constant.ordinal()] = EnumUtils.getEnumItemRemark(type, constant);
+        }
+    }
+
+    /**
+     * 获取枚举类型的描述表
+     *
+     * @param type 枚举类型
+     * @return 描述表
+     */
+    public static EnumRemarkTable of(Class<? extends Enum> type) {
+        return TABLES.get(type);
+    }
+
+    /**
+     * 设置多语言解析器(未设置时使用ContextUtil)
+     *
+     * @param messageResolver 多语言解析器
+     */
+    public static void setResolver(MessageResolver messageResolver) {
+        resolver = messageResolver;
+        invalidate();
+    }
+
+    /**
+     * 设置刷新间隔
+     *
+     * @param millis 刷新间隔(毫秒)，小于等于0时不自动刷新
+     */
+    public static void setRefreshInterval(long millis) {
+        refreshInterval = millis;
+        invalidate();
+    }
+
+    /**
+     * 多语言资源重新加载后使所有描述表失效
+     */
+    public static synchronized void invalidate() {
+        generation++;
+    }
+
+    /**
+     * @return 序列化属性名(预编码)
+     */
+    public SerializableString getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * 获取当前语言环境的枚举项描述
+     *
+     * @param value 枚举项
+     * @return 描述
+     */
+    public String getRemark(Enum<?> value) {
+        MessageResolver messageResolver = getResolver();
+        Locale locale;
+        try {
+            locale = messageResolver.getLocale();
+        } catch (Throwable e) {
+            LOG.error("枚举多语言序列化异常.", e);
+            return remarks[value.ordinal()];
+        }
+        if (Objects.isNull(locale)) {
+            locale = Locale.getDefault();
+        }
+        Messages current = messages.get(locale);
+        if (Objects.isNull(current) || current.isExpired()) {
+            current = resolve(messageResolver, locale);
+            if (Objects.isNull(current)) {
+                return remarks[value.ordinal()];
+            }
+            messages.put(locale, current);
+        }
+        return current.values[value.ordinal()];
+    }
+
+    /**
+     * 计算语言环境的所有枚举项描述，异常时返回null(不缓存)
+     */
+    private Messages resolve(MessageResolver messageResolver, Locale locale) {
+        int version = generation;
+        String[] values = new String[remarks.length];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = messageResolver.getMessage(remarks[i], locale);
+            }
+        } catch (Throwable e) {
+            LOG.error("枚举多语言序列化异常.", e);
+            return null;
+        }
+        return new Messages(values, version);
+    }
+
+    private static MessageResolver getResolver() {
+        MessageResolver messageResolver = resolver;
+        if (Objects.isNull(messageResolver)) {
+            messageResolver = ContextMessageResolver.create();
+            resolver = messageResolver;
+        }
+        return messageResolver;
+    }
+
+    /**
+     * 多语言解析器
+     */
+    public interface MessageResolver {
+        /**
+         * @return 当前语言环境
+         */
+        Locale getLocale();
+
+        /**
+         * @param key    多语言key
+         * @param locale 语言环境
+         * @return 返回语意
+         */
+        String getMessage(String key, Locale locale);
+    }
+
+    /**
+     * 某个语言环境的描述
+     */
+    private static final class Messages {
+        private final String[] values;
+        private final int version;
+        private final long createdAt = System.currentTimeMillis();
+
+        private Messages(String[] values, int version) {
+            this.values = values;
+            this.version = version;
+        }
+
+        private boolean isExpired() {
+            long interval = refreshInterval;
+            return version != generation || (interval > 0 && System.currentTimeMillis() - createdAt > interval);
+        }
+    }
+
+    /**
+     * 使用ContextUtil的多语言解析器(dto模块不依赖ContextUtil，只在首次使用时查找一次)
+     */
+    private static final class ContextMessageResolver implements MessageResolver {
+        private static final String CONTEXT_UTIL = "com.changhong.sei.core.context.ContextUtil";
+
+        private final MethodHandle getLocale;
+        private final MethodHandle getMessage;
+
+        private ContextMessageResolver(MethodHandle getLocale, MethodHandle getMessage) {
+            this.getLocale = getLocale;
+            this.getMessage = getMessage;
+        }
+
+        private static MessageResolver create() {
+            try {
+                Class<?> contextUtil = Class.forName(CONTEXT_UTIL);
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                return new ContextMessageResolver(
+                        lookup.findStatic(contextUtil, "getLocale", MethodType.methodType(Locale.class)),
+                        lookup.findStatic(contextUtil, "getMessage",
+                                MethodType.methodType(String.class, String.class, Object[].class, Locale.class)));
+            } catch (ReflectiveOperationException | LinkageError e) {
+                LOG.warn("未找到{}，枚举描述不做多语言处理", CONTEXT_UTIL);
+                return new MessageResolver() {
+                    @Override
+                    public Locale getLocale() {
+                        return Locale.getDefault();
+                    }
+
+                    @Override
+                    public String getMessage(String key, Locale locale) {
+                        return key;
+                    }
+                };
+            }
+        }
+
+        @Override
+        public Locale getLocale() {
+            try {
+                return (Locale) getLocale.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String getMessage(String key, Locale locale) {
+            try {
+                return (String) getMessage.invokeExact(key, (Object[]) null, locale);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.changhong.sei.core.entity;
+
+import java.lang.annotation.*;
+
+/**
+ * 实现功能：
+ * 树形实体使用闭包表存储节点关系
+ * 未指定时树形实体的子树查询使用代码路径(codePath)前缀匹配
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:30
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface ClosureTable {
+    /**
+     * @return 闭包表实体
+     */
+    Class<? extends TreeClosure> value();
+}
@@ -0,0 +1,63 @@
+package com.changhong.sei.core.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * 实现功能：
+ * 树形实体闭包表基类
+ * 每个节点与其自身及所有祖先节点各有一行(节点自身的深度为0)，子树、祖先及限定深度的查询都是一次索引连接。
+ * 业务实体通过{@link ClosureTable}指定闭包表实体，闭包表由BaseTreeDaoImpl在保存、移动及删除节点时同事务维护。
+ * 子类示例：
+ * <pre>
+ * &#64;Entity
+ * &#64;Table(name = "organization_closure", indexes = &#64;Index(columnList = "descendant_id,node_depth"))
+ * public class OrganizationClosure extends TreeClosure {
+ * }
+ * </pre>
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:30
+ */
+@MappedSuperclass
+@Access(AccessType.FIELD)
+public abstract class TreeClosure implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 属性
+     */
+    public static final String ANCESTOR_ID = "id.ancestorId";
+    public static final String DESCENDANT_ID = "id.descendantId";
+    public static final String DEPTH = "depth";
+    /**
+     * 字段
+     */
+    public static final String ANCESTOR_COLUMN = "ancestor_id";
+    public static final String DESCENDANT_COLUMN = "descendant_id";
+    public static final String DEPTH_COLUMN = "node_depth";
+
+    @EmbeddedId
+    private TreeClosureId id;
+    /**
+     * 祖先节点到后代节点的深度
+     */
+    @Column(name = DEPTH_COLUMN, nullable = false)
+    private Integer depth;
+
+    public TreeClosureId getId() {
+        return id;
+    }
+
+    public void setId(TreeClosureId id) {
+        this.id = id;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+}
@@ -0,0 +1,70 @@
+package com.changhong.sei.core.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 实现功能：
+ * 树形实体闭包表主键(祖先节点Id, 后代节点Id)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:30
+ */
+@Embeddable
+public class TreeClosureId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 祖先节点Id
+     */
+    @Column(name = TreeClosure.ANCESTOR_COLUMN, length = 36, nullable = false)
+    private String ancestorId;
+    /**
+     * 后代节点Id
+     */
+    @Column(name = TreeClosure.DESCENDANT_COLUMN, length = 36, nullable = false)
+    private String descendantId;
+
+    public TreeClosureId() {
+    }
+
+    public TreeClosureId(String ancestorId, String descendantId) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+    }
+
+    public String getAncestorId() {
+        return ancestorId;
+    }
+
+    public void setAncestorId(String ancestorId) {
+        this.ancestorId = ancestorId;
+    }
+
+    public String getDescendantId() {
+        return descendantId;
+    }
+
+    public void setDescendantId(String descendantId) {
+        this.descendantId = descendantId;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TreeClosureId)) {
+            return false;
+        }
+        TreeClosureId that = (TreeClosureId) obj;
+        return Objects.equals(ancestorId, that.ancestorId) && Objects.equals(descendantId, that.descendantId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ancestorId, descendantId);
+    }
+}
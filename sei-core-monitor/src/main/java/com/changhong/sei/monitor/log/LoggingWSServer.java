@@ -1,27 +1,35 @@
 package com.changhong.sei.monitor.log;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.thymeleaf.util.StringUtils;
 
+import javax.annotation.PreDestroy;
 import javax.websocket.*;
 import javax.websocket.server.ServerEndpoint;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 实现功能：
+ * 实时日志推送
+ * 每个会话持有环形缓冲区的读取位置，由后台线程按间隔批量读取、格式化后异步发送；
+ * 上一批未发送完成时跳过本次，单个会话每次最多发送batchSize条，来不及发送的日志被覆盖并计入丢弃数
  *
  * @author 马超(Vision.Mac)
  * @version 1.0.00  2020-03-08 17:18
  */
 @ServerEndpoint(value = "/websocket/logging", configurator = MyEndpointConfigure.class)
-public class LoggingWSServer {
+public class LoggingWSServer implements MeterBinder {
     private final static Logger log = LoggerFactory.getLogger(LoggingWSServer.class);
 
     @Value("${spring.application.name}")
@@ -32,6 +40,31 @@ public class LoggingWSServer {
      */
     private static Map<String, Session> sessionMap = new ConcurrentHashMap<>();
     private static Map<String, Integer> lengthMap = new ConcurrentHashMap<>();
+    /**
+     * 订阅者
+     */
+    private static Map<String, Subscriber> subscriberMap = new ConcurrentHashMap<>();
+    /**
+     * 已关闭会话的丢弃数
+     */
+    private static final AtomicLong closedDropped = new AtomicLong();
+    /**
+     * 已发送的日志数
+     */
+    private static final AtomicLong sent = new AtomicLong();
+
+    /**
+     * 每个会话每次最多发送的日志数
+     */
+    @Value("${sei.monitor.websocket.batch-size:200}")
+    private int batchSize = 200;
+    /**
+     * 发送间隔(毫秒)
+     */
+    @Value("${sei.monitor.websocket.interval:500}")
+    private long interval = 500;
+
+    private volatile ScheduledExecutorService scheduler;
 
     /**
      * 连接建立成功调用的方法
@@ -41,6 +74,9 @@ public class LoggingWSServer {
         //添加到集合中
         sessionMap.put(session.getId(), session);
         lengthMap.put(session.getId(), 1);//默认从第一行开始
+        //订阅实时日志
+        subscriberMap.put(session.getId(), new Subscriber(session, RealTimeLogQueue.getInstance().subscribe()));
+        startScheduler();
 
 //        //日志文件路径，获取最新的
 //        String filePath = System.getProperty("user.dir") + "/logs/" + applicationName + ".txt";
@@ -133,6 +169,11 @@ public class LoggingWSServer {
         //从集合中删除
         sessionMap.remove(session.getId());
         lengthMap.remove(session.getId());
+        Subscriber subscriber = subscriberMap.remove(session.getId());
+        if (subscriber != null) {
+            subscriber.cursor.close();
+            closedDropped.addAndGet(subscriber.cursor.getDropped());
+        }
     }
 
     /**
@@ -140,7 +181,7 @@ public class LoggingWSServer {
      */
     @OnError
     public void onError(Session session, Throwable error) {
-        error.printStackTrace();
+        log.warn("实时日志连接异常: {}", error.getMessage());
     }
 
     /**
@@ -152,13 +193,136 @@ public class LoggingWSServer {
     }
 
     /**
-     * 封装一个send方法，发送消息到前端
+     * 启动发送线程
+     */
+    private synchronized void startScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "sei-realtime-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        subscriberMap.values().forEach(subscriber -> subscriber.cursor.close());
+    }
+
+    /**
+     * 批量读取各会话的日志并发送
      */
-    private void send(Session session, String message) {
-        try {
-            session.getBasicRemote().sendText(message);
-        } catch (Exception e) {
-            e.printStackTrace();
+    private void flush() {
+        for (Subscriber subscriber : subscriberMap.values()) {
+            try {
+                subscriber.flush(batchSize);
+            } catch (Exception e) {
+                subscriber.sending.set(false);
+                log.warn("实时日志发送异常: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return 未发送即被覆盖的日志数
+     */
+    public long getDropped() {
+        long dropped = closedDropped.get();
+        for (Subscriber subscriber : subscriberMap.values()) {
+            dropped += subscriber.cursor.getDropped();
+        }
+        return dropped;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sei.monitor.realtime.log.published", RealTimeLogQueue.getInstance(), RealTimeLogQueue::getPublished)
+                .description("实时日志入队数")
+                .register(registry);
+        FunctionCounter.builder("sei.monitor.realtime.log.sent", sent, AtomicLong::get)
+                .description("实时日志发送数")
+                .register(registry);
+        FunctionCounter.builder("sei.monitor.realtime.log.dropped", this, LoggingWSServer::getDropped)
+                .description("实时日志丢弃数")
+                .register(registry);
+        Gauge.builder("sei.monitor.realtime.log.sessions", subscriberMap, Map::size)
+                .description("实时日志会话数")
+                .register(registry);
+    }
+
+    /**
+     * 格式化日志，对日志等级进行着色
+     */
+    private static void format(StringBuilder builder, RealTimeLog realTimeLog) {
+        builder.append(realTimeLog.getTimestamp()).append(" [").append(RealTimeLog.escape(realTimeLog.getThreadName())).append("] ");
+        String level = realTimeLog.getLevel();
+        switch (level) {
+            case "DEBUG":
+                builder.append("<span style='color: #1890ff;'>DEBUG</span>");
+                break;
+            case "INFO":
+                builder.append("<span style='color: green;'>INFO</span>");
+                break;
+            case "WARN":
+                builder.append("<span style='color: orange;'>WARN</span>");
+                break;
+            case "ERROR":
+                builder.append("<span style='color: red;'>ERROR</span>");
+                break;
+            default:
+                builder.append(level);
+        }
+        builder.append(" <span style='color: #298a8a;'>").append(RealTimeLog.escape(realTimeLog.getClassName())).append("</span> - ")
+                .append(RealTimeLog.escape(realTimeLog.getBody())).append("<br/>")
+                .append(realTimeLog.getException());
+    }
+
+    /**
+     * 会话订阅
+     */
+    private static final class Subscriber {
+        private final Session session;
+        private final RealTimeLogQueue.Cursor cursor;
+        /**
+         * 是否有未完成的发送
+         */
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private long reportedDropped;
+
+        private Subscriber(Session session, RealTimeLogQueue.Cursor cursor) {
+            this.session = session;
+            this.cursor = cursor;
+        }
+
+        private void flush(int batchSize) {
+            if (!session.isOpen() || !sending.compareAndSet(false, true)) {
+                return;
+            }
+            StringBuilder builder = new StringBuilder();
+            int count = cursor.drain(item -> format(builder, item), batchSize);
+            long dropped = cursor.getDropped();
+            if (dropped > reportedDropped) {
+                builder.append("<span style='color: orange;'>...已丢弃").append(dropped - reportedDropped).append("条日志</span><br/>");
+                reportedDropped = dropped;
+            }
+            if (builder.length() == 0) {
+                sending.set(false);
+                return;
+            }
+            sent.addAndGet(count);
+            //异步发送，完成前不再发送下一批
+            session.getAsyncRemote().sendText(builder.toString(), result -> {
+                sending.set(false);
+                if (!result.isOK()) {
+                    log.debug("实时日志发送失败", result.getException());
+                }
+            });
         }
     }
 }
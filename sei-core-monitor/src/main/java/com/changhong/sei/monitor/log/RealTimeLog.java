@@ -1,6 +1,13 @@
 package com.changhong.sei.monitor.log;
 
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+
 import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.StringJoiner;
 
 /**
@@ -11,6 +18,13 @@ import java.util.StringJoiner;
  */
 public class RealTimeLog implements Serializable {
     private static final long serialVersionUID = -5421188854630031096L;
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+    /**
+     * 日志时间及异常(不可变)，在发送时才格式化
+     */
+    private transient long timeStamp;
+    private transient IThrowableProxy throwableProxy;
     private String body;
     private String timestamp;
     private String threadName;
@@ -32,6 +46,25 @@ public class RealTimeLog implements Serializable {
         this.cause = cause;
     }
 
+    /**
+     * 由日志事件创建
+     * 消息在日志线程中格式化，避免发送时读取到已被修改的参数对象；不保留日志事件的引用
+     *
+     * @param event 日志事件
+     * @return 实时日志
+     */
+    public static RealTimeLog of(ILoggingEvent event) {
+        RealTimeLog log = new RealTimeLog();
+        log.body = event.getFormattedMessage();
+        log.timeStamp = event.getTimeStamp();
+        log.throwableProxy = event.getThrowableProxy();
+        log.threadName = event.getThreadName();
+        log.className = event.getLoggerName();
+        log.level = event.getLevel().levelStr;
+        log.cause = "";
+        return log;
+    }
+
     public String getBody() {
         return body;
     }
@@ -41,6 +74,9 @@ public class RealTimeLog implements Serializable {
     }
 
     public String getTimestamp() {
+        if (timestamp == null && timeStamp > 0) {
+            timestamp = TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(timeStamp));
+        }
         return timestamp;
     }
 
@@ -73,6 +109,9 @@ public class RealTimeLog implements Serializable {
     }
 
     public String getException() {
+        if (exception == null && timeStamp > 0) {
+            exception = formatException(throwableProxy);
+        }
         return exception;
     }
 
@@ -88,15 +127,67 @@ public class RealTimeLog implements Serializable {
         this.cause = cause;
     }
 
+    private static String formatException(IThrowableProxy throwableProxy) {
+        if (throwableProxy == null) {
+            return "";
+        }
+        StringBuilder exception = new StringBuilder();
+        exception.append("<span class='excehtext'>").append(escape(throwableProxy.getClassName())).append(" ")
+                .append(escape(throwableProxy.getMessage())).append("</span></br>");
+        for (StackTraceElementProxy element : throwableProxy.getStackTraceElementProxyArray()) {
+            exception.append("<span class='excetext'>").append(escape(element.toString())).append("</span></br>");
+        }
+        return exception.toString();
+    }
+
+    /**
+     * html转义
+     */
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder builder = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement;
+            switch (c) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                default:
+                    replacement = null;
+            }
+            if (replacement != null) {
+                if (builder == null) {
+                    builder = new StringBuilder(text.length() + 16).append(text, 0, i);
+                }
+                builder.append(replacement);
+            } else if (builder != null) {
+                builder.append(c);
+            }
+        }
+        return builder == null ? text : builder.toString();
+    }
+
     @Override
     public String toString() {
         return new StringJoiner(", ", RealTimeLog.class.getSimpleName() + "[", "]")
                 .add("body='" + body + "'")
-                .add("timestamp='" + timestamp + "'")
+                .add("timestamp='" + getTimestamp() + "'")
                 .add("threadName='" + threadName + "'")
                 .add("className='" + className + "'")
                 .add("level='" + level + "'")
-                .add("exception='" + exception + "'")
+                .add("exception='" + getException() + "'")
                 .add("cause='" + cause + "'")
                 .toString();
     }
@@ -1,15 +1,12 @@
 package com.changhong.sei.monitor.log;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.classic.spi.IThrowableProxy;
 import ch.qos.logback.core.filter.Filter;
 import ch.qos.logback.core.spi.FilterReply;
 
-import java.text.DateFormat;
-import java.util.Date;
-
 /**
  * 实现功能：
+ * 有实时日志订阅者时将日志消息放入环形缓冲区，时间及异常的格式化在发送时进行
  *
  * @author 马超(Vision.Mac)
  * @version 1.0.00  2020-09-28 09:35
@@ -20,25 +17,10 @@ public class RealTimeLogFilter extends Filter<ILoggingEvent> {
      */
     @Override
     public FilterReply decide(ILoggingEvent event) {
-        StringBuilder exception = new StringBuilder();
-        IThrowableProxy throwableProxy = event.getThrowableProxy();
-        if (throwableProxy != null) {
-            exception = new StringBuilder();
-            exception.append("<span class='excehtext'>").append(throwableProxy.getClassName()).append(" ").append(throwableProxy.getMessage()).append("</span></br>");
-            for (int i = 0; i < throwableProxy.getStackTraceElementProxyArray().length; i++) {
-                exception.append("<span class='excetext'>").append(throwableProxy.getStackTraceElementProxyArray()[i].toString()).append("</span></br>");
-            }
+        RealTimeLogQueue queue = RealTimeLogQueue.getInstance();
+        if (queue.isSubscribed()) {
+            queue.push(RealTimeLog.of(event));
         }
-        RealTimeLog loggerMessage = new RealTimeLog(
-                event.getMessage(),
-                DateFormat.getDateTimeInstance().format(new Date(event.getTimeStamp())),
-                event.getThreadName(),
-                event.getLoggerName(),
-                event.getLevel().levelStr,
-                exception.toString(),
-                ""
-        );
-        RealTimeLogQueue.getInstance().push(loggerMessage);
         return FilterReply.ACCEPT;
     }
 }
@@ -1,22 +1,42 @@
 package com.changhong.sei.monitor.log;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 /**
  * 实现功能：
+ * 实时日志环形缓冲区(无锁、有界、满时覆盖最旧的日志)
+ * 日志入队只占用一个序号并写入对应槽位，不阻塞也不抛出异常；每个订阅者(websocket会话)持有自己的读取位置，
+ * 读取前已被覆盖的日志计入丢弃数。没有订阅者时日志过滤器不入队
  *
  * @author 马超(Vision.Mac)
  * @version 1.0.00  2020-09-28 09:37
  */
 public class RealTimeLogQueue {
-    //队列大小
-    public static final int QUEUE_MAX_SIZE = 10000;
-    private static final RealTimeLogQueue ALARM_MESSAGE_QUEUE = new RealTimeLogQueue();
-    //阻塞队列
-    private final BlockingQueue<RealTimeLog> blockingQueue = new LinkedBlockingQueue<>(QUEUE_MAX_SIZE);
+    //队列大小(2的幂)
+    public static final int QUEUE_MAX_SIZE = 16384;
+    private static final RealTimeLogQueue ALARM_MESSAGE_QUEUE = new RealTimeLogQueue(QUEUE_MAX_SIZE);
 
-    private RealTimeLogQueue() {
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    /**
+     * 下一个日志序号(即已入队的日志数)
+     */
+    private final AtomicLong sequence = new AtomicLong();
+    /**
+     * 订阅者数
+     */
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    RealTimeLogQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity必须是2的幂: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
     }
 
     public static RealTimeLogQueue getInstance() {
@@ -24,24 +44,111 @@ public class RealTimeLogQueue {
     }
 
     /**
-     * 消息入队
+     * @return 是否有订阅者
+     */
+    public boolean isSubscribed() {
+        return subscribers.get() > 0;
+    }
+
+    /**
+     * 消息入队，队列满时覆盖最旧的日志
      **/
     public boolean push(RealTimeLog log) {
-        //System.out.println("消息入队的信息===="+log);
-        return this.blockingQueue.add(log);//队列满了就抛出异常，不阻塞
+        long seq = sequence.getAndIncrement();
+        slots.set((int) (seq & mask), new Slot(seq, log));
+        return true;
     }
 
     /**
-     * 消息出队
-     **/
-    public RealTimeLog poll() {
-        RealTimeLog result = null;
-        try {
-            //System.out.println("输出:"+this.blockingQueue);
-            result = (RealTimeLog) this.blockingQueue.take();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+     * @return 已入队的日志数
+     */
+    public long getPublished() {
+        return sequence.get();
+    }
+
+    /**
+     * 订阅，从当前位置开始读取
+     */
+    public Cursor subscribe() {
+        subscribers.incrementAndGet();
+        return new Cursor(sequence.get());
+    }
+
+    private static final class Slot {
+        private final long seq;
+        private final RealTimeLog log;
+
+        private Slot(long seq, RealTimeLog log) {
+            this.seq = seq;
+            this.log = log;
+        }
+    }
+
+    /**
+     * 订阅者的读取位置(单线程读取)
+     */
+    public final class Cursor {
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private long next;
+
+        private Cursor(long next) {
+            this.next = next;
+        }
+
+        /**
+         * 读取日志
+         *
+         * @param consumer 日志处理
+         * @param max      最多读取的日志数
+         * @return 读取的日志数
+         */
+        public int drain(Consumer<RealTimeLog> consumer, int max) {
+            int count = 0;
+            while (count < max) {
+                long published = sequence.get();
+                if (next >= published) {
+                    break;
+                }
+                // 已被覆盖的日志
+                long oldest = published - slots.length();
+                if (next < oldest) {
+                    dropped.addAndGet(oldest - next);
+                    next = oldest;
+                }
+                Slot slot = slots.get((int) (next & mask));
+                if (slot == null || slot.seq < next) {
+                    // 序号已占用，尚未写入
+                    break;
+                }
+                if (slot.seq > next) {
+                    // 读取期间被覆盖
+                    long skipTo = Math.max(next + 1, slot.seq - mask);
+                    dropped.addAndGet(skipTo - next);
+                    next = skipTo;
+                    continue;
+                }
+                next++;
+                count++;
+                consumer.accept(slot.log);
+            }
+            return count;
+        }
+
+        /**
+         * @return 未读取即被覆盖的日志数
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        /**
+         * 取消订阅
+         */
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.decrementAndGet();
+            }
         }
-        return result;
     }
 }
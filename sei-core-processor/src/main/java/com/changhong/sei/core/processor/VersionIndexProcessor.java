@@ -0,0 +1,131 @@
+package com.changhong.sei.core.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 实现功能：
+ * 编译期生成BaseVersion子类索引(META-INF/sei/versions，每行一个类名)
+ * 运行时读取索引即可得到依赖版本，无需扫描classpath。没有BaseVersion子类的模块也生成(空)索引，
+ * 标记该模块已建立索引，运行时不再扫描
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 14:10
+ */
+@SupportedAnnotationTypes("*")
+public class VersionIndexProcessor extends AbstractProcessor {
+    /**
+     * 索引文件位置
+     */
+    public static final String INDEX_LOCATION = "META-INF/sei/versions";
+    private static final String BASE_VERSION = "com.changhong.sei.core.BaseVersion";
+
+    private final Set<String> classNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        TypeElement baseVersion = processingEnv.getElementUtils().getTypeElement(BASE_VERSION);
+        if (baseVersion != null) {
+            TypeMirror baseType = processingEnv.getTypeUtils().erasure(baseVersion.asType());
+            for (Element element : roundEnv.getRootElements()) {
+                collect(element, baseType);
+            }
+        }
+        // 不占用注解，其他处理器照常处理
+        return false;
+    }
+
+    private void collect(Element element, TypeMirror baseType) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        if (isVersionClass(type, baseType)) {
+            classNames.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            if (nested.getModifiers().contains(Modifier.STATIC)) {
+                collect(nested, baseType);
+            }
+        }
+    }
+
+    /**
+     * 可实例化(公共、非抽象、有公共无参构造函数)的BaseVersion子类
+     */
+    private boolean isVersionClass(TypeElement type, TypeMirror baseType) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(type.asType());
+        if (processingEnv.getTypeUtils().isSameType(erasure, baseType)
+                || !processingEnv.getTypeUtils().isSubtype(erasure, baseType)) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        // 增量编译时保留已有索引(已删除的类在运行时忽略)
+        Set<String> entries = new TreeSet<>(classNames);
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        entries.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ignored) {
+            // 索引不存在
+        }
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "生成版本索引失败: " + e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.changhong.sei.core.config;
 
 import com.changhong.sei.core.config.properties.http.filter.FilterProperties;
+import com.changhong.sei.core.context.SessionUserTokenCache;
 import com.changhong.sei.core.error.GlobalExceptionTranslator;
 import com.changhong.sei.core.filter.DefaultSessionUserAuthenticationHandler;
 import com.changhong.sei.core.filter.SessionUserAuthenticationHandler;
 import com.changhong.sei.core.filter.WebFilter;
 import com.changhong.sei.core.filter.WebThreadFilter;
+import com.changhong.sei.core.filter.XssSanitizer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -45,8 +48,8 @@ public class HttpFilterAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public SessionUserAuthenticationHandler userAuthenticationHandler() {
-        return new DefaultSessionUserAuthenticationHandler(filterConfig.getIgnoreAuthUrl());
+    public SessionUserAuthenticationHandler userAuthenticationHandler(ObjectProvider<SessionUserTokenCache> tokenCache) {
+        return new DefaultSessionUserAuthenticationHandler(filterConfig.getIgnoreAuthUrl(), tokenCache.getIfAvailable());
     }
 
     /**
@@ -61,6 +64,7 @@ public class HttpFilterAutoConfiguration {
 
         WebThreadFilter filterProxy = new WebThreadFilter(userAuthenticationHandler, filterDefs);
         filterProxy.setEnvironment(environment);
+        filterProxy.setXssSanitizer(XssSanitizer.of(filterConfig.getXssRules()));
         registration.setFilter(filterProxy);
 
         // 设置优先级高于spring security
@@ -1,17 +1,35 @@
 package com.changhong.sei.core.config;
 
+import com.changhong.sei.core.config.properties.dao.DaoMetricsProperties;
+import com.changhong.sei.core.config.properties.dao.QuickSearchProperties;
+import com.changhong.sei.core.config.properties.dao.RoutingDataSourceProperties;
 import com.changhong.sei.core.dao.BaseDaoFactoryBean;
 import com.changhong.sei.core.dao.impl.BaseEntityDaoImpl;
+import com.changhong.sei.core.dao.metrics.DaoMetrics;
+import com.changhong.sei.core.dao.metrics.StatementBudgetFilter;
+import com.changhong.sei.core.dao.routing.RoutingDataSourcePostProcessor;
+import com.changhong.sei.core.dao.search.NgramQuickSearchEngine;
+import com.changhong.sei.core.dao.search.QuickSearchEngine;
+import com.changhong.sei.core.filter.WebFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
+import java.util.Objects;
 
 /**
  * JPA的配置类
@@ -26,6 +44,62 @@ import javax.sql.DataSource;
 @AutoConfigureAfter({DefaultAutoConfiguration.class, DataSourceAutoConfiguration.class})
 @EnableJpaRepositories(basePackages = {"com.**.dao"}, repositoryFactoryBeanClass = BaseDaoFactoryBean.class)
 @EnableTransactionManagement
+@EnableConfigurationProperties({QuickSearchProperties.class, RoutingDataSourceProperties.class, DaoMetricsProperties.class})
 // @EnableJpaAuditing
 public class JpaAutoConfiguration {
+
+    /**
+     * 快速查询引擎(sei.dao.quick-search.enabled=true时启用)
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "sei.dao.quick-search", name = "enabled", havingValue = "true")
+    public QuickSearchEngine quickSearchEngine(QuickSearchProperties properties) {
+        return new NgramQuickSearchEngine(properties.isIgnoreCase(), properties.getMaxDocuments(),
+                properties.getMaxIds(), properties.getMaxAge(), properties.getMaxIndexes());
+    }
+
+    /**
+     * 读写分离(sei.datasource.routing.enabled=true时启用)
+     * 只读事务及服务基类在事务外的查询路由到从库，需在BeanPostProcessor阶段包装主数据源，故为静态方法
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = RoutingDataSourceProperties.PREFIX, name = "enabled", havingValue = "true")
+    public static RoutingDataSourcePostProcessor routingDataSourcePostProcessor(Environment environment) {
+        return new RoutingDataSourcePostProcessor(environment);
+    }
+
+    /**
+     * 数据访问监控(sei.dao.metrics.enabled=true时启用)
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = DaoMetricsProperties.PREFIX, name = "enabled", havingValue = "true")
+    public DaoMetrics daoMetrics(DaoMetricsProperties properties) {
+        return new DaoMetrics(properties.getSlowThreshold(), properties.getSlowSampleRate(),
+                properties.getMaxSlowSamples(), properties.getStatementBudget(), properties.isPercentileHistogram());
+    }
+
+    /**
+     * 通过Hibernate的StatementInspector统计SQL语句数(已配置其他StatementInspector时与其组合)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = DaoMetricsProperties.PREFIX, name = "enabled", havingValue = "true")
+    public HibernatePropertiesCustomizer daoMetricsHibernatePropertiesCustomizer(DaoMetrics daoMetrics) {
+        return properties -> {
+            StatementInspector inspector = daoMetrics.chain(properties.get(AvailableSettings.STATEMENT_INSPECTOR));
+            if (Objects.nonNull(inspector)) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+            }
+        };
+    }
+
+    /**
+     * 统计每个请求的SQL语句数
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = DaoMetricsProperties.PREFIX, name = "enabled", havingValue = "true")
+    public WebFilter statementBudgetWebFilter(DaoMetrics daoMetrics) {
+        return () -> new StatementBudgetFilter(daoMetrics);
+    }
 }
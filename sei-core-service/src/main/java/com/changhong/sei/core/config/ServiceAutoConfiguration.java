@@ -1,6 +1,8 @@
 package com.changhong.sei.core.config;
 
 import com.changhong.sei.core.controller.VersionEndpoint;
+import com.changhong.sei.core.dto.serializer.EnumRemarkTable;
+import com.changhong.sei.core.utils.FlowClassMetadata;
 import org.hibernate.validator.HibernateValidator;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
@@ -8,6 +10,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.env.Environment;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -16,6 +19,7 @@ import javax.validation.Validation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 /**
  * SEI平台启动的基础配置
@@ -52,12 +56,18 @@ public class ServiceAutoConfiguration implements WebMvcConfigurer {
 
     @Bean
     @ConditionalOnMissingBean
-    public ReloadableResourceBundleMessageSource messageSource() {
+    public ReloadableResourceBundleMessageSource messageSource(Environment env) {
+        // 多语言资源缓存时间（秒）
+        int cacheSeconds = env.getProperty("sei.i18n.cache-seconds", Integer.class, 120);
         ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
         messageSource.setBasenames("classpath:/lang/sei-lang", "classpath:/lang/messages", "classpath:/lang/cust-messages");
-        messageSource.setCacheSeconds(120);
+        messageSource.setCacheSeconds(cacheSeconds);
         messageSource.setDefaultEncoding("UTF-8");
         messageSource.setUseCodeAsDefaultMessage(true);
+        // 枚举及流程业务属性的多语言描述与资源缓存时间一致(0为每次重新加载，负数为不刷新)
+        long refreshInterval = cacheSeconds == 0 ? 1L : TimeUnit.SECONDS.toMillis(cacheSeconds);
+        EnumRemarkTable.setRefreshInterval(refreshInterval);
+        FlowClassMetadata.setRefreshInterval(refreshInterval);
         return messageSource;
     }
 
@@ -0,0 +1,88 @@
+package com.changhong.sei.core.config.properties.dao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 实现功能：
+ * 数据访问监控配置
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 17:20
+ */
+@ConfigurationProperties(DaoMetricsProperties.PREFIX)
+public class DaoMetricsProperties {
+    public static final String PREFIX = "sei.dao.metrics";
+
+    /**
+     * 是否启用数据访问监控(默认不启用)
+     */
+    private boolean enabled = false;
+    /**
+     * 慢查询阈值(毫秒)
+     */
+    private long slowThreshold = 500L;
+    /**
+     * 慢查询采样率(0~1)
+     */
+    private double slowSampleRate = 1.0;
+    /**
+     * 保留的慢查询样本数
+     */
+    private int maxSlowSamples = 100;
+    /**
+     * 每个请求的SQL语句数预算，超过时记录警告(小于等于0时不检查)
+     */
+    private int statementBudget = 100;
+    /**
+     * 是否发布执行时间、返回行数等指标的百分位直方图(每个业务实体的每个Dao方法各有一组直方图桶)
+     */
+    private boolean percentileHistogram = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(long slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public double getSlowSampleRate() {
+        return slowSampleRate;
+    }
+
+    public void setSlowSampleRate(double slowSampleRate) {
+        this.slowSampleRate = slowSampleRate;
+    }
+
+    public int getMaxSlowSamples() {
+        return maxSlowSamples;
+    }
+
+    public void setMaxSlowSamples(int maxSlowSamples) {
+        this.maxSlowSamples = maxSlowSamples;
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    public void setStatementBudget(int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    public boolean isPercentileHistogram() {
+        return percentileHistogram;
+    }
+
+    public void setPercentileHistogram(boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+}
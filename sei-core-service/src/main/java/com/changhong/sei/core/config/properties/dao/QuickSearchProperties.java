@@ -0,0 +1,86 @@
+package com.changhong.sei.core.config.properties.dao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 实现功能：
+ * 快速查询引擎配置
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 11:05
+ */
+@ConfigurationProperties("sei.dao.quick-search")
+public class QuickSearchProperties {
+    /**
+     * 是否启用快速查询索引(默认不启用，使用 LIKE 查询)
+     */
+    private boolean enabled = false;
+    /**
+     * 是否忽略大小写(与数据库排序规则保持一致)
+     */
+    private boolean ignoreCase = true;
+    /**
+     * 单个索引的最大文档数，超过时使用 LIKE 查询
+     */
+    private int maxDocuments = 200000;
+    /**
+     * 最大匹配数，超过时使用 LIKE 查询
+     */
+    private int maxIds = 1000;
+    /**
+     * 索引有效期(毫秒)，过期后重建以同步其他节点的修改
+     */
+    private long maxAge = 600000L;
+    /**
+     * 最大索引数
+     */
+    private int maxIndexes = 64;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    public void setIgnoreCase(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    public int getMaxDocuments() {
+        return maxDocuments;
+    }
+
+    public void setMaxDocuments(int maxDocuments) {
+        this.maxDocuments = maxDocuments;
+    }
+
+    public int getMaxIds() {
+        return maxIds;
+    }
+
+    public void setMaxIds(int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public int getMaxIndexes() {
+        return maxIndexes;
+    }
+
+    public void setMaxIndexes(int maxIndexes) {
+        this.maxIndexes = maxIndexes;
+    }
+}
@@ -0,0 +1,162 @@
+package com.changhong.sei.core.config.properties.dao;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 实现功能：
+ * 读写分离数据源配置
+ * <pre>
+ * sei.datasource.routing.enabled=true
+ * sei.datasource.routing.lag-query=select timestampdiff(second, ts, now()) from heartbeat
+ * sei.datasource.routing.replicas[0].url=jdbc:mysql://replica1:3306/sei
+ * sei.datasource.routing.replicas[0].weight=2
+ * # 事务外的查询需关闭OpenEntityManagerInView才会路由到从库(绑定的EntityManager会持有连接)
+ * spring.jpa.open-in-view=false
+ * </pre>
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 11:20
+ */
+@ConfigurationProperties(RoutingDataSourceProperties.PREFIX)
+public class RoutingDataSourceProperties {
+    public static final String PREFIX = "sei.datasource.routing";
+
+    /**
+     * 是否启用读写分离(默认不启用)
+     */
+    private boolean enabled = false;
+    /**
+     * 允许的最大复制延迟(秒)，超过时从库不参与路由
+     */
+    private long maxLagSeconds = 5;
+    /**
+     * 查询复制延迟(秒)的SQL，返回第一列为延迟秒数；为空时只检查连接是否可用
+     */
+    private String lagQuery;
+    /**
+     * 从库检查间隔(毫秒)
+     */
+    private long checkInterval = 5000L;
+    /**
+     * 从库清单
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getMaxLagSeconds() {
+        return maxLagSeconds;
+    }
+
+    public void setMaxLagSeconds(long maxLagSeconds) {
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public long getCheckInterval() {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(long checkInterval) {
+        this.checkInterval = checkInterval;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    /**
+     * 从库配置
+     */
+    public static class Replica {
+        /**
+         * 名称(默认replica序号)
+         */
+        private String name;
+        private String url;
+        /**
+         * 用户名，为空时使用主库的用户名
+         */
+        private String username;
+        /**
+         * 密码，为空时使用主库的密码
+         */
+        private String password;
+        /**
+         * 驱动类，为空时根据url推断
+         */
+        private String driverClassName;
+        /**
+         * 权重
+         */
+        private int weight = 1;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.changhong.sei.core.config.properties.http.filter;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * 实现功能：
  * http filter 配置
@@ -17,9 +20,15 @@ public class FilterProperties {
      */
     private boolean enable = false;
     /**
-     * 忽略认证的url
+     * 忽略认证的url，请求路径包含url即匹配，url按 .*?url.* 正则(忽略大小写)解释；
+     * 以ant:开头时按ant风格匹配，如 ant:/api/&#42;&#42;/public
      */
     private String[] ignoreAuthUrl = new String[]{};
+    /**
+     * XSS过滤规则，key为需要替换的内容(区分大小写)，value为替换后的内容；未配置时使用默认规则
+     * 含特殊字符的key需使用[]包裹，如 sei.http.filter.xss-rules.[&lt;script]=&amp;lt;script
+     */
+    private Map<String, String> xssRules = new LinkedHashMap<>();
 
     public boolean isEnable() {
         return enable;
@@ -36,4 +45,12 @@ public class FilterProperties {
     public void setIgnoreAuthUrl(String[] ignoreAuthUrl) {
         this.ignoreAuthUrl = ignoreAuthUrl;
     }
+
+    public Map<String, String> getXssRules() {
+        return xssRules;
+    }
+
+    public void setXssRules(Map<String, String> xssRules) {
+        this.xssRules = xssRules;
+    }
 }
@@ -14,7 +14,6 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * <strong>实现功能:</strong>
@@ -47,6 +46,17 @@ public abstract class BaseController<T extends BaseEntity, D extends BaseEntityD
         dtoModelMapper = new ModelMapper();
     }
 
+    /**
+     * Entity转换为DTO的预编译转换计划(无法预编译时为null，使用ModelMapper转换)
+     */
+    private volatile CompiledTypeMapper<T, D> dtoMapper;
+    private volatile boolean dtoMapperResolved;
+    /**
+     * DTO转换为Entity的预编译转换计划(无法预编译时为null，使用ModelMapper转换)
+     */
+    private volatile CompiledTypeMapper<D, T> entityMapper;
+    private volatile boolean entityMapperResolved;
+
     // 构造函数
     @SuppressWarnings("unchecked")
     protected BaseController(){
@@ -72,6 +82,46 @@ public abstract class BaseController<T extends BaseEntity, D extends BaseEntityD
     protected void customConvertToDtoMapper() {
     }
 
+    /**
+     * 是否启用预编译的转换计划
+     * 转换计划根据自定义设置后的转换器生成，无法等价转换时自动使用ModelMapper；子类可覆写返回false，始终使用ModelMapper
+     *
+     * @return 默认启用
+     */
+    protected boolean isCompiledMapperEnabled() {
+        return true;
+    }
+
+    /**
+     * 获取Entity转换为DTO的预编译转换计划
+     */
+    private CompiledTypeMapper<T, D> getDtoMapper() {
+        if (!dtoMapperResolved) {
+            synchronized (this) {
+                if (!dtoMapperResolved) {
+                    dtoMapper = isCompiledMapperEnabled() ? CompiledTypeMapper.compile(dtoModelMapper, getEntityClass(), getDtoClass()) : null;
+                    dtoMapperResolved = true;
+                }
+            }
+        }
+        return dtoMapper;
+    }
+
+    /**
+     * 获取DTO转换为Entity的预编译转换计划
+     */
+    private CompiledTypeMapper<D, T> getEntityMapper() {
+        if (!entityMapperResolved) {
+            synchronized (this) {
+                if (!entityMapperResolved) {
+                    entityMapper = isCompiledMapperEnabled() ? CompiledTypeMapper.compile(entityModelMapper, getDtoClass(), getEntityClass()) : null;
+                    entityMapperResolved = true;
+                }
+            }
+        }
+        return entityMapper;
+    }
+
     /**
      * 获取数据实体的类型
      *
@@ -115,6 +165,10 @@ public abstract class BaseController<T extends BaseEntity, D extends BaseEntityD
         if (Objects.isNull(entity)) {
             return null;
         }
+        CompiledTypeMapper<T, D> mapper = getDtoMapper();
+        if (Objects.nonNull(mapper) && mapper.supports(entity)) {
+            return mapper.map(entity);
+        }
         return dtoModelMapper.map(entity, getDtoClass());
     }
 
@@ -130,7 +184,11 @@ public abstract class BaseController<T extends BaseEntity, D extends BaseEntityD
         if (CollectionUtils.isEmpty(entities)) {
             return new ArrayList<>();
         }
-        return entities.stream().map(this::convertToDto).collect(Collectors.toList());
+        List<D> dtos = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            dtos.add(convertToDto(entity));
+        }
+        return dtos;
     }
 
     /**
@@ -155,6 +213,10 @@ public abstract class BaseController<T extends BaseEntity, D extends BaseEntityD
         if (Objects.isNull(dto)) {
             return null;
         }
+        CompiledTypeMapper<D, T> mapper = getEntityMapper();
+        if (Objects.nonNull(mapper) && mapper.supports(dto)) {
+            return mapper.map(dto);
+        }
         return entityModelMapper.map(dto, getEntityClass());
     }
 
@@ -170,7 +232,11 @@ public abstract class BaseController<T extends BaseEntity, D extends BaseEntityD
         if (CollectionUtils.isEmpty(dtos)) {
             return new ArrayList<>();
         }
-        return dtos.stream().map(this::convertToEntity).collect(Collectors.toList());
+        List<T> entities = new ArrayList<>(dtos.size());
+        for (D dto : dtos) {
+            entities.add(convertToEntity(dto));
+        }
+        return entities;
     }
 
 }
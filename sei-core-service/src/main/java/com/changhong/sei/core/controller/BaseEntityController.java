@@ -4,12 +4,22 @@ import com.changhong.sei.core.api.BaseEntityApi;
 import com.changhong.sei.core.context.ContextUtil;
 import com.changhong.sei.core.dto.BaseEntityDto;
 import com.changhong.sei.core.dto.ResultData;
+import com.changhong.sei.core.dto.serach.Search;
 import com.changhong.sei.core.entity.BaseEntity;
 import com.changhong.sei.core.service.BaseEntityService;
 import com.changhong.sei.core.service.bo.OperateResult;
 import com.changhong.sei.core.service.bo.OperateResultWithData;
+import com.changhong.sei.core.util.HttpUtils;
+import com.changhong.sei.core.util.JsonUtils;
 import com.changhong.sei.core.utils.ResultDataUtil;
 import com.changhong.sei.exception.WebException;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * 实现功能: 一般业务实体服务控制抽象基类
@@ -91,4 +101,39 @@ public abstract class BaseEntityController<T extends BaseEntity, D extends BaseE
         D dto = convertToDto(entity);
         return ResultData.success(dto);
     }
+
+    /**
+     * 流式查询业务实体
+     * 查询结果以JSON数组分块输出(chunked)，逐条转换为DTO后写出，不在内存中保留全部结果，适用于导出等大数据量场景
+     * 此处不声明请求映射，服务API继承{@link com.changhong.sei.core.api.StreamByFiltersApi}后才对外提供
+     *
+     * @param search 查询参数
+     */
+    public void streamByFilters(Search search) throws IOException {
+        HttpServletResponse response = HttpUtils.getResponse();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // 响应缓冲区写满后自动以chunked方式发送
+        OutputStream out = response.getOutputStream();
+        out.write('[');
+        boolean[] first = {true};
+        try {
+            getService().findByFilters(search, entity -> {
+                try {
+                    if (!first[0]) {
+                        out.write(',');
+                    }
+                    first[0] = false;
+                    JsonUtils.toJson(convertToDto(entity), out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // 客户端断开连接
+            throw e.getCause();
+        }
+        out.write(']');
+        out.flush();
+    }
 }
@@ -0,0 +1,244 @@
+package com.changhong.sei.core.controller;
+
+import com.changhong.sei.exception.SeiException;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
+import org.modelmapper.config.Configuration;
+import org.modelmapper.spi.Mapping;
+import org.modelmapper.spi.PropertyInfo;
+import org.modelmapper.spi.PropertyMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * 实现功能：
+ * 预编译的对象转换计划
+ * 启动后首次转换时由ModelMapper推导出的TypeMap生成(含自定义设置的属性映射)，转换时直接调用MethodHandle完成属性赋值，
+ * 不再进行属性匹配、TypeMap查找及转换器选择。
+ * <p>
+ * 只有所有属性映射都是一级属性直接赋值(同类型或可赋值类型，与ModelMapper的AssignableConverter结果一致)时才生成转换计划；
+ * 存在自定义转换器、条件、Provider、多级属性、集合/数组/Map/Optional属性等情况时返回null，由调用方继续使用ModelMapper转换
+ *
+ * @param <S> 源类型
+ * @param <D> 目标类型
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:06
+ */
+final class CompiledTypeMapper<S, D> {
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledTypeMapper.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    /**
+     * ModelMapper默认的转换器数量，不一致时说明添加了全局自定义转换器
+     */
+    private static final int DEFAULT_CONVERTER_COUNT = new ModelMapper().getConfiguration().getConverters().size();
+
+    private final Class<S> sourceType;
+    private final Class<D> destinationType;
+    private final MethodHandle constructor;
+    private final MethodHandle[] getters;
+    private final MethodHandle[] setters;
+    private final boolean skipNull;
+
+    private CompiledTypeMapper(Class<S> sourceType, Class<D> destinationType, MethodHandle constructor,
+                               List<MethodHandle> getters, List<MethodHandle> setters, boolean skipNull) {
+        this.sourceType = sourceType;
+        this.destinationType = destinationType;
+        this.constructor = constructor;
+        this.getters = getters.toArray(new MethodHandle[0]);
+        this.setters = setters.toArray(new MethodHandle[0]);
+        this.skipNull = skipNull;
+    }
+
+    /**
+     * 根据ModelMapper的TypeMap生成转换计划
+     *
+     * @param modelMapper     转换器
+     * @param sourceType      源类型
+     * @param destinationType 目标类型
+     * @return 无法生成等价的转换计划时返回null
+     */
+    static <S, D> CompiledTypeMapper<S, D> compile(ModelMapper modelMapper, Class<S> sourceType, Class<D> destinationType) {
+        try {
+            Configuration configuration = modelMapper.getConfiguration();
+            if (Objects.nonNull(configuration.getProvider())
+                    || Objects.nonNull(configuration.getPropertyCondition())
+                    || configuration.getConverters().size() != DEFAULT_CONVERTER_COUNT
+                    || isDeepCopyEnabled(configuration)) {
+                return null;
+            }
+            TypeMap<S, D> typeMap = getTypeMap(modelMapper, sourceType, destinationType);
+            if (Objects.nonNull(typeMap.getConverter())
+                    || Objects.nonNull(typeMap.getPreConverter())
+                    || Objects.nonNull(typeMap.getPostConverter())
+                    || Objects.nonNull(typeMap.getProvider())
+                    || Objects.nonNull(typeMap.getCondition())
+                    || Objects.nonNull(typeMap.getPropertyCondition())
+                    || Objects.nonNull(typeMap.getPropertyConverter())
+                    || Objects.nonNull(typeMap.getPropertyProvider())) {
+                return null;
+            }
+
+            List<MethodHandle> getters = new ArrayList<>();
+            List<MethodHandle> setters = new ArrayList<>();
+            for (Mapping mapping : typeMap.getMappings()) {
+                if (!(mapping instanceof PropertyMapping)
+                        || Objects.nonNull(mapping.getCondition())
+                        || Objects.nonNull(mapping.getConverter())
+                        || Objects.nonNull(mapping.getProvider())) {
+                    return null;
+                }
+                if (mapping.isSkipped()) {
+                    continue;
+                }
+                PropertyMapping propertyMapping = (PropertyMapping) mapping;
+                if (propertyMapping.getSourceProperties().size() != 1 || propertyMapping.getDestinationProperties().size() != 1) {
+                    return null;
+                }
+                PropertyInfo source = propertyMapping.getLastSourceProperty();
+                PropertyInfo destination = propertyMapping.getLastDestinationProperty();
+                if (!isAssignable(source.getType(), destination.getType())) {
+                    return null;
+                }
+                MethodHandle getter = getter(source.getMember());
+                MethodHandle setter = setter(destination.getMember());
+                if (Objects.isNull(getter) || Objects.isNull(setter)) {
+                    return null;
+                }
+                getters.add(getter);
+                setters.add(setter);
+            }
+
+            Constructor<D> constructor = destinationType.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return new CompiledTypeMapper<>(sourceType, destinationType,
+                    LOOKUP.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE),
+                    getters, setters, Boolean.TRUE.equals(configuration.isSkipNullEnabled()));
+        } catch (Exception e) {
+            LOG.warn("生成转换计划[{} -> {}]失败，使用ModelMapper转换", sourceType.getName(), destinationType.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 是否支持转换(源对象为代理等子类时不支持)
+     *
+     * @param source 源对象
+     * @return 布尔值
+     */
+    boolean supports(Object source) {
+        return source.getClass() == sourceType;
+    }
+
+    /**
+     * 转换
+     *
+     * @param source 源对象 不可为空
+     * @return 目标对象
+     */
+    @SuppressWarnings("unchecked")
+    D map(S source) {
+        try {
+            Object destination = constructor.invokeExact();
+            for (int i = 0; i < getters.length; i++) {
+                Object value = getters[i].invokeExact((Object) source);
+                if (value == null && skipNull) {
+                    continue;
+                }
+                setters[i].invokeExact(destination, value);
+            }
+            return (D) destination;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SeiException("转换[" + sourceType.getName() + " -> " + destinationType.getName() + "]异常", e);
+        }
+    }
+
+    private static <S, D> TypeMap<S, D> getTypeMap(ModelMapper modelMapper, Class<S> sourceType, Class<D> destinationType) {
+        TypeMap<S, D> typeMap = modelMapper.getTypeMap(sourceType, destinationType);
+        if (Objects.isNull(typeMap)) {
+            synchronized (modelMapper) {
+                typeMap = modelMapper.getTypeMap(sourceType, destinationType);
+                if (Objects.isNull(typeMap)) {
+                    try {
+                        typeMap = modelMapper.createTypeMap(sourceType, destinationType);
+                    } catch (RuntimeException e) {
+                        // 并发转换时已隐式创建
+                        typeMap = modelMapper.getTypeMap(sourceType, destinationType);
+                        if (Objects.isNull(typeMap)) {
+                            throw e;
+                        }
+                    }
+                }
+            }
+        }
+        return typeMap;
+    }
+
+    /**
+     * 与ModelMapper的AssignableConverter一致：目标类型可由源类型直接赋值，
+     * 数组、集合、Map及Optional由其他转换器处理，不支持
+     */
+    private static boolean isAssignable(Class<?> sourceType, Class<?> destinationType) {
+        if (isContainer(sourceType) || isContainer(destinationType)) {
+            return false;
+        }
+        if (sourceType.isPrimitive() || destinationType.isPrimitive()) {
+            return sourceType == destinationType;
+        }
+        return destinationType.isAssignableFrom(sourceType);
+    }
+
+    private static boolean isContainer(Class<?> type) {
+        return type.isArray() || Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type) || Optional.class.isAssignableFrom(type);
+    }
+
+    private static MethodHandle getter(Member member) throws IllegalAccessException {
+        if (member instanceof Method) {
+            Method method = (Method) member;
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method).asType(GETTER_TYPE);
+        }
+        if (member instanceof Field) {
+            Field field = (Field) member;
+            field.setAccessible(true);
+            return LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+        }
+        return null;
+    }
+
+    private static MethodHandle setter(Member member) throws IllegalAccessException {
+        if (member instanceof Method) {
+            Method method = (Method) member;
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method).asType(SETTER_TYPE);
+        }
+        if (member instanceof Field) {
+            Field field = (Field) member;
+            field.setAccessible(true);
+            return LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+        }
+        return null;
+    }
+
+    /**
+     * 是否启用深拷贝(启用时ModelMapper不直接赋值引用)
+     */
+    private static boolean isDeepCopyEnabled(Configuration configuration) {
+        try {
+            return Boolean.TRUE.equals(configuration.getClass().getMethod("isDeepCopyEnabled").invoke(configuration));
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.changhong.sei.core.dao;
 
 import com.changhong.sei.core.dao.jpa.impl.DaoImplMapper;
+import com.changhong.sei.core.dao.metrics.DaoMetrics;
+import com.changhong.sei.core.dao.metrics.DaoMetricsInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.support.*;
@@ -27,6 +30,11 @@ import static org.springframework.data.querydsl.QuerydslUtils.QUERY_DSL_PRESENT;
 public class BaseDaoFactoryBean<R extends JpaRepository<T, Serializable>, T extends Persistable>
         extends JpaRepositoryFactoryBean<R, T, Serializable> {
 
+    /**
+     * 数据访问监控指标(启用时记录Dao方法的执行时间及返回行数)
+     */
+    private DaoMetrics daoMetrics;
+
     /**
      * Creates a new {@link JpaRepositoryFactoryBean} for the given repository interface.
      *
@@ -36,8 +44,21 @@ public class BaseDaoFactoryBean<R extends JpaRepository<T, Serializable>, T exte
         super(repositoryInterface);
     }
 
+    @Autowired(required = false)
+    public void setDaoMetrics(DaoMetrics daoMetrics) {
+        this.daoMetrics = daoMetrics;
+    }
+
     @Override
     protected RepositoryFactorySupport createRepositoryFactory(final EntityManager entityManager) {
+        RepositoryFactorySupport factory = createBaseRepositoryFactory(entityManager);
+        if (daoMetrics != null) {
+            factory.addRepositoryProxyPostProcessor(new DaoMetricsInterceptor(daoMetrics));
+        }
+        return factory;
+    }
+
+    private RepositoryFactorySupport createBaseRepositoryFactory(final EntityManager entityManager) {
         return new JpaRepositoryFactory(entityManager) {
             @Override
             protected SimpleJpaRepository<T, Serializable> getTargetRepository(
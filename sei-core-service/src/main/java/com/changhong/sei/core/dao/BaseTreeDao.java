@@ -40,6 +40,32 @@ public interface BaseTreeDao<T extends BaseEntity & TreeEntity> extends BaseDao<
      */
     List<T> getChildrenNodesNoneOwn(String nodeId);
 
+    /**
+     * 获取指定节点下指定深度以内的子节点
+     *
+     * @param nodeId      当前节点ID
+     * @param maxDepth    最大深度(1为直接子节点)
+     * @param includeSelf 是否包含自己
+     * @return 返回指定节点下指定深度以内的子节点
+     */
+    List<T> getChildrenNodes(String nodeId, int maxDepth, boolean includeSelf);
+
+    /**
+     * 获取指定节点的所有父节点(按层级由近到远)
+     *
+     * @param nodeId      当前节点ID
+     * @param includeSelf 是否包含自己
+     * @return 返回指定节点的所有父节点
+     */
+    List<T> getParentNodes(String nodeId, boolean includeSelf);
+
+    /**
+     * 按父节点Id重建闭包表(已有数据启用闭包表时使用)
+     *
+     * @return 返回闭包表行数
+     */
+    int rebuildClosure();
+
     /**
      * 获取指定节点名称的所有节点
      *
@@ -1,10 +1,12 @@
 package com.changhong.sei.core.dao.impl;
 
+import com.changhong.sei.core.context.ContextUtil;
 import com.changhong.sei.core.dao.BaseRelationDao;
 import com.changhong.sei.core.dao.jpa.impl.BaseDaoImpl;
 import com.changhong.sei.core.dto.IRank;
-import com.changhong.sei.core.dto.serach.SearchFilter;
 import com.changhong.sei.core.entity.AbstractEntity;
+import com.changhong.sei.core.entity.ISoftDelete;
+import com.changhong.sei.core.entity.ITenant;
 import com.changhong.sei.core.entity.RelationEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +16,6 @@ import javax.persistence.Query;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 实现功能:
@@ -62,23 +63,10 @@ public class BaseRelationDaoImpl<T extends AbstractEntity<String> & RelationEnti
      */
     @Override
     public List<C> getChildrenFromParentId(String parentId) {
-        List<C> result = new ArrayList<>();
-        SearchFilter filter = new SearchFilter(T.PARENT_FIELD + ".id", parentId, SearchFilter.Operator.EQ);
-        List<T> relations = findByFilter(filter);
-        if (relations == null) {
+        if (Objects.isNull(parentId)) {
             return Collections.emptyList();
         }
-        // 按RANK排序
-        if (IRank.class.isAssignableFrom(entityClass)) {
-            relations = relations.stream().sorted(Comparator.comparing(r -> ((IRank) r).getRank())).collect(Collectors.toList());
-        }
-        relations.forEach((r) -> {
-            C child = r.getChild();
-            if (child != null) {
-                result.add(child);
-            }
-        });
-        return result;
+        return findRelated(T.CHILD_FIELD, T.PARENT_FIELD, Collections.singletonList(parentId));
     }
 
     /**
@@ -92,23 +80,8 @@ public class BaseRelationDaoImpl<T extends AbstractEntity<String> & RelationEnti
         if (parentIds == null || parentIds.size() == 0) {
             return Collections.emptyList();
         }
-        Set<C> result = new HashSet<>();
-        SearchFilter filter = new SearchFilter(T.PARENT_FIELD + ".id", parentIds, SearchFilter.Operator.IN);
-        List<T> relations = findByFilter(filter);
-        if (relations == null) {
-            return Collections.emptyList();
-        }
-        // 按RANK排序
-        if (IRank.class.isAssignableFrom(entityClass)) {
-            relations = relations.stream().sorted(Comparator.comparing(r -> ((IRank) r).getRank())).collect(Collectors.toList());
-        }
-        relations.forEach((r) -> {
-            C child = r.getChild();
-            if (child != null) {
-                result.add(child);
-            }
-        });
-        return new ArrayList<>(result);
+        // 去重(保留排序)
+        return new ArrayList<>(new LinkedHashSet<>(findRelated(T.CHILD_FIELD, T.PARENT_FIELD, parentIds)));
     }
 
     /**
@@ -119,19 +92,10 @@ public class BaseRelationDaoImpl<T extends AbstractEntity<String> & RelationEnti
      */
     @Override
     public List<P> getParentsFromChildId(String childId) {
-        List<P> result = new ArrayList<>();
-        SearchFilter filter = new SearchFilter(T.CHILD_FIELD + ".id", childId, SearchFilter.Operator.EQ);
-        List<T> relations = findByFilter(filter);
-        if (relations == null) {
-            return result;
+        if (Objects.isNull(childId)) {
+            return new ArrayList<>();
         }
-        relations.forEach((r) -> {
-            P parent = r.getParent();
-            if (parent != null) {
-                result.add(parent);
-            }
-        });
-        return result;
+        return findRelated(T.PARENT_FIELD, T.CHILD_FIELD, Collections.singletonList(childId));
     }
 
     /**
@@ -145,19 +109,65 @@ public class BaseRelationDaoImpl<T extends AbstractEntity<String> & RelationEnti
         if (childIds == null || childIds.size() == 0) {
             return Collections.emptyList();
         }
-        Set<P> result = new HashSet<>();
-        SearchFilter filter = new SearchFilter(T.CHILD_FIELD + ".id", childIds, SearchFilter.Operator.IN);
-        List<T> relations = findByFilter(filter);
-        if (relations == null) {
-            return Collections.emptyList();
+        // 去重(保留排序)
+        return new ArrayList<>(new LinkedHashSet<>(findRelated(T.PARENT_FIELD, T.CHILD_FIELD, childIds)));
+    }
+
+    /**
+     * 通过分配关系直接查询关联的实体(父实体或子实体)
+     * 关联实体与分配关系在同一查询中获取，不再逐个延迟加载；保留分配关系的软删除及租户条件，按分配关系的IRank排序
+     * (Id超过IN_BATCH_SIZE分批查询时，合并后再按IRank排序)
+     *
+     * @param target    需要获取的关联属性(parent或child)
+     * @param condition 作为条件的关联属性(parent或child)
+     * @param ids       条件关联实体的Id清单
+     * @return 关联实体清单(按分配关系顺序，可能重复)
+     */
+    private <X> List<X> findRelated(String target, String condition, List<String> ids) {
+        boolean ranked = IRank.class.isAssignableFrom(entityClass);
+        StringBuilder queryStr = new StringBuilder(128)
+                .append("select e");
+        if (ranked) {
+            queryStr.append(", r.").append(IRank.RANK);
+        }
+        queryStr.append(" from ").append(entityClass.getSimpleName()).append(" r join r.").append(target).append(" e")
+                .append(" where r.").append(condition).append(".id in :ids");
+        // 软删除
+        if (ISoftDelete.class.isAssignableFrom(entityClass)) {
+            queryStr.append(" and r.").append(ISoftDelete.DELETED).append(" = 0");
+        }
+        // 租户
+        String tenantCode = null;
+        if (ITenant.class.isAssignableFrom(entityClass)) {
+            tenantCode = ContextUtil.getTenantCode();
+            queryStr.append(" and r.").append(ITenant.TENANT_CODE).append(" = :tenantCode");
         }
-        relations.forEach((r) -> {
-            P parent = r.getParent();
-            if (parent != null) {
-                result.add(parent);
+        // 按RANK排序
+        if (ranked) {
+            queryStr.append(" order by r.").append(IRank.RANK);
+        }
+        List<String> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Object> rows = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += IN_BATCH_SIZE) {
+            Query query = entityManager.createQuery(queryStr.toString());
+            query.setParameter("ids", idList.subList(from, Math.min(from + IN_BATCH_SIZE, idList.size())));
+            if (Objects.nonNull(tenantCode)) {
+                query.setParameter("tenantCode", tenantCode);
             }
-        });
-        return new ArrayList<>(result);
+            rows.addAll(query.getResultList());
+        }
+        if (!ranked) {
+            return (List<X>) rows;
+        }
+        // 多个批次各自有序，合并后按RANK稳定排序(空值在后)
+        if (idList.size() > IN_BATCH_SIZE) {
+            rows.sort(Comparator.comparing(row -> (Integer) ((Object[]) row)[1], Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        List<X> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add((X) ((Object[]) row)[0]);
+        }
+        return result;
     }
 
     /**
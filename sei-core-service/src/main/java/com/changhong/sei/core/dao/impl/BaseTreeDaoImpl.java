@@ -6,28 +6,83 @@ import com.changhong.sei.core.dto.TreeEntity;
 import com.changhong.sei.core.dto.serach.Search;
 import com.changhong.sei.core.dto.serach.SearchFilter;
 import com.changhong.sei.core.dto.serach.SearchOrder;
-import com.changhong.sei.core.entity.BaseEntity;
-import com.changhong.sei.core.entity.IFrozen;
+import com.changhong.sei.core.entity.*;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.query.NativeQuery;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.Assert;
 
 import javax.persistence.EntityManager;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import javax.persistence.Query;
+import java.util.*;
 
 /**
  * 实现功能:
  * 树形实体Dao基类
+ * 树形实体通过{@link ClosureTable}指定闭包表时，保存、移动及删除节点时同事务维护闭包表，
+ * 子树、祖先及限定深度的查询使用闭包表连接查询；否则使用代码路径(codePath)前缀匹配
  *
  * @param <T> BaseEntity的子类
  * @author 马超(Vision.Mac)
  * @version 1.0.1 2017/5/9 1:38
  */
 public class BaseTreeDaoImpl<T extends BaseEntity & TreeEntity<T>> extends BaseDaoImpl<T, String> implements BaseTreeDao<T> {
+    private static final String CLOSURE_COLUMNS = TreeClosure.ANCESTOR_COLUMN + ", " + TreeClosure.DESCENDANT_COLUMN
+            + ", " + TreeClosure.DEPTH_COLUMN;
+
+    /**
+     * 闭包表实体(未使用闭包表时为null)
+     */
+    private final Class<? extends TreeClosure> closureClass;
+    private volatile String closureTableName;
+
     public BaseTreeDaoImpl(Class<T> domainClass, EntityManager entityManager) {
         super(domainClass, entityManager);
+        ClosureTable closureTable = domainClass.getAnnotation(ClosureTable.class);
+        this.closureClass = Objects.isNull(closureTable) ? null : closureTable.value();
+    }
+
+    /**
+     * @return 是否使用闭包表
+     */
+    protected boolean isClosureEnabled() {
+        return Objects.nonNull(closureClass);
+    }
+
+    /**
+     * 保存节点，使用闭包表时同步维护节点关系
+     */
+    @Override
+    public <S extends T> S save(S entity) {
+        S saved = super.save(entity);
+        if (isClosureEnabled()) {
+            saveClosure(saved.getId(), saved.getParentId());
+        }
+        return saved;
+    }
+
+    /**
+     * 删除节点，物理删除时同步删除闭包表中节点的关系(软删除保留，查询时过滤)
+     */
+    @Override
+    public void delete(T entity) {
+        super.delete(entity);
+        if (isClosureEnabled() && Objects.nonNull(entity) && !ISoftDelete.class.isAssignableFrom(domainClass)) {
+            deleteClosure(Collections.singletonList(entity.getId()));
+        }
+    }
+
+    @Override
+    public void deleteInBatch(Iterable<T> entities) {
+        super.deleteInBatch(entities);
+        if (isClosureEnabled()) {
+            List<String> ids = new ArrayList<>();
+            entities.forEach(entity -> ids.add(entity.getId()));
+            deleteClosure(ids);
+        }
     }
 
     /**
@@ -52,6 +107,9 @@ public class BaseTreeDaoImpl<T extends BaseEntity & TreeEntity<T>> extends BaseD
     @Override
     public List<T> getChildrenNodes(String nodeId) {
         Assert.notNull(nodeId, "nodeId不能为空");
+        if (isClosureEnabled()) {
+            return findClosureChildren(nodeId, null, true, false);
+        }
 
         List<T> nodeList = new ArrayList<>();
         //获取当前节点
@@ -71,6 +129,9 @@ public class BaseTreeDaoImpl<T extends BaseEntity & TreeEntity<T>> extends BaseD
     @Override
     public List<T> getChildrenNodesNoneOwn(String nodeId) {
         Assert.notNull(nodeId, "nodeId不能为空");
+        if (isClosureEnabled()) {
+            return findClosureChildren(nodeId, null, false, false);
+        }
 
         List<T> nodeList = new ArrayList<>();
         //获取当前节点
@@ -81,6 +142,84 @@ public class BaseTreeDaoImpl<T extends BaseEntity & TreeEntity<T>> extends BaseD
         return nodeList;
     }
 
+    /**
+     * 获取指定节点下指定深度以内的子节点
+     *
+     * @param nodeId      当前节点ID
+     * @param maxDepth    最大深度(1为直接子节点)
+     * @param includeSelf 是否包含自己
+     * @return 返回指定节点下指定深度以内的子节点
+     */
+    @Override
+    public List<T> getChildrenNodes(String nodeId, int maxDepth, boolean includeSelf) {
+        Assert.notNull(nodeId, "nodeId不能为空");
+        if (isClosureEnabled()) {
+            return findClosureChildren(nodeId, maxDepth, includeSelf, false);
+        }
+
+        List<T> nodeList = new ArrayList<>();
+        //获取当前节点
+        T entity = findOne(nodeId);
+        if (Objects.nonNull(entity)) {
+            if (includeSelf) {
+                nodeList.add(entity);
+            }
+            if (maxDepth > 0) {
+                Search search = new Search();
+                search.addFilter(new SearchFilter(TreeEntity.CODE_PATH, entity.getCodePath() + TreeEntity.CODE_DELIMITER, SearchFilter.Operator.LLK));
+                search.addFilter(new SearchFilter(TreeEntity.NODE_LEVEL, entity.getNodeLevel() + maxDepth, SearchFilter.Operator.LE));
+                setDefaultSort(search);
+                nodeList.addAll(findByFilters(search));
+            }
+        }
+        return nodeList;
+    }
+
+    /**
+     * 获取指定节点的所有父节点(按层级由近到远)
+     * 与逐级查询父节点一致，不过滤已删除及冻结的父节点
+     *
+     * @param nodeId      当前节点ID
+     * @param includeSelf 是否包含自己
+     * @return 返回指定节点的所有父节点
+     */
+    @Override
+    public List<T> getParentNodes(String nodeId, boolean includeSelf) {
+        Assert.notNull(nodeId, "nodeId不能为空");
+        if (isClosureEnabled()) {
+            StringBuilder queryStr = new StringBuilder(256)
+                    .append("select e from ").append(domainClass.getSimpleName()).append(" e, ").append(closureClass.getSimpleName())
+                    .append(" c where c.").append(TreeClosure.ANCESTOR_ID).append(" = e.").append(BaseEntity.ID)
+                    .append(" and c.").append(TreeClosure.DESCENDANT_ID).append(" = :nodeId");
+            if (!includeSelf) {
+                queryStr.append(" and c.").append(TreeClosure.DEPTH).append(" > 0");
+            }
+            queryStr.append(" order by c.").append(TreeClosure.DEPTH);
+            Query query = entityManager.createQuery(queryStr.toString());
+            query.setParameter("nodeId", nodeId);
+            return new ArrayList<>(query.getResultList());
+        }
+
+        List<T> parents = new ArrayList<>();
+        T node = findOne(nodeId);
+        if (Objects.isNull(node)) {
+            return parents;
+        }
+        if (includeSelf) {
+            parents.add(node);
+        }
+        Set<String> visited = new HashSet<>();
+        visited.add(node.getId());
+        while (StringUtils.isNotBlank(node.getParentId()) && visited.add(node.getParentId())) {
+            node = findOne(node.getParentId());
+            if (Objects.isNull(node)) {
+                break;
+            }
+            parents.add(node);
+        }
+        return parents;
+    }
+
     /**
      * 获取指定节点名称的所有节点
      *
@@ -278,6 +417,9 @@ public class BaseTreeDaoImpl<T extends BaseEntity & TreeEntity<T>> extends BaseD
     @Override
     public List<T> getChildrenNodes4Unfrozen(String nodeId) {
         Assert.notNull(nodeId, "nodeId不能为空");
+        if (isClosureEnabled()) {
+            return findClosureChildren(nodeId, null, true, true);
+        }
 
         List<T> nodeList = new ArrayList<>();
         //获取当前节点
@@ -297,6 +439,9 @@ public class BaseTreeDaoImpl<T extends BaseEntity & TreeEntity<T>> extends BaseD
     @Override
     public List<T> getChildrenNodesNoneOwn4Unfrozen(String nodeId) {
         Assert.notNull(nodeId, "nodeId不能为空");
+        if (isClosureEnabled()) {
+            return findClosureChildren(nodeId, null, false, true);
+        }
 
         List<T> nodeList = new ArrayList<>();
         //获取当前节点
@@ -490,6 +635,199 @@ public class BaseTreeDaoImpl<T extends BaseEntity & TreeEntity<T>> extends BaseD
         return parentNode;
     }
 
+    /////////////////////////////以下为闭包表的方法/////////////////////////
+
+    /**
+     * 按父节点Id重建闭包表(已有数据启用闭包表时使用)
+     * 先插入各节点自身，再逐层由祖先到父节点的关系推导祖先到子节点的关系
+     *
+     * @return 返回闭包表行数
+     */
+    @Override
+    public int rebuildClosure() {
+        Assert.state(isClosureEnabled(), domainClass.getName() + "未指定闭包表");
+        AbstractEntityPersister persister = getPersister(domainClass);
+        String table = persister.getTableName();
+        String idColumn = persister.getIdentifierColumnNames()[0];
+        String parentColumn = persister.getPropertyColumnNames(TreeEntity.PARENT_ID)[0];
+        String closureTable = getClosureTableName();
+
+        createClosureQuery("delete from " + closureTable).executeUpdate();
+        int nodes = createClosureQuery("insert into " + closureTable + " (" + CLOSURE_COLUMNS + ") select "
+                + idColumn + ", " + idColumn + ", 0 from " + table).executeUpdate();
+        int total = nodes;
+        String sql = "insert into " + closureTable + " (" + CLOSURE_COLUMNS + ") select c." + TreeClosure.ANCESTOR_COLUMN
+                + ", e." + idColumn + ", c." + TreeClosure.DEPTH_COLUMN + " + 1 from " + closureTable + " c, " + table
+                + " e where e." + parentColumn + " = c." + TreeClosure.DESCENDANT_COLUMN + " and c." + TreeClosure.DEPTH_COLUMN + " = :depth";
+        for (int depth = 0; ; depth++) {
+            // 深度不会超过节点数，否则父节点Id存在循环
+            Assert.state(depth <= nodes, domainClass.getName() + "的父节点Id存在循环");
+            int rows = createClosureQuery(sql).setParameter("depth", depth).executeUpdate();
+            if (rows == 0) {
+                break;
+            }
+            total += rows;
+        }
+        return total;
+    }
+
+    /**
+     * 维护节点的闭包表关系
+     * 新节点插入自身及父节点的所有祖先；父节点变更时断开子树与原祖先的关系，再连接到新父节点的所有祖先
+     *
+     * @param nodeId   节点Id
+     * @param parentId 父节点Id
+     */
+    private void saveClosure(String nodeId, String parentId) {
+        String closureTable = getClosureTableName();
+        List<?> rows = createClosureQuery("select " + TreeClosure.ANCESTOR_COLUMN + ", " + TreeClosure.DEPTH_COLUMN
+                + " from " + closureTable + " where " + TreeClosure.DESCENDANT_COLUMN + " = :nodeId and "
+                + TreeClosure.DEPTH_COLUMN + " <= 1")
+                .setParameter("nodeId", nodeId).getResultList();
+        boolean exists = false;
+        String originParentId = null;
+        for (Object row : rows) {
+            Object[] values = (Object[]) row;
+            if (((Number) values[1]).intValue() == 0) {
+                exists = true;
+            } else {
+                originParentId = (String) values[0];
+            }
+        }
+        String targetParentId = StringUtils.isBlank(parentId) ? null : parentId;
+        if (!exists) {
+            createClosureQuery("insert into " + closureTable + " (" + CLOSURE_COLUMNS + ") values (:nodeId, :nodeId, 0)")
+                    .setParameter("nodeId", nodeId).executeUpdate();
+            if (Objects.nonNull(targetParentId)) {
+                createClosureQuery("insert into " + closureTable + " (" + CLOSURE_COLUMNS + ") select "
+                        + TreeClosure.ANCESTOR_COLUMN + ", :nodeId, " + TreeClosure.DEPTH_COLUMN + " + 1 from " + closureTable
+                        + " where " + TreeClosure.DESCENDANT_COLUMN + " = :parentId")
+                        .setParameter("nodeId", nodeId)
+                        .setParameter("parentId", targetParentId)
+                        .executeUpdate();
+            }
+            return;
+        }
+        if (Objects.equals(originParentId, targetParentId)) {
+            return;
+        }
+        if (Objects.nonNull(targetParentId)) {
+            Number count = (Number) createClosureQuery("select count(*) from " + closureTable + " where "
+                    + TreeClosure.ANCESTOR_COLUMN + " = :nodeId and " + TreeClosure.DESCENDANT_COLUMN + " = :parentId")
+                    .setParameter("nodeId", nodeId)
+                    .setParameter("parentId", targetParentId)
+                    .getSingleResult();
+            Assert.isTrue(count.intValue() == 0, "不能将节点移动到其自身或子节点下");
+        }
+        // 断开子树与原祖先节点的关系(派生表兼容MySQL不能在子查询中引用被删除表的限制)
+        createClosureQuery("delete from " + closureTable + " where " + TreeClosure.DESCENDANT_COLUMN + " in (select s."
+                + TreeClosure.DESCENDANT_COLUMN + " from (select " + TreeClosure.DESCENDANT_COLUMN + " from " + closureTable
+                + " where " + TreeClosure.ANCESTOR_COLUMN + " = :nodeId) s) and " + TreeClosure.ANCESTOR_COLUMN
+                + " in (select a." + TreeClosure.ANCESTOR_COLUMN + " from (select " + TreeClosure.ANCESTOR_COLUMN + " from "
+                + closureTable + " where " + TreeClosure.DESCENDANT_COLUMN + " = :nodeId and " + TreeClosure.DEPTH_COLUMN + " > 0) a)")
+                .setParameter("nodeId", nodeId).executeUpdate();
+        // 子树连接到新父节点的所有祖先
+        if (Objects.nonNull(targetParentId)) {
+            createClosureQuery("insert into " + closureTable + " (" + CLOSURE_COLUMNS + ") select a."
+                    + TreeClosure.ANCESTOR_COLUMN + ", s." + TreeClosure.DESCENDANT_COLUMN + ", a." + TreeClosure.DEPTH_COLUMN
+                    + " + s." + TreeClosure.DEPTH_COLUMN + " + 1 from " + closureTable + " a, " + closureTable + " s where a."
+                    + TreeClosure.DESCENDANT_COLUMN + " = :parentId and s." + TreeClosure.ANCESTOR_COLUMN + " = :nodeId")
+                    .setParameter("nodeId", nodeId)
+                    .setParameter("parentId", targetParentId)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * 删除节点在闭包表中的所有关系
+     *
+     * @param ids 节点Id清单
+     */
+    private void deleteClosure(List<String> ids) {
+        String sql = "delete from " + getClosureTableName() + " where " + TreeClosure.DESCENDANT_COLUMN
+                + " in (:ids) or " + TreeClosure.ANCESTOR_COLUMN + " in (:ids)";
+        for (int from = 0; from < ids.size(); from += IN_BATCH_SIZE) {
+            createClosureQuery(sql)
+                    .setParameter("ids", ids.subList(from, Math.min(from + IN_BATCH_SIZE, ids.size())))
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * 通过闭包表查询指定节点下的子节点
+     * 当前节点不存在(已删除或冻结)时返回空，与先查询当前节点再按代码路径查询一致
+     *
+     * @param nodeId      当前节点ID
+     * @param maxDepth    最大深度，为null时不限制
+     * @param includeSelf 是否包含自己
+     * @param unfrozen    是否排除冻结节点
+     * @return 子节点清单(当前节点在首位)
+     */
+    private List<T> findClosureChildren(String nodeId, Integer maxDepth, boolean includeSelf, boolean unfrozen) {
+        StringBuilder queryStr = new StringBuilder(256)
+                .append("select e from ").append(domainClass.getSimpleName()).append(" e, ").append(closureClass.getSimpleName())
+                .append(" c where c.").append(TreeClosure.DESCENDANT_ID).append(" = e.").append(BaseEntity.ID)
+                .append(" and c.").append(TreeClosure.ANCESTOR_ID).append(" = :nodeId");
+        if (Objects.nonNull(maxDepth)) {
+            queryStr.append(" and c.").append(TreeClosure.DEPTH).append(" <= :maxDepth");
+        }
+        // 软删除
+        if (ISoftDelete.class.isAssignableFrom(domainClass)) {
+            queryStr.append(" and e.").append(ISoftDelete.DELETED).append(" = 0");
+        }
+        // 冻结
+        boolean frozen = unfrozen && IFrozen.class.isAssignableFrom(domainClass);
+        if (frozen) {
+            queryStr.append(" and e.").append(IFrozen.FROZEN).append(" = :frozen");
+        }
+        queryStr.append(" order by e.").append(TreeEntity.RANK).append(", e.").append(TreeEntity.CODE);
+        Query query = entityManager.createQuery(queryStr.toString());
+        query.setParameter("nodeId", nodeId);
+        if (Objects.nonNull(maxDepth)) {
+            query.setParameter("maxDepth", maxDepth);
+        }
+        if (frozen) {
+            query.setParameter("frozen", Boolean.FALSE);
+        }
+        List<T> nodeList = new ArrayList<>(query.getResultList());
+        T own = null;
+        for (T node : nodeList) {
+            if (Objects.equals(nodeId, node.getId())) {
+                own = node;
+                break;
+            }
+        }
+        if (Objects.isNull(own)) {
+            return new ArrayList<>();
+        }
+        nodeList.remove(own);
+        if (includeSelf) {
+            nodeList.add(0, own);
+        }
+        return nodeList;
+    }
+
+    /**
+     * 闭包表的原生SQL只与闭包表实体同步，避免刷新持久化上下文及清空其他二级缓存
+     */
+    private Query createClosureQuery(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(closureClass);
+        return query;
+    }
+
+    private String getClosureTableName() {
+        if (Objects.isNull(closureTableName)) {
+            closureTableName = getPersister(closureClass).getTableName();
+        }
+        return closureTableName;
+    }
+
+    private AbstractEntityPersister getPersister(Class<?> entityClass) {
+        return (AbstractEntityPersister) entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getMetamodel().entityPersister(entityClass);
+    }
+
     /**
      * 默认排序
      * 优先使用RANK字段排序(顺序),再按CODE字段排序(顺序)
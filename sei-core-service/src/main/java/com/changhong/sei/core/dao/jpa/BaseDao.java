@@ -13,6 +13,8 @@ import javax.persistence.QueryHint;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * <strong>实现功能:</strong>
@@ -124,6 +126,26 @@ public interface BaseDao<T extends Persistable & Serializable, ID extends Serial
      */
     List<T> findAllUnfrozen();
 
+    /**
+     * 通过Id清单获取业务实体清单
+     * 按Id分批in查询，保留软删除、冻结及租户条件，按IRank排序
+     *
+     * @param ids           Id清单
+     * @param includeFrozen 是否包含冻结的
+     * @return 返回业务实体集合
+     */
+    List<T> findByIds(Collection<ID> ids, boolean includeFrozen);
+
+    /**
+     * 通过Id清单分批获取业务实体，每批查询结果交由consumer处理，不在内存中保留全部结果
+     * 保留软删除、冻结及租户条件，每批结果按IRank排序
+     *
+     * @param ids           Id清单
+     * @param includeFrozen 是否包含冻结的
+     * @param consumer      每批查询结果的处理
+     */
+    void findByIds(Collection<ID> ids, boolean includeFrozen, Consumer<List<T>> consumer);
+
     /**
      * 根据泛型对象属性和值查询集合对象
      *
@@ -199,6 +221,30 @@ public interface BaseDao<T extends Persistable & Serializable, ID extends Serial
      */
     List<T> findByFilters(Search searchConfig);
 
+    /**
+     * 基于动态组合条件对象和排序定义流式查询数据(游标方式)，不在内存中保留全部结果
+     * 必须在事务中调用，使用后需关闭返回的流；每读取fetchSize条数据，将本次查询加载的(只读)实体变为游离状态，
+     * 调用方事务中已管理的实体及未刷新的修改不受影响
+     *
+     * @param searchConfig 查询过滤器
+     * @param fetchSize    每次从数据库获取的行数(小于等于0时使用默认值)
+     * @return 返回符合条件的对象流
+     * @see Search
+     */
+    Stream<T> streamByFilters(Search searchConfig, int fetchSize);
+
+    /**
+     * 基于动态组合条件对象和排序定义流式查询数据(游标方式)，逐条交由consumer处理，不在内存中保留全部结果
+     * 必须在事务中调用；每读取fetchSize条数据，将本次查询加载的(只读)实体变为游离状态，
+     * 调用方事务中已管理的实体及未刷新的修改不受影响
+     *
+     * @param searchConfig 查询过滤器
+     * @param fetchSize    每次从数据库获取的行数(小于等于0时使用默认值)
+     * @param consumer     每条数据的处理
+     * @see Search
+     */
+    void findByFilters(Search searchConfig, int fetchSize, Consumer<T> consumer);
+
     /**
      * 基于动态组合条件对象和分页(含排序)对象查询数据集合
      *
@@ -1,14 +1,17 @@
 package com.changhong.sei.core.dao.jpa.impl;
 
+import com.changhong.sei.core.context.ApplicationContextHolder;
 import com.changhong.sei.core.context.ContextUtil;
 import com.changhong.sei.core.dao.datachange.DataHistoryUtil;
 import com.changhong.sei.core.dao.jpa.BaseDao;
+import com.changhong.sei.core.dao.search.QuickSearchEngine;
 import com.changhong.sei.core.datachange.DataChangeProducer;
 import com.changhong.sei.core.dto.IRank;
 import com.changhong.sei.core.dto.datachange.DataHistoryRecord;
 import com.changhong.sei.core.dto.serach.*;
 import com.changhong.sei.core.entity.*;
 import com.changhong.sei.core.util.JsonUtils;
+import com.changhong.sei.core.utils.TransactionUtil;
 import com.changhong.sei.exception.DataOperationDeniedException;
 import com.changhong.sei.exception.SeiException;
 import com.changhong.sei.util.DateUtils;
@@ -20,21 +23,31 @@ import org.apache.commons.lang3.reflect.MethodUtils;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <strong>实现功能:</strong>
@@ -52,6 +65,16 @@ public class BaseDaoImpl<T extends Persistable & Serializable, ID extends Serial
     protected final Class<T> domainClass;
     protected final EntityManager entityManager;
 
+    /**
+     * in查询每批最大Id数(部分数据库限制in列表最多1000个)
+     */
+    protected static final int IN_BATCH_SIZE = 1000;
+
+    /**
+     * 流式查询默认每次从数据库获取的行数(同时为清理持久化上下文的间隔)
+     */
+    protected static final int STREAM_FETCH_SIZE = 500;
+
     private static final Pattern sqlPattern = Pattern.compile("(?:')|(?:--)|(/\\*(?:.|[\\n\\r])*?\\*/)", Pattern.CASE_INSENSITIVE);
 
     protected boolean isValid(String str) {
@@ -69,6 +92,31 @@ public class BaseDaoImpl<T extends Persistable & Serializable, ID extends Serial
         this.entityManager = entityManager;
     }
 
+    /**
+     * 快速查询引擎(未配置时为null)
+     * 只缓存获取成功的引擎，上下文未就绪或获取失败时下次重新获取
+     */
+    private volatile QuickSearchEngine quickSearchEngine;
+
+    private QuickSearchEngine getQuickSearchEngine() {
+        QuickSearchEngine engine = quickSearchEngine;
+        if (Objects.isNull(engine)) {
+            ApplicationContext context = ApplicationContextHolder.getApplicationContext();
+            if (Objects.isNull(context)) {
+                return null;
+            }
+            try {
+                engine = context.getBeanProvider(QuickSearchEngine.class).getIfAvailable();
+            } catch (BeansException | IllegalStateException e) {
+                // 上下文已关闭或引擎创建失败
+                LOGGER.warn("获取快速查询引擎失败，使用 LIKE 查询", e);
+                return null;
+            }
+            quickSearchEngine = engine;
+        }
+        return engine;
+    }
+
     private DataChangeProducer getDataChangeProducer() {
         try {
             return ContextUtil.getBean(DataChangeProducer.class);
@@ -157,6 +205,12 @@ public class BaseDaoImpl<T extends Persistable & Serializable, ID extends Serial
             }
             entity = entityManager.merge(entity);
         }
+        // 事务提交后更新快速查询索引
+        QuickSearchEngine engine = getQuickSearchEngine();
+        if (Objects.nonNull(engine)) {
+            final S saved = entity;
+            TransactionUtil.afterCommit(() -> engine.onSaved(domainClass, saved));
+        }
         // 生成数据变更记录
         if (isEnableDataHistory && BaseEntity.class.isAssignableFrom(domainClass)) {
             DataHistoryRecord record = DataHistoryUtil.generateSaveRecord(originalJson, (BaseEntity) entity);
@@ -217,6 +271,12 @@ public class BaseDaoImpl<T extends Persistable & Serializable, ID extends Serial
      * @param entity 业务实体
      */
     private void sendDeleteDataChange(T entity) {
+        // 事务提交后更新快速查询索引
+        QuickSearchEngine engine = getQuickSearchEngine();
+        if (Objects.nonNull(engine) && Objects.nonNull(entity)) {
+            final Object id = entity.getId();
+            TransactionUtil.afterCommit(() -> engine.onDeleted(domainClass, id));
+        }
         // 判断是否需要记录变更日志
         boolean isEnableDataHistory = DataHistoryUtil.isEnableDataHistory(domainClass);
         if (!isEnableDataHistory) {
@@ -427,6 +487,77 @@ public class BaseDaoImpl<T extends Persistable & Serializable, ID extends Serial
         return super.findAll(spec, sort);
     }
 
+    /**
+     * 通过Id清单获取业务实体清单
+     * 按Id分批in查询，保留软删除、冻结及租户条件，按IRank排序
+     *
+     * @param ids           Id清单
+     * @param includeFrozen 是否包含冻结的
+     * @return 返回业务实体集合
+     */
+    @Override
+    public List<T> findByIds(Collection<ID> ids, boolean includeFrozen) {
+        List<T> result = new ArrayList<>();
+        int[] batches = new int[1];
+        findByIds(ids, includeFrozen, entities -> {
+            result.addAll(entities);
+            batches[0]++;
+        });
+        // 多批结果合并后重新按IRank排序(稳定排序，同序号保持查询顺序)
+        if (batches[0] > 1 && IRank.class.isAssignableFrom(domainClass)) {
+            result.sort(Comparator.comparing(entity -> ((IRank) entity).getRank(), Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        return result;
+    }
+
+    /**
+     * 通过Id清单分批获取业务实体，每批查询结果交由consumer处理，不在内存中保留全部结果
+     * 保留软删除、冻结及租户条件，每批结果按IRank排序
+     *
+     * @param ids           Id清单
+     * @param includeFrozen 是否包含冻结的
+     * @param consumer      每批查询结果的处理
+     */
+    @Override
+    public void findByIds(Collection<ID> ids, boolean includeFrozen, Consumer<List<T>> consumer) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return;
+        }
+        // 去重并去除空值
+        List<ID> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        idList.removeIf(Objects::isNull);
+
+        Sort sort = Sort.unsorted();
+        if (IRank.class.isAssignableFrom(domainClass)) {
+            sort = Sort.by(Sort.Direction.ASC, IRank.RANK);
+        }
+        final String tenantCode = ITenant.class.isAssignableFrom(domainClass) ? ContextUtil.getTenantCode() : null;
+        for (int from = 0; from < idList.size(); from += IN_BATCH_SIZE) {
+            final List<ID> batchIds = idList.subList(from, Math.min(from + IN_BATCH_SIZE, idList.size()));
+            Specification<T> spec = (root, query, builder) -> {
+                List<Predicate> predicates = new ArrayList<>();
+                predicates.add(root.get(BaseEntity.ID).in(batchIds));
+                //软删除
+                if (ISoftDelete.class.isAssignableFrom(domainClass)) {
+                    predicates.add(builder.equal(root.get(ISoftDelete.DELETED), 0));
+                }
+                //冻结
+                if (!includeFrozen && IFrozen.class.isAssignableFrom(domainClass)) {
+                    predicates.add(builder.equal(root.get(IFrozen.FROZEN), false));
+                }
+                //租户
+                if (Objects.nonNull(tenantCode)) {
+                    predicates.add(builder.equal(root.get(ITenant.TENANT_CODE), tenantCode));
+                }
+                return builder.and(predicates.toArray(new Predicate[0]));
+            };
+            List<T> entities = super.findAll(spec, sort);
+            if (CollectionUtils.isNotEmpty(entities)) {
+                consumer.accept(entities);
+            }
+        }
+    }
+
     /**
      * 根据泛型对象属性和值查询集合对象
      *
@@ -607,6 +738,62 @@ public class BaseDaoImpl<T extends Persistable & Serializable, ID extends Serial
         return findAll(spec, sort);
     }
 
+    /**
+     * 基于动态组合条件对象和排序定义流式查询数据(游标方式)
+     * 与findByFilters使用相同的查询条件，结果通过数据库游标逐行读取
+     * 注：MySQL需在连接参数中开启useCursorFetch=true，fetchSize才会生效
+     */
+    @Override
+    public Stream<T> streamByFilters(Search searchConfig, int fetchSize) {
+        Assert.state(TransactionSynchronizationManager.isActualTransactionActive(), "流式查询必须在事务中调用。");
+        final int size = fetchSize > 0 ? fetchSize : STREAM_FETCH_SIZE;
+        Sort sort = buildSort(searchConfig);
+        if (ISoftDelete.class.isAssignableFrom(domainClass)) {
+            searchConfig.addFilter(new SearchFilter(ISoftDelete.DELETED, 0));
+        }
+        Specification<T> spec = buildSpecification(searchConfig);
+        TypedQuery<T> query = super.getQuery(spec, sort);
+        query.setHint(QueryHints.HINT_FETCH_SIZE, size);
+        // 只读查询，不做脏检查
+        query.setHint(QueryHints.HINT_READONLY, true);
+
+        Session session = entityManager.unwrap(Session.class);
+        Stream<T> resultStream = query.getResultStream();
+        Spliterator<T> delegate = resultStream.spliterator();
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            /**
+             * 本次查询加载的实体(只读)，调用方事务中已管理的实体不在其中
+             */
+            private final List<T> loaded = new ArrayList<>(size);
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                // 上一批实体已处理完成，读取下一行前只将本次查询加载的实体变为游离状态，不影响调用方事务中未刷新的修改
+                if (loaded.size() >= size) {
+                    loaded.forEach(entityManager::detach);
+                    loaded.clear();
+                }
+                return delegate.tryAdvance(entity -> {
+                    action.accept(entity);
+                    if (session.contains(entity) && session.isReadOnly(entity)) {
+                        loaded.add(entity);
+                    }
+                });
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(resultStream::close);
+    }
+
+    /**
+     * 基于动态组合条件对象和排序定义流式查询数据(游标方式)，逐条交由consumer处理
+     */
+    @Override
+    public void findByFilters(Search searchConfig, int fetchSize, Consumer<T> consumer) {
+        try (Stream<T> stream = streamByFilters(searchConfig, fetchSize)) {
+            stream.forEach(consumer);
+        }
+    }
+
     /**
      * 基于动态组合条件对象和分页(含排序)对象查询数据集合
      */
@@ -1118,7 +1305,14 @@ public class BaseDaoImpl<T extends Persistable & Serializable, ID extends Serial
                 throw new SeiException("未能通过防SQL注入拦截器:" + quickSearchValue);
             }
             Collection<String> quickSearchProperties = searchConfig.getQuickSearchProperties();
-            if (CollectionUtils.isNotEmpty(quickSearchProperties)) {
+            //优先使用快速查询引擎匹配Id
+            Predicate indexedPredicate = null;
+            if (CollectionUtils.isNotEmpty(quickSearchProperties) && !Boolean.TRUE.equals(having)) {
+                indexedPredicate = buildIndexedQuickSearchPredicate(quickSearchProperties, quickSearchValue, root, builder);
+            }
+            if (indexedPredicate != null) {
+                predicates.add(indexedPredicate);
+            } else if (CollectionUtils.isNotEmpty(quickSearchProperties)) {
                 List<SearchFilter> searchFilters = new ArrayList<SearchFilter>();
                 for (String property : quickSearchProperties) {
                     searchFilters.add(new SearchFilter(property, quickSearchValue, SearchFilter.Operator.LK));
@@ -1150,6 +1344,82 @@ public class BaseDaoImpl<T extends Persistable & Serializable, ID extends Serial
         return predicate;
     }
 
+    /**
+     * 使用快速查询引擎构造快速查询条件(按匹配的Id查询)
+     * 只支持业务实体的直接字符串属性，不满足条件或引擎无法处理时返回null，使用 LIKE 查询
+     *
+     * @param properties 快速查询属性
+     * @param value      快速查询值
+     * @return 查询条件
+     */
+    private Predicate buildIndexedQuickSearchPredicate(Collection<String> properties, String value, Root root, CriteriaBuilder builder) {
+        QuickSearchEngine engine = getQuickSearchEngine();
+        if (Objects.isNull(engine) || root.getJavaType() != domainClass
+                || !BaseEntity.class.isAssignableFrom(domainClass)
+                || SearchFilter.NULL_VALUE.equalsIgnoreCase(value)) {
+            return null;
+        }
+        EntityType<T> entityType = entityManager.getMetamodel().entity(domainClass);
+        List<String> propertyList = new ArrayList<>(properties.size());
+        for (String property : properties) {
+            if (StringUtils.isBlank(property) || StringUtils.contains(property, '.')) {
+                return null;
+            }
+            Attribute<? super T, ?> attribute;
+            try {
+                attribute = entityType.getAttribute(property);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            if (attribute.isCollection() || attribute.getJavaType() != String.class) {
+                return null;
+            }
+            propertyList.add(property);
+        }
+
+        String tenantCode = ITenant.class.isAssignableFrom(domainClass) ? ContextUtil.getTenantCode() : null;
+        Collection<?> ids = engine.search(domainClass, tenantCode, propertyList, value,
+                (tenant, props, maxRows) -> loadQuickSearchDocuments(entityType.getName(), tenant, props, maxRows));
+        if (Objects.isNull(ids)) {
+            return null;
+        }
+        if (ids.isEmpty()) {
+            return builder.disjunction();
+        }
+        Path<Object> idPath = root.get(BaseEntity.ID);
+        List<Object> idList = new ArrayList<>(ids);
+        List<Predicate> inPredicates = new ArrayList<>();
+        for (int i = 0; i < idList.size(); i += IN_BATCH_SIZE) {
+            inPredicates.add(idPath.in(idList.subList(i, Math.min(i + IN_BATCH_SIZE, idList.size()))));
+        }
+        return inPredicates.size() == 1 ? inPredicates.get(0) : builder.or(inPredicates.toArray(new Predicate[0]));
+    }
+
+    /**
+     * 加载快速查询索引数据
+     * 由快速查询引擎在后台线程中调用，不在调用方的事务中执行
+     *
+     * @return 数据行: [id, 属性1的值, 属性2的值...]
+     */
+    private List<Object[]> loadQuickSearchDocuments(String entityName, String tenantCode, List<String> properties, int maxRows) {
+        StringBuilder jpql = new StringBuilder("select e.").append(BaseEntity.ID);
+        for (String property : properties) {
+            jpql.append(", e.").append(property);
+        }
+        jpql.append(" from ").append(entityName).append(" e where 1 = 1");
+        if (Objects.nonNull(tenantCode)) {
+            jpql.append(" and e.").append(ITenant.TENANT_CODE).append(" = :tenantCode");
+        }
+        if (ISoftDelete.class.isAssignableFrom(domainClass)) {
+            jpql.append(" and e.").append(ISoftDelete.DELETED).append(" = 0");
+        }
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (Objects.nonNull(tenantCode)) {
+            query.setParameter("tenantCode", tenantCode);
+        }
+        return query.setMaxResults(maxRows).getResultList();
+    }
+
     private Expression parseExpr(Root<?> root, CriteriaBuilder criteriaBuilder, String expr, Map<String, Expression<?>> parsedExprMap) {
         if (parsedExprMap == null) {
             parsedExprMap = new HashMap<String, Expression<?>>();
@@ -0,0 +1,435 @@
+package com.changhong.sei.core.dao.metrics;
+
+import com.changhong.sei.core.dto.serach.PageResult;
+import com.changhong.sei.core.dto.serach.Search;
+import com.changhong.sei.core.log.LogUtil;
+import com.changhong.sei.core.util.JsonUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 实现功能：
+ * 数据访问监控指标
+ * <pre>
+ * 1.各业务实体Dao方法的执行时间(sei.dao.query)及返回行数(sei.dao.query.rows)
+ * 2.慢查询计数(sei.dao.query.slow)，按采样率记录慢查询及其查询条件
+ * 3.通过Hibernate的StatementInspector统计SQL语句数(sei.dao.statements)，
+ *   以及每个请求的SQL语句数(sei.dao.request.statements)，超过预算的请求计数(sei.dao.request.over.budget)并记录重复最多的语句
+ * </pre>
+ * 每个业务实体的每个Dao方法各有一组指标，默认不发布百分位直方图(每个直方图有几十个桶)，需要时通过percentileHistogram开启
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 16:20
+ */
+public class DaoMetrics implements MeterBinder, StatementInspector {
+    private static final long serialVersionUID = 4093364870153529105L;
+
+    private final long slowThresholdNanos;
+    private final double slowSampleRate;
+    private final int maxSlowSamples;
+    private final int statementBudget;
+    private final boolean percentileHistogram;
+
+    private final LongAdder statementCount = new LongAdder();
+    private final LongAdder overBudgetCount = new LongAdder();
+    private final Deque<SlowQuery> slowQueries = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger slowQuerySize = new AtomicInteger();
+    /**
+     * 当前请求的语句统计(请求开始时创建，结束时移除)
+     */
+    private final transient ThreadLocal<RequestStatements> requestStatements = new ThreadLocal<>();
+    /**
+     * 业务实体类型 -> Dao方法 -> 指标
+     */
+    private final transient Map<Class<?>, Map<Method, QueryMeters>> queryMeters = new ConcurrentHashMap<>();
+    private transient volatile MeterRegistry registry;
+    private transient volatile DistributionSummary requestStatementSummary;
+
+    /**
+     * @param slowThresholdMillis 慢查询阈值(毫秒)
+     * @param slowSampleRate      慢查询采样率(0~1)
+     * @param maxSlowSamples      保留的慢查询样本数
+     * @param statementBudget     每个请求的SQL语句数预算，小于等于0时不检查
+     */
+    public DaoMetrics(long slowThresholdMillis, double slowSampleRate, int maxSlowSamples, int statementBudget) {
+        this(slowThresholdMillis, slowSampleRate, maxSlowSamples, statementBudget, false);
+    }
+
+    /**
+     * @param slowThresholdMillis 慢查询阈值(毫秒)
+     * @param slowSampleRate      慢查询采样率(0~1)
+     * @param maxSlowSamples      保留的慢查询样本数
+     * @param statementBudget     每个请求的SQL语句数预算，小于等于0时不检查
+     * @param percentileHistogram 是否发布百分位直方图
+     */
+    public DaoMetrics(long slowThresholdMillis, double slowSampleRate, int maxSlowSamples, int statementBudget,
+                      boolean percentileHistogram) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.slowSampleRate = slowSampleRate;
+        this.maxSlowSamples = maxSlowSamples;
+        this.statementBudget = statementBudget;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    /**
+     * Hibernate准备每条SQL语句时调用
+     */
+    @Override
+    public String inspect(String sql) {
+        statementCount.increment();
+        RequestStatements statements = requestStatements.get();
+        if (Objects.nonNull(statements)) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * 与已配置的StatementInspector组合：先执行已配置的，再统计其返回的语句
+     *
+     * @param configured 已配置的StatementInspector(实例、类或类名)，可为null
+     * @return 组合后的StatementInspector；无法解析已配置的值时记录警告并返回null(保留原配置，不统计SQL语句数)
+     */
+    public StatementInspector chain(Object configured) {
+        if (Objects.isNull(configured) || configured == this) {
+            return this;
+        }
+        StatementInspector delegate = null;
+        try {
+            if (configured instanceof StatementInspector) {
+                delegate = (StatementInspector) configured;
+            } else {
+                Class<?> clazz = configured instanceof Class ? (Class<?>) configured
+                        : ClassUtils.forName(configured.toString().trim(), ClassUtils.getDefaultClassLoader());
+                if (StatementInspector.class.isAssignableFrom(clazz)) {
+                    delegate = (StatementInspector) BeanUtils.instantiateClass(clazz);
+                }
+            }
+        } catch (ClassNotFoundException | LinkageError | BeanInstantiationException e) {
+            LogUtil.warn("无法解析已配置的StatementInspector[{}]: {}", configured, e.getMessage());
+        }
+        if (Objects.isNull(delegate)) {
+            LogUtil.warn("已配置的StatementInspector[{}]无法与数据访问监控组合，不统计SQL语句数", configured);
+            return null;
+        }
+        return new ChainedStatementInspector(delegate, this);
+    }
+
+    /**
+     * 开始统计当前请求的SQL语句
+     */
+    public void beginRequest() {
+        requestStatements.set(new RequestStatements());
+    }
+
+    /**
+     * 结束统计当前请求的SQL语句，超过预算时记录警告
+     *
+     * @param request 请求描述(如请求路径)
+     * @return 当前请求的SQL语句数
+     */
+    public int endRequest(String request) {
+        RequestStatements statements = requestStatements.get();
+        requestStatements.remove();
+        if (Objects.isNull(statements)) {
+            return 0;
+        }
+        DistributionSummary summary = requestStatementSummary;
+        if (Objects.nonNull(summary)) {
+            summary.record(statements.count);
+        }
+        if (statementBudget > 0 && statements.count > statementBudget) {
+            overBudgetCount.increment();
+            Map.Entry<String, Integer> repeated = statements.mostRepeated();
+            LogUtil.warn("请求[{}]执行SQL语句{}条, 超过预算{}条; 重复最多的语句({}次): {}",
+                    request, statements.count, statementBudget, repeated.getValue(), repeated.getKey());
+        }
+        return statements.count;
+    }
+
+    /**
+     * @return 当前请求已执行的SQL语句数，未开始统计时为-1
+     */
+    public int getRequestStatementCount() {
+        RequestStatements statements = requestStatements.get();
+        return Objects.isNull(statements) ? -1 : statements.count;
+    }
+
+    /**
+     * 记录Dao方法的执行
+     *
+     * @param entityClass 业务实体类型
+     * @param method      Dao方法
+     * @param nanos       执行时间(纳秒)
+     * @param result      返回结果
+     * @param error       异常
+     * @param args        参数
+     */
+    public void recordQuery(Class<?> entityClass, Method method, long nanos, Object result, Throwable error, Object[] args) {
+        int rows = Objects.isNull(error) ? rows(result) : -1;
+        boolean slow = nanos >= slowThresholdNanos;
+
+        MeterRegistry meterRegistry = registry;
+        if (Objects.nonNull(meterRegistry)) {
+            QueryMeters meters = getQueryMeters(meterRegistry, entityClass, method);
+            meters.timer(error).record(nanos, TimeUnit.NANOSECONDS);
+            if (rows >= 0) {
+                meters.rows.record(rows);
+            }
+            if (slow) {
+                meters.slow.increment();
+            }
+        }
+        if (slow && (slowSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < slowSampleRate)) {
+            String entity = entityClass.getSimpleName();
+            SlowQuery slowQuery = new SlowQuery(entity, method.getName(), TimeUnit.NANOSECONDS.toMillis(nanos), rows, filters(args));
+            slowQueries.addFirst(slowQuery);
+            if (slowQuerySize.incrementAndGet() > maxSlowSamples) {
+                if (Objects.nonNull(slowQueries.pollLast())) {
+                    slowQuerySize.decrementAndGet();
+                }
+            }
+            LogUtil.warn("慢查询: {}.{} 耗时{}ms, 返回{}行, 条件: {}",
+                    entity, slowQuery.getMethod(), slowQuery.getMillis(), rows, slowQuery.getFilters());
+        }
+    }
+
+    /**
+     * 获取Dao方法的指标(按业务实体类型及方法缓存，不拼接字符串)
+     */
+    private QueryMeters getQueryMeters(MeterRegistry meterRegistry, Class<?> entityClass, Method method) {
+        Map<Method, QueryMeters> methodMeters = queryMeters.get(entityClass);
+        if (Objects.isNull(methodMeters)) {
+            methodMeters = queryMeters.computeIfAbsent(entityClass, key -> new ConcurrentHashMap<>());
+        }
+        QueryMeters meters = methodMeters.get(method);
+        if (Objects.isNull(meters)) {
+            meters = methodMeters.computeIfAbsent(method,
+                    key -> new QueryMeters(meterRegistry, entityClass.getSimpleName(), key.getName(), percentileHistogram));
+        }
+        return meters;
+    }
+
+    /**
+     * 返回行数：集合、分页为元素数，单个对象为0或1，计数及无返回值的方法为-1
+     */
+    private static int rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof PageResult) {
+            List<?> content = ((PageResult<?>) result).getRows();
+            return Objects.isNull(content) ? 0 : content.size();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        return Objects.isNull(result) ? 0 : 1;
+    }
+
+    /**
+     * 查询条件：Search参数序列化为JSON，其他参数取字符串
+     */
+    private static String filters(Object[] args) {
+        if (Objects.isNull(args) || args.length == 0) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Object arg : args) {
+            if (arg instanceof Search) {
+                joiner.add(JsonUtils.toJson(arg));
+            } else {
+                String value = String.valueOf(arg);
+                joiner.add(value.length() > 200 ? value.substring(0, 200) + "..." : value);
+            }
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * @return 最近的慢查询样本(最新的在前)
+     */
+    public List<SlowQuery> getSlowQueries() {
+        return new ArrayList<>(slowQueries);
+    }
+
+    public long getStatementCount() {
+        return statementCount.sum();
+    }
+
+    public long getOverBudgetCount() {
+        return overBudgetCount.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sei.dao.statements", statementCount, LongAdder::sum)
+                .description("执行的SQL语句数")
+                .register(registry);
+        FunctionCounter.builder("sei.dao.request.over.budget", overBudgetCount, LongAdder::sum)
+                .description("SQL语句数超过预算的请求数")
+                .register(registry);
+        requestStatementSummary = DistributionSummary.builder("sei.dao.request.statements")
+                .description("每个请求的SQL语句数")
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry);
+        queryMeters.clear();
+        this.registry = registry;
+    }
+
+    /**
+     * 业务实体Dao方法的指标
+     */
+    private static class QueryMeters {
+        private final MeterRegistry registry;
+        private final String entity;
+        private final String method;
+        private final boolean percentileHistogram;
+        private final Timer timer;
+        private final DistributionSummary rows;
+        private final Counter slow;
+        /**
+         * 异常类型 -> 执行时间(出现异常时才创建)
+         */
+        private final Map<Class<?>, Timer> errorTimers = new ConcurrentHashMap<>();
+
+        QueryMeters(MeterRegistry registry, String entity, String method, boolean percentileHistogram) {
+            this.registry = registry;
+            this.entity = entity;
+            this.method = method;
+            this.percentileHistogram = percentileHistogram;
+            timer = timer("None");
+            rows = DistributionSummary.builder("sei.dao.query.rows")
+                    .tags("entity", entity, "method", method)
+                    .description("Dao方法返回行数")
+                    .publishPercentileHistogram(percentileHistogram)
+                    .register(registry);
+            slow = Counter.builder("sei.dao.query.slow")
+                    .tags("entity", entity, "method", method)
+                    .description("慢查询数")
+                    .register(registry);
+        }
+
+        Timer timer(Throwable error) {
+            if (Objects.isNull(error)) {
+                return timer;
+            }
+            return errorTimers.computeIfAbsent(error.getClass(), key -> timer(key.getSimpleName()));
+        }
+
+        private Timer timer(String exception) {
+            return Timer.builder("sei.dao.query")
+                    .tags("entity", entity, "method", method, "exception", exception)
+                    .description("Dao方法执行时间")
+                    .publishPercentileHistogram(percentileHistogram)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 先执行已配置的StatementInspector，再统计SQL语句数
+     */
+    private static class ChainedStatementInspector implements StatementInspector {
+        private static final long serialVersionUID = -2207385412768052461L;
+        private final StatementInspector delegate;
+        private final DaoMetrics metrics;
+
+        ChainedStatementInspector(StatementInspector delegate, DaoMetrics metrics) {
+            this.delegate = delegate;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            String inspected = delegate.inspect(sql);
+            return metrics.inspect(Objects.isNull(inspected) ? sql : inspected);
+        }
+    }
+
+    /**
+     * 请求中的SQL语句统计
+     */
+    private static class RequestStatements {
+        private int count;
+        private final Map<String, Integer> statements = new HashMap<>();
+
+        void add(String sql) {
+            count++;
+            statements.merge(sql, 1, Integer::sum);
+        }
+
+        Map.Entry<String, Integer> mostRepeated() {
+            return statements.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .orElse(new AbstractMap.SimpleImmutableEntry<>("", 0));
+        }
+    }
+
+    /**
+     * 慢查询样本
+     */
+    public static class SlowQuery {
+        private final String entity;
+        private final String method;
+        private final long millis;
+        private final int rows;
+        private final String filters;
+        private final Date time = new Date();
+
+        SlowQuery(String entity, String method, long millis, int rows, String filters) {
+            this.entity = entity;
+            this.method = method;
+            this.millis = millis;
+            this.rows = rows;
+            this.filters = filters;
+        }
+
+        public String getEntity() {
+            return entity;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public String getFilters() {
+            return filters;
+        }
+
+        public Date getTime() {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.changhong.sei.core.dao.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 实现功能：
+ * 记录Dao方法执行时间及返回行数的拦截器
+ * 作为RepositoryProxyPostProcessor添加到Dao代理上，只统计通过Dao接口的调用
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 16:50
+ */
+public class DaoMetricsInterceptor implements MethodInterceptor, RepositoryProxyPostProcessor {
+    private final DaoMetrics metrics;
+    private final Class<?> entityClass;
+
+    public DaoMetricsInterceptor(DaoMetrics metrics) {
+        this(metrics, Object.class);
+    }
+
+    public DaoMetricsInterceptor(DaoMetrics metrics, Class<?> entityClass) {
+        this.metrics = metrics;
+        this.entityClass = entityClass;
+    }
+
+    @Override
+    public void postProcess(ProxyFactory factory, RepositoryInformation repositoryInformation) {
+        factory.addAdvice(new DaoMetricsInterceptor(metrics, repositoryInformation.getDomainType()));
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (ReflectionUtils.isObjectMethod(method)) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            metrics.recordQuery(entityClass, method, System.nanoTime() - start,
+                    result, error, invocation.getArguments());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.changhong.sei.core.dao.metrics;
+
+import com.changhong.sei.core.filter.BaseWebFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 实现功能：
+ * 统计每个请求执行的SQL语句数，超过预算时记录警告
+ * 通过WebFilter加入WebThreadFilter的过滤链
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 17:05
+ */
+public class StatementBudgetFilter extends BaseWebFilter {
+    private final DaoMetrics metrics;
+
+    public StatementBudgetFilter(DaoMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        metrics.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            metrics.endRequest(request.getMethod() + " " + request.getRequestURI());
+        }
+    }
+}
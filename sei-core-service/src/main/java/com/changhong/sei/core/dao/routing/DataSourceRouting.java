@@ -0,0 +1,113 @@
+package com.changhong.sei.core.dao.routing;
+
+import com.changhong.sei.util.thread.ThreadLocalUtil;
+
+import java.util.function.Supplier;
+
+/**
+ * 实现功能：
+ * 读写分离路由上下文
+ * <pre>
+ * 1.只读事务(@Transactional(readOnly = true)、TransactionUtil.beginNewReadTransaction())自动路由到从库
+ * 2.非事务的查询可通过 DataSourceRouting.read(() -> ...) 显式路由到从库
+ *   读写事务中读范围不生效(事务的连接会被后续写语句复用)，仍使用主库
+ *   BaseService等服务基类的查询方法在读范围内访问Dao，由事务外调用时路由到从库(子类覆写的方法不受影响)
+ * 3.当前请求中有写事务提交后，后续的读操作均路由到主库(读己之写)
+ * 4.未启用读写分离(未配置从库)时读范围直接执行
+ * </pre>
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:05
+ */
+public final class DataSourceRouting {
+    /**
+     * 请求中已提交写事务的标记(请求线程变量，请求结束时释放)
+     */
+    private static final String WRITTEN_KEY = DataSourceRouting.class.getName() + ".written";
+    /**
+     * 显式读范围的嵌套层数
+     */
+    private static final ThreadLocal<Integer> READ_SCOPE = new ThreadLocal<>();
+    /**
+     * 是否已启用读写分离(路由数据源初始化后启用，关闭后停用)
+     */
+    private static volatile boolean enabled;
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * 在读范围内执行(路由到从库)
+     *
+     * @param supplier 只读操作
+     * @param <T>      返回类型
+     * @return 执行结果
+     */
+    public static <T> T read(Supplier<T> supplier) {
+        if (!enabled) {
+            return supplier.get();
+        }
+        Integer depth = READ_SCOPE.get();
+        READ_SCOPE.set(depth == null ? 1 : depth + 1);
+        try {
+            return supplier.get();
+        } finally {
+            if (depth == null) {
+                READ_SCOPE.remove();
+            } else {
+                READ_SCOPE.set(depth);
+            }
+        }
+    }
+
+    /**
+     * 在读范围内执行(路由到从库)
+     *
+     * @param runnable 只读操作
+     */
+    public static void read(Runnable runnable) {
+        read(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return 是否已启用读写分离
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(boolean enabled) {
+        DataSourceRouting.enabled = enabled;
+    }
+
+    /**
+     * @return 当前是否在显式的读范围内
+     */
+    public static boolean isReadScope() {
+        return READ_SCOPE.get() != null;
+    }
+
+    /**
+     * 标记当前请求已写入，后续的读操作路由到主库
+     * 未初始化请求线程变量(非请求线程)时不记录
+     */
+    public static void markWritten() {
+        if (ThreadLocalUtil.isAvailable()) {
+            ThreadLocalUtil.setLocalVar(WRITTEN_KEY, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return 当前请求是否已写入
+     */
+    public static boolean hasWritten() {
+        if (!ThreadLocalUtil.isAvailable()) {
+            return false;
+        }
+        Boolean written = ThreadLocalUtil.getLocalVar(WRITTEN_KEY);
+        return Boolean.TRUE.equals(written);
+    }
+}
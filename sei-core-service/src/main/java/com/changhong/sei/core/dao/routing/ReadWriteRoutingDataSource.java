@@ -0,0 +1,380 @@
+package com.changhong.sei.core.dao.routing;
+
+import com.changhong.sei.core.log.LogUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实现功能：
+ * 读写分离路由数据源
+ * 只读事务及事务外显式读范围内的操作按权重路由到可用的从库，读写事务(包括其中的读范围)、其他操作及当前请求已写入后的读操作路由到主库；
+ * 定时检查从库的连接及复制延迟，延迟超过maxLagSeconds或不可用的从库不参与路由，没有可用从库时使用主库。
+ * 需由{@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}包装(见{@link RoutingDataSourcePostProcessor})，
+ * 使物理连接在事务只读标记设置后才获取。
+ * 主库连接上实际执行了写语句(insert/update/delete/ddl等)的事务提交后，才标记当前请求已写入
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:30
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    /**
+     * 主库路由键
+     */
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final long checkIntervalMillis;
+    private ScheduledExecutorService scheduler;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagSeconds,
+                                      String lagQuery, long checkIntervalMillis) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.checkIntervalMillis = checkIntervalMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        if (checkIntervalMillis > 0 && !replicas.isEmpty()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sei-datasource-replica-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::checkReplicas, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        DataSourceRouting.setEnabled(true);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly;
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 读写事务中的连接会被后续的写语句复用，不论是否在读范围内都使用主库
+            readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        } else {
+            // 线程已绑定EntityManager(如OpenEntityManagerInView)时，其持有的连接会被之后的事务复用，使用主库
+            readOnly = DataSourceRouting.isReadScope() && !hasBoundEntityManager();
+        }
+        if (!readOnly) {
+            return PRIMARY;
+        }
+        // 读己之写：当前请求已写入则读主库
+        if (DataSourceRouting.hasWritten()) {
+            return PRIMARY;
+        }
+        Replica replica = selectReplica();
+        return Objects.isNull(replica) ? PRIMARY : replica.getName();
+    }
+
+    private static boolean hasBoundEntityManager() {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        return trackWrites(target, target.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        return trackWrites(target, target.getConnection(username, password));
+    }
+
+    /**
+     * 主库连接上执行写语句时记录写入
+     */
+    private Connection trackWrites(DataSource target, Connection connection) {
+        if (target != primary) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(ReadWriteRoutingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new WriteTrackingHandler(connection, null));
+    }
+
+    /**
+     * 记录已执行写语句
+     * 事务中由同步器在提交后标记(同步器随事务挂起及恢复，REQUIRES_NEW的内层事务单独注册)，非事务(自动提交)时立即标记
+     */
+    private static void onWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            DataSourceRouting.markWritten();
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof WrittenSynchronization) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new WrittenSynchronization());
+    }
+
+    /**
+     * @return 语句是否为查询
+     */
+    static boolean isQuery(String sql) {
+        if (Objects.isNull(sql)) {
+            return false;
+        }
+        String trimmed = sql.trim();
+        return StringUtils.startsWithIgnoreCase(trimmed, "select")
+                || StringUtils.startsWithIgnoreCase(trimmed, "show")
+                || StringUtils.startsWithIgnoreCase(trimmed, "explain")
+                || StringUtils.startsWithIgnoreCase(trimmed, "values");
+    }
+
+    /**
+     * 按权重选择可用的从库
+     *
+     * @return 从库，没有可用的从库时返回null
+     */
+    Replica selectReplica() {
+        int totalWeight = 0;
+        for (Replica replica : replicas) {
+            if (replica.isAvailable()) {
+                totalWeight += replica.getWeight();
+            }
+        }
+        if (totalWeight <= 0) {
+            return null;
+        }
+        int random = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Replica replica : replicas) {
+            if (replica.isAvailable()) {
+                random -= replica.getWeight();
+                if (random < 0) {
+                    return replica;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 检查从库的连接及复制延迟
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available;
+            long lag = 0;
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                if (StringUtils.isBlank(lagQuery)) {
+                    available = connection.isValid(2);
+                } else {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                        // 延迟为空(如复制已停止)视为不可用
+                        if (resultSet.next() && Objects.nonNull(resultSet.getObject(1))) {
+                            lag = resultSet.getLong(1);
+                            available = lag <= maxLagSeconds;
+                        } else {
+                            available = false;
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                available = false;
+                LogUtil.warn("从库[{}]检查异常: {}", replica.getName(), e.getMessage());
+            }
+            if (available != replica.isAvailable()) {
+                LogUtil.warn("从库[{}]{}, 复制延迟{}秒", replica.getName(), available ? "恢复可用" : "不可用", lag);
+            }
+            replica.update(available, lag);
+        }
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * 停止检查并关闭主库及从库连接池
+     */
+    @Override
+    public void close() {
+        DataSourceRouting.setEnabled(false);
+        if (Objects.nonNull(scheduler)) {
+            scheduler.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            closeQuietly(replica.getDataSource());
+        }
+        closeQuietly(primary);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) dataSource).close();
+            } catch (Exception e) {
+                LogUtil.warn("关闭数据源异常: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 执行了写语句的事务提交后标记当前请求已写入
+     */
+    private static class WrittenSynchronization extends TransactionSynchronizationAdapter {
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                DataSourceRouting.markWritten();
+            }
+        }
+    }
+
+    /**
+     * 代理主库的连接及其创建的语句，执行写语句时记录写入
+     */
+    private static class WriteTrackingHandler implements InvocationHandler {
+        private final Object target;
+        /**
+         * 预编译语句的SQL，Statement为null(由执行方法的参数判断)
+         */
+        private final String sql;
+
+        WriteTrackingHandler(Object target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (target instanceof Connection && (name.equals("createStatement") || name.equals("prepareStatement")
+                    || name.equals("prepareCall"))) {
+                Object statement = invokeTarget(method, args);
+                String statementSql = Objects.nonNull(args) && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = name.equals("createStatement") ? Statement.class
+                        : name.equals("prepareStatement") ? PreparedStatement.class : CallableStatement.class;
+                return Proxy.newProxyInstance(ReadWriteRoutingDataSource.class.getClassLoader(),
+                        new Class<?>[]{type}, new WriteTrackingHandler(statement, statementSql));
+            }
+            if (target instanceof Statement && isWrite(name, args)) {
+                Object result = invokeTarget(method, args);
+                onWrite();
+                return result;
+            }
+            if (name.equals("unwrap") && Objects.nonNull(args) && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            return invokeTarget(method, args);
+        }
+
+        private boolean isWrite(String name, Object[] args) {
+            switch (name) {
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "executeBatch":
+                case "executeLargeBatch":
+                    return true;
+                case "execute":
+                    // 存储过程按写入处理
+                    if (target instanceof CallableStatement) {
+                        return true;
+                    }
+                    String executed = Objects.nonNull(args) && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+                    return !isQuery(executed);
+                default:
+                    return false;
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    /**
+     * 从库
+     */
+    public static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final int weight;
+        private volatile boolean available;
+        private volatile long lagSeconds;
+
+        public Replica(String name, DataSource dataSource, int weight) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.weight = Math.max(0, weight);
+        }
+
+        void update(boolean available, long lagSeconds) {
+            this.available = available;
+            this.lagSeconds = lagSeconds;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        /**
+         * @return 最近一次检查的复制延迟(秒)
+         */
+        public long getLagSeconds() {
+            return lagSeconds;
+        }
+    }
+}
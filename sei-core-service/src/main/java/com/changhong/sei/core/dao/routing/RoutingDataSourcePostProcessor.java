@@ -0,0 +1,96 @@
+package com.changhong.sei.core.dao.routing;
+
+import com.changhong.sei.core.config.properties.dao.RoutingDataSourceProperties;
+import com.changhong.sei.core.log.LogUtil;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 实现功能：
+ * 将主数据源(dataSource)包装为读写分离路由数据源
+ * 路由数据源外层使用{@link LazyConnectionDataSourceProxy}：事务开始时只取得连接代理，
+ * 执行第一条语句时才按事务的只读标记选择主库或从库
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 11:40
+ */
+public class RoutingDataSourcePostProcessor implements BeanPostProcessor {
+    private static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    private final Environment environment;
+
+    public RoutingDataSourcePostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof DataSource) || !DATA_SOURCE_BEAN_NAME.equals(beanName)
+                || bean instanceof RoutingDataSource) {
+            return bean;
+        }
+        RoutingDataSourceProperties properties = Binder.get(environment)
+                .bind(RoutingDataSourceProperties.PREFIX, RoutingDataSourceProperties.class)
+                .orElseGet(RoutingDataSourceProperties::new);
+        if (properties.getReplicas().isEmpty()) {
+            LogUtil.warn("未配置从库({}.replicas)，不启用读写分离", RoutingDataSourceProperties.PREFIX);
+            return bean;
+        }
+        DataSource primary = (DataSource) bean;
+        List<ReadWriteRoutingDataSource.Replica> replicas = new ArrayList<>();
+        int index = 0;
+        for (RoutingDataSourceProperties.Replica config : properties.getReplicas()) {
+            String name = StringUtils.defaultIfBlank(config.getName(), "replica" + index++);
+            DataSourceBuilder<?> builder = DataSourceBuilder.create(getClass().getClassLoader()).url(config.getUrl());
+            String username = StringUtils.defaultIfBlank(config.getUsername(), environment.getProperty("spring.datasource.username"));
+            if (StringUtils.isNotBlank(username)) {
+                builder.username(username);
+            }
+            String password = StringUtils.defaultIfEmpty(config.getPassword(), environment.getProperty("spring.datasource.password"));
+            if (StringUtils.isNotEmpty(password)) {
+                builder.password(password);
+            }
+            if (StringUtils.isNotBlank(config.getDriverClassName())) {
+                builder.driverClassName(config.getDriverClassName());
+            }
+            DataSource dataSource = builder.build();
+            replicas.add(new ReadWriteRoutingDataSource.Replica(name, dataSource, config.getWeight()));
+        }
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas,
+                properties.getMaxLagSeconds(), properties.getLagQuery(), properties.getCheckInterval());
+        routing.afterPropertiesSet();
+        LogUtil.info("启用读写分离: 从库{}个, 最大复制延迟{}秒", replicas.size(), properties.getMaxLagSeconds());
+        return new RoutingDataSource(routing);
+    }
+
+    /**
+     * 延迟获取连接的路由数据源，关闭时关闭路由数据源
+     */
+    public static class RoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+        private final ReadWriteRoutingDataSource routing;
+
+        public RoutingDataSource(ReadWriteRoutingDataSource routing) {
+            super(routing);
+            this.routing = routing;
+        }
+
+        public ReadWriteRoutingDataSource getRouting() {
+            return routing;
+        }
+
+        @Override
+        public void close() {
+            routing.close();
+        }
+    }
+}
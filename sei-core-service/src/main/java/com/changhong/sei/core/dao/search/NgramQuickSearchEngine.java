@@ -0,0 +1,409 @@
+package com.changhong.sei.core.dao.search;
+
+import com.changhong.sei.core.entity.ISoftDelete;
+import com.changhong.sei.core.entity.ITenant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Persistable;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 实现功能：
+ * 基于三元组(trigram)倒排索引的内存快速查询引擎
+ * 按业务实体类型、租户及快速查询属性分别建立索引，查询时取查询值中文档最少的三元组对应的文档，再逐个校验是否包含查询值，
+ * 结果与 LIKE '%value%' 一致(默认忽略大小写，与常用的数据库排序规则一致)。
+ * <p>
+ * 索引只保存在当前节点，本节点的保存、删除在事务提交后更新索引，其他节点的修改在索引过期(maxAge)重建后可见；
+ * 索引在后台线程中建立及重建，不阻塞查询：建立完成前及建立失败后的maxAge内使用 LIKE 查询，重建期间继续使用过期索引；
+ * 查询值含通配符、文档数超过maxDocuments、匹配数超过maxIds时返回null，由调用方继续使用 LIKE 查询
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:30
+ */
+public class NgramQuickSearchEngine implements QuickSearchEngine, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(NgramQuickSearchEngine.class);
+    /**
+     * 三元组长度
+     */
+    private static final int GRAM = 3;
+    /**
+     * 多个属性值之间的分隔符(不会出现在查询值中，避免跨属性匹配)
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    /**
+     * 是否忽略大小写
+     */
+    private final boolean ignoreCase;
+    /**
+     * 单个索引的最大文档数
+     */
+    private final int maxDocuments;
+    /**
+     * 最大匹配数
+     */
+    private final int maxIds;
+    /**
+     * 索引有效期(毫秒)
+     */
+    private final long maxAge;
+    /**
+     * 最大索引数
+     */
+    private final int maxIndexes;
+
+    /**
+     * 建立索引的线程池
+     */
+    private final ExecutorService executor;
+
+    private final ConcurrentMap<String, Index> indexes = new ConcurrentHashMap<>();
+    /**
+     * 正在建立的索引
+     */
+    private final ConcurrentMap<String, Index> building = new ConcurrentHashMap<>();
+
+    public NgramQuickSearchEngine() {
+        this(true, 200000, 1000, 600000L, 64);
+    }
+
+    public NgramQuickSearchEngine(boolean ignoreCase, int maxDocuments, int maxIds, long maxAge, int maxIndexes) {
+        this.ignoreCase = ignoreCase;
+        this.maxDocuments = maxDocuments;
+        this.maxIds = maxIds;
+        this.maxAge = maxAge;
+        this.maxIndexes = maxIndexes;
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 单线程依次建立，排队数不超过最大索引数
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(maxIndexes),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sei-quick-search-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public Collection<?> search(Class<?> entityClass, String tenantCode, List<String> properties, String value, DocumentLoader loader) {
+        if (Objects.isNull(value) || value.isEmpty() || value.indexOf('%') >= 0 || value.indexOf('_') >= 0
+                || value.indexOf(SEPARATOR) >= 0 || Objects.isNull(properties) || properties.isEmpty()) {
+            return null;
+        }
+        String key = entityClass.getName() + '|' + tenantCode + '|' + String.join(",", properties);
+        Index index = getIndex(key, entityClass, tenantCode, properties, loader);
+        if (Objects.isNull(index) || index.overflow) {
+            return null;
+        }
+        return index.search(normalize(value), maxIds);
+    }
+
+    @Override
+    public void onSaved(Class<?> entityClass, Object entity) {
+        if (Objects.isNull(entity) || !(entity instanceof Persistable)) {
+            return;
+        }
+        Object id = ((Persistable<?>) entity).getId();
+        if (Objects.isNull(id)) {
+            return;
+        }
+        // 已软删除的数据从索引中移除
+        if (entity instanceof ISoftDelete) {
+            Long deleted = ((ISoftDelete) entity).getDeleted();
+            if (Objects.nonNull(deleted) && deleted != 0) {
+                onDeleted(entityClass, id);
+                return;
+            }
+        }
+        String tenantCode = entity instanceof ITenant ? ((ITenant) entity).getTenantCode() : null;
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        apply(entityClass, index -> {
+            if (Objects.equals(index.tenantCode, tenantCode)) {
+                Object[] values = new Object[index.properties.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = wrapper.getPropertyValue(index.properties.get(i));
+                }
+                index.put(id, text(values, 0));
+            } else {
+                // 租户代码变更
+                index.remove(id);
+            }
+        });
+    }
+
+    @Override
+    public void onDeleted(Class<?> entityClass, Object id) {
+        if (Objects.isNull(id)) {
+            return;
+        }
+        apply(entityClass, index -> index.remove(id));
+    }
+
+    /**
+     * 清除业务实体类型的所有索引，下次查询时重建
+     *
+     * @param entityClass 业务实体类型
+     */
+    public void invalidate(Class<?> entityClass) {
+        indexes.values().removeIf(index -> index.entityClass == entityClass);
+    }
+
+    /**
+     * 获取有效的索引，不存在或过期时在后台重建
+     * 索引建立完成前返回null，过期索引重建期间继续使用过期索引
+     */
+    private Index getIndex(String key, Class<?> entityClass, String tenantCode, List<String> properties, DocumentLoader loader) {
+        Index index = indexes.get(key);
+        if (Objects.isNull(index) || index.isExpired(maxAge)) {
+            scheduleBuild(key, entityClass, tenantCode, properties, loader);
+        }
+        return index;
+    }
+
+    /**
+     * 提交建立索引的任务(同一索引只提交一次)
+     */
+    private void scheduleBuild(String key, Class<?> entityClass, String tenantCode, List<String> properties, DocumentLoader loader) {
+        Index fresh = new Index(entityClass, tenantCode, new ArrayList<>(properties));
+        if (Objects.nonNull(building.putIfAbsent(key, fresh))) {
+            return;
+        }
+        try {
+            executor.execute(() -> build(key, fresh, loader));
+        } catch (RejectedExecutionException e) {
+            building.remove(key, fresh);
+            LOG.debug("[{}]快速查询索引建立任务已满，稍后重试", key);
+        }
+    }
+
+    private void build(String key, Index fresh, DocumentLoader loader) {
+        try {
+            List<Object[]> rows = loader.load(fresh.tenantCode, fresh.properties, maxDocuments + 1);
+            if (rows.size() > maxDocuments) {
+                LOG.info("[{}]快速查询数据超过{}条，使用 LIKE 查询", key, maxDocuments);
+                fresh.overflow = true;
+            } else {
+                fresh.load(rows);
+            }
+        } catch (RuntimeException e) {
+            // 失败后在索引有效期内使用 LIKE 查询，过期后重试
+            LOG.warn("[{}]建立快速查询索引失败，使用 LIKE 查询", key, e);
+            fresh.overflow = true;
+        }
+        try {
+            // 加载期间提交的修改
+            fresh.replay();
+            evict();
+            indexes.put(key, fresh);
+        } finally {
+            building.remove(key, fresh);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 索引数超过限制时移除最早建立的索引
+     */
+    private void evict() {
+        while (indexes.size() >= maxIndexes) {
+            Optional<Map.Entry<String, Index>> eldest = indexes.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().loadedAt));
+            if (!eldest.isPresent()) {
+                return;
+            }
+            indexes.remove(eldest.get().getKey(), eldest.get().getValue());
+        }
+    }
+
+    /**
+     * 将修改应用到业务实体类型的所有索引
+     * 先处理正在建立的索引：建立完成后才会放入indexes，保证修改不会同时错过两者
+     */
+    private void apply(Class<?> entityClass, Consumer<Index> operation) {
+        for (Index index : building.values()) {
+            if (index.entityClass == entityClass) {
+                index.apply(operation);
+            }
+        }
+        for (Index index : indexes.values()) {
+            if (index.entityClass == entityClass) {
+                index.apply(operation);
+            }
+        }
+    }
+
+    /**
+     * 拼接属性值
+     */
+    private String text(Object[] values, int offset) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = offset; i < values.length; i++) {
+            if (Objects.nonNull(values[i])) {
+                builder.append(normalize(String.valueOf(values[i])));
+            }
+            builder.append(SEPARATOR);
+        }
+        return builder.toString();
+    }
+
+    private String normalize(String value) {
+        return ignoreCase ? value.toLowerCase(Locale.ROOT) : value;
+    }
+
+    private static long gram(CharSequence text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+
+    /**
+     * 倒排索引
+     */
+    private final class Index {
+        private final Class<?> entityClass;
+        private final String tenantCode;
+        private final List<String> properties;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Object, String> documents = new HashMap<>();
+        private final Map<Long, Set<Object>> postings = new HashMap<>();
+        /**
+         * 建立期间的修改，加载完成后重放
+         */
+        private List<Consumer<Index>> pending = new ArrayList<>();
+        private volatile boolean overflow;
+        private volatile long loadedAt;
+
+        private Index(Class<?> entityClass, String tenantCode, List<String> properties) {
+            this.entityClass = entityClass;
+            this.tenantCode = tenantCode;
+            this.properties = properties;
+        }
+
+        private boolean isExpired(long maxAge) {
+            return System.currentTimeMillis() - loadedAt > maxAge;
+        }
+
+        private void load(List<Object[]> rows) {
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    if (Objects.nonNull(row[0])) {
+                        put(row[0], text(row, 1));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void replay() {
+            lock.writeLock().lock();
+            try {
+                List<Consumer<Index>> operations = pending;
+                pending = null;
+                if (!overflow) {
+                    operations.forEach(operation -> operation.accept(this));
+                }
+                loadedAt = System.currentTimeMillis();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void apply(Consumer<Index> operation) {
+            lock.writeLock().lock();
+            try {
+                if (Objects.nonNull(pending)) {
+                    pending.add(operation);
+                } else if (!overflow) {
+                    operation.accept(this);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 添加或更新文档(调用方持有写锁)
+         */
+        private void put(Object id, String text) {
+            String old = documents.put(id, text);
+            if (Objects.equals(old, text)) {
+                return;
+            }
+            if (Objects.nonNull(old)) {
+                unindex(id, old);
+            }
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                postings.computeIfAbsent(gram(text, i), k -> new HashSet<>()).add(id);
+            }
+        }
+
+        /**
+         * 移除文档(调用方持有写锁)
+         */
+        private void remove(Object id) {
+            String old = documents.remove(id);
+            if (Objects.nonNull(old)) {
+                unindex(id, old);
+            }
+        }
+
+        private void unindex(Object id, String text) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                Long gram = gram(text, i);
+                Set<Object> ids = postings.get(gram);
+                if (Objects.nonNull(ids) && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+        /**
+         * 查询包含查询值的文档Id
+         *
+         * @return 匹配数超过限制时返回null
+         */
+        private Collection<Object> search(String value, int maxIds) {
+            lock.readLock().lock();
+            try {
+                Collection<Object> candidates;
+                if (value.length() < GRAM) {
+                    candidates = documents.keySet();
+                } else {
+                    // 取文档最少的三元组
+                    candidates = null;
+                    for (int i = 0; i + GRAM <= value.length(); i++) {
+                        Set<Object> ids = postings.get(gram(value, i));
+                        if (Objects.isNull(ids)) {
+                            return Collections.emptyList();
+                        }
+                        if (Objects.isNull(candidates) || ids.size() < candidates.size()) {
+                            candidates = ids;
+                        }
+                    }
+                }
+                List<Object> result = new ArrayList<>();
+                for (Object id : candidates) {
+                    if (documents.get(id).contains(value)) {
+                        if (result.size() >= maxIds) {
+                            return null;
+                        }
+                        result.add(id);
+                    }
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
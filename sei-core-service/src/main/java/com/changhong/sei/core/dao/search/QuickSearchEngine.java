@@ -0,0 +1,60 @@
+package com.changhong.sei.core.dao.search;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 实现功能：
+ * 快速查询引擎
+ * 根据快速查询值先查出匹配的业务实体Id，再以Id条件关联查询，替代多个属性 LIKE '%value%' 的全表扫描
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 09:12
+ */
+public interface QuickSearchEngine {
+
+    /**
+     * 查询快速查询值匹配的业务实体Id
+     *
+     * @param entityClass 业务实体类型
+     * @param tenantCode  租户代码(非租户实体为null)
+     * @param properties  快速查询属性
+     * @param value       快速查询值
+     * @param loader      索引数据加载器(可在其他线程中调用)
+     * @return 返回匹配的Id清单；返回null表示无法处理(如索引尚未建立)，使用 LIKE 查询
+     */
+    Collection<?> search(Class<?> entityClass, String tenantCode, List<String> properties, String value, DocumentLoader loader);
+
+    /**
+     * 业务实体保存后(事务提交后)更新索引
+     *
+     * @param entityClass 业务实体类型
+     * @param entity      业务实体
+     */
+    void onSaved(Class<?> entityClass, Object entity);
+
+    /**
+     * 业务实体删除后(事务提交后)更新索引
+     *
+     * @param entityClass 业务实体类型
+     * @param id          业务实体Id
+     */
+    void onDeleted(Class<?> entityClass, Object id);
+
+    /**
+     * 索引数据加载器
+     * 不能依赖调用线程的事务及线程变量，所需的租户代码等由参数传入
+     */
+    @FunctionalInterface
+    interface DocumentLoader {
+        /**
+         * 加载索引数据
+         *
+         * @param tenantCode 租户代码(非租户实体为null)
+         * @param properties 快速查询属性
+         * @param maxRows    最大行数
+         * @return 返回数据行: [id, 属性1的值, 属性2的值...]
+         */
+        List<Object[]> load(String tenantCode, List<String> properties, int maxRows);
+    }
+}
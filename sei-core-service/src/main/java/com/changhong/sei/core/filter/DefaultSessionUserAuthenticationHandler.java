@@ -2,18 +2,18 @@ package com.changhong.sei.core.filter;
 
 import com.changhong.sei.core.context.ContextUtil;
 import com.changhong.sei.core.context.SessionUser;
+import com.changhong.sei.core.context.SessionUserTokenCache;
 import com.changhong.sei.core.dto.ResultData;
 import com.changhong.sei.util.thread.ThreadLocalUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.AntPathMatcher;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
-import java.util.regex.Pattern;
 
 /**
  * 实现功能：
@@ -24,23 +24,33 @@ import java.util.regex.Pattern;
 public class DefaultSessionUserAuthenticationHandler implements SessionUserAuthenticationHandler {
     private static final Logger LOG = LoggerFactory.getLogger(DefaultSessionUserAuthenticationHandler.class);
 
+    /**
+     * 默认忽略token认证的url(含websocket会话检查)
+     */
+    static final String[] DEFAULT_IGNORE_AUTH_URLS = new String[]{"/csrf", "/websocket/"};
+
     /**
      * 忽略token认证的url
      */
-    private final Set<Pattern> ignoreAuthURLSet = new HashSet<>();
+    private final UrlPatternMatcher ignoreAuthUrlMatcher;
+    /**
+     * 已验证token缓存
+     */
+    private final SessionUserTokenCache tokenCache;
 
     public DefaultSessionUserAuthenticationHandler(String[] ignoreAuthUrls) {
+        this(ignoreAuthUrls, null);
+    }
+
+    public DefaultSessionUserAuthenticationHandler(String[] ignoreAuthUrls, SessionUserTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+        List<String> urls = new ArrayList<>();
         if (Objects.nonNull(ignoreAuthUrls)) {
-            for (String url : ignoreAuthUrls) {
-                this.ignoreAuthURLSet.add(Pattern.compile(".*?" + url + ".*", Pattern.CASE_INSENSITIVE));
-            }
+            Collections.addAll(urls, ignoreAuthUrls);
         }
 
-//        AntPathMatcher antPathMatcher = new AntPathMatcher();
-
-        ignoreAuthURLSet.add(Pattern.compile(".*?/csrf.*", Pattern.CASE_INSENSITIVE));
-        // 忽略websocket会话检查
-        ignoreAuthURLSet.add(Pattern.compile(".*?/websocket/.*", Pattern.CASE_INSENSITIVE));
+        Collections.addAll(urls, DEFAULT_IGNORE_AUTH_URLS);
+        this.ignoreAuthUrlMatcher = UrlPatternMatcher.compile(urls);
     }
 
     @Override
@@ -77,7 +87,12 @@ public class DefaultSessionUserAuthenticationHandler implements SessionUserAuthe
 
         // 检查token
         try {
-            SessionUser user = ContextUtil.getSessionUser(token);
+            SessionUser user;
+            if (Objects.nonNull(tokenCache)) {
+                user = tokenCache.getSessionUser(token);
+            } else {
+                user = ContextUtil.getSessionUser(token);
+            }
             if (LOG.isDebugEnabled()) {
                 LOG.debug("{} 当前用户: {}", path, user);
             }
@@ -90,15 +105,6 @@ public class DefaultSessionUserAuthenticationHandler implements SessionUserAuthe
     }
 
     protected boolean match(String uri) {
-        boolean match = false;
-        if (uri != null) {
-            for (Pattern pattern : this.ignoreAuthURLSet) {
-                if (pattern.matcher(uri).matches()) {
-                    match = true;
-                    break;
-                }
-            }
-        }
-        return match;
+        return ignoreAuthUrlMatcher.matches(uri);
     }
 }
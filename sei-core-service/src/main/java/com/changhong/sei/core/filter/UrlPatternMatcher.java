@@ -0,0 +1,248 @@
+package com.changhong.sei.core.filter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 实现功能：
+ * 预编译的url匹配器，启动时根据配置的忽略url一次性构建，请求时单次扫描完成匹配
+ * <p>
+ * 匹配语义与原来的 {@code .*?url.*} (忽略大小写) 正则一致，即请求路径中包含配置的url即视为匹配：
+ * <ul>
+ * <li>普通url(不含未转义的正则元字符，如 /actuator、/doc\.html): 编入Aho–Corasick自动机, 匹配耗时与路径长度成正比，与配置数量无关</li>
+ * <li>其他url(含 . * ? 等正则元字符): 兼容原有配置，按 {@code .*?url.*} 编译为正则匹配</li>
+ * <li>以{@value #ANT_PREFIX}开头的url(如 ant:/api/&#42;&#42;/public): 显式启用ant风格，使用{@link AntPathMatcher}在路径任意位置匹配</li>
+ * </ul>
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:21
+ */
+public final class UrlPatternMatcher {
+    /**
+     * ant风格url的前缀
+     */
+    public static final String ANT_PREFIX = "ant:";
+    /**
+     * 正则元字符
+     */
+    private static final String REGEX_META_CHARS = "[](){}|+^$.*?";
+
+    /**
+     * 自动机状态的转移字符，按字符排序
+     */
+    private final char[][] transitionChars;
+    /**
+     * 自动机状态的转移目标状态
+     */
+    private final int[][] transitionStates;
+    /**
+     * 失败转移
+     */
+    private final int[] failures;
+    /**
+     * 是否为匹配状态(含后缀匹配)
+     */
+    private final boolean[] accepts;
+
+    private final List<String> antPatterns;
+    private final List<Pattern> regexPatterns;
+    private final AntPathMatcher antPathMatcher;
+
+    private UrlPatternMatcher(Collection<String> literals, List<String> antPatterns, List<Pattern> regexPatterns) {
+        this.antPatterns = antPatterns;
+        this.regexPatterns = regexPatterns;
+        this.antPathMatcher = new AntPathMatcher();
+        this.antPathMatcher.setCaseSensitive(false);
+
+        // 构建trie
+        List<TreeMap<Character, Integer>> gotos = new ArrayList<>();
+        List<Boolean> terminals = new ArrayList<>();
+        gotos.add(new TreeMap<>());
+        terminals.add(Boolean.FALSE);
+        for (String literal : literals) {
+            int state = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                char c = literal.charAt(i);
+                Integer next = gotos.get(state).get(c);
+                if (next == null) {
+                    next = gotos.size();
+                    gotos.add(new TreeMap<>());
+                    terminals.add(Boolean.FALSE);
+                    gotos.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminals.set(state, Boolean.TRUE);
+        }
+
+        int size = gotos.size();
+        this.transitionChars = new char[size][];
+        this.transitionStates = new int[size][];
+        this.failures = new int[size];
+        this.accepts = new boolean[size];
+        for (int state = 0; state < size; state++) {
+            TreeMap<Character, Integer> map = gotos.get(state);
+            char[] chars = new char[map.size()];
+            int[] states = new int[map.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> entry : map.entrySet()) {
+                chars[i] = entry.getKey();
+                states[i] = entry.getValue();
+                i++;
+            }
+            this.transitionChars[state] = chars;
+            this.transitionStates[state] = states;
+            this.accepts[state] = terminals.get(state);
+        }
+
+        // 广度优先计算失败转移
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int next : transitionStates[0]) {
+            failures[next] = 0;
+            queue.add(next);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            char[] chars = transitionChars[state];
+            int[] states = transitionStates[state];
+            for (int i = 0; i < chars.length; i++) {
+                int next = states[i];
+                int failure = failures[state];
+                int target;
+                while ((target = transition(failure, chars[i])) < 0 && failure != 0) {
+                    failure = failures[failure];
+                }
+                failures[next] = target < 0 || target == next ? 0 : target;
+                accepts[next] = accepts[next] || accepts[failures[next]];
+                queue.add(next);
+            }
+        }
+    }
+
+    /**
+     * 根据配置的url构建匹配器
+     *
+     * @param urls 配置的url
+     * @return 返回匹配器
+     */
+    public static UrlPatternMatcher compile(Collection<String> urls) {
+        Set<String> literals = new LinkedHashSet<>();
+        List<String> antPatterns = new ArrayList<>();
+        List<Pattern> regexPatterns = new ArrayList<>();
+        if (Objects.nonNull(urls)) {
+            for (String url : urls) {
+                if (StringUtils.isBlank(url)) {
+                    continue;
+                }
+                url = url.trim();
+                if (StringUtils.startsWithIgnoreCase(url, ANT_PREFIX)) {
+                    String pattern = url.substring(ANT_PREFIX.length()).trim();
+                    pattern = pattern.startsWith("/") ? pattern : "/" + pattern;
+                    antPatterns.add("/**" + pattern + (pattern.endsWith("/**") ? "" : "/**"));
+                    continue;
+                }
+                String literal = toLiteral(url);
+                if (Objects.nonNull(literal)) {
+                    literals.add(toLowerCase(literal));
+                } else {
+                    regexPatterns.add(Pattern.compile(".*?" + url + ".*", Pattern.CASE_INSENSITIVE));
+                }
+            }
+        }
+        return new UrlPatternMatcher(literals, antPatterns, regexPatterns);
+    }
+
+    /**
+     * 根据配置的url构建匹配器
+     *
+     * @param urls 配置的url
+     * @return 返回匹配器
+     */
+    public static UrlPatternMatcher compile(String... urls) {
+        return compile(Objects.isNull(urls) ? Collections.emptyList() : Arrays.asList(urls));
+    }
+
+    /**
+     * 判断路径是否匹配任一配置的url
+     *
+     * @param path 请求路径
+     * @return 返回布尔值
+     */
+    public boolean matches(String path) {
+        if (path == null) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char c = toLowerCase(path.charAt(i));
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = failures[state];
+            }
+            state = next < 0 ? 0 : next;
+            if (accepts[state]) {
+                return true;
+            }
+        }
+        for (String pattern : antPatterns) {
+            if (antPathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        for (Pattern pattern : regexPatterns) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 状态转移，无转移时返回-1
+     */
+    private int transition(int state, char c) {
+        char[] chars = transitionChars[state];
+        int index = Arrays.binarySearch(chars, c);
+        return index < 0 ? -1 : transitionStates[state][index];
+    }
+
+    /**
+     * 转换为普通字符串，包含未转义的正则元字符时返回null
+     * 转义的非字母数字字符(如 \.)按普通字符处理，转义的字母数字(如 \d)为正则写法
+     */
+    private static String toLiteral(String url) {
+        StringBuilder literal = new StringBuilder(url.length());
+        for (int i = 0; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= url.length() || Character.isLetterOrDigit(url.charAt(i + 1))) {
+                    return null;
+                }
+                literal.append(url.charAt(++i));
+            } else if (REGEX_META_CHARS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * 与正则的CASE_INSENSITIVE一致，只转换ASCII字母
+     */
+    private static char toLowerCase(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static String toLowerCase(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
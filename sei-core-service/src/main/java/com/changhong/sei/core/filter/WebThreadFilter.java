@@ -10,9 +10,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * 实现功能：
@@ -29,7 +27,34 @@ public class WebThreadFilter extends BaseCompositeFilterProxy {
      */
     private final SessionUserAuthenticationHandler userAuthenticationHandler;
 
-    private final List<Pattern> urlFilters = new ArrayList<>();
+    /**
+     * 不需要处理线程变量的url(按 .*?url.* 正则的语义匹配)
+     */
+    static final String[] URL_FILTERS = new String[]{
+            // swagger 文档
+            "/doc\\.html",
+            "/v2/api-docs",
+            "/v3/api-docs",
+            "/swagger-resources",
+            "/swagger-ui\\.html",
+
+            // spring boot actuator
+            "/actuator",
+            "/instances",
+            "/applications",
+
+            // webjars
+            "/webjars/",
+            "/version/platform",
+            "/version/show",
+            "/version/list"
+    };
+
+    private final UrlPatternMatcher urlFilters;
+    /**
+     * XSS过滤规则表
+     */
+    private XssSanitizer xssSanitizer = XssSanitizer.DEFAULT;
 
     /**
      * 带参数构造器
@@ -39,27 +64,7 @@ public class WebThreadFilter extends BaseCompositeFilterProxy {
 
         this.userAuthenticationHandler = userAuthenticationHandler;
 
-        // swagger 文档
-        urlFilters.add(Pattern.compile(".*?/doc\\.html.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/v2/api-docs.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/v2/api-docs-ext.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/v3/api-docs.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/v3/api-docs-ext.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/swagger-resources.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/swagger-ui\\.html.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/swagger-resources/configuration/ui.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/swagger-resources/configuration/security.*", Pattern.CASE_INSENSITIVE));
-
-        // spring boot actuator
-        urlFilters.add(Pattern.compile(".*?/actuator.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/instances.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/applications.*", Pattern.CASE_INSENSITIVE));
-
-        // webjars
-        urlFilters.add(Pattern.compile(".*?/webjars/.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/version/platform.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/version/show.*", Pattern.CASE_INSENSITIVE));
-        urlFilters.add(Pattern.compile(".*?/version/list.*", Pattern.CASE_INSENSITIVE));
+        this.urlFilters = UrlPatternMatcher.compile(URL_FILTERS);
     }
 
     @Override
@@ -72,7 +77,11 @@ public class WebThreadFilter extends BaseCompositeFilterProxy {
         // 检查token
         innerFilters.add(2, new SessionUserFilter(userAuthenticationHandler));
         // 防止XSS攻击
-        innerFilters.add(3, new XssFilter());
+        innerFilters.add(3, new XssFilter(xssSanitizer));
+    }
+
+    public void setXssSanitizer(XssSanitizer xssSanitizer) {
+        this.xssSanitizer = xssSanitizer;
     }
 
     @Override
@@ -97,11 +106,9 @@ public class WebThreadFilter extends BaseCompositeFilterProxy {
             return;
         }
 
-        for (Pattern pattern : urlFilters) {
-            if (pattern.matcher(path).matches()) {
-                chain.doFilter(request, response);
-                return;
-            }
+        if (urlFilters.matches(path)) {
+            chain.doFilter(request, response);
+            return;
         }
 
         // 初始化
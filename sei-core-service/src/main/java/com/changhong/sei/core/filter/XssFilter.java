@@ -14,9 +14,22 @@ import java.io.IOException;
  */
 public class XssFilter extends BaseWebFilter {
 
+    /**
+     * 过滤规则表
+     */
+    private final XssSanitizer sanitizer;
+
+    public XssFilter() {
+        this(XssSanitizer.DEFAULT);
+    }
+
+    public XssFilter(XssSanitizer sanitizer) {
+        this.sanitizer = sanitizer;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        XssServletWrapper xssRequest = new XssServletWrapper(request);
+        XssServletWrapper xssRequest = new XssServletWrapper(request, sanitizer);
 
         filterChain.doFilter(xssRequest, response);
     }
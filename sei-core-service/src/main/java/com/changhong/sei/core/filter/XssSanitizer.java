@@ -0,0 +1,138 @@
+package com.changhong.sei.core.filter;
+
+import java.util.*;
+
+/**
+ * 实现功能：XSS过滤规则表
+ * 单次从左到右扫描完成所有规则的替换(同一位置优先匹配最长的规则，替换后的内容不再参与匹配)，
+ * 没有命中任何规则时直接返回原字符串实例，不产生新的对象
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 16:12
+ */
+public final class XssSanitizer {
+
+    /**
+     * 默认规则，与原有 replaceAll 过滤结果一致
+     * 常见注入方式，一般是script和on*的操作，讨论后过滤掉
+     * <a href="javascript:alert(1)" ></a>
+     * <iframe src="javascript:alert(1)" />
+     * <img src='x' onerror="alert(1)" />
+     * <video src='x' onerror="alert(1)" ></video>
+     * <div onclick="alert(1)" onmouseover="alert(2)" ><div>
+     */
+    public static final XssSanitizer DEFAULT;
+
+    static {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("<javascript", "&lt;javascript");
+        rules.put("<script", "&lt;script");
+        rules.put("onerror", "on error");
+        rules.put("onmouseover", "on mouseover");
+        rules.put("mousedown", "mouse down");
+        rules.put("mouseup", "mouse up");
+        rules.put("click", "cli ck");
+        rules.put("contextmenu", "context menu");
+        rules.put("mouseout", "mouse out");
+        rules.put("mousemove", "mouse move");
+        rules.put("<iframe", "&lt;iframe");
+        rules.put("</iframe>", "&lt;iframe:&gt;");
+        DEFAULT = new XssSanitizer(rules);
+    }
+
+    /**
+     * ASCII字符开头的规则下标，按规则长度倒序
+     */
+    private final int[][] asciiRules = new int[128][];
+    /**
+     * 非ASCII字符开头的规则下标，按规则长度倒序
+     */
+    private final Map<Character, int[]> otherRules = new HashMap<>();
+    private final String[] patterns;
+    private final String[] replacements;
+
+    /**
+     * @param rules 过滤规则, key为需要替换的内容(区分大小写), value为替换后的内容
+     */
+    public XssSanitizer(Map<String, String> rules) {
+        List<String> patternList = new ArrayList<>();
+        List<String> replacementList = new ArrayList<>();
+        if (Objects.nonNull(rules)) {
+            for (Map.Entry<String, String> entry : rules.entrySet()) {
+                if (entry.getKey() != null && !entry.getKey().isEmpty()) {
+                    patternList.add(entry.getKey());
+                    replacementList.add(entry.getValue() == null ? "" : entry.getValue());
+                }
+            }
+        }
+        this.patterns = patternList.toArray(new String[0]);
+        this.replacements = replacementList.toArray(new String[0]);
+
+        Map<Character, List<Integer>> grouped = new HashMap<>();
+        for (int i = 0; i < patterns.length; i++) {
+            grouped.computeIfAbsent(patterns[i].charAt(0), c -> new ArrayList<>()).add(i);
+        }
+        for (Map.Entry<Character, List<Integer>> entry : grouped.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            indexes.sort((a, b) -> patterns[b].length() - patterns[a].length());
+            int[] array = indexes.stream().mapToInt(Integer::intValue).toArray();
+            char c = entry.getKey();
+            if (c < 128) {
+                asciiRules[c] = array;
+            } else {
+                otherRules.put(c, array);
+            }
+        }
+    }
+
+    /**
+     * 根据配置创建过滤规则表，未配置时使用默认规则
+     *
+     * @param rules 过滤规则
+     * @return 返回过滤规则表
+     */
+    public static XssSanitizer of(Map<String, String> rules) {
+        if (Objects.isNull(rules) || rules.isEmpty()) {
+            return DEFAULT;
+        }
+        return new XssSanitizer(rules);
+    }
+
+    /**
+     * 过滤
+     *
+     * @param value 原始值
+     * @return 返回过滤后的值，没有命中规则时返回原实例
+     */
+    public String sanitize(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        int length = value.length();
+        StringBuilder builder = null;
+        int last = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            int[] candidates = c < 128 ? asciiRules[c] : (otherRules.isEmpty() ? null : otherRules.get(c));
+            if (candidates == null) {
+                continue;
+            }
+            for (int index : candidates) {
+                String pattern = patterns[index];
+                if (value.startsWith(pattern, i)) {
+                    if (builder == null) {
+                        builder = new StringBuilder(length + 16);
+                    }
+                    builder.append(value, last, i).append(replacements[index]);
+                    i += pattern.length() - 1;
+                    last = i + 1;
+                    break;
+                }
+            }
+        }
+        if (builder == null) {
+            return value;
+        }
+        return builder.append(value, last, length).toString();
+    }
+}
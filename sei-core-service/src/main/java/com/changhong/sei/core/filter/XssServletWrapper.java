@@ -1,9 +1,9 @@
 package com.changhong.sei.core.filter;
 
-import org.apache.commons.lang3.StringUtils;
-
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 实现功能：防止跨站脚本漏洞攻击(XSS攻击)
@@ -13,14 +13,34 @@ import javax.servlet.http.HttpServletRequestWrapper;
  */
 public class XssServletWrapper extends HttpServletRequestWrapper {
 
+    /**
+     * 过滤规则表
+     */
+    private final XssSanitizer sanitizer;
+    /**
+     * 当前请求已过滤的请求头
+     */
+    private Map<String, String> sanitizedHeaders;
+
     public XssServletWrapper(HttpServletRequest request) {
+        this(request, XssSanitizer.DEFAULT);
+    }
+
+    public XssServletWrapper(HttpServletRequest request, XssSanitizer sanitizer) {
         super(request);
+        this.sanitizer = sanitizer;
     }
 
     @Override
     public String getHeader(String name) {
-        String value = super.getHeader(name);
-        return filterXss(value);
+        if (sanitizedHeaders == null) {
+            sanitizedHeaders = new HashMap<>();
+        } else if (sanitizedHeaders.containsKey(name)) {
+            return sanitizedHeaders.get(name);
+        }
+        String value = filterXss(super.getHeader(name));
+        sanitizedHeaders.put(name, value);
+        return value;
     }
 
     @Override
@@ -44,35 +64,11 @@ public class XssServletWrapper extends HttpServletRequestWrapper {
     }
 
     /**
-     * 常见注入方式，一般是script和on*的操作，讨论后过滤掉
-     * <a href="javascript:alert(1)" ></a>
-     * <iframe src="javascript:alert(1)" />
-     * <img src='x' onerror="alert(1)" />
-     * <video src='x' onerror="alert(1)" ></video>
-     * <div onclick="alert(1)" onmouseover="alert(2)" ><div>
+     * 按规则表过滤，没有命中规则时返回原值
+     *
+     * @see XssSanitizer#DEFAULT
      */
     private String filterXss(String value) {
-        if (StringUtils.isNotBlank(value)) {
-            value = value.replaceAll("<javascript", "&lt;javascript");
-            value = value.replaceAll("<script", "&lt;script");
-            value = value.replaceAll("onerror", "on error");
-            value = value.replaceAll("onmouseover", "on mouseover");
-            value = value.replaceAll("mousedown", "mouse down");
-            value = value.replaceAll("mouseup", "mouse up");
-            value = value.replaceAll("click", "cli ck");
-            value = value.replaceAll("dbclick", "db click");
-            value = value.replaceAll("contextmenu", "context menu");
-            value = value.replaceAll("mouseout", "mouse out");
-            value = value.replaceAll("mousemove", "mouse move");
-            value = value.replaceAll("mousedown", "mouse down");
-            value = value.replaceAll("<iframe", "&lt;iframe").replaceAll("</iframe>", "&lt;iframe:&gt;");
-//            value = value.replaceAll("<", "&lt;").replaceAll(">", "&gt;");
-//            value = value.replaceAll("\\(", "& #40;").replaceAll("\\)", "& #41;");
-//            value = value.replaceAll("'", "& #39;");
-//            value = value.replaceAll("eval\\((.*)\\)", "");
-//            value = value.replaceAll("[\\\"\\\'][\\s]*javascript:(.*)[\\\"\\\']", "\"\"");
-//            value = value.replaceAll("script", "");
-        }
-        return value;
+        return sanitizer.sanitize(value);
     }
 }
@@ -1,19 +1,63 @@
 package com.changhong.sei.core.init;
 
+import com.changhong.sei.core.context.ContextUtil;
+import com.changhong.sei.core.context.mock.MockUser;
 import com.changhong.sei.core.entity.BaseEntity;
+import com.changhong.sei.core.entity.ICodeUnique;
+import com.changhong.sei.core.entity.ISoftDelete;
+import com.changhong.sei.core.entity.ITenant;
+import com.changhong.sei.core.log.LogUtil;
 import com.changhong.sei.core.service.bo.OperateResult;
+import com.changhong.sei.util.thread.ThreadLocalHolder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.Session;
+import org.slf4j.MDC;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
 
-import javax.annotation.PostConstruct;
-import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 实现功能: 任务执行器基类
+ * <p>
+ * 子类实现{@link #getUniqueKey(BaseEntity)}后使用批量初始化：一次查询判断整批业务实体是否已经存在，只插入不存在的业务实体(JDBC批量插入)；
+ * 未实现或无法批量查询已经存在的唯一键时，逐个调用{@link #alreadyExists(BaseEntity)}判断，保存方式不变
  *
  * @author 王锦光 wangjg
  * @version 2022-02-25 10:40
  */
-public abstract class BasePerformer<T extends BaseEntity> implements TaskPerformer {
+public abstract class BasePerformer<T extends BaseEntity> implements TaskPerformer, MeterBinder {
+    /**
+     * 批量插入时每批的数量
+     */
+    protected static final int BATCH_SIZE = 500;
+    /**
+     * in查询每批最大数量
+     */
+    private static final int IN_BATCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder existingCount = new LongAdder();
+    private final LongAdder insertedCount = new LongAdder();
+    private final LongAdder taskCount = new LongAdder();
+    private final LongAdder taskMillis = new LongAdder();
+    private final AtomicInteger running = new AtomicInteger();
+
     /**
      * 设置初始化业务实体名称
      *
@@ -37,6 +81,55 @@ public abstract class BasePerformer<T extends BaseEntity> implements TaskPerform
      */
     protected abstract boolean alreadyExists(T entity);
 
+    /**
+     * 获取初始化业务实体的唯一键，用于批量判断是否已经存在
+     * 返回null时逐个调用alreadyExists判断；代码唯一的业务实体可返回代码，使用默认的{@link #findExistingKeys(Class, Set)}
+     *
+     * @param entity 初始化业务实体
+     * @return 唯一键
+     */
+    protected String getUniqueKey(T entity) {
+        return null;
+    }
+
+    /**
+     * 批量查询已经存在的唯一键
+     * 默认按代码查询(当前租户、未删除的)，唯一键不是代码时需要在子类中覆写
+     *
+     * @param entityClass 业务实体类型
+     * @param keys        唯一键清单
+     * @return 已经存在的唯一键；返回null时逐个调用alreadyExists判断
+     */
+    protected Set<String> findExistingKeys(Class<?> entityClass, Set<String> keys) {
+        if (!ICodeUnique.class.isAssignableFrom(entityClass)) {
+            LogUtil.warn("{}不是代码唯一的业务实体，逐个判断是否已经存在；可覆写findExistingKeys方法批量判断", entityClass.getName());
+            return null;
+        }
+        StringBuilder queryStr = new StringBuilder(128)
+                .append("select t.").append(ICodeUnique.CODE_FIELD).append(" from ").append(entityClass.getSimpleName())
+                .append(" t where t.").append(ICodeUnique.CODE_FIELD).append(" in :keys");
+        if (ISoftDelete.class.isAssignableFrom(entityClass)) {
+            queryStr.append(" and t.").append(ISoftDelete.DELETED).append("=0");
+        }
+        boolean isTenant = ITenant.class.isAssignableFrom(entityClass);
+        if (isTenant) {
+            queryStr.append(" and t.").append(ITenant.TENANT_CODE).append("=:tenantCode");
+        }
+        List<String> keyList = new ArrayList<>(keys);
+        Set<String> result = new HashSet<>();
+        for (int from = 0; from < keyList.size(); from += IN_BATCH_SIZE) {
+            Query query = entityManager.createQuery(queryStr.toString());
+            query.setParameter("keys", keyList.subList(from, Math.min(from + IN_BATCH_SIZE, keyList.size())));
+            if (isTenant) {
+                query.setParameter(ITenant.TENANT_CODE, ContextUtil.getTenantCode());
+            }
+            for (Object key : query.getResultList()) {
+                result.add((String) key);
+            }
+        }
+        return result;
+    }
+
     /**
      * 设置关联属性
      *
@@ -60,8 +153,52 @@ public abstract class BasePerformer<T extends BaseEntity> implements TaskPerform
     @Override
     @Transactional(rollbackFor = Exception.class)
     public OperateResult performTask() {
-        // 设置初始化业务实体
-        List<T> initEntities = constructInitEntities();
+        long start = System.currentTimeMillis();
+        running.incrementAndGet();
+        try {
+            // 设置初始化业务实体
+            List<T> initEntities = constructInitEntities();
+            int total = initEntities.size();
+            totalCount.add(total);
+
+            // 批量判断是否已经存在
+            List<String> keys = new ArrayList<>(total);
+            Set<String> keySet = new HashSet<>();
+            for (T entity : initEntities) {
+                String key = getUniqueKey(entity);
+                keys.add(key);
+                if (Objects.nonNull(key)) {
+                    keySet.add(key);
+                }
+            }
+            Set<String> existingKeys = keySet.isEmpty() ? null
+                    : findExistingKeys(ClassUtils.getUserClass(initEntities.get(0)), keySet);
+
+            // 逐个判断时保持原有的保存方式，不调整JDBC批量大小、不提前flush
+            int inserted = Objects.isNull(existingKeys) ? performEach(initEntities)
+                    : performBulk(initEntities, keys, existingKeys);
+            int existing = total - inserted;
+            existingCount.add(existing);
+            insertedCount.add(inserted);
+            LogUtil.info("{}初始化完毕: 共{}条, 已存在{}条, 新增{}条, 耗时{}ms",
+                    getEntityName(), total, existing, inserted, System.currentTimeMillis() - start);
+        } finally {
+            running.decrementAndGet();
+            taskCount.increment();
+            taskMillis.add(System.currentTimeMillis() - start);
+        }
+        // {0}初始化完毕！
+        return OperateResult.operationSuccess("core_service_00041", getEntityName());
+    }
+
+    /**
+     * 逐个判断是否已经存在并保存
+     *
+     * @param initEntities 初始化业务实体清单
+     * @return 新增数量
+     */
+    private int performEach(List<T> initEntities) {
+        int inserted = 0;
         for (T entity : initEntities) {
             // 设置关联属性
             setRelationalField(entity);
@@ -72,8 +209,144 @@ public abstract class BasePerformer<T extends BaseEntity> implements TaskPerform
             }
             // 不存在则保存
             save(entity);
+            inserted++;
         }
-        // {0}初始化完毕！
-        return OperateResult.operationSuccess("core_service_00041", getEntityName());
+        return inserted;
+    }
+
+    /**
+     * 按唯一键批量判断是否已经存在，不存在的业务实体JDBC批量插入
+     *
+     * @param initEntities 初始化业务实体清单
+     * @param keys         与初始化业务实体一一对应的唯一键
+     * @param existingKeys 已经存在的唯一键
+     * @return 新增数量
+     */
+    private int performBulk(List<T> initEntities, List<String> keys, Set<String> existingKeys) {
+        int total = initEntities.size();
+        Session session = entityManager.unwrap(Session.class);
+        Integer jdbcBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(BATCH_SIZE);
+        int inserted = 0;
+        try {
+            Set<String> pendingKeys = new HashSet<>();
+            for (int i = 0; i < total; i++) {
+                T entity = initEntities.get(i);
+                String key = keys.get(i);
+                if (Objects.nonNull(key)) {
+                    // 已经存在或本批中重复则跳过
+                    if (existingKeys.contains(key) || !pendingKeys.add(key)) {
+                        continue;
+                    }
+                    // 设置关联属性
+                    setRelationalField(entity);
+                } else {
+                    // 设置关联属性
+                    setRelationalField(entity);
+                    // 判断是否已经存在
+                    if (alreadyExists(entity)) {
+                        // 如果存在则跳过
+                        continue;
+                    }
+                }
+                // 不存在则保存
+                save(entity);
+                inserted++;
+                if (inserted % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    LogUtil.info("{}初始化进度: {}/{}", getEntityName(), i + 1, total);
+                }
+            }
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(jdbcBatchSize);
+        }
+        return inserted;
+    }
+
+    /**
+     * 为多个租户执行任务
+     * 各租户的初始化相互独立，分别在各自的事务中以模拟当前用户账号的租户会话执行，最多parallelism个租户并行
+     *
+     * @param tenantCodes 租户代码清单
+     * @param parallelism 最大并行数
+     * @return 各租户的执行结果
+     */
+    public Map<String, OperateResult> performTask(Collection<String> tenantCodes, int parallelism) {
+        Map<String, OperateResult> results = new LinkedHashMap<>();
+        if (Objects.isNull(tenantCodes) || tenantCodes.isEmpty()) {
+            return results;
+        }
+        Set<String> tenants = new LinkedHashSet<>(tenantCodes);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(ContextUtil.getBean(PlatformTransactionManager.class));
+        MockUser mockUser = ContextUtil.getBean(MockUser.class);
+        final String account = ContextUtil.getUserAccount();
+        final Map<String, Object> tranVars = ThreadLocalHolder.getTranVars();
+        final String prefix = "sei-init-" + ClassUtils.getUserClass(this).getSimpleName() + "-";
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, tenants.size())), runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<String, Future<OperateResult>> futures = new LinkedHashMap<>();
+            for (String tenantCode : tenants) {
+                futures.put(tenantCode, executor.submit(() -> {
+                    try {
+                        // 初始化线程变量
+                        ThreadLocalHolder.begin(tranVars);
+                        mockUser.mockUser(tenantCode, account);
+                        return transactionTemplate.execute(status -> performTask());
+                    } finally {
+                        // 释放线程参数
+                        ThreadLocalHolder.end();
+                        MDC.clear();
+                    }
+                }));
+            }
+            for (Map.Entry<String, Future<OperateResult>> entry : futures.entrySet()) {
+                OperateResult result;
+                try {
+                    result = entry.getValue().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result = OperateResult.operationFailure("core_service_00043", getEntityName(), entry.getKey(), e.getMessage());
+                } catch (ExecutionException e) {
+                    LogUtil.error("租户[" + entry.getKey() + "]" + getEntityName() + "初始化异常", e.getCause());
+                    result = OperateResult.operationFailure("core_service_00043", getEntityName(), entry.getKey(), e.getCause().getMessage());
+                }
+                results.put(entry.getKey(), result);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String performer = ClassUtils.getUserClass(this).getSimpleName();
+        FunctionCounter.builder("sei.init.entities", totalCount, LongAdder::sum)
+                .tags("performer", performer, "result", "total")
+                .description("初始化业务实体数")
+                .register(registry);
+        FunctionCounter.builder("sei.init.entities", existingCount, LongAdder::sum)
+                .tags("performer", performer, "result", "existing")
+                .description("初始化时已经存在的业务实体数")
+                .register(registry);
+        FunctionCounter.builder("sei.init.entities", insertedCount, LongAdder::sum)
+                .tags("performer", performer, "result", "inserted")
+                .description("初始化时新增的业务实体数")
+                .register(registry);
+        Gauge.builder("sei.init.running", running, AtomicInteger::get)
+                .tag("performer", performer)
+                .description("正在执行的初始化任务数")
+                .register(registry);
+        FunctionTimer.builder("sei.init.task", this,
+                p -> p.taskCount.sum(), p -> p.taskMillis.sum(), TimeUnit.MILLISECONDS)
+                .tag("performer", performer)
+                .description("初始化任务执行时间")
+                .register(registry);
     }
 }
@@ -0,0 +1,93 @@
+package com.changhong.sei.core.service;
+
+import com.changhong.sei.core.context.async.ContextTaskDecorator;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 实现功能：
+ * 并发获取多个功能项有权限的业务实体Id清单
+ * 基础应用没有批量接口时，每个功能项仍需一次远程调用，并发执行使总耗时接近单次调用；
+ * 任务通过{@link ContextTaskDecorator}传递当前会话(token)，线程池已满时在调用线程中执行
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 20:40
+ */
+final class AuthorizedEntityIdsLoader {
+    /**
+     * 最大并发数
+     */
+    private static final int MAX_THREADS = 8;
+    private static final TaskDecorator DECORATOR = new ContextTaskDecorator();
+    private static final ThreadPoolExecutor EXECUTOR;
+
+    static {
+        AtomicInteger index = new AtomicInteger();
+        EXECUTOR = new ThreadPoolExecutor(0, MAX_THREADS, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "sei-data-auth-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private AuthorizedEntityIdsLoader() {
+    }
+
+    /**
+     * 并发获取多个功能项有权限的业务实体Id清单
+     *
+     * @param featureCodes 功能项代码清单
+     * @param loader       获取单个功能项有权限的业务实体Id清单
+     * @return 功能项代码与业务实体Id清单的映射(顺序与功能项代码一致)
+     */
+    static Map<String, List<String>> load(Collection<String> featureCodes, Function<String, List<String>> loader) {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        if (Objects.isNull(featureCodes) || featureCodes.isEmpty()) {
+            return result;
+        }
+        List<String> codes = new ArrayList<>(new LinkedHashSet<>(featureCodes));
+        if (codes.size() == 1) {
+            result.put(codes.get(0), loader.apply(codes.get(0)));
+            return result;
+        }
+        // 第一个功能项在调用线程中获取，其余的提交到线程池
+        Map<String, CompletableFuture<List<String>>> futures = new LinkedHashMap<>();
+        for (String featureCode : codes.subList(1, codes.size())) {
+            futures.put(featureCode, submit(featureCode, loader));
+        }
+        result.put(codes.get(0), loader.apply(codes.get(0)));
+        for (Map.Entry<String, CompletableFuture<List<String>>> entry : futures.entrySet()) {
+            try {
+                result.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    private static CompletableFuture<List<String>> submit(String featureCode, Function<String, List<String>> loader) {
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                future.complete(loader.apply(featureCode));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        try {
+            EXECUTOR.execute(DECORATOR.decorate(task));
+        } catch (RejectedExecutionException e) {
+            // 线程池已满，在调用线程中执行(不经过上下文装饰，避免清理调用线程的线程变量)
+            task.run();
+        }
+        return future;
+    }
+}
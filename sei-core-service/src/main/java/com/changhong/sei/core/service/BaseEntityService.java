@@ -3,6 +3,7 @@ package com.changhong.sei.core.service;
 import com.changhong.sei.core.context.ContextUtil;
 import com.changhong.sei.core.context.SessionUser;
 import com.changhong.sei.core.dao.BaseEntityDao;
+import com.changhong.sei.core.dao.routing.DataSourceRouting;
 import com.changhong.sei.core.dto.auth.AuthEntityData;
 import com.changhong.sei.core.dto.auth.IDataAuthEntity;
 import com.changhong.sei.core.entity.BaseEntity;
@@ -17,7 +18,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * <strong>实现功能:</strong>
@@ -42,14 +42,15 @@ public abstract class BaseEntityService<T extends BaseEntity> extends BaseServic
         if (!IDataAuthEntity.class.isAssignableFrom(entityClass)) {
             return Collections.emptyList();
         }
-        //获取所有未冻结的业务实体
-        List<T> allEntities = getDao().findAllUnfrozen();
-        if (allEntities == null || allEntities.isEmpty()) {
+        if (CollectionUtils.isEmpty(ids)) {
             return Collections.emptyList();
         }
-        //获取Id清单的业务实体
-        List<T> entities = allEntities.stream().filter((p) -> ids.contains(p.getId())).collect(Collectors.toList());
-        List<AuthEntityData> dataList = new ArrayList<>();
+        //获取Id清单中未冻结的业务实体
+        List<T> entities = DataSourceRouting.read(() -> getDao().findByIds(ids, false));
+        if (CollectionUtils.isEmpty(entities)) {
+            return Collections.emptyList();
+        }
+        List<AuthEntityData> dataList = new ArrayList<>(entities.size());
         entities.forEach((p) -> dataList.add(new AuthEntityData((IDataAuthEntity) p)));
         return dataList;
     }
@@ -66,7 +67,7 @@ public abstract class BaseEntityService<T extends BaseEntity> extends BaseServic
             return Collections.emptyList();
         }
         //获取所有未冻结的业务实体
-        List<T> allEntities = getDao().findAllUnfrozen();
+        List<T> allEntities = DataSourceRouting.read(() -> getDao().findAllUnfrozen());
         if (allEntities == null || allEntities.isEmpty()) {
             return Collections.emptyList();
         }
@@ -106,10 +107,10 @@ public abstract class BaseEntityService<T extends BaseEntity> extends BaseServic
                 //如果是租户管理员，返回租户的所有数据
                 if (Objects.nonNull(includeFrozen) && includeFrozen) {
                     // (全部)
-                    resultList = getDao().findAll();
+                    resultList = DataSourceRouting.read(() -> getDao().findAll());
                 } else {
                     // (未冻结)
-                    resultList = getDao().findAllUnfrozen();
+                    resultList = DataSourceRouting.read(() -> getDao().findAllUnfrozen());
                 }
                 break;
             case NormalUser:
@@ -119,20 +120,8 @@ public abstract class BaseEntityService<T extends BaseEntity> extends BaseServic
                 if (entityIds == null || entityIds.isEmpty()) {
                     resultList = Collections.emptyList();
                 } else {
-                    //先获取所有未冻结的业务实体
-                    List<T> allEntities;
-                    if (Objects.nonNull(includeFrozen) && includeFrozen) {
-                        // (全部)
-                        allEntities = getDao().findAll();
-                    } else {
-                        // (未冻结)
-                        allEntities = getDao().findAllUnfrozen();
-                    }
-                    if (CollectionUtils.isEmpty(allEntities)) {
-                        resultList = Collections.emptyList();
-                    } else {
-                        resultList = allEntities.stream().filter((p) -> entityIds.contains(p.getId())).collect(Collectors.toList());
-                    }
+                    //按Id清单分批获取业务实体(是否包含冻结)
+                    resultList = DataSourceRouting.read(() -> getDao().findByIds(entityIds, Objects.nonNull(includeFrozen) && includeFrozen));
                 }
                 break;
         }
@@ -1,6 +1,7 @@
 package com.changhong.sei.core.service;
 
 import com.changhong.sei.core.dao.BaseRelationDao;
+import com.changhong.sei.core.dao.routing.DataSourceRouting;
 import com.changhong.sei.core.entity.AbstractEntity;
 import com.changhong.sei.core.entity.RelationEntity;
 import com.changhong.sei.core.dto.RelationParam;
@@ -36,7 +37,7 @@ public abstract class BaseRelationService<T extends AbstractEntity<String> & Rel
      * @return 子实体清单
      */
     public List<C> getChildrenFromParentId(String parentId) {
-        return getDao().getChildrenFromParentId(parentId);
+        return DataSourceRouting.read(() -> getDao().getChildrenFromParentId(parentId));
     }
 
     /**
@@ -46,7 +47,7 @@ public abstract class BaseRelationService<T extends AbstractEntity<String> & Rel
      * @return 子实体清单
      */
     public List<C> getChildrenFromParentIds(List<String> parentIds) {
-        return getDao().getChildrenFromParentIds(parentIds);
+        return DataSourceRouting.read(() -> getDao().getChildrenFromParentIds(parentIds));
     }
 
     /**
@@ -56,7 +57,7 @@ public abstract class BaseRelationService<T extends AbstractEntity<String> & Rel
      * @return 父实体清单
      */
     public List<P> getParentsFromChildId(String childId) {
-        return getDao().getParentsFromChildId(childId);
+        return DataSourceRouting.read(() -> getDao().getParentsFromChildId(childId));
     }
 
     /**
@@ -66,7 +67,7 @@ public abstract class BaseRelationService<T extends AbstractEntity<String> & Rel
      * @return 父实体清单
      */
     public List<P> getParentsFromChildIds(List<String> childIds) {
-        return getDao().getParentsFromChildIds(childIds);
+        return DataSourceRouting.read(() -> getDao().getParentsFromChildIds(childIds));
     }
 
     /**
@@ -271,7 +272,7 @@ public abstract class BaseRelationService<T extends AbstractEntity<String> & Rel
      * @return 分配关系
      */
     public T getRelation(String parentId, String childId) {
-        return getDao().getRelation(parentId, childId);
+        return DataSourceRouting.read(() -> getDao().getRelation(parentId, childId));
     }
 
     /**
@@ -281,6 +282,6 @@ public abstract class BaseRelationService<T extends AbstractEntity<String> & Rel
      * @return 分配关系清单
      */
     public List<T> getRelationsByParentId(String parentId){
-        return getDao().getRelationsByParentId(parentId);
+        return DataSourceRouting.read(() -> getDao().getRelationsByParentId(parentId));
     }
 }
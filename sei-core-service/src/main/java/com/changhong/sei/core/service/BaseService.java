@@ -3,6 +3,7 @@ package com.changhong.sei.core.service;
 import com.changhong.sei.core.cache.CacheBuilder;
 import com.changhong.sei.core.context.ContextUtil;
 import com.changhong.sei.core.dao.jpa.BaseDao;
+import com.changhong.sei.core.dao.routing.DataSourceRouting;
 import com.changhong.sei.core.dto.auth.IDataAuthEntity;
 import com.changhong.sei.core.dto.serach.PageResult;
 import com.changhong.sei.core.dto.serach.Search;
@@ -23,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * <strong>实现功能:</strong>
@@ -191,7 +193,7 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      * 基于主键集合查询集合数据对象
      */
     public List<T> findAll() {
-        return getDao().findAll();
+        return DataSourceRouting.read(() -> getDao().findAll());
     }
 
     /**
@@ -199,7 +201,7 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      */
     public T findOne(ID id) {
         Validation.notNull(id, "主键不能为空");
-        return getDao().findOne(id);
+        return DataSourceRouting.read(() -> getDao().findOne(id));
     }
 
     /**
@@ -267,7 +269,7 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      * @param value    参数值
      */
     public List<T> findListByProperty(final String property, final Object value) {
-        return getDao().findListByProperty(property, value);
+        return DataSourceRouting.read(() -> getDao().findListByProperty(property, value));
     }
 
     /**
@@ -278,7 +280,7 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      * @return 未查询到返回null，如果查询到多条数据则抛出异常
      */
     public T findByProperty(final String property, final Object value) {
-        return getDao().findByProperty(property, value);
+        return DataSourceRouting.read(() -> getDao().findByProperty(property, value));
     }
 
     /**
@@ -289,7 +291,7 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      * @return 未查询到返回null，如果查询到多条数据则返回第一条
      */
     public T findFirstByProperty(final String property, final Object value) {
-        return getDao().findFirstByProperty(property, value);
+        return DataSourceRouting.read(() -> getDao().findFirstByProperty(property, value));
     }
 
     /**
@@ -300,21 +302,21 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      * @return 未查询到返回false，如果查询到一条或多条数据则返回true
      */
     public boolean isExistsByProperty(String property, Object value) {
-        return getDao().isExistsByProperty(property, value);
+        return DataSourceRouting.read(() -> getDao().isExistsByProperty(property, value));
     }
 
     /**
      * 单一条件对象查询数据集合
      */
     public List<T> findByFilter(SearchFilter searchFilter) {
-        return getDao().findByFilter(searchFilter);
+        return DataSourceRouting.read(() -> getDao().findByFilter(searchFilter));
     }
 
     /**
      * 基于查询条件count记录数据
      */
     public long count(Search searchConfig) {
-        return getDao().count(searchConfig);
+        return DataSourceRouting.read(() -> getDao().count(searchConfig));
     }
 
     /**
@@ -322,7 +324,7 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      * 存在多条时抛出异常
      */
     public T findOneByFilters(Search searchConfig) {
-        return getDao().findOneByFilters(searchConfig);
+        return DataSourceRouting.read(() -> getDao().findOneByFilters(searchConfig));
     }
 
     /**
@@ -330,29 +332,42 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      * 获取结果中的第一条,没有则返回null.不用于findOneByFilters
      */
     public T findFirstByFilters(Search searchConfig) {
-        return getDao().findFirstByFilters(searchConfig);
+        return DataSourceRouting.read(() -> getDao().findFirstByFilters(searchConfig));
     }
 
     /**
      * 基于动态组合条件对象和排序定义查询数据集合
      */
     public List<T> findByFilters(Search searchConfig) {
-        return getDao().findByFilters(searchConfig);
+        return DataSourceRouting.read(() -> getDao().findByFilters(searchConfig));
+    }
+
+    /**
+     * 基于动态组合条件对象和排序定义流式查询数据，逐条交由consumer处理
+     * 用于导出等大数据量场景，不在内存中保留全部结果
+     *
+     * @param searchConfig 查询过滤器
+     * @param consumer     每条数据的处理(在只读事务中执行，可访问延迟加载属性)
+     */
+    @Transactional(readOnly = true)
+    public void findByFilters(Search searchConfig, Consumer<T> consumer) {
+        getDao().findByFilters(searchConfig, 0, consumer);
     }
 
     /**
      * 基于动态组合条件对象和分页(含排序)对象查询数据集合
      */
     public PageResult<T> findByPage(Search searchConfig) {
-        return getDao().findByPage(searchConfig);
+        return DataSourceRouting.read(() -> getDao().findByPage(searchConfig));
     }
 
     /**
      * 获取一般用户有权限的业务实体Id清单
+     * 优先从缓存中读取，缓存不存在时调用API服务获取并写入缓存(同一用户功能项并发时只调用一次)
      *
      * @param featureCode 功能项代码
      * @param userId      用户Id
-     * @return 业务实体Id清单
+     * @return 业务实体Id清单(缓存的清单不可修改)
      */
     protected List<String> getNormalUserAuthorizedEntityIds(String featureCode, String userId) {
         Class<T> entityClass = getDao().getEntityClass();
@@ -364,28 +379,115 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
         if (!DataAuthEntityService.class.isAssignableFrom(this.getClass())) {
             return Collections.emptyList();
         }
-        List<String> entityIds = null;
-        if (Objects.nonNull(cacheBuilder)) {
-            //--先从缓存中读取
-            String catchKey = entityClass.getName() + "_" + featureCode + "_" + userId;
-            Object catchResult = cacheBuilder.get(catchKey);
-            if (catchResult instanceof List) {
-                List catchResultList = (List) catchResult;
-                entityIds = new ArrayList<>();
-                for (Object cache : catchResultList) {
-                    if (cache instanceof String) {
-                        entityIds.add((String) cache);
-                    }
-                }
+        DataAuthEntityService authEntityManager = (DataAuthEntityService) this;
+        String entityClassName = entityClass.getName();
+        if (Objects.isNull(cacheBuilder)) {
+            // 未启用缓存，调用API服务获取用户有权限的数据Id清单
+            return authEntityManager.getNormalUserAuthorizedEntitiesFromBasic(entityClassName, featureCode, userId);
+        }
+        Object cached = cacheBuilder.getOrLoad(getAuthorizedEntityIdsCacheKey(featureCode, userId),
+                // 缓存不存在，调用API服务获取用户有权限的数据Id清单
+                key -> toCachedEntityIds(authEntityManager.getNormalUserAuthorizedEntitiesFromBasic(entityClassName, featureCode, userId)));
+        return toEntityIds(cached);
+    }
+
+    /**
+     * 批量获取一般用户多个功能项有权限的业务实体Id清单
+     * 缓存中不存在的功能项通过一次批量获取({@link DataAuthEntityService#getNormalUserAuthorizedEntitiesFromBasic(String, Collection, String)})并写入缓存
+     *
+     * @param featureCodes 功能项代码清单
+     * @param userId       用户Id
+     * @return 功能项代码与业务实体Id清单(不可修改)的映射
+     */
+    public Map<String, List<String>> getNormalUserAuthorizedEntityIds(Collection<String> featureCodes, String userId) {
+        Class<T> entityClass = getDao().getEntityClass();
+        // 判断是否实现数据权限业务实体接口及当前业务逻辑实现类是否实现了数据权限接口
+        if (CollectionUtils.isEmpty(featureCodes) || !IDataAuthEntity.class.isAssignableFrom(entityClass)
+                || !DataAuthEntityService.class.isAssignableFrom(this.getClass())) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        List<String> missingCodes = new ArrayList<>();
+        for (String featureCode : new LinkedHashSet<>(featureCodes)) {
+            List<String> entityIds = null;
+            if (Objects.nonNull(cacheBuilder)) {
+                //--先从缓存中读取
+                entityIds = toEntityIds(cacheBuilder.get(getAuthorizedEntityIdsCacheKey(featureCode, userId)));
+            }
+            if (Objects.isNull(entityIds)) {
+                missingCodes.add(featureCode);
+            } else {
+                result.put(featureCode, entityIds);
             }
         }
-        if (Objects.isNull(entityIds)) {
-            // 缓存不存在，调用API服务获取用户有权限的数据Id清单
+        if (!missingCodes.isEmpty()) {
+            // 缓存不存在，一次调用API服务获取用户有权限的数据Id清单
             DataAuthEntityService authEntityManager = (DataAuthEntityService) this;
-            String entityClassName = entityClass.getName();
-            entityIds = authEntityManager.getNormalUserAuthorizedEntitiesFromBasic(entityClassName, featureCode, userId);
+            Map<String, List<String>> loaded = authEntityManager.getNormalUserAuthorizedEntitiesFromBasic(entityClass.getName(), missingCodes, userId);
+            for (String featureCode : missingCodes) {
+                List<String> entityIds = toCachedEntityIds(Objects.isNull(loaded) ? null : loaded.get(featureCode));
+                if (Objects.isNull(entityIds)) {
+                    result.put(featureCode, Collections.emptyList());
+                    continue;
+                }
+                if (Objects.nonNull(cacheBuilder)) {
+                    // 覆盖写入，替换已过时的缓存值
+                    cacheBuilder.put(getAuthorizedEntityIdsCacheKey(featureCode, userId), entityIds);
+                }
+                result.put(featureCode, entityIds);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 转为缓存的业务实体Id清单(加载时复制一次，不可修改，可在本地缓存中共享)
+     *
+     * @param entityIds 业务实体Id清单
+     * @return 不可修改的业务实体Id清单
+     */
+    private static List<String> toCachedEntityIds(List<String> entityIds) {
+        return Objects.isNull(entityIds) ? null : Collections.unmodifiableList(new ArrayList<>(entityIds));
+    }
+
+    /**
+     * 由缓存值得到不可修改的业务实体Id清单(只包装不复制，调用方无法修改本地缓存)
+     *
+     * @param cached 缓存值
+     * @return 不是有效的缓存值时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> toEntityIds(Object cached) {
+        if (cached instanceof List) {
+            return Collections.unmodifiableList((List<String>) cached);
+        }
+        if (cached instanceof Collection) {
+            return Collections.unmodifiableList(new ArrayList<>((Collection<String>) cached));
         }
-        return entityIds;
+        return null;
+    }
+
+    /**
+     * 清除一般用户功能项有权限的业务实体Id清单缓存(用户权限变更时调用)
+     *
+     * @param featureCode 功能项代码
+     * @param userId      用户Id
+     */
+    public void evictNormalUserAuthorizedEntityIds(String featureCode, String userId) {
+        if (Objects.nonNull(cacheBuilder)) {
+            cacheBuilder.remove(getAuthorizedEntityIdsCacheKey(featureCode, userId));
+        }
+    }
+
+    /**
+     * 一般用户有权限的业务实体Id清单缓存键
+     *
+     * @param featureCode 功能项代码
+     * @param userId      用户Id
+     * @return 缓存键
+     */
+    protected String getAuthorizedEntityIdsCacheKey(String featureCode, String userId) {
+        return getDao().getEntityClass().getName() + "_" + featureCode + "_" + userId;
     }
 
     /**
@@ -394,6 +496,6 @@ public abstract class BaseService<T extends Persistable<ID> & Serializable, ID e
      * @return 业务实体清单
      */
     public List<T> findAllUnfrozen() {
-        return getDao().findAllUnfrozen();
+        return DataSourceRouting.read(() -> getDao().findAllUnfrozen());
     }
 }
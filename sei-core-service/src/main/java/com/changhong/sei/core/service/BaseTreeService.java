@@ -3,6 +3,7 @@ package com.changhong.sei.core.service;
 import com.changhong.sei.core.context.ContextUtil;
 import com.changhong.sei.core.context.SessionUser;
 import com.changhong.sei.core.dao.BaseTreeDao;
+import com.changhong.sei.core.dao.routing.DataSourceRouting;
 import com.changhong.sei.core.dto.TreeEntity;
 import com.changhong.sei.core.dto.auth.AuthTreeEntityData;
 import com.changhong.sei.core.dto.auth.IDataAuthTreeEntity;
@@ -233,6 +234,12 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
             if (Objects.nonNull(currentParent) && StringUtils.equals(currentParent.getId(), targetParent.getId())) {
                 return OperateResult.operationSuccess("core_service_00034");
             }
+            // 检查不能移动到本节点的子节点下(目标父节点的祖先包含本节点)
+            for (T parent : getDao().getParentNodes(targetParentId, false)) {
+                if (StringUtils.equals(currentNodeId, parent.getId())) {
+                    return OperateResult.operationFailure("core_service_00040");
+                }
+            }
             int parentNodeLevel = 0;
             String parentCodePath = "";
             String parentNamePath = "";
@@ -244,7 +251,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
 
             //目标父层级 - 当前父层级
             int difference = targetParent.getNodeLevel() - parentNodeLevel;
-            List<T> childrenList = findByCodePathStartingWith(currentNode.getCodePath());
+            List<T> childrenList = getDao().getChildrenNodes(currentNodeId);
             if (CollectionUtils.isNotEmpty(childrenList)) {
                 String temp;
                 for (T item : childrenList) {
@@ -282,7 +289,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 返回树根节点集合
      */
     public List<T> getAllRootNode() {
-        return getDao().getAllRootNode();
+        return DataSourceRouting.read(() -> getDao().getAllRootNode());
     }
 
     /**
@@ -294,9 +301,21 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      */
     public List<T> getChildrenNodes(String nodeId, boolean includeSelf) {
         if (includeSelf) {
-            return getDao().getChildrenNodes(nodeId);
+            return DataSourceRouting.read(() -> getDao().getChildrenNodes(nodeId));
         }
-        return getDao().getChildrenNodesNoneOwn(nodeId);
+        return DataSourceRouting.read(() -> getDao().getChildrenNodesNoneOwn(nodeId));
+    }
+
+    /**
+     * 获取一个节点下指定深度以内的子节点
+     *
+     * @param nodeId      节点Id
+     * @param maxDepth    最大深度(1为直接子节点)
+     * @param includeSelf 是否包含本节点
+     * @return 子节点清单
+     */
+    public List<T> getChildrenNodes(String nodeId, int maxDepth, boolean includeSelf) {
+        return DataSourceRouting.read(() -> getDao().getChildrenNodes(nodeId, maxDepth, includeSelf));
     }
 
     /**
@@ -306,7 +325,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 返回指定节点下的所有子节点(包含自己)
      */
     public List<T> getChildrenNodes(String nodeId) {
-        return getDao().getChildrenNodes(nodeId);
+        return DataSourceRouting.read(() -> getDao().getChildrenNodes(nodeId));
     }
 
     /**
@@ -316,7 +335,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 返回指定节点下的所有子节点(不包含自己)
      */
     public List<T> getChildrenNodesNoneOwn(String nodeId) {
-        return getDao().getChildrenNodesNoneOwn(nodeId);
+        return DataSourceRouting.read(() -> getDao().getChildrenNodesNoneOwn(nodeId));
     }
 
     /**
@@ -326,7 +345,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 返回指定节点名称的所有节点
      */
     public List<T> getChildrenNodesByName(String nodeName) {
-        return getDao().getChildrenNodesByName(nodeName);
+        return DataSourceRouting.read(() -> getDao().getChildrenNodesByName(nodeName));
     }
 
     /**
@@ -336,7 +355,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 返回指定节点树形对象
      */
     public T getTree(String nodeId) {
-        return getDao().getTree(nodeId);
+        return DataSourceRouting.read(() -> getDao().getTree(nodeId));
     }
 
     /**
@@ -346,7 +365,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 返回指定代码路径开头的集合
      */
     public List<T> findByCodePathStartingWith(String codePath) {
-        return getDao().findByCodePathStartingWith(codePath);
+        return DataSourceRouting.read(() -> getDao().findByCodePathStartingWith(codePath));
     }
 
     /**
@@ -357,7 +376,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 子节点
      */
     public List<T> findByCodePathStartingWithAndIdNot(String codePath, String nodeId) {
-        return getDao().findByCodePathStartingWithAndIdNot(codePath, nodeId);
+        return DataSourceRouting.read(() -> getDao().findByCodePathStartingWithAndIdNot(codePath, nodeId));
     }
 
     /**
@@ -367,7 +386,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 返回指定名称路径开头的集合
      */
     public List<T> findByNamePathStartingWith(String namePath) {
-        return getDao().findByNamePathStartingWith(namePath);
+        return DataSourceRouting.read(() -> getDao().findByNamePathStartingWith(namePath));
     }
 
     /**
@@ -378,7 +397,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 子节点
      */
     public List<T> findByNamePathStartingWithAndIdNot(String namePath, String nodeId) {
-        return getDao().findByNamePathStartingWithAndIdNot(namePath, nodeId);
+        return DataSourceRouting.read(() -> getDao().findByNamePathStartingWithAndIdNot(namePath, nodeId));
     }
 
     /**
@@ -388,7 +407,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 返回含有指定节点名称的集合
      */
     public List<T> findByNamePathLike(String nodeName) {
-        return getDao().findByNamePathLike(nodeName);
+        return DataSourceRouting.read(() -> getDao().findByNamePathLike(nodeName));
     }
 
     /**
@@ -406,28 +425,13 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
         if (includeSelf) {
             parents.add(node);
         }
-        T parent = getParent(node);
-        while (parent != null) {
-            parents.add(parent);
-            parent = getParent(parent);
+        if (StringUtils.isNotBlank(node.getParentId())) {
+            //父节点及其所有父节点
+            parents.addAll(DataSourceRouting.read(() -> getDao().getParentNodes(node.getParentId(), true)));
         }
         return parents;
     }
 
-    /**
-     * 获取一个节点的父节点
-     *
-     * @param node 节点
-     * @return 父节点
-     */
-    private T getParent(T node) {
-        if (node.getParentId() == null) {
-            return null;
-        }
-        //获取父节点
-        return findOne(node.getParentId());
-    }
-
     /**
      * 获取一个节点的所有父节点
      *
@@ -436,8 +440,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
      * @return 父节点清单
      */
     public List<T> getParentNodes(String nodeId, boolean includeSelf) {
-        T node = findOne(nodeId);
-        return getParentNodes(node, includeSelf);
+        return new LinkedList<>(DataSourceRouting.read(() -> getDao().getParentNodes(nodeId, includeSelf)));
     }
 
     /**
@@ -563,12 +566,13 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
             return Collections.emptyList();
         }
         //获取所有未冻结的业务实体
-        List<T> allEntities = getDao().findAllUnfrozen();
+        List<T> allEntities = DataSourceRouting.read(() -> getDao().findAllUnfrozen());
         if (allEntities == null || allEntities.isEmpty()) {
             return Collections.emptyList();
         }
         //获取Id清单的业务实体
-        List<T> entities = allEntities.stream().filter((p) -> ids.contains(p.getId())).collect(Collectors.toList());
+        Set<String> idSet = new HashSet<>(ids);
+        List<T> entities = allEntities.stream().filter((p) -> idSet.contains(p.getId())).collect(Collectors.toList());
         List<AuthTreeEntityData> dataList = new ArrayList<>();
         entities.forEach((p) -> dataList.add(new AuthTreeEntityData((IDataAuthTreeEntity) p)));
         //装配成树形结构
@@ -587,7 +591,7 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
             return Collections.emptyList();
         }
         //获取所有未冻结的业务实体
-        List<T> allEntities = getDao().findAllUnfrozen();
+        List<T> allEntities = DataSourceRouting.read(() -> getDao().findAllUnfrozen());
         if (allEntities == null || allEntities.isEmpty()) {
             return Collections.emptyList();
         }
@@ -627,9 +631,9 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
             case TenantAdmin:
                 //如果是租户管理员，返回租户的所有数据(所有/未冻结)
                 if (Objects.nonNull(includeFrozen) && includeFrozen) {
-                    allEntities = getDao().findAll();
+                    allEntities = DataSourceRouting.read(() -> getDao().findAll());
                 } else {
-                    allEntities = getDao().findAllUnfrozen();
+                    allEntities = DataSourceRouting.read(() -> getDao().findAllUnfrozen());
                 }
                 if (allEntities == null || allEntities.isEmpty()) {
                     resultList = Collections.emptyList();
@@ -646,14 +650,16 @@ public abstract class BaseTreeService<T extends BaseEntity & TreeEntity<T>> exte
                 } else {
                     //先获取所有未冻结的业务实体
                     if (Objects.nonNull(includeFrozen) && includeFrozen) {
-                        allEntities = getDao().findAll();
+                        allEntities = DataSourceRouting.read(() -> getDao().findAll());
                     } else {
-                        allEntities = getDao().findAllUnfrozen();
+                        allEntities = DataSourceRouting.read(() -> getDao().findAllUnfrozen());
                     }
                     if (allEntities == null || allEntities.isEmpty()) {
                         resultList = Collections.emptyList();
                     } else {
-                        List<T> entities = allEntities.stream().filter((p) -> entityIds.contains(p.getId())).collect(Collectors.toList());
+                        // 有权限的Id集合，避免逐个节点遍历Id清单
+                        Set<String> entityIdSet = new HashSet<>(entityIds);
+                        List<T> entities = allEntities.stream().filter((p) -> entityIdSet.contains(p.getId())).collect(Collectors.toList());
                         resultList = buildTree(entities);
                     }
                 }
@@ -1,6 +1,8 @@
 package com.changhong.sei.core.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 实现功能: 数据权限对象必须的业务逻辑接口
@@ -18,4 +20,17 @@ public interface DataAuthEntityService {
      * @return 数据实体Id清单
      */
     List<String> getNormalUserAuthorizedEntitiesFromBasic(String entityClassName, String featureCode, String userId);
+
+    /**
+     * 从平台基础应用批量获取一般用户多个功能项有权限的数据实体Id清单
+     * 默认并发地逐个功能项获取(传递当前会话)，基础应用提供批量接口时建议override，一次调用完成
+     * @param entityClassName 权限对象实体类型
+     * @param featureCodes 功能项代码清单
+     * @param userId 用户Id
+     * @return 功能项代码与数据实体Id清单的映射
+     */
+    default Map<String, List<String>> getNormalUserAuthorizedEntitiesFromBasic(String entityClassName, Collection<String> featureCodes, String userId) {
+        return AuthorizedEntityIdsLoader.load(featureCodes,
+                featureCode -> getNormalUserAuthorizedEntitiesFromBasic(entityClassName, featureCode, userId));
+    }
 }
@@ -9,6 +9,7 @@ import com.changhong.sei.core.dto.flow.IConditionPojo;
 import com.changhong.sei.core.dto.flow.annotaion.BusinessEntityAnnotaion;
 import com.changhong.sei.core.entity.BaseEntity;
 import com.changhong.sei.core.utils.ExpressionUtil;
+import com.changhong.sei.core.utils.FlowClassMetadata;
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.transaction.annotation.Propagation;
@@ -46,9 +47,8 @@ public class CommonConditionService implements FlowCommonConditionApi {
 
 
     private Map<String, Object> getConditonPojoMap(String conditonPojoClassName, String daoBeanName, String id,Boolean all) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException, ClassNotFoundException, InstantiationException {
-        Class conditonPojoClass = Class.forName(conditonPojoClassName);
         BaseDao appModuleDao = ContextUtil.getBean(daoBeanName);
-        IConditionPojo conditionPojo = (IConditionPojo) conditonPojoClass.newInstance();
+        IConditionPojo conditionPojo = (IConditionPojo) FlowClassMetadata.forName(conditonPojoClassName).newInstance();
         BaseEntity content = (BaseEntity) appModuleDao.findOne(id);
         BeanUtils.copyProperties(conditionPojo, content);
         if (conditionPojo != null) {
@@ -140,9 +140,8 @@ public class CommonConditionService implements FlowCommonConditionApi {
     }
     private BusinessEntityAnnotaion getBusinessEntityAnnotaion(String className)throws ClassNotFoundException {
         if (StringUtils.isNotEmpty(className)) {
-            Class sourceClass = Class.forName(className);
-            BusinessEntityAnnotaion businessEntityAnnotaion = (BusinessEntityAnnotaion) sourceClass.getAnnotation(BusinessEntityAnnotaion.class);
-            return  businessEntityAnnotaion;
+            // 业务实体注解随类元数据缓存
+            return FlowClassMetadata.forName(className).getBusinessEntity();
         }else {
             throw new RuntimeException("className is null!");
         }
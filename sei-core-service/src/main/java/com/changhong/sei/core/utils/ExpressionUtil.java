@@ -3,12 +3,10 @@ package com.changhong.sei.core.utils;
 import com.changhong.sei.core.dto.flow.AppModule;
 import com.changhong.sei.core.dto.flow.BusinessModel;
 import com.changhong.sei.core.dto.flow.IConditionPojo;
-import com.changhong.sei.core.dto.flow.annotaion.ConditionAnnotaion;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.*;
-import java.util.Map.Entry;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 
 /**
@@ -65,40 +63,16 @@ public class ExpressionUtil<T extends IConditionPojo> {
     public static LinkedHashMap<String, String> getProperties(String className, String[] excludeProperties, Boolean all)
             throws ClassNotFoundException {
         LinkedHashMap<String, String> result = null;
-        Map<String, Object[]> tempMap = new HashMap<String, Object[]>();
-        // String[] excludeProperties = { "class", "pk", "equalFlag" };//
-        // 不用包括在内的字段
         if (className != null) {
-            Class sourceClass = Class.forName(className);
-            Method[] sourceMethods = sourceClass.getMethods();// 得到某类的所有公共方法，包括父类
+            FlowClassMetadata metadata = FlowClassMetadata.forName(className);
             result = new LinkedHashMap<String, String>();
-            for (Method sourceMethod : sourceMethods) {
-                ConditionAnnotaion conditionAnnatation = sourceMethod.getAnnotation(ConditionAnnotaion.class);
-                String sourceFieldName = getFieldName(sourceMethod, excludeProperties);
-                if (conditionAnnatation == null || sourceFieldName == null || "".equals(sourceFieldName) || (all ? false : conditionAnnatation.canSee() == false)) {
-                    continue;
-                }
-                String annationName = conditionAnnatation.name();
-                int rank = conditionAnnatation.rank();
-                Object[] tempResult = {annationName, rank};
-                tempMap.put(sourceFieldName, tempResult);
-            }
-            // 将Map里面的所以元素取出来先变成一个set，然后将这个set装到一个list里面
-            List<Entry<String, Object[]>> list = new ArrayList<Entry<String, Object[]>>(tempMap.entrySet());
-            // 定义一个comparator
-            Comparator<Entry<String, Object[]>> comparator = new Comparator<Entry<String, Object[]>>() {
-                @Override
-                public int compare(Entry<String, Object[]> p1, Entry<String, Object[]> p2) {
-                    // 之所以使用减号，是想要按照数从高到低来排列
-                    return -((int) p1.getValue()[1] - (int) p2.getValue()[1]);
+            // 条件属性已按rank从高到低排列
+            for (FlowClassMetadata.ConditionProperty property : metadata.getConditionProperties()) {
+                if (property.isIncluded(excludeProperties, all)) {
+                    result.put(property.getFieldName(), property.getName());
                 }
-            };
-            Collections.sort(list, comparator);
-            for (Entry<String, Object[]> entry : list) {
-                result.put(entry.getKey(), (String) entry.getValue()[0]);
             }
         }
-
         return result;
     }
 
@@ -144,34 +118,25 @@ public class ExpressionUtil<T extends IConditionPojo> {
     public Map<String, Object> getPropertiesAndValues(T conditionPojo, String[] excludeProperties, Boolean all)
             throws ClassNotFoundException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException {
         Map<String, Object> result = null;
-        // String[] excludeProperties = { "class", "pk", "equalFlag" };//
-        // 不用包括在内的字段
         if (conditionPojo != null) {
-            Class sourceClass = conditionPojo.getClass();
+            FlowClassMetadata metadata = FlowClassMetadata.of(conditionPojo.getClass());
             //额外属性值初始化
-            Method customLogicMethod = sourceClass.getMethod("customLogic");
-            customLogicMethod.invoke(conditionPojo);
+            metadata.customLogic(conditionPojo);
 
-            Method[] sourceMethods = sourceClass.getMethods();// 得到某类的所有公共方法，包括父类
-            result = new HashMap<String, Object>();
-            for (Method sourceMethod : sourceMethods) {
-                ConditionAnnotaion conditionAnnatation = sourceMethod.getAnnotation(ConditionAnnotaion.class);
-                String sourceFieldName = getFieldName(sourceMethod, excludeProperties);
-                if (conditionAnnatation == null || sourceFieldName == null || "".equals(sourceFieldName)) {
+            result = new LinkedHashMap<String, Object>();
+            for (FlowClassMetadata.ConditionProperty property : metadata.getConditionProperties()) {
+                if (!property.isIncluded(excludeProperties, true)) {
                     continue;
                 }
-                Object v = sourceMethod.invoke(conditionPojo, (Object) null);
+                Object v = property.getValue(conditionPojo);
                 if (v != null) {
-                    result.put(sourceFieldName, v);
+                    result.put(property.getFieldName(), v);
                 }
-
             }
-
         }
         return result;
     }
 
-
     /**
      * 获取条件pojo属性、属性说明Map(有序)
      *
@@ -205,65 +170,24 @@ public class ExpressionUtil<T extends IConditionPojo> {
     public static Map<String, Object> getPropertiesAndValues(String className, String[] excludeProperties, Boolean all)
             throws ClassNotFoundException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException, NoSuchMethodException {
         Map<String, Object> result = null;
-        // String[] excludeProperties = { "class", "pk", "equalFlag" };//
-        // 不用包括在内的字段
         if (className != null) {
-            Class sourceClass = Class.forName(className);
-            Object conditionPojo = sourceClass.newInstance();
-            Method initMethod = sourceClass.getMethod("init");
-            initMethod.invoke(conditionPojo);
-            Method[] sourceMethods = sourceClass.getMethods();// 得到某类的所有公共方法，包括父类
-            result = new HashMap<String, Object>();
-            for (Method sourceMethod : sourceMethods) {
-                ConditionAnnotaion conditionAnnatation = sourceMethod.getAnnotation(ConditionAnnotaion.class);
-                String sourceFieldName = getFieldName(sourceMethod, excludeProperties);
-                if (conditionAnnatation == null || sourceFieldName == null || "".equals(sourceFieldName) || (all ? false : conditionAnnatation.canSee() == false)) {
+            FlowClassMetadata metadata = FlowClassMetadata.forName(className);
+            Object conditionPojo = metadata.newInstance();
+            metadata.init(conditionPojo);
+            result = new LinkedHashMap<String, Object>();
+            for (FlowClassMetadata.ConditionProperty property : metadata.getConditionProperties()) {
+                if (!property.isIncluded(excludeProperties, all)) {
                     continue;
                 }
-                Object v = sourceMethod.invoke(conditionPojo);
+                Object v = property.getValue(conditionPojo);
                 if (v != null) {
-                    result.put(sourceFieldName, v);
+                    result.put(property.getFieldName(), v);
                 }
             }
-
         }
         return result;
     }
 
-
-    // 判断拥有get方法或者is方法的字段
-    private static String getGetANDIsFieldName(Method method) {
-        String methodName = method.getName();
-        // 取得方法的名称，判断方法名称是否以get或者is开头！
-        int prefixLength;
-        if (methodName.startsWith("get")) {
-            prefixLength = 3;
-        } else if (methodName.startsWith("is")) {
-            prefixLength = 2;
-        } else {
-            return null;
-        }
-        String fieldName = methodName.substring(prefixLength);
-        fieldName = Character.toLowerCase(fieldName.charAt(0)) + fieldName.substring(1);
-        return fieldName;
-    }
-
-    private static String getFieldName(Method method, String[] excludeProperties) {
-        String fieldName = getGetANDIsFieldName(method);
-        // 去除class字段
-        if (fieldName == null || "class".equals(fieldName)) {
-            return null;
-        }
-        if (excludeProperties != null) {
-            for (String s : excludeProperties) {
-                if (fieldName.equals(s)) {
-                    return null;
-                }
-            }
-        }
-        return fieldName;
-    }
-
     public static AppModule getAppModule(BusinessModel businessModel) {
         return businessModel.getAppModule();
     }
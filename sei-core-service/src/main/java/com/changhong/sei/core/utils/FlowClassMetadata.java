@@ -0,0 +1,423 @@
+package com.changhong.sei.core.utils;
+
+import com.changhong.sei.annotation.Remark;
+import com.changhong.sei.core.context.ContextUtil;
+import com.changhong.sei.core.dto.flow.IConditionPojo;
+import com.changhong.sei.core.dto.flow.annotaion.BusinessEntityAnnotaion;
+import com.changhong.sei.core.dto.flow.annotaion.ConditionAnnotaion;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 实现功能：
+ * 流程条件/业务实体的类元数据(每个类只解析一次)
+ * 缓存业务实体注解、按rank降序排列的条件属性({@link ConditionAnnotaion})及业务属性({@link Remark})，
+ * 属性取值使用MethodHandle，业务属性的多语言描述按语言环境缓存，超过刷新间隔(与多语言资源的缓存时间一致)后重新获取
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:18
+ */
+public final class FlowClassMetadata {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    /**
+     * 按rank降序(rank相同时保持原有顺序)
+     */
+    private static final Comparator<Property> RANK_DESC = (p1, p2) -> Integer.compare(p2.rank, p1.rank);
+
+    private static final ClassValue<FlowClassMetadata> METADATA = new ClassValue<FlowClassMetadata>() {
+        @Override
+        protected FlowClassMetadata computeValue(Class<?> type) {
+            return new FlowClassMetadata(type);
+        }
+    };
+    /**
+     * 多语言描述刷新间隔(毫秒)
+     */
+    private static volatile long refreshInterval = 120000L;
+
+    private final Class<?> type;
+    private final BusinessEntityAnnotaion businessEntity;
+    private final MethodHandle constructor;
+    private final MethodHandle init;
+    private final MethodHandle customLogic;
+    private final List<ConditionProperty> conditionProperties;
+    private final List<RemarkProperty> remarkProperties;
+    /**
+     * 业务属性的多语言描述(按语言环境)
+     */
+    private final ConcurrentMap<Locale, RemarkMessages> remarkMessages = new ConcurrentHashMap<>();
+
+    private FlowClassMetadata(Class<?> type) {
+        this.type = type;
+        this.businessEntity = type.getAnnotation(BusinessEntityAnnotaion.class);
+        this.constructor = constructor(type);
+        this.init = invoker(type, "init");
+        this.customLogic = invoker(type, "customLogic");
+
+        List<ConditionProperty> conditions = new ArrayList<>();
+        List<RemarkProperty> remarks = new ArrayList<>();
+        // 得到某类的所有公共方法，包括父类
+        for (Method method : type.getMethods()) {
+            ConditionAnnotaion condition = method.getAnnotation(ConditionAnnotaion.class);
+            Remark remark = method.getAnnotation(Remark.class);
+            if ((condition == null && remark == null) || method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+                continue;
+            }
+            MethodHandle getter = getter(method);
+            if (condition != null) {
+                String fieldName = getFieldName(method);
+                if (StringUtils.isNotEmpty(fieldName)) {
+                    conditions.add(new ConditionProperty(fieldName, condition, getter));
+                }
+            }
+            if (remark != null) {
+                remarks.add(new RemarkProperty(remark, getter));
+            }
+        }
+        conditions.sort(RANK_DESC);
+        remarks.sort(RANK_DESC);
+        this.conditionProperties = Collections.unmodifiableList(conditions);
+        this.remarkProperties = Collections.unmodifiableList(remarks);
+    }
+
+    /**
+     * 获取类元数据
+     *
+     * @param className 类名称（全路径）
+     * @return 类元数据
+     * @throws ClassNotFoundException 类找不到异常
+     */
+    public static FlowClassMetadata forName(String className) throws ClassNotFoundException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = FlowClassMetadata.class.getClassLoader();
+        }
+        return of(Class.forName(className, true, classLoader));
+    }
+
+    /**
+     * 获取类元数据
+     *
+     * @param type 类
+     * @return 类元数据
+     */
+    public static FlowClassMetadata of(Class<?> type) {
+        return METADATA.get(type);
+    }
+
+    /**
+     * 设置多语言描述刷新间隔
+     *
+     * @param millis 刷新间隔(毫秒)，小于等于0时不自动刷新
+     */
+    public static void setRefreshInterval(long millis) {
+        refreshInterval = millis;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return 业务实体注解(没有时为null)
+     */
+    public BusinessEntityAnnotaion getBusinessEntity() {
+        return businessEntity;
+    }
+
+    /**
+     * @return 条件属性(按rank降序)
+     */
+    public List<ConditionProperty> getConditionProperties() {
+        return conditionProperties;
+    }
+
+    /**
+     * @return 业务属性(按rank降序)
+     */
+    public List<RemarkProperty> getRemarkProperties() {
+        return remarkProperties;
+    }
+
+    /**
+     * 获取业务属性的多语言描述(与{@link #getRemarkProperties()}顺序一致)
+     *
+     * @param locale 语言环境
+     * @return 多语言描述
+     */
+    public String[] getRemarkMessages(Locale locale) {
+        RemarkMessages messages = remarkMessages.get(locale);
+        if (messages == null || messages.isExpired()) {
+            String[] values = new String[remarkProperties.size()];
+            for (int i = 0; i < values.length; i++) {
+                String key = remarkProperties.get(i).key;
+                values[i] = ContextUtil.getMessage(key, null, locale);
+                if (StringUtils.isEmpty(values[i])) {
+                    throw new RuntimeException("sourceFieldName's Internationalization can not find! key = " + key);
+                }
+            }
+            messages = new RemarkMessages(values);
+            remarkMessages.put(locale, messages);
+        }
+        return messages.values;
+    }
+
+    /**
+     * 创建实例
+     *
+     * @return 实例
+     * @throws InstantiationException    没有无参构造函数
+     * @throws InvocationTargetException 构造函数异常
+     */
+    public Object newInstance() throws InstantiationException, InvocationTargetException {
+        if (constructor == null) {
+            throw new InstantiationException(type.getName());
+        }
+        try {
+            return constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * 调用初始化方法init
+     *
+     * @param target 对象
+     * @throws NoSuchMethodException     方法找不到异常
+     * @throws InvocationTargetException 目标异常
+     */
+    public void init(Object target) throws NoSuchMethodException, InvocationTargetException {
+        if (target instanceof IConditionPojo) {
+            try {
+                ((IConditionPojo) target).init();
+            } catch (RuntimeException e) {
+                throw new InvocationTargetException(e);
+            }
+        } else {
+            invoke(init, "init", target);
+        }
+    }
+
+    /**
+     * 调用额外属性值初始化方法customLogic
+     *
+     * @param target 对象
+     * @throws NoSuchMethodException     方法找不到异常
+     * @throws InvocationTargetException 目标异常
+     */
+    public void customLogic(Object target) throws NoSuchMethodException, InvocationTargetException {
+        if (target instanceof IConditionPojo) {
+            try {
+                ((IConditionPojo) target).customLogic();
+            } catch (RuntimeException e) {
+                throw new InvocationTargetException(e);
+            }
+        } else {
+            invoke(customLogic, "customLogic", target);
+        }
+    }
+
+    private void invoke(MethodHandle handle, String name, Object target) throws NoSuchMethodException, InvocationTargetException {
+        if (handle == null) {
+            throw new NoSuchMethodException(type.getName() + "." + name + "()");
+        }
+        try {
+            handle.invokeExact(target);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private static MethodHandle constructor(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle invoker(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            return accessible(method).asType(INVOKER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle getter(Method method) {
+        try {
+            return accessible(method).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问方法：" + method, e);
+        }
+    }
+
+    /**
+     * 公共方法所在的类可能不是公共类，设置可访问后再转换
+     */
+    private static MethodHandle accessible(Method method) throws IllegalAccessException {
+        try {
+            method.setAccessible(true);
+        } catch (RuntimeException ignored) {
+        }
+        return LOOKUP.unreflect(method);
+    }
+
+    /**
+     * 判断拥有get方法或者is方法的字段
+     */
+    private static String getFieldName(Method method) {
+        String methodName = method.getName();
+        int prefixLength;
+        if (methodName.startsWith("get")) {
+            prefixLength = 3;
+        } else if (methodName.startsWith("is")) {
+            prefixLength = 2;
+        } else {
+            return null;
+        }
+        if (methodName.length() == prefixLength) {
+            return null;
+        }
+        String fieldName = Character.toLowerCase(methodName.charAt(prefixLength)) + methodName.substring(prefixLength + 1);
+        // 去除class字段
+        return "class".equals(fieldName) ? null : fieldName;
+    }
+
+    /**
+     * 某个语言环境的业务属性描述
+     */
+    private static final class RemarkMessages {
+        private final String[] values;
+        private final long createdAt = System.currentTimeMillis();
+
+        private RemarkMessages(String[] values) {
+            this.values = values;
+        }
+
+        private boolean isExpired() {
+            long interval = refreshInterval;
+            return interval > 0 && System.currentTimeMillis() - createdAt > interval;
+        }
+    }
+
+    /**
+     * 属性
+     */
+    public abstract static class Property {
+        private final int rank;
+        private final MethodHandle getter;
+
+        private Property(int rank, MethodHandle getter) {
+            this.rank = rank;
+            this.getter = getter;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+
+        /**
+         * 获取属性值
+         *
+         * @param target 对象
+         * @return 属性值
+         * @throws InvocationTargetException 取值异常
+         */
+        public Object getValue(Object target) throws InvocationTargetException {
+            try {
+                return getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+
+    /**
+     * 条件属性
+     */
+    public static final class ConditionProperty extends Property {
+        private final String fieldName;
+        private final String name;
+        private final boolean canSee;
+
+        private ConditionProperty(String fieldName, ConditionAnnotaion annotation, MethodHandle getter) {
+            super(annotation.rank(), getter);
+            this.fieldName = fieldName;
+            this.name = annotation.name();
+            this.canSee = annotation.canSee();
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCanSee() {
+            return canSee;
+        }
+
+        /**
+         * 是否包含在结果中
+         *
+         * @param excludeProperties 需要排除的字段
+         * @param all               是否包含不可见的属性
+         * @return 布尔值
+         */
+        public boolean isIncluded(String[] excludeProperties, Boolean all) {
+            if (!canSee && !Boolean.TRUE.equals(all)) {
+                return false;
+            }
+            if (excludeProperties != null) {
+                for (String s : excludeProperties) {
+                    if (fieldName.equals(s)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 业务属性
+     */
+    public static final class RemarkProperty extends Property {
+        private final String key;
+
+        private RemarkProperty(Remark annotation, MethodHandle getter) {
+            super(annotation.rank(), getter);
+            this.key = annotation.value();
+        }
+
+        /**
+         * @return 多语言key
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+}
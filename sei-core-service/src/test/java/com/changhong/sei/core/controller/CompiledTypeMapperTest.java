@@ -0,0 +1,264 @@
+package com.changhong.sei.core.controller;
+
+import com.changhong.sei.core.dto.BaseEntityDto;
+import com.changhong.sei.core.entity.BaseEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 15:20
+ */
+class CompiledTypeMapperTest {
+
+    @Test
+    void convert() {
+        DemoController controller = new DemoController();
+        assertNotNull(CompiledTypeMapper.compile(BaseController.dtoModelMapper, DemoEntity.class, DemoDto.class));
+        assertNotNull(CompiledTypeMapper.compile(BaseController.entityModelMapper, DemoDto.class, DemoEntity.class));
+
+        DemoEntity entity = newEntity(1);
+        DemoDto expected = BaseController.dtoModelMapper.map(entity, DemoDto.class);
+        DemoDto dto = controller.convertToDto(entity);
+        assertEquals(expected.getId(), dto.getId());
+        assertEquals(expected.getCode(), dto.getCode());
+        assertEquals(expected.getName(), dto.getName());
+        assertEquals(expected.getRank(), dto.getRank());
+        assertEquals(expected.isFrozen(), dto.isFrozen());
+        assertEquals(expected.getAmount(), dto.getAmount());
+        assertEquals(expected.getCreatedDate(), dto.getCreatedDate());
+        assertEquals(expected.getRemark(), dto.getRemark());
+
+        DemoEntity back = controller.convertToEntity(dto);
+        assertEquals(entity.getId(), back.getId());
+        assertEquals(entity.getCode(), back.getCode());
+        assertEquals(entity.getRank(), back.getRank());
+        assertEquals(entity.getAmount(), back.getAmount());
+    }
+
+    @Test
+    void customConverterFallback() {
+        CustomController controller = new CustomController();
+        assertNull(CompiledTypeMapper.compile(BaseController.dtoModelMapper, CustomEntity.class, CustomDto.class));
+
+        CustomEntity entity = new CustomEntity();
+        entity.setId("1");
+        entity.setCode("code");
+        assertEquals("CODE", controller.convertToDto(entity).getCode());
+    }
+
+    /**
+     * 批量转换与ModelMapper逐条转换结果一致
+     */
+    @Test
+    void convertList() {
+        DemoController controller = new DemoController();
+        List<DemoEntity> entities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entities.add(newEntity(i));
+        }
+        List<DemoDto> dtos = controller.convertToDtos(entities);
+        assertEquals(entities.size(), dtos.size());
+        for (int i = 0; i < entities.size(); i++) {
+            DemoDto expected = BaseController.dtoModelMapper.map(entities.get(i), DemoDto.class);
+            assertEquals(expected.getId(), dtos.get(i).getId());
+            assertEquals(expected.getCode(), dtos.get(i).getCode());
+            assertEquals(expected.isFrozen(), dtos.get(i).isFrozen());
+            assertEquals(expected.getAmount(), dtos.get(i).getAmount());
+        }
+    }
+
+    private static DemoEntity newEntity(int i) {
+        DemoEntity entity = new DemoEntity();
+        entity.setId(String.valueOf(i));
+        entity.setCode("code" + i);
+        entity.setName("name" + i);
+        entity.setRank(i);
+        entity.setFrozen(i % 2 == 0);
+        entity.setAmount(BigDecimal.valueOf(i));
+        entity.setCreatedDate(new Date());
+        return entity;
+    }
+
+    static class DemoController extends BaseController<DemoEntity, DemoDto> {
+    }
+
+    static class CustomController extends BaseController<CustomEntity, CustomDto> {
+        @Override
+        protected void customConvertToDtoMapper() {
+            dtoModelMapper.createTypeMap(CustomEntity.class, CustomDto.class)
+                    .setPostConverter(context -> {
+                        context.getDestination().setCode(context.getSource().getCode().toUpperCase());
+                        return context.getDestination();
+                    });
+        }
+    }
+
+    public static class DemoEntity extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+        private String code;
+        private String name;
+        private Integer rank;
+        private boolean frozen;
+        private BigDecimal amount;
+        private Date createdDate;
+        private String remark;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getRank() {
+            return rank;
+        }
+
+        public void setRank(Integer rank) {
+            this.rank = rank;
+        }
+
+        public boolean isFrozen() {
+            return frozen;
+        }
+
+        public void setFrozen(boolean frozen) {
+            this.frozen = frozen;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Date getCreatedDate() {
+            return createdDate;
+        }
+
+        public void setCreatedDate(Date createdDate) {
+            this.createdDate = createdDate;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+    }
+
+    public static class DemoDto extends BaseEntityDto {
+        private static final long serialVersionUID = 1L;
+        private String code;
+        private String name;
+        private Integer rank;
+        private boolean frozen;
+        private BigDecimal amount;
+        private Date createdDate;
+        private String remark = "default";
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getRank() {
+            return rank;
+        }
+
+        public void setRank(Integer rank) {
+            this.rank = rank;
+        }
+
+        public boolean isFrozen() {
+            return frozen;
+        }
+
+        public void setFrozen(boolean frozen) {
+            this.frozen = frozen;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Date getCreatedDate() {
+            return createdDate;
+        }
+
+        public void setCreatedDate(Date createdDate) {
+            this.createdDate = createdDate;
+        }
+
+        public String getRemark() {
+            return remark;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+    }
+
+    public static class CustomEntity extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+        private String code;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+    }
+
+    public static class CustomDto extends BaseEntityDto {
+        private static final long serialVersionUID = 1L;
+        private String code;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+    }
+}
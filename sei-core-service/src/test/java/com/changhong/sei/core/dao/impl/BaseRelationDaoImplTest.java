@@ -0,0 +1,267 @@
+package com.changhong.sei.core.dao.impl;
+
+import com.changhong.sei.core.dto.IRank;
+import com.changhong.sei.core.entity.BaseEntity;
+import com.changhong.sei.core.entity.RelationEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 分配关系查询的SQL语句数不随关系数量增长(H2内存数据库)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 10:20
+ */
+class BaseRelationDaoImplTest {
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static EntityManager entityManager;
+    private static TransactionTemplate transactionTemplate;
+    private static Statistics statistics;
+    private static BaseRelationDaoImpl<DemoRelation, DemoParent, DemoChild> dao;
+
+    @BeforeAll
+    static void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:relation;DB_CLOSE_DELAY=-1", "sa", "");
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        properties.setProperty("hibernate.generate_statistics", "true");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(BaseRelationDaoImplTest.class.getPackage().getName());
+        factoryBean.setJpaProperties(properties);
+        factoryBean.afterPropertiesSet();
+
+        EntityManagerFactory factory = factoryBean.getObject();
+        statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(factory));
+        dao = new BaseRelationDaoImpl<>(DemoRelation.class, entityManager);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factoryBean.destroy();
+    }
+
+    @Test
+    void getChildrenFromParentId() {
+        for (int size : new int[]{5, 50}) {
+            insert(2, size);
+            long statements = countStatements(() -> {
+                List<DemoChild> children = dao.getChildrenFromParentId("p0");
+                assertEquals(size, children.size());
+                // 按rank倒序分配，查询结果按rank排序
+                for (int i = 0; i < size; i++) {
+                    assertEquals("child" + (size - 1 - i), children.get(i).getName());
+                }
+            });
+            assertEquals(1, statements, "关系数: " + size);
+        }
+    }
+
+    @Test
+    void getChildrenFromParentIds() {
+        for (int size : new int[]{5, 50}) {
+            insert(3, size);
+            long statements = countStatements(() -> {
+                List<DemoChild> children = dao.getChildrenFromParentIds(Arrays.asList("p0", "p1", "p2"));
+                // 去重
+                assertEquals(size, children.size());
+                children.forEach(child -> assertNotNull(child.getName()));
+            });
+            assertEquals(1, statements, "关系数: " + size);
+        }
+    }
+
+    @Test
+    void getParentsFromChildIds() {
+        for (int size : new int[]{5, 50}) {
+            insert(size, 2);
+            long statements = countStatements(() -> {
+                assertEquals(size, dao.getParentsFromChildId("c0").size());
+                List<DemoParent> parents = dao.getParentsFromChildIds(Arrays.asList("c0", "c1"));
+                assertEquals(size, parents.size());
+                parents.forEach(parent -> assertNotNull(parent.getName()));
+            });
+            assertEquals(2, statements, "关系数: " + size);
+        }
+    }
+
+    /**
+     * Id超过一个批次时，合并的结果仍按rank排序
+     */
+    @Test
+    void getChildrenFromParentIdsAcrossBatches() {
+        int size = 1100;
+        List<String> parentIds = new ArrayList<>();
+        transactionTemplate.execute(status -> {
+            entityManager.createQuery("delete from DemoRelation").executeUpdate();
+            entityManager.createQuery("delete from DemoParent").executeUpdate();
+            entityManager.createQuery("delete from DemoChild").executeUpdate();
+            // 第i个父实体只分配第i个子实体，rank倒序：第二批次的rank均小于第一批次
+            for (int i = 0; i < size; i++) {
+                DemoParent parent = new DemoParent();
+                parent.setId("p" + i);
+                parent.setName("parent" + i);
+                entityManager.persist(parent);
+                DemoChild child = new DemoChild();
+                child.setId("c" + i);
+                child.setName("child" + i);
+                entityManager.persist(child);
+                DemoRelation relation = new DemoRelation();
+                relation.setId(parent.getId() + "-" + i);
+                relation.setParent(parent);
+                relation.setChild(child);
+                relation.setRank(size - i);
+                entityManager.persist(relation);
+                parentIds.add(parent.getId());
+            }
+            return null;
+        });
+        long statements = countStatements(() -> {
+            List<DemoChild> children = dao.getChildrenFromParentIds(parentIds);
+            assertEquals(size, children.size());
+            for (int i = 0; i < size; i++) {
+                assertEquals("child" + (size - 1 - i), children.get(i).getName());
+            }
+        });
+        assertEquals(2, statements);
+    }
+
+    /**
+     * 统计执行过程中(含访问关联实体属性)的SQL语句数
+     */
+    private static long countStatements(Runnable runnable) {
+        return transactionTemplate.execute(status -> {
+            statistics.clear();
+            runnable.run();
+            return statistics.getPrepareStatementCount();
+        });
+    }
+
+    /**
+     * 每个父实体分配所有子实体
+     */
+    private static void insert(int parents, int children) {
+        transactionTemplate.execute(status -> {
+            entityManager.createQuery("delete from DemoRelation").executeUpdate();
+            entityManager.createQuery("delete from DemoParent").executeUpdate();
+            entityManager.createQuery("delete from DemoChild").executeUpdate();
+            List<DemoChild> childList = new ArrayList<>();
+            for (int i = 0; i < children; i++) {
+                DemoChild child = new DemoChild();
+                child.setId("c" + i);
+                child.setName("child" + i);
+                entityManager.persist(child);
+                childList.add(child);
+            }
+            for (int i = 0; i < parents; i++) {
+                DemoParent parent = new DemoParent();
+                parent.setId("p" + i);
+                parent.setName("parent" + i);
+                entityManager.persist(parent);
+                for (int j = 0; j < children; j++) {
+                    DemoRelation relation = new DemoRelation();
+                    relation.setId(parent.getId() + "-" + j);
+                    relation.setParent(parent);
+                    relation.setChild(childList.get(j));
+                    relation.setRank(children - j);
+                    entityManager.persist(relation);
+                }
+            }
+            return null;
+        });
+    }
+
+    @Entity
+    @Table(name = "demo_parent")
+    public static class DemoParent extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity
+    @Table(name = "demo_child")
+    public static class DemoChild extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity
+    @Table(name = "demo_relation")
+    public static class DemoRelation extends BaseEntity implements RelationEntity<DemoParent, DemoChild>, IRank {
+        private static final long serialVersionUID = 1L;
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "parent_id")
+        private DemoParent parent;
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "child_id")
+        private DemoChild child;
+        @Column(name = "rank_no")
+        private Integer rank;
+
+        @Override
+        public DemoParent getParent() {
+            return parent;
+        }
+
+        @Override
+        public void setParent(DemoParent parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public DemoChild getChild() {
+            return child;
+        }
+
+        @Override
+        public void setChild(DemoChild child) {
+            this.child = child;
+        }
+
+        @Override
+        public Integer getRank() {
+            return rank;
+        }
+
+        public void setRank(Integer rank) {
+            this.rank = rank;
+        }
+    }
+}
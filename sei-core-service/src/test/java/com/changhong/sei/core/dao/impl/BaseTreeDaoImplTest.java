@@ -0,0 +1,557 @@
+package com.changhong.sei.core.dao.impl;
+
+import com.changhong.sei.core.context.ApplicationContextHolder;
+import com.changhong.sei.core.dao.BaseTreeDao;
+import com.changhong.sei.core.dto.TreeEntity;
+import com.changhong.sei.core.entity.BaseEntity;
+import com.changhong.sei.core.entity.ClosureTable;
+import com.changhong.sei.core.entity.ISoftDelete;
+import com.changhong.sei.core.entity.TreeClosure;
+import com.changhong.sei.core.service.BaseTreeService;
+import com.changhong.sei.core.service.bo.OperateResult;
+import com.changhong.sei.util.thread.ThreadLocalHolder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.*;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 树形实体闭包表的维护及查询(H2内存数据库)
+ * 设置环境变量SEI_BENCHMARK=true时执行10万节点的闭包表与代码路径查询对比
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 14:20
+ */
+class BaseTreeDaoImplTest {
+    private static final Logger LOG = LoggerFactory.getLogger(BaseTreeDaoImplTest.class);
+
+    private static GenericApplicationContext applicationContext;
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static EntityManager entityManager;
+    private static TransactionTemplate transactionTemplate;
+    private static Statistics statistics;
+    private static BaseTreeDaoImpl<ClosureNode> closureDao;
+    private static BaseTreeDaoImpl<PathNode> pathDao;
+    private static BaseTreeDaoImpl<SoftNode> softDao;
+
+    @BeforeAll
+    static void setUp() {
+        // 操作结果的多语言
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean("messageSource", StaticMessageSource.class, () -> messageSource);
+        applicationContext.refresh();
+        ApplicationContextHolder contextHolder = new ApplicationContextHolder();
+        contextHolder.setEnvironment(new StandardEnvironment());
+        contextHolder.setApplicationContext(applicationContext);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:tree;DB_CLOSE_DELAY=-1", "sa", "");
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        properties.setProperty("hibernate.generate_statistics", "true");
+        properties.setProperty("hibernate.jdbc.batch_size", "500");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(BaseTreeDaoImplTest.class.getPackage().getName());
+        factoryBean.setJpaProperties(properties);
+        factoryBean.afterPropertiesSet();
+
+        EntityManagerFactory factory = factoryBean.getObject();
+        statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(factory));
+        closureDao = new BaseTreeDaoImpl<>(ClosureNode.class, entityManager);
+        pathDao = new BaseTreeDaoImpl<>(PathNode.class, entityManager);
+        softDao = new BaseTreeDaoImpl<>(SoftNode.class, entityManager);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factoryBean.destroy();
+        applicationContext.close();
+    }
+
+    @BeforeEach
+    void begin() {
+        ThreadLocalHolder.begin();
+    }
+
+    @AfterEach
+    void end() {
+        ThreadLocalHolder.end();
+    }
+
+    @Test
+    void maintainOnSaveMoveDelete() {
+        clear();
+        // r -> a -> b -> c, r -> d
+        save("r", null);
+        save("a", "r");
+        save("b", "a");
+        save("c", "b");
+        save("d", "r");
+
+        execute(() -> {
+            assertEquals(Arrays.asList("a", "b", "c"), ids(closureDao.getChildrenNodes("a")));
+            assertEquals(Arrays.asList("b", "c"), ids(closureDao.getChildrenNodesNoneOwn("a")));
+            assertEquals(Arrays.asList("a", "d"), ids(closureDao.getChildrenNodes("r", 1, false)));
+            assertEquals(Arrays.asList("r", "a", "b", "d"), ids(closureDao.getChildrenNodes("r", 2, true)));
+            assertEquals(Arrays.asList("b", "a", "r"), ids(closureDao.getParentNodes("c", false)));
+            assertEquals(Arrays.asList("c", "b", "a", "r"), ids(closureDao.getParentNodes("c", true)));
+            assertTrue(closureDao.getChildrenNodes("x").isEmpty());
+            return null;
+        });
+
+        // a移动到d下
+        move("a", "d");
+        execute(() -> {
+            assertEquals(Arrays.asList("b", "a", "d", "r"), ids(closureDao.getParentNodes("c", false)));
+            assertEquals(Arrays.asList("d", "a", "b", "c"), ids(closureDao.getChildrenNodes("d")));
+            assertEquals(Collections.singletonList("d"), ids(closureDao.getChildrenNodes("r", 1, false)));
+            assertEquals(Arrays.asList("a", "d"), ids(closureDao.getChildrenNodes("r", 2, false)));
+            return null;
+        });
+        // 不能移动到子节点下(Dao层兜底，业务逻辑层移动前检查)
+        assertThrows(IllegalArgumentException.class, () -> move("a", "c"));
+
+        // 删除叶子节点
+        execute(() -> {
+            closureDao.delete(closureDao.findOne("c"));
+            return null;
+        });
+        execute(() -> {
+            assertEquals(Arrays.asList("a", "b"), ids(closureDao.getChildrenNodes("a")));
+            assertEquals(0L, countClosure("c"));
+            return null;
+        });
+    }
+
+    /**
+     * 业务逻辑层移动节点：不能移动到本节点的子节点下(闭包表及代码路径)
+     */
+    @Test
+    void serviceMoveIntoOwnSubtree() {
+        clear();
+        // r -> a -> b -> c, r -> d
+        for (String[] node : new String[][]{{"r", null}, {"a", "r"}, {"b", "a"}, {"c", "b"}, {"d", "r"}}) {
+            save(closureDao, ClosureNode::new, node[0], node[1]);
+            save(pathDao, PathNode::new, node[0], node[1]);
+        }
+        TreeService<ClosureNode> closureService = new TreeService<>(closureDao);
+        TreeService<PathNode> pathService = new TreeService<>(pathDao);
+
+        OperateResult result = execute(() -> closureService.move("a", "c"));
+        assertTrue(result.notSuccessful());
+        assertEquals("core_service_00040", result.getMessage());
+        result = execute(() -> pathService.move("a", "c"));
+        assertTrue(result.notSuccessful());
+        assertEquals("core_service_00040", result.getMessage());
+        // 节点关系未变更
+        assertEquals(Arrays.asList("b", "a", "r"), execute(() -> ids(closureDao.getParentNodes("c", false))));
+        assertEquals("r", execute(() -> pathDao.findOne("a")).getParentId());
+
+        assertTrue(execute(() -> closureService.move("b", "d")).successful());
+        assertTrue(execute(() -> pathService.move("b", "d")).successful());
+        assertEquals(Arrays.asList("b", "d", "r"), execute(() -> ids(closureDao.getParentNodes("c", false))));
+        assertEquals(Arrays.asList("b", "d", "r"), execute(() -> ids(pathDao.getParentNodes("c", false))));
+        assertEquals(TreeEntity.CODE_DELIMITER + "r" + TreeEntity.CODE_DELIMITER + "d" + TreeEntity.CODE_DELIMITER + "b"
+                + TreeEntity.CODE_DELIMITER + "c", execute(() -> pathDao.findOne("c")).getCodePath());
+    }
+
+    /**
+     * 软删除节点保留闭包表关系，子树查询时过滤
+     */
+    @Test
+    void softDelete() {
+        clear();
+        // r -> a -> b
+        save(softDao, SoftNode::new, "r", null);
+        save(softDao, SoftNode::new, "a", "r");
+        save(softDao, SoftNode::new, "b", "a");
+        long rows = execute(() -> countClosure("tree_soft_node_closure", null));
+
+        execute(() -> {
+            softDao.delete(softDao.findOne("a"));
+            return null;
+        });
+        execute(() -> {
+            assertNotEquals(Long.valueOf(0), entityManager.find(SoftNode.class, "a").getDeleted());
+            // 闭包表关系保留
+            assertEquals(rows, countClosure("tree_soft_node_closure", null));
+            assertEquals(3L, countClosure("tree_soft_node_closure", "a"));
+            // 查询时过滤已删除节点
+            assertEquals(Arrays.asList("r", "b"), ids(softDao.getChildrenNodes("r")));
+            assertEquals(Collections.singletonList("b"), ids(softDao.getChildrenNodesNoneOwn("r")));
+            assertTrue(softDao.getChildrenNodes("a").isEmpty());
+            return null;
+        });
+    }
+
+    @Test
+    void rebuildClosure() {
+        clear();
+        save("r", null);
+        save("a", "r");
+        save("b", "a");
+        save("c", "b");
+        save("d", "r");
+        long rows = execute(() -> countClosure(null));
+        assertEquals(5 + 4 + 2 + 1, rows);
+        assertEquals(rows, execute(() -> closureDao.rebuildClosure()).longValue());
+        assertEquals(Arrays.asList("c", "b", "a", "r"), execute(() -> ids(closureDao.getParentNodes("c", true))));
+        assertEquals(Arrays.asList("r", "a", "b", "c", "d"), execute(() -> ids(closureDao.getChildrenNodes("r"))));
+    }
+
+    @Test
+    void singleStatementQueries() {
+        clear();
+        save("r", null);
+        save("a", "r");
+        save("b", "a");
+        save("c", "b");
+        assertEquals(1, countStatements(() -> closureDao.getParentNodes("c", true)));
+        assertEquals(1, countStatements(() -> closureDao.getChildrenNodes("a")));
+        assertEquals(1, countStatements(() -> closureDao.getChildrenNodes("r", 2, false)));
+    }
+
+    /**
+     * 10万节点(每个节点10个子节点)的闭包表与代码路径查询对比
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "SEI_BENCHMARK", matches = "true")
+    void benchmark() {
+        int size = 100_000;
+        clear();
+        long start = System.currentTimeMillis();
+        insertTree(size, ClosureNode::new);
+        insertTree(size, PathNode::new);
+        int rows = execute(() -> closureDao.rebuildClosure());
+        LOG.info("插入{}节点, 闭包表{}行, 耗时{}ms", size, rows, System.currentTimeMillis() - start);
+
+        // 第2层节点(约1111个子孙)、第1层节点(约11111个子孙)及叶子节点
+        List<String> subtrees = Arrays.asList("N11", "N25", "N3", "N7");
+        List<String> leaves = Arrays.asList("N99999", "N54321", "N12345", "N77777");
+        int rounds = 20;
+        for (int i = 0; i < 2; i++) {
+            // 第1轮预热
+            long path = time(rounds, () -> subtrees.forEach(id -> pathDao.getChildrenNodes(id)));
+            long closure = time(rounds, () -> subtrees.forEach(id -> closureDao.getChildrenNodes(id)));
+            LOG.info("子树查询: codePath {}ms, closure {}ms", path, closure);
+            path = time(rounds, () -> subtrees.forEach(id -> pathDao.getChildrenNodes(id, 2, true)));
+            closure = time(rounds, () -> subtrees.forEach(id -> closureDao.getChildrenNodes(id, 2, true)));
+            LOG.info("限定深度查询: codePath {}ms, closure {}ms", path, closure);
+            path = time(rounds, () -> leaves.forEach(id -> pathDao.getParentNodes(id, true)));
+            closure = time(rounds, () -> leaves.forEach(id -> closureDao.getParentNodes(id, true)));
+            LOG.info("祖先查询: 逐级 {}ms, closure {}ms", path, closure);
+        }
+
+        // 两种方式结果一致
+        execute(() -> {
+            for (String id : subtrees) {
+                assertEquals(new HashSet<>(ids(pathDao.getChildrenNodes(id))), new HashSet<>(ids(closureDao.getChildrenNodes(id))));
+                assertEquals(new HashSet<>(ids(pathDao.getChildrenNodes(id, 2, false))), new HashSet<>(ids(closureDao.getChildrenNodes(id, 2, false))));
+            }
+            for (String id : leaves) {
+                assertEquals(ids(pathDao.getParentNodes(id, true)), ids(closureDao.getParentNodes(id, true)));
+            }
+            return null;
+        });
+    }
+
+    private static <X> X execute(Supplier<X> supplier) {
+        return transactionTemplate.execute(status -> supplier.get());
+    }
+
+    private static long time(int rounds, Runnable runnable) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < rounds; i++) {
+            execute(() -> {
+                runnable.run();
+                entityManager.clear();
+                return null;
+            });
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private static long countStatements(Runnable runnable) {
+        return execute(() -> {
+            statistics.clear();
+            runnable.run();
+            return statistics.getPrepareStatementCount();
+        });
+    }
+
+    private static long countClosure(String nodeId) {
+        return countClosure("tree_node_closure", nodeId);
+    }
+
+    private static long countClosure(String table, String nodeId) {
+        String sql = "select count(*) from " + table;
+        if (Objects.nonNull(nodeId)) {
+            sql += " where ancestor_id = '" + nodeId + "' or descendant_id = '" + nodeId + "'";
+        }
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    private static List<String> ids(List<? extends BaseEntity> nodes) {
+        return nodes.stream().map(BaseEntity::getId).collect(Collectors.toList());
+    }
+
+    private static void clear() {
+        execute(() -> {
+            entityManager.createNativeQuery("delete from tree_node_closure").executeUpdate();
+            entityManager.createNativeQuery("delete from tree_soft_node_closure").executeUpdate();
+            entityManager.createQuery("delete from ClosureNode").executeUpdate();
+            entityManager.createQuery("delete from PathNode").executeUpdate();
+            entityManager.createQuery("delete from SoftNode").executeUpdate();
+            return null;
+        });
+    }
+
+    /**
+     * 模拟BaseTreeService设置层级及代码路径后保存
+     */
+    private static void save(String id, String parentId) {
+        save(closureDao, ClosureNode::new, id, parentId);
+    }
+
+    private static <N extends TreeNode<N>> void save(BaseTreeDaoImpl<N> dao, Supplier<N> supplier, String id, String parentId) {
+        execute(() -> {
+            N node = supplier.get();
+            node.setCode(id);
+            node.setName(id);
+            node.setRank(0);
+            node.setParentId(parentId);
+            if (Objects.isNull(parentId)) {
+                node.setNodeLevel(0);
+                node.setCodePath(TreeEntity.CODE_DELIMITER + id);
+            } else {
+                N parent = dao.findOne(parentId);
+                node.setNodeLevel(parent.getNodeLevel() + 1);
+                node.setCodePath(parent.getCodePath() + TreeEntity.CODE_DELIMITER + id);
+            }
+            node.setNamePath(node.getCodePath());
+            node.setId(id);
+            entityManager.persist(node);
+            return null;
+        });
+        // 通过Dao保存以维护闭包表
+        execute(() -> dao.save(dao.findOne(id)));
+    }
+
+    private static void move(String id, String parentId) {
+        execute(() -> {
+            ClosureNode node = closureDao.findOne(id);
+            node.setParentId(parentId);
+            return closureDao.save(node);
+        });
+    }
+
+    private static <N extends TreeNode<N>> void insertTree(int size, Supplier<N> supplier) {
+        execute(() -> {
+            List<String> codePaths = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                N node = supplier.get();
+                node.setId("N" + i);
+                node.setCode("N" + i);
+                node.setName("N" + i);
+                node.setRank(0);
+                if (i == 0) {
+                    node.setNodeLevel(0);
+                    node.setCodePath(TreeEntity.CODE_DELIMITER + node.getCode());
+                } else {
+                    int parent = (i - 1) / 10;
+                    node.setParentId("N" + parent);
+                    node.setNodeLevel(codePaths.get(parent).split("\\|").length - 1);
+                    node.setCodePath(codePaths.get(parent) + TreeEntity.CODE_DELIMITER + node.getCode());
+                }
+                node.setNamePath(node.getCodePath());
+                codePaths.add(node.getCodePath());
+                entityManager.persist(node);
+                if (i % 500 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            return null;
+        });
+    }
+
+    @MappedSuperclass
+    public abstract static class TreeNode<N extends TreeNode<N>> extends BaseEntity implements TreeEntity<N> {
+        private static final long serialVersionUID = 1L;
+        private String code;
+        private String name;
+        @Column(name = "node_level")
+        private Integer nodeLevel;
+        @Column(name = "code_path")
+        private String codePath;
+        @Column(name = "name_path")
+        private String namePath;
+        @Column(name = "parent_id", length = 36)
+        private String parentId;
+        @Column(name = "rank_no")
+        private Integer rank;
+        @Transient
+        private List<N> children;
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Integer getNodeLevel() {
+            return nodeLevel;
+        }
+
+        @Override
+        public void setNodeLevel(Integer nodeLevel) {
+            this.nodeLevel = nodeLevel;
+        }
+
+        @Override
+        public String getCodePath() {
+            return codePath;
+        }
+
+        @Override
+        public void setCodePath(String codePath) {
+            this.codePath = codePath;
+        }
+
+        @Override
+        public String getNamePath() {
+            return namePath;
+        }
+
+        @Override
+        public void setNamePath(String namePath) {
+            this.namePath = namePath;
+        }
+
+        @Override
+        public String getParentId() {
+            return parentId;
+        }
+
+        @Override
+        public void setParentId(String parentId) {
+            this.parentId = parentId;
+        }
+
+        @Override
+        public Integer getRank() {
+            return rank;
+        }
+
+        public void setRank(Integer rank) {
+            this.rank = rank;
+        }
+
+        @Override
+        public List<N> getChildren() {
+            return children;
+        }
+
+        @Override
+        public void setChildren(List<N> children) {
+            this.children = children;
+        }
+    }
+
+    @Entity
+    @Table(name = "tree_closure_node")
+    @ClosureTable(TreeNodeClosure.class)
+    public static class ClosureNode extends TreeNode<ClosureNode> {
+        private static final long serialVersionUID = 1L;
+    }
+
+    @Entity
+    @Table(name = "tree_node_closure", indexes = @Index(columnList = "descendant_id,node_depth"))
+    public static class TreeNodeClosure extends TreeClosure {
+        private static final long serialVersionUID = 1L;
+    }
+
+    @Entity
+    @Table(name = "tree_path_node", indexes = {@Index(columnList = "code_path"), @Index(columnList = "parent_id")})
+    public static class PathNode extends TreeNode<PathNode> {
+        private static final long serialVersionUID = 1L;
+    }
+
+    @Entity
+    @Table(name = "tree_soft_node")
+    @ClosureTable(SoftNodeClosure.class)
+    public static class SoftNode extends TreeNode<SoftNode> implements ISoftDelete {
+        private static final long serialVersionUID = 1L;
+        private Long deleted = 0L;
+
+        @Override
+        public Long getDeleted() {
+            return deleted;
+        }
+
+        @Override
+        public void setDeleted(Long deleted) {
+            this.deleted = deleted;
+        }
+    }
+
+    @Entity
+    @Table(name = "tree_soft_node_closure")
+    public static class SoftNodeClosure extends TreeClosure {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static class TreeService<N extends TreeNode<N>> extends BaseTreeService<N> {
+        private final BaseTreeDao<N> dao;
+
+        private TreeService(BaseTreeDao<N> dao) {
+            this.dao = dao;
+        }
+
+        @Override
+        protected BaseTreeDao<N> getDao() {
+            return dao;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.changhong.sei.core.dao.jpa.impl;
+
+import com.changhong.sei.core.dto.serach.Search;
+import com.changhong.sei.core.dto.serach.SearchFilter;
+import com.changhong.sei.core.dto.serach.SearchOrder;
+import com.changhong.sei.core.entity.BaseEntity;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Table;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 流式查询(H2内存数据库)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 15:30
+ */
+class BaseDaoImplStreamTest {
+    private static final int FETCH_SIZE = 200;
+
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static EntityManager entityManager;
+    private static TransactionTemplate transactionTemplate;
+    private static BaseDaoImpl<StreamDemo, String> dao;
+
+    @BeforeAll
+    static void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:stream;DB_CLOSE_DELAY=-1", "sa", "");
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        properties.setProperty("hibernate.jdbc.batch_size", "500");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(BaseDaoImplStreamTest.class.getPackage().getName());
+        factoryBean.setJpaProperties(properties);
+        factoryBean.afterPropertiesSet();
+
+        EntityManagerFactory factory = factoryBean.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(factory));
+        dao = new BaseDaoImpl<>(StreamDemo.class, entityManager);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factoryBean.destroy();
+    }
+
+    /**
+     * 行数增加时，持久化上下文中的实体数不随之增长，已处理的实体变为游离状态
+     */
+    @Test
+    void findByFiltersKeepsMemoryFlat() {
+        int previousMaxManaged = -1;
+        for (int rows : new int[]{2000, 8000}) {
+            insert(rows);
+            AtomicInteger count = new AtomicInteger();
+            AtomicInteger maxManaged = new AtomicInteger();
+            Object[] first = new Object[1];
+            boolean[] detached = {false};
+            int remaining = transactionTemplate.execute(status -> {
+                Search search = new Search();
+                search.addSortOrder(SearchOrder.asc("code"));
+                dao.findByFilters(search, FETCH_SIZE, entity -> {
+                    int index = count.getAndIncrement();
+                    assertEquals(code(index), entity.getCode());
+                    maxManaged.accumulateAndGet(managedCount(), Math::max);
+                    if (index == 0) {
+                        first[0] = entity;
+                    } else if (index == FETCH_SIZE * 3) {
+                        detached[0] = !entityManager.contains(first[0]);
+                    }
+                });
+                return managedCount();
+            });
+            assertEquals(rows, count.get());
+            assertTrue(maxManaged.get() <= FETCH_SIZE, "持久化上下文中的实体数: " + maxManaged.get());
+            assertTrue(remaining <= FETCH_SIZE, "流式查询结束后持久化上下文中的实体数: " + remaining);
+            assertTrue(detached[0], "已处理的实体未变为游离状态");
+            if (previousMaxManaged >= 0) {
+                assertEquals(previousMaxManaged, maxManaged.get());
+            }
+            previousMaxManaged = maxManaged.get();
+        }
+    }
+
+    /**
+     * 在调用方的写事务中流式查询，不丢弃调用方未刷新的修改，也不使其管理的实体变为游离状态
+     */
+    @Test
+    void findByFiltersKeepsCallerChanges() {
+        insert(1000);
+        transactionTemplate.execute(status -> {
+            StreamDemo changed = entityManager.find(StreamDemo.class, "10");
+            changed.setPayload("changed");
+            StreamDemo added = new StreamDemo();
+            added.setId("added");
+            added.setCode(code(5000));
+            entityManager.persist(added);
+
+            AtomicInteger count = new AtomicInteger();
+            dao.findByFilters(new Search(), FETCH_SIZE, entity -> count.incrementAndGet());
+            assertEquals(1001, count.get());
+            assertTrue(entityManager.contains(changed));
+            assertTrue(entityManager.contains(added));
+            // 流式查询后继续修改
+            changed.setCode("changed");
+            return null;
+        });
+        transactionTemplate.execute(status -> {
+            StreamDemo changed = entityManager.find(StreamDemo.class, "10");
+            assertEquals("changed", changed.getPayload());
+            assertEquals("changed", changed.getCode());
+            assertNotNull(entityManager.find(StreamDemo.class, "added"));
+            return null;
+        });
+    }
+
+    @Test
+    void streamByFilters() {
+        insert(1000);
+        long count = transactionTemplate.execute(status -> {
+            Search search = new Search();
+            search.addFilter(new SearchFilter("code", code(500), SearchFilter.Operator.GE));
+            try (Stream<StreamDemo> stream = dao.streamByFilters(search, 0)) {
+                return stream.filter(entity -> entity.getCode().compareTo(code(500)) >= 0).count();
+            }
+        });
+        assertEquals(500, count);
+    }
+
+    @Test
+    void streamRequiresTransaction() {
+        assertThrows(IllegalStateException.class, () -> dao.streamByFilters(new Search(), FETCH_SIZE));
+    }
+
+    private static void insert(int rows) {
+        transactionTemplate.execute(status -> {
+            entityManager.createQuery("delete from " + StreamDemo.class.getSimpleName()).executeUpdate();
+            for (int i = 0; i < rows; i++) {
+                StreamDemo entity = new StreamDemo();
+                entity.setId(String.valueOf(i));
+                entity.setCode(code(i));
+                entity.setPayload(String.format("%0200d", i));
+                entityManager.persist(entity);
+                if (i % 500 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            return null;
+        });
+    }
+
+    private static String code(int i) {
+        return String.format("%08d", i);
+    }
+
+    private static int managedCount() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    @Entity
+    @Table(name = "stream_demo")
+    public static class StreamDemo extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+        @Column(name = "code")
+        private String code;
+        @Column(name = "payload", length = 256)
+        private String payload;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        public void setPayload(String payload) {
+            this.payload = payload;
+        }
+    }
+}
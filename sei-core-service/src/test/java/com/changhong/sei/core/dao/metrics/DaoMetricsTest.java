@@ -0,0 +1,262 @@
+package com.changhong.sei.core.dao.metrics;
+
+import com.changhong.sei.core.config.JpaAutoConfiguration;
+import com.changhong.sei.core.config.properties.dao.DaoMetricsProperties;
+import com.changhong.sei.core.dao.BaseDaoFactoryBean;
+import com.changhong.sei.core.dao.BaseEntityDao;
+import com.changhong.sei.core.dao.jpa.BaseDao;
+import com.changhong.sei.core.dao.jpa.impl.BaseDaoImpl;
+import com.changhong.sei.core.dto.serach.Search;
+import com.changhong.sei.core.dto.serach.SearchFilter;
+import com.changhong.sei.core.entity.BaseEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Table;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 数据访问监控指标(H2内存数据库)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 17:40
+ */
+class DaoMetricsTest {
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private SimpleMeterRegistry registry;
+    private DaoMetrics metrics;
+    private BaseDao<MetricsDemo, String> dao;
+
+    private void setUp(long slowThreshold, int statementBudget) {
+        metrics = new DaoMetrics(slowThreshold, 1.0, 10, statementBudget);
+        registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1", "sa", ""));
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(DaoMetricsTest.class.getPackage().getName());
+        factoryBean.getJpaPropertyMap().put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        factoryBean.getJpaPropertyMap().put(AvailableSettings.STATEMENT_INSPECTOR, metrics);
+        factoryBean.afterPropertiesSet();
+
+        EntityManagerFactory factory = factoryBean.getObject();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        new TransactionTemplate(new JpaTransactionManager(factory)).execute(status -> {
+            for (int i = 0; i < 30; i++) {
+                MetricsDemo entity = new MetricsDemo();
+                entity.setId(String.valueOf(i));
+                entity.setCode(String.format("%04d", i));
+                entityManager.persist(entity);
+            }
+            return null;
+        });
+
+        // 与BaseDaoFactoryBean添加的拦截器相同
+        ProxyFactory proxyFactory = new ProxyFactory(new BaseDaoImpl<>(MetricsDemo.class, entityManager));
+        proxyFactory.addInterface(BaseDao.class);
+        proxyFactory.addAdvice(new DaoMetricsInterceptor(metrics, MetricsDemo.class));
+        @SuppressWarnings("unchecked")
+        BaseDao<MetricsDemo, String> proxy = (BaseDao<MetricsDemo, String>) proxyFactory.getProxy();
+        dao = proxy;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (Objects.nonNull(factoryBean)) {
+            factoryBean.destroy();
+        }
+    }
+
+    /**
+     * 通过自动配置的HibernatePropertiesCustomizer及BaseDaoFactoryBean装配，与已配置的StatementInspector组合
+     */
+    @Test
+    void wiresThroughFactoryBeanAndCustomizer() {
+        assertFalse(new DaoMetricsProperties().isEnabled());
+        metrics = new DaoMetrics(10000, 1.0, 10, 100);
+        registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        properties.put(AvailableSettings.STATEMENT_INSPECTOR, CountingInspector.class.getName());
+        new JpaAutoConfiguration().daoMetricsHibernatePropertiesCustomizer(metrics).customize(properties);
+        assertNotSame(metrics, properties.get(AvailableSettings.STATEMENT_INSPECTOR));
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:metrics_wiring;DB_CLOSE_DELAY=-1", "sa", ""));
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(DaoMetricsTest.class.getPackage().getName());
+        factoryBean.getJpaPropertyMap().putAll(properties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory factory = factoryBean.getObject();
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        new TransactionTemplate(new JpaTransactionManager(factory)).execute(status -> {
+            MetricsDemo entity = new MetricsDemo();
+            entity.setId("1");
+            entity.setCode("0001");
+            entityManager.persist(entity);
+            return null;
+        });
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("transactionManager", new JpaTransactionManager(factory));
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        BaseDaoFactoryBean daoFactoryBean = new BaseDaoFactoryBean(MetricsDemoDao.class);
+        daoFactoryBean.setEntityManager(entityManager);
+        daoFactoryBean.setBeanFactory(beanFactory);
+        daoFactoryBean.setDaoMetrics(metrics);
+        daoFactoryBean.afterPropertiesSet();
+        MetricsDemoDao demoDao = (MetricsDemoDao) daoFactoryBean.getObject();
+
+        long inspected = CountingInspector.COUNT.get();
+        long statements = metrics.getStatementCount();
+        assertEquals(1, demoDao.findByFilters(new Search()).size());
+        assertNotNull(demoDao.findOne("1"));
+        assertNull(demoDao.findOne("2"));
+
+        assertEquals(1, registry.get("sei.dao.query").tags("entity", "MetricsDemo", "method", "findByFilters").timer().count());
+        assertEquals(2, registry.get("sei.dao.query").tags("entity", "MetricsDemo", "method", "findOne").timer().count());
+        // 同一方法复用同一组指标
+        assertEquals(1, registry.find("sei.dao.query").tags("method", "findOne").timers().size());
+        assertEquals(1, registry.get("sei.dao.query.rows").tags("method", "findByFilters").summary().totalAmount());
+        // 默认不发布百分位直方图
+        assertEquals(0, registry.get("sei.dao.query").tags("method", "findOne").timer().takeSnapshot().histogramCounts().length);
+
+        // 两个StatementInspector都执行
+        assertTrue(metrics.getStatementCount() - statements >= 3);
+        assertEquals(metrics.getStatementCount() - statements, CountingInspector.COUNT.get() - inspected);
+    }
+
+    @Test
+    void unresolvableInspectorIsKept() {
+        metrics = new DaoMetrics(10000, 1.0, 10, 100);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.STATEMENT_INSPECTOR, "com.example.MissingInspector");
+        new JpaAutoConfiguration().daoMetricsHibernatePropertiesCustomizer(metrics).customize(properties);
+        assertEquals("com.example.MissingInspector", properties.get(AvailableSettings.STATEMENT_INSPECTOR));
+
+        properties.clear();
+        new JpaAutoConfiguration().daoMetricsHibernatePropertiesCustomizer(metrics).customize(properties);
+        assertSame(metrics, properties.get(AvailableSettings.STATEMENT_INSPECTOR));
+    }
+
+    @Test
+    void recordsLatencyAndRows() {
+        setUp(10000, 100);
+        Search search = new Search();
+        search.addFilter(new SearchFilter("code", "0010", SearchFilter.Operator.LT));
+        assertEquals(10, dao.findByFilters(search).size());
+        assertNotNull(dao.findOne("1"));
+
+        assertEquals(1, registry.get("sei.dao.query").tags("entity", "MetricsDemo", "method", "findByFilters").timer().count());
+        assertEquals(10, registry.get("sei.dao.query.rows").tags("method", "findByFilters").summary().totalAmount());
+        assertEquals(1, registry.get("sei.dao.query.rows").tags("method", "findOne").summary().totalAmount());
+        assertEquals(0, registry.get("sei.dao.query.slow").tags("method", "findByFilters").counter().count());
+        assertTrue(metrics.getSlowQueries().isEmpty());
+    }
+
+    @Test
+    void samplesSlowQueriesWithFilters() {
+        setUp(0, 100);
+        Search search = new Search();
+        search.addFilter(new SearchFilter("code", "0020", SearchFilter.Operator.GE));
+        assertEquals(10, dao.findByFilters(search).size());
+
+        assertEquals(1, registry.get("sei.dao.query.slow").tags("method", "findByFilters").counter().count());
+        List<DaoMetrics.SlowQuery> slowQueries = metrics.getSlowQueries();
+        assertEquals(1, slowQueries.size());
+        assertEquals("findByFilters", slowQueries.get(0).getMethod());
+        assertEquals(10, slowQueries.get(0).getRows());
+        assertTrue(slowQueries.get(0).getFilters().contains("0020"), slowQueries.get(0).getFilters());
+
+        // 只保留最近的样本
+        for (int i = 0; i < 20; i++) {
+            dao.findOne(String.valueOf(i));
+        }
+        assertEquals(10, metrics.getSlowQueries().size());
+        assertEquals("findOne", metrics.getSlowQueries().get(0).getMethod());
+    }
+
+    /**
+     * 逐个加载(N+1)的请求超过语句预算
+     */
+    @Test
+    void flagsRequestsOverStatementBudget() {
+        setUp(10000, 5);
+        metrics.beginRequest();
+        dao.findByFilters(new Search());
+        assertEquals(1, metrics.endRequest("GET /batch"));
+        assertEquals(0, metrics.getOverBudgetCount());
+
+        metrics.beginRequest();
+        for (int i = 0; i < 10; i++) {
+            dao.findOne(String.valueOf(i));
+        }
+        assertEquals(10, metrics.getRequestStatementCount());
+        assertEquals(10, metrics.endRequest("GET /one-by-one"));
+        assertEquals(1, metrics.getOverBudgetCount());
+        assertEquals(-1, metrics.getRequestStatementCount());
+
+        assertEquals(2, registry.get("sei.dao.request.statements").summary().count());
+        assertEquals(1, registry.get("sei.dao.request.over.budget").functionCounter().count());
+        assertTrue(registry.get("sei.dao.statements").functionCounter().count() >= 41);
+    }
+
+    public interface MetricsDemoDao extends BaseEntityDao<MetricsDemo> {
+    }
+
+    /**
+     * 应用已配置的StatementInspector
+     */
+    public static class CountingInspector implements StatementInspector {
+        private static final long serialVersionUID = 1L;
+        static final AtomicLong COUNT = new AtomicLong();
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.incrementAndGet();
+            return sql;
+        }
+    }
+
+    @Entity
+    @Table(name = "metrics_demo")
+    public static class MetricsDemo extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+        @Column(name = "code")
+        private String code;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+    }
+}
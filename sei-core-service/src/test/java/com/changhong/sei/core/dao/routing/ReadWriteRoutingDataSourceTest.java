@@ -0,0 +1,377 @@
+package com.changhong.sei.core.dao.routing;
+
+import com.changhong.sei.core.dao.jpa.BaseDao;
+import com.changhong.sei.core.dao.jpa.impl.BaseDaoImpl;
+import com.changhong.sei.core.dto.serach.Search;
+import com.changhong.sei.core.service.BaseRelationService;
+import com.changhong.sei.core.service.BaseService;
+import com.changhong.sei.core.service.BaseTreeService;
+import com.changhong.sei.util.thread.ThreadLocalHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Persistable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 读写分离路由(两个H2内存数据库分别作为主库和从库)
+ * 分别使用DataSourceTransactionManager及JpaTransactionManager(业务服务实际使用的事务管理器)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 14:10
+ */
+class ReadWriteRoutingDataSourceTest {
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTemplate;
+    private TransactionTemplate readTemplate;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory factory;
+    private EntityManager entityManager;
+    private TransactionTemplate jpaWriteTemplate;
+    private TransactionTemplate jpaReadTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = createDatabase("routing_primary", "primary", 0);
+        DriverManagerDataSource replica = createDatabase("routing_replica", "replica", 0);
+        routing = new ReadWriteRoutingDataSource(primary,
+                Collections.singletonList(new ReadWriteRoutingDataSource.Replica("replica0", replica, 1)),
+                5, "select lag from node", 0);
+        routing.afterPropertiesSet();
+
+        RoutingDataSourcePostProcessor.RoutingDataSource dataSource = new RoutingDataSourcePostProcessor.RoutingDataSource(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTemplate = new TransactionTemplate(transactionManager);
+        readTemplate = new TransactionTemplate(transactionManager);
+        readTemplate.setReadOnly(true);
+
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "none");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan(ReadWriteRoutingDataSourceTest.class.getPackage().getName());
+        factoryBean.setJpaProperties(properties);
+        factoryBean.afterPropertiesSet();
+        factory = factoryBean.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(factory);
+        JpaTransactionManager jpaTransactionManager = new JpaTransactionManager(factory);
+        jpaTransactionManager.setDataSource(dataSource);
+        jpaWriteTemplate = new TransactionTemplate(jpaTransactionManager);
+        jpaReadTemplate = new TransactionTemplate(jpaTransactionManager);
+        jpaReadTemplate.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factoryBean.destroy();
+        routing.close();
+    }
+
+    private static DriverManagerDataSource createDatabase(String name, String node, int lag) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("drop table if exists node");
+        template.execute("create table node (name varchar(20), lag int)");
+        template.update("insert into node (name, lag) values (?, ?)", node, lag);
+        return dataSource;
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private String currentJpaNode() {
+        return entityManager.createQuery("select n.name from RoutingNode n", String.class).getSingleResult();
+    }
+
+    @Test
+    void writeWithoutTransactionUsesPrimary() {
+        assertEquals("primary", currentNode());
+        assertEquals("primary", writeTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertEquals("replica", readTemplate.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readScopeUsesReplica() {
+        assertEquals("replica", DataSourceRouting.read(this::currentNode));
+        assertFalse(DataSourceRouting.isReadScope());
+    }
+
+    @Test
+    void readScopeInWriteTransactionUsesPrimary() {
+        writeTemplate.execute(status -> {
+            // 写事务的第一条语句在读范围内执行，连接仍绑定主库，后续写入不会进入从库
+            assertEquals("primary", DataSourceRouting.read(this::currentNode));
+            jdbcTemplate.update("update node set lag = 3");
+            return null;
+        });
+        assertEquals(3, new JdbcTemplate(routing.getPrimary()).queryForObject("select lag from node", Integer.class));
+        assertEquals(0, new JdbcTemplate(routing.getReplicas().get(0).getDataSource())
+                .queryForObject("select lag from node", Integer.class));
+
+        jpaWriteTemplate.execute(status -> {
+            assertEquals("primary", DataSourceRouting.read(this::currentJpaNode));
+            entityManager.find(RoutingNode.class, "primary").setLag(4);
+            return null;
+        });
+        assertEquals(4, new JdbcTemplate(routing.getPrimary()).queryForObject("select lag from node", Integer.class));
+        // 只读事务中的读范围仍读从库
+        assertEquals("replica", readTemplate.execute(status -> DataSourceRouting.read(this::currentNode)));
+    }
+
+    @Test
+    void readYourWritesAfterCommit() {
+        ThreadLocalHolder.begin();
+        try {
+            assertEquals("replica", readTemplate.execute(status -> currentNode()));
+            writeTemplate.execute(status -> jdbcTemplate.update("update node set lag = lag"));
+            // 当前请求已写入，后续读主库
+            assertEquals("primary", readTemplate.execute(status -> currentNode()));
+            assertEquals("primary", DataSourceRouting.read(this::currentNode));
+        } finally {
+            ThreadLocalHolder.end();
+        }
+        // 请求结束后恢复读从库
+        ThreadLocalHolder.begin();
+        try {
+            assertEquals("replica", readTemplate.execute(status -> currentNode()));
+        } finally {
+            ThreadLocalHolder.end();
+        }
+    }
+
+    @Test
+    void readOnlyStatementsInWriteTransactionKeepReplica() {
+        ThreadLocalHolder.begin();
+        try {
+            // 非只读事务中只执行了查询，不标记写入
+            assertEquals("primary", writeTemplate.execute(status -> currentNode()));
+            assertEquals("replica", readTemplate.execute(status -> currentNode()));
+        } finally {
+            ThreadLocalHolder.end();
+        }
+    }
+
+    @Test
+    void jpaReadOnlyTransactionUsesReplica() {
+        assertEquals("replica", jpaReadTemplate.execute(status -> currentJpaNode()));
+        assertEquals("primary", jpaWriteTemplate.execute(status -> currentJpaNode()));
+    }
+
+    @Test
+    void jpaTransactionWithoutFlushKeepsReplica() {
+        ThreadLocalHolder.begin();
+        try {
+            assertEquals("primary", jpaWriteTemplate.execute(status -> {
+                RoutingNode node = entityManager.find(RoutingNode.class, "primary");
+                return node.getName();
+            }));
+            assertEquals("replica", jpaReadTemplate.execute(status -> currentJpaNode()));
+        } finally {
+            ThreadLocalHolder.end();
+        }
+    }
+
+    @Test
+    void jpaFlushedWriteUsesPrimary() {
+        ThreadLocalHolder.begin();
+        try {
+            jpaWriteTemplate.execute(status -> {
+                RoutingNode node = entityManager.find(RoutingNode.class, "primary");
+                node.setLag(1);
+                return null;
+            });
+            // 提交时刷新了更新语句，后续读主库
+            assertEquals("primary", jpaReadTemplate.execute(status -> currentJpaNode()));
+        } finally {
+            ThreadLocalHolder.end();
+        }
+    }
+
+    @Test
+    void jpaRolledBackWriteKeepsReplica() {
+        ThreadLocalHolder.begin();
+        try {
+            jpaWriteTemplate.execute(status -> {
+                RoutingNode node = entityManager.find(RoutingNode.class, "primary");
+                node.setLag(1);
+                entityManager.flush();
+                status.setRollbackOnly();
+                return null;
+            });
+            assertEquals("replica", jpaReadTemplate.execute(status -> currentJpaNode()));
+        } finally {
+            ThreadLocalHolder.end();
+        }
+    }
+
+    @Test
+    void serviceReadMethodsAreNotTransactional() throws NoSuchMethodException {
+        AnnotationTransactionAttributeSource source = new AnnotationTransactionAttributeSource();
+        List<Method> methods = Arrays.asList(
+                BaseService.class.getMethod("findOne", Serializable.class),
+                BaseService.class.getMethod("findAll"),
+                BaseService.class.getMethod("findByFilters", Search.class),
+                BaseService.class.getMethod("findByPage", Search.class),
+                BaseTreeService.class.getMethod("getChildrenNodes", String.class),
+                BaseTreeService.class.getMethod("getTree", String.class),
+                BaseTreeService.class.getMethod("getParentNodes", String.class, boolean.class),
+                BaseRelationService.class.getMethod("getChildrenFromParentId", String.class),
+                BaseRelationService.class.getMethod("getParentsFromChildIds", List.class));
+        for (Method method : methods) {
+            assertNull(source.getTransactionAttribute(method, method.getDeclaringClass()), method.toString());
+        }
+        // 子类覆写的查询方法使用子类的读写事务，不继承只读
+        Method findOne = NodeService.class.getMethod("findOne", String.class);
+        TransactionAttribute attribute = source.getTransactionAttribute(findOne, NodeService.class);
+        assertNotNull(attribute);
+        assertFalse(attribute.isReadOnly());
+    }
+
+    @Test
+    void serviceReadsUseReplicaOutsideTransaction() {
+        NodeService service = new NodeService(new BaseDaoImpl<>(RoutingNode.class, entityManager));
+        assertEquals("replica", service.findAll().get(0).getName());
+        assertEquals(1, service.findByIds(Collections.singletonList("replica")).size());
+        // 事务中使用事务的连接
+        assertEquals("primary", jpaWriteTemplate.execute(status -> service.findAll().get(0).getName()));
+        assertEquals("replica", jpaReadTemplate.execute(status -> service.findAll().get(0).getName()));
+
+        // 未启用读写分离时不做路由
+        DataSourceRouting.setEnabled(false);
+        try {
+            assertFalse(DataSourceRouting.read(DataSourceRouting::isReadScope));
+            assertEquals("primary", service.findAll().get(0).getName());
+        } finally {
+            DataSourceRouting.setEnabled(true);
+        }
+    }
+
+    @Test
+    void readScopeWithBoundEntityManagerUsesPrimary() {
+        // 模拟OpenEntityManagerInView：线程绑定的EntityManager会持有连接到之后的事务
+        EntityManager bound = factory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(factory, new EntityManagerHolder(bound));
+        try {
+            assertEquals("primary", DataSourceRouting.read(this::currentNode));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(factory);
+            bound.close();
+        }
+        assertEquals("replica", DataSourceRouting.read(this::currentNode));
+    }
+
+    @Test
+    void rolledBackWriteKeepsReplica() {
+        ThreadLocalHolder.begin();
+        try {
+            writeTemplate.execute(status -> {
+                jdbcTemplate.update("update node set lag = lag");
+                status.setRollbackOnly();
+                return null;
+            });
+            assertEquals("replica", readTemplate.execute(status -> currentNode()));
+        } finally {
+            ThreadLocalHolder.end();
+        }
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        ReadWriteRoutingDataSource.Replica replica = routing.getReplicas().get(0);
+        new JdbcTemplate(replica.getDataSource()).update("update node set lag = 30");
+        routing.checkReplicas();
+        assertFalse(replica.isAvailable());
+        assertEquals(30, replica.getLagSeconds());
+        assertEquals("primary", readTemplate.execute(status -> currentNode()));
+
+        // 追上后恢复
+        new JdbcTemplate(replica.getDataSource()).update("update node set lag = 1");
+        routing.checkReplicas();
+        assertEquals("replica", readTemplate.execute(status -> currentNode()));
+    }
+
+    @Transactional
+    public static class NodeService extends BaseService<RoutingNode, String> {
+        private final BaseDao<RoutingNode, String> dao;
+
+        NodeService(BaseDao<RoutingNode, String> dao) {
+            this.dao = dao;
+        }
+
+        @Override
+        protected BaseDao<RoutingNode, String> getDao() {
+            return dao;
+        }
+
+        @Override
+        public RoutingNode findOne(String id) {
+            return super.findOne(id);
+        }
+    }
+
+    @Entity
+    @Table(name = "node")
+    public static class RoutingNode implements Persistable<String>, Serializable {
+        private static final long serialVersionUID = 1L;
+        @Id
+        private String name;
+        private Integer lag;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Integer getLag() {
+            return lag;
+        }
+
+        public void setLag(Integer lag) {
+            this.lag = lag;
+        }
+
+        @Override
+        public String getId() {
+            return name;
+        }
+
+        @Override
+        public boolean isNew() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.changhong.sei.core.dao.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 快速查询索引在后台线程中建立，建立完成前及失败后使用 LIKE 查询
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 14:40
+ */
+class NgramQuickSearchEngineTest {
+    private static final List<String> PROPERTIES = Collections.singletonList("name");
+
+    private final NgramQuickSearchEngine engine = new NgramQuickSearchEngine(true, 100, 10, 60000L, 4);
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void buildInBackground() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> loaderThreads = Collections.synchronizedSet(new HashSet<>());
+        AtomicInteger loads = new AtomicInteger();
+        QuickSearchEngine.DocumentLoader loader = (tenant, props, maxRows) -> {
+            loaderThreads.add(Thread.currentThread().getName());
+            loads.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{"1", "Apple Pie"});
+            rows.add(new Object[]{"2", "Pineapple"});
+            rows.add(new Object[]{"3", "Banana"});
+            return rows;
+        };
+
+        // 索引建立期间不阻塞查询，使用 LIKE 查询
+        assertNull(engine.search(String.class, null, PROPERTIES, "apple", loader));
+        assertNull(engine.search(String.class, null, PROPERTIES, "apple", loader));
+        release.countDown();
+
+        Collection<?> ids = await(() -> engine.search(String.class, null, PROPERTIES, "apple", loader));
+        assertEquals(new HashSet<>(Arrays.asList("1", "2")), new HashSet<>(ids));
+        assertEquals(1, loads.get());
+        assertFalse(loaderThreads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    void failedBuildFallsBackUntilExpired() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        QuickSearchEngine.DocumentLoader loader = (tenant, props, maxRows) -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("数据库不可用");
+        };
+        assertNull(engine.search(String.class, "T1", PROPERTIES, "apple", loader));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (loads.get() == 0 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        TimeUnit.MILLISECONDS.sleep(100);
+        // 失败后在有效期内不再重复加载
+        for (int i = 0; i < 5; i++) {
+            assertNull(engine.search(String.class, "T1", PROPERTIES, "apple", loader));
+        }
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(1, loads.get());
+    }
+
+    private static Collection<?> await(Supplier<Collection<?>> search) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        Collection<?> result = search.get();
+        while (Objects.isNull(result) && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            result = search.get();
+        }
+        assertNotNull(result);
+        return result;
+    }
+}
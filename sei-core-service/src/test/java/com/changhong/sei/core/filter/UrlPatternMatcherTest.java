@@ -0,0 +1,125 @@
+package com.changhong.sei.core.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 14:05
+ */
+class UrlPatternMatcherTest {
+
+    @Test
+    void matches() {
+        UrlPatternMatcher matcher = UrlPatternMatcher.compile("/doc\\.html", "/actuator", "/webjars/", "ant:/api/**/public", "/file/(upload|download)");
+        assertTrue(matcher.matches("/sei-demo/doc.html"));
+        assertTrue(matcher.matches("/sei-demo/ACTUATOR/health"));
+        assertTrue(matcher.matches("/sei-demo/webjars/favicon.ico"));
+        assertTrue(matcher.matches("/sei-demo/api/v1/user/public/list"));
+        assertTrue(matcher.matches("/sei-demo/file/download/123"));
+        assertFalse(matcher.matches("/sei-demo/webjars"));
+        assertFalse(matcher.matches("/sei-demo/api/v1/user/list"));
+        assertFalse(matcher.matches("/sei-demo/file/preview"));
+        assertFalse(matcher.matches("/sei-demo/docXhtml"));
+        assertFalse(matcher.matches(null));
+    }
+
+    /**
+     * 默认忽略的url(WebThreadFilter及认证忽略)与原有正则的匹配结果一致
+     */
+    @Test
+    void defaultsSameAsLegacyRegex() {
+        // 原有代码中的正则
+        List<Pattern> legacy = new ArrayList<>();
+        for (String url : new String[]{"/doc\\.html", "/v2/api-docs", "/v2/api-docs-ext", "/v3/api-docs", "/v3/api-docs-ext",
+                "/swagger-resources", "/swagger-ui\\.html", "/swagger-resources/configuration/ui",
+                "/swagger-resources/configuration/security", "/actuator", "/instances", "/applications", "/webjars/",
+                "/version/platform", "/version/show", "/version/list"}) {
+            legacy.add(Pattern.compile(".*?" + url + ".*", Pattern.CASE_INSENSITIVE));
+        }
+        String[] paths = new String[]{
+                "/sei-demo/doc.html", "/sei-demo/docXhtml", "/sei-demo/DOC.HTML#/home", "/sei-demo/v2/api-docs-ext",
+                "/sei-demo/v3/api-docs?group=default", "/sei-demo/swagger-resources/configuration/ui",
+                "/sei-demo/swagger-ui.html", "/sei-demo/swagger-uiXhtml", "/sei-demo/actuator/health",
+                "/sei-demo/instancesList", "/sei-demo/webjars", "/sei-demo/webjars/js/app.js", "/sei-demo/version/show",
+                "/sei-demo/version", "/sei-demo/user/findByPage", "/sei-demo/api/doc/html"
+        };
+        assertSameAsLegacy(legacy, UrlPatternMatcher.compile(WebThreadFilter.URL_FILTERS), paths);
+
+        legacy.clear();
+        for (String url : new String[]{"/csrf", "/websocket/"}) {
+            legacy.add(Pattern.compile(".*?" + url + ".*", Pattern.CASE_INSENSITIVE));
+        }
+        paths = new String[]{"/sei-demo/csrf", "/sei-demo/CSRF/token", "/sei-demo/websocket/chat", "/sei-demo/websocket",
+                "/sei-demo/user/csr"};
+        assertSameAsLegacy(legacy, UrlPatternMatcher.compile(DefaultSessionUserAuthenticationHandler.DEFAULT_IGNORE_AUTH_URLS), paths);
+    }
+
+    /**
+     * 含通配符的配置按原有正则语义匹配，ant风格需显式以ant:开头
+     */
+    @Test
+    void wildcardsSameAsLegacyRegex() {
+        String[] urls = new String[]{"/api/*.json", "swagger.*", "/file/?download", "/report/.*/export", "/user/find\\w+",
+                "/static/index.html"};
+        List<Pattern> legacy = new ArrayList<>();
+        for (String url : urls) {
+            legacy.add(Pattern.compile(".*?" + url + ".*", Pattern.CASE_INSENSITIVE));
+        }
+        String[] paths = new String[]{
+                "/sei-demo/api/user.json", "/sei-demo/apixjson", "/sei-demo/api//x.json", "/sei-demo/api/v1/user.json",
+                "/sei-demo/swagger", "/sei-demo/my-swagger-ui", "/sei-demo/filedownload", "/sei-demo/file/download",
+                "/sei-demo/file/upload", "/sei-demo/report/2020/export", "/sei-demo/report//export", "/sei-demo/user/findByPage",
+                "/sei-demo/user/find", "/sei-demo/static/indexXhtml", "/sei-demo/STATIC/index.html"
+        };
+        assertSameAsLegacy(legacy, UrlPatternMatcher.compile(urls), paths);
+
+        UrlPatternMatcher ant = UrlPatternMatcher.compile("ant:/api/*.json");
+        assertTrue(ant.matches("/sei-demo/api/user.json"));
+        assertFalse(ant.matches("/sei-demo/apixjson"));
+        assertFalse(ant.matches("/sei-demo/api/v1/user.json"));
+    }
+
+    private static void assertSameAsLegacy(List<Pattern> legacy, UrlPatternMatcher matcher, String[] paths) {
+        for (String path : paths) {
+            boolean expected = legacy.stream().anyMatch(pattern -> pattern.matcher(path).matches());
+            assertEquals(expected, matcher.matches(path), path);
+        }
+    }
+
+    /**
+     * 与原有正则逐个匹配的结果一致
+     */
+    @Test
+    void sameAsRegex() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            urls.add("/module" + i + "/ignore/path" + i);
+        }
+        List<Pattern> patterns = new ArrayList<>();
+        for (String url : urls) {
+            patterns.add(Pattern.compile(".*?" + url + ".*", Pattern.CASE_INSENSITIVE));
+        }
+        UrlPatternMatcher matcher = UrlPatternMatcher.compile(urls);
+
+        String[] paths = new String[]{
+                "/sei-demo/module59/ignore/path59/detail",
+                "/sei-demo/user/findByPage",
+                "/sei-demo/module3/ignore/path3",
+                "/sei-demo/MODULE7/Ignore/Path7",
+                "/sei-demo/module3/ignore",
+                "/sei-demo/organization/getChildrenNodes/0d7c6a94-3a4a-11eb-b8c3-0242ac110002"
+        };
+        for (String path : paths) {
+            boolean expected = patterns.stream().anyMatch(pattern -> pattern.matcher(path).matches());
+            assertEquals(expected, matcher.matches(path), path);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.changhong.sei.core.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 17:30
+ */
+class XssSanitizerTest {
+
+    @Test
+    void sanitize() {
+        String value = "<div onclick=\"alert(1)\"><script>alert(2)</script><iframe src='x'></iframe></div>";
+        assertEquals(legacyFilterXss(value), XssSanitizer.DEFAULT.sanitize(value));
+
+        String plain = "name=张三&code=10001";
+        assertSame(plain, XssSanitizer.DEFAULT.sanitize(plain));
+        assertNull(XssSanitizer.DEFAULT.sanitize(null));
+    }
+
+    /**
+     * 与原有逐个replaceAll的过滤结果一致
+     */
+    @Test
+    void compatibleWithReplaceAll() {
+        String[] parts = {"<", "/", ">", " ", "on", "error", "mouse", "over", "out", "down", "up", "move",
+                "cli", "ck", "db", "context", "menu", "iframe", "script", "javascript", "x"};
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int count = 1 + random.nextInt(10);
+            for (int j = 0; j < count; j++) {
+                builder.append(parts[random.nextInt(parts.length)]);
+            }
+            String value = builder.toString();
+            if (!value.trim().isEmpty()) {
+                assertEquals(legacyFilterXss(value), XssSanitizer.DEFAULT.sanitize(value), value);
+            }
+        }
+    }
+
+    private static String legacyFilterXss(String value) {
+        value = value.replaceAll("<javascript", "&lt;javascript");
+        value = value.replaceAll("<script", "&lt;script");
+        value = value.replaceAll("onerror", "on error");
+        value = value.replaceAll("onmouseover", "on mouseover");
+        value = value.replaceAll("mousedown", "mouse down");
+        value = value.replaceAll("mouseup", "mouse up");
+        value = value.replaceAll("click", "cli ck");
+        value = value.replaceAll("dbclick", "db click");
+        value = value.replaceAll("contextmenu", "context menu");
+        value = value.replaceAll("mouseout", "mouse out");
+        value = value.replaceAll("mousemove", "mouse move");
+        value = value.replaceAll("mousedown", "mouse down");
+        value = value.replaceAll("<iframe", "&lt;iframe").replaceAll("</iframe>", "&lt;iframe:&gt;");
+        return value;
+    }
+}
@@ -0,0 +1,516 @@
+package com.changhong.sei.core.init;
+
+import com.changhong.sei.core.config.properties.mock.MockUserProperties;
+import com.changhong.sei.core.context.ApplicationContextHolder;
+import com.changhong.sei.core.context.ContextUtil;
+import com.changhong.sei.core.context.SessionUser;
+import com.changhong.sei.core.context.mock.MockUser;
+import com.changhong.sei.core.entity.BaseEntity;
+import com.changhong.sei.core.entity.ICodeUnique;
+import com.changhong.sei.core.entity.ITenant;
+import com.changhong.sei.core.service.bo.OperateResult;
+import com.changhong.sei.util.IdGenerator;
+import com.changhong.sei.util.thread.ThreadLocalHolder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.*;
+import javax.sql.DataSource;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 批量初始化(H2内存数据库)
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 16:40
+ */
+class BasePerformerTest {
+    private static final int SEEDS = 10000;
+    private static final int NAMES = 100;
+
+    private static AnnotationConfigApplicationContext context;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void setUp() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        context.close();
+    }
+
+    @BeforeEach
+    void begin() {
+        ThreadLocalHolder.begin();
+    }
+
+    @AfterEach
+    void end() {
+        ThreadLocalHolder.end();
+    }
+
+    @Test
+    void performTask() {
+        BulkPerformer performer = context.getBean(BulkPerformer.class);
+        prepare(2);
+        statistics.clear();
+        assertTrue(performer.performTask().successful());
+        assertEquals(SEEDS, count());
+        // 一次查询(每1000个代码)判断是否存在，批量插入
+        assertTrue(statistics.getPrepareStatementCount() < 50, "SQL语句数: " + statistics.getPrepareStatementCount());
+
+        // 重复执行不再新增
+        statistics.clear();
+        assertTrue(performer.performTask().successful());
+        assertEquals(SEEDS, count());
+        assertEquals(0, statistics.getEntityInsertCount());
+    }
+
+    /**
+     * 与逐个判断是否存在并保存对比10000条数据(其中一半已经存在)的SQL语句数
+     */
+    @Test
+    void statementCount() {
+        BulkPerformer bulk = context.getBean(BulkPerformer.class);
+        LegacyPerformer legacy = context.getBean(LegacyPerformer.class);
+
+        prepare(2);
+        statistics.clear();
+        legacy.performTask();
+        long legacyStatements = statistics.getPrepareStatementCount();
+        assertEquals(SEEDS, count());
+        // 每个业务实体一次存在判断
+        assertTrue(legacyStatements >= SEEDS, "SQL语句数: " + legacyStatements);
+
+        prepare(2);
+        statistics.clear();
+        bulk.performTask();
+        long bulkStatements = statistics.getPrepareStatementCount();
+        assertEquals(SEEDS, count());
+
+        assertTrue(bulkStatements * 100 < legacyStatements, "逐个初始化SQL语句数: " + legacyStatements + ", 批量初始化SQL语句数: " + bulkStatements);
+    }
+
+    /**
+     * 唯一键不是代码且未覆写findExistingKeys时逐个判断是否已经存在
+     */
+    @Test
+    void fallbackToAlreadyExists() {
+        NamedPerformer performer = context.getBean(NamedPerformer.class);
+        assertTrue(performer.performTask().successful());
+        assertEquals(NAMES, count("NamedEntity"));
+
+        statistics.clear();
+        assertTrue(performer.performTask().successful());
+        assertEquals(NAMES, count("NamedEntity"));
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() >= NAMES, "SQL语句数: " + statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * 多个租户分别在各自的租户会话及事务中执行
+     */
+    @Test
+    void performTaskForTenants() {
+        TenantPerformer performer = context.getBean(TenantPerformer.class);
+        List<String> tenants = Arrays.asList("T1", "T2", "T3");
+
+        Map<String, OperateResult> results = performer.performTask(tenants, 2);
+        assertEquals(tenants, new ArrayList<>(results.keySet()));
+        results.values().forEach(result -> assertTrue(result.successful(), result.getMessage()));
+        for (String tenant : tenants) {
+            assertEquals(NAMES, countTenant(tenant));
+        }
+        // 执行线程不是当前线程
+        assertFalse(performer.threads.contains(Thread.currentThread().getName()));
+        assertTrue(performer.threads.size() <= 2, String.valueOf(performer.threads));
+
+        // 重复执行不再新增；新租户单独初始化
+        statistics.clear();
+        results = performer.performTask(Arrays.asList("T1", "T2", "T3", "T4"), 2);
+        results.values().forEach(result -> assertTrue(result.successful(), result.getMessage()));
+        assertEquals(NAMES, statistics.getEntityInsertCount());
+        assertEquals(NAMES, countTenant("T4"));
+
+        // 某个租户失败不影响其他租户
+        performer.failTenant = "T5";
+        try {
+            results = performer.performTask(Arrays.asList("T5", "T6"), 2);
+        } finally {
+            performer.failTenant = null;
+        }
+        assertFalse(results.get("T5").successful());
+        assertTrue(results.get("T6").successful());
+        assertEquals(0, countTenant("T5"));
+        assertEquals(NAMES, countTenant("T6"));
+
+        assertTrue(performer.performTask(Collections.emptyList(), 2).isEmpty());
+    }
+
+    /**
+     * 清空数据后预先插入部分种子数据
+     *
+     * @param step 每step条插入一条
+     */
+    private static void prepare(int step) {
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            entityManager.createQuery("delete from SeedEntity").executeUpdate();
+            for (int i = 0; i < SEEDS; i += step) {
+                SeedEntity entity = new SeedEntity();
+                entity.setId(IdGenerator.uuid());
+                entity.setCode(code(i));
+                entityManager.persist(entity);
+            }
+            return null;
+        });
+    }
+
+    private static long count() {
+        return count("SeedEntity");
+    }
+
+    private static long count(String entityName) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            return entityManager.createQuery("select count(t) from " + entityName + " t", Long.class).getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static long countTenant(String tenantCode) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            return entityManager.createQuery("select count(t) from TenantEntity t where t.tenantCode=:tenantCode", Long.class)
+                    .setParameter("tenantCode", tenantCode)
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static String code(int i) {
+        return String.format("S%05d", i);
+    }
+
+    @Configuration
+    @EnableTransactionManagement(proxyTargetClass = true)
+    static class Config {
+        @Bean
+        public DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:init;DB_CLOSE_DELAY=-1", "sa", "");
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            Properties properties = new Properties();
+            properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+            properties.setProperty("hibernate.generate_statistics", "true");
+            LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+            factoryBean.setDataSource(dataSource);
+            factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factoryBean.setPackagesToScan(BasePerformerTest.class.getPackage().getName());
+            factoryBean.setJpaProperties(properties);
+            return factoryBean;
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public ApplicationContextHolder applicationContextHolder() {
+            return new ApplicationContextHolder();
+        }
+
+        @Bean
+        public StaticMessageSource messageSource() {
+            StaticMessageSource messageSource = new StaticMessageSource();
+            messageSource.setUseCodeAsDefaultMessage(true);
+            return messageSource;
+        }
+
+        @Bean
+        public MockUser mockUser() {
+            return new TestMockUser();
+        }
+
+        @Bean
+        public BulkPerformer bulkPerformer() {
+            return new BulkPerformer();
+        }
+
+        @Bean
+        public LegacyPerformer legacyPerformer() {
+            return new LegacyPerformer();
+        }
+
+        @Bean
+        public NamedPerformer namedPerformer() {
+            return new NamedPerformer();
+        }
+
+        @Bean
+        public TenantPerformer tenantPerformer() {
+            return new TenantPerformer();
+        }
+    }
+
+    /**
+     * 按代码批量初始化
+     */
+    static class BulkPerformer extends BasePerformer<SeedEntity> {
+        @PersistenceContext
+        EntityManager entityManager;
+
+        @Override
+        protected String getEntityName() {
+            return "种子数据";
+        }
+
+        @Override
+        protected List<SeedEntity> constructInitEntities() {
+            List<SeedEntity> entities = new ArrayList<>(SEEDS);
+            for (int i = 0; i < SEEDS; i++) {
+                SeedEntity entity = new SeedEntity();
+                entity.setCode(code(i));
+                entity.setName("seed" + i);
+                entities.add(entity);
+            }
+            return entities;
+        }
+
+        @Override
+        protected String getUniqueKey(SeedEntity entity) {
+            return entity.getCode();
+        }
+
+        @Override
+        protected boolean alreadyExists(SeedEntity entity) {
+            return !entityManager.createQuery("select t.id from SeedEntity t where t.code=:code")
+                    .setParameter("code", entity.getCode())
+                    .setMaxResults(1)
+                    .getResultList().isEmpty();
+        }
+
+        @Override
+        protected void save(SeedEntity entity) {
+            entity.setId(IdGenerator.uuid());
+            entityManager.persist(entity);
+        }
+    }
+
+    /**
+     * 逐个判断是否存在
+     */
+    static class LegacyPerformer extends BulkPerformer {
+        @Override
+        protected String getUniqueKey(SeedEntity entity) {
+            return null;
+        }
+    }
+
+    @Entity
+    @Table(name = "init_seed")
+    public static class SeedEntity extends BaseEntity implements ICodeUnique {
+        private static final long serialVersionUID = 1L;
+        private String code;
+        private String name;
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * 模拟指定租户的用户会话(不生成token)
+     */
+    static class TestMockUser implements MockUser {
+        @Override
+        public SessionUser mockUser(String tenant, String account) {
+            SessionUser sessionUser = new SessionUser();
+            sessionUser.setTenantCode(tenant);
+            sessionUser.setAccount(account);
+            return mockCurrentUser(sessionUser);
+        }
+
+        @Override
+        public SessionUser mockUser(MockUserProperties mockUser) {
+            return mockUser(mockUser.getTenantCode(), mockUser.getAccount());
+        }
+    }
+
+    /**
+     * 按名称判断是否已经存在(不是代码唯一的业务实体)
+     */
+    static class NamedPerformer extends BasePerformer<NamedEntity> {
+        @PersistenceContext
+        EntityManager entityManager;
+
+        @Override
+        protected String getEntityName() {
+            return "名称数据";
+        }
+
+        @Override
+        protected List<NamedEntity> constructInitEntities() {
+            List<NamedEntity> entities = new ArrayList<>(NAMES);
+            for (int i = 0; i < NAMES; i++) {
+                NamedEntity entity = new NamedEntity();
+                entity.setName("name" + i);
+                entities.add(entity);
+            }
+            return entities;
+        }
+
+        @Override
+        protected String getUniqueKey(NamedEntity entity) {
+            return entity.getName();
+        }
+
+        @Override
+        protected boolean alreadyExists(NamedEntity entity) {
+            return !entityManager.createQuery("select t.id from NamedEntity t where t.name=:name")
+                    .setParameter("name", entity.getName())
+                    .setMaxResults(1)
+                    .getResultList().isEmpty();
+        }
+
+        @Override
+        protected void save(NamedEntity entity) {
+            entity.setId(IdGenerator.uuid());
+            entityManager.persist(entity);
+        }
+    }
+
+    /**
+     * 按当前租户初始化
+     */
+    static class TenantPerformer extends BasePerformer<TenantEntity> {
+        @PersistenceContext
+        EntityManager entityManager;
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+        volatile String failTenant;
+
+        @Override
+        protected String getEntityName() {
+            return "租户数据";
+        }
+
+        @Override
+        protected List<TenantEntity> constructInitEntities() {
+            threads.add(Thread.currentThread().getName());
+            String tenantCode = ContextUtil.getTenantCode();
+            List<TenantEntity> entities = new ArrayList<>(NAMES);
+            for (int i = 0; i < NAMES; i++) {
+                TenantEntity entity = new TenantEntity();
+                entity.setCode(code(i));
+                entity.setTenantCode(tenantCode);
+                entities.add(entity);
+            }
+            return entities;
+        }
+
+        @Override
+        protected String getUniqueKey(TenantEntity entity) {
+            return entity.getCode();
+        }
+
+        @Override
+        protected boolean alreadyExists(TenantEntity entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void save(TenantEntity entity) {
+            entity.setId(IdGenerator.uuid());
+            entityManager.persist(entity);
+            if (Objects.equals(failTenant, entity.getTenantCode())) {
+                entityManager.flush();
+                throw new IllegalStateException("租户" + failTenant + "初始化失败");
+            }
+        }
+    }
+
+    @Entity
+    @Table(name = "init_named")
+    public static class NamedEntity extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity
+    @Table(name = "init_tenant")
+    public static class TenantEntity extends BaseEntity implements ICodeUnique, ITenant {
+        private static final long serialVersionUID = 1L;
+        private String code;
+        private String tenantCode;
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public String getTenantCode() {
+            return tenantCode;
+        }
+
+        @Override
+        public void setTenantCode(String tenantCode) {
+            this.tenantCode = tenantCode;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.changhong.sei.core.service;
+
+import com.changhong.sei.core.cache.CacheBuilder;
+import com.changhong.sei.core.context.ContextUtil;
+import com.changhong.sei.core.context.SessionUser;
+import com.changhong.sei.core.dao.jpa.BaseDao;
+import com.changhong.sei.core.dto.auth.IDataAuthEntity;
+import com.changhong.sei.core.entity.BaseEntity;
+import com.changhong.sei.util.thread.ThreadLocalHolder;
+import com.changhong.sei.util.thread.ThreadLocalUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实现功能：
+ * 一般用户有权限的业务实体Id清单的缓存命中、未命中及批量获取
+ *
+ * @author agent
+ * @version 1.0.00  2026-10-19 20:50
+ */
+class AuthorizedEntityIdsTest {
+    private static final String USER_ID = "u1";
+
+    private MapCacheBuilder cache;
+
+    @BeforeEach
+    void setUp() {
+        ThreadLocalHolder.begin();
+        SessionUser user = new SessionUser();
+        user.setUserId(USER_ID);
+        ThreadLocalUtil.setLocalVar(SessionUser.class.getSimpleName(), user);
+        cache = new MapCacheBuilder();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ThreadLocalHolder.end();
+    }
+
+    @Test
+    void missThenHit() {
+        AuthService service = new AuthService(cache);
+        List<String> loaded = service.getNormalUserAuthorizedEntityIds("F1", USER_ID);
+        assertEquals(Arrays.asList("F1-a", "F1-b"), loaded);
+        assertEquals(Collections.singletonList("F1"), service.calls);
+
+        List<String> cached = service.getNormalUserAuthorizedEntityIds("F1", USER_ID);
+        assertEquals(loaded, cached);
+        // 命中缓存，不再调用API服务
+        assertEquals(Collections.singletonList("F1"), service.calls);
+        // 返回的清单不可修改，调用方无法修改缓存
+        assertThrows(UnsupportedOperationException.class, () -> cached.add("x"));
+        assertThrows(UnsupportedOperationException.class, () -> loaded.clear());
+
+        service.evictNormalUserAuthorizedEntityIds("F1", USER_ID);
+        service.getNormalUserAuthorizedEntityIds("F1", USER_ID);
+        assertEquals(Arrays.asList("F1", "F1"), service.calls);
+    }
+
+    /**
+     * 缓存中的清单只包装不复制(旧版本写入的ArrayList同样可读)
+     */
+    @Test
+    void cachedListIsWrappedNotCopied() {
+        AuthService service = new AuthService(cache);
+        List<String> legacy = new ArrayList<>(Arrays.asList("a", "b"));
+        cache.put(service.getAuthorizedEntityIdsCacheKey("F1", USER_ID), legacy);
+
+        List<String> entityIds = service.getNormalUserAuthorizedEntityIds("F1", USER_ID);
+        assertEquals(legacy, entityIds);
+        legacy.add("c");
+        assertEquals(Arrays.asList("a", "b", "c"), entityIds);
+        assertTrue(service.calls.isEmpty());
+    }
+
+    @Test
+    void bulkLoadsOnlyMissingCodesOnce() {
+        AuthService service = new AuthService(cache);
+        service.getNormalUserAuthorizedEntityIds("F1", USER_ID);
+        service.calls.clear();
+
+        Map<String, List<String>> result = service.getNormalUserAuthorizedEntityIds(Arrays.asList("F1", "F2", "F3", "F2"), USER_ID);
+        assertEquals(Arrays.asList("F1", "F2", "F3"), new ArrayList<>(result.keySet()));
+        assertEquals(Arrays.asList("F2-a", "F2-b"), result.get("F2"));
+        // 缓存中不存在的功能项一次批量获取
+        assertEquals(Collections.singletonList(Arrays.asList("F2", "F3")), service.bulkCalls);
+        assertTrue(service.calls.isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> result.get("F3").add("x"));
+
+        // 批量获取的结果已写入缓存
+        assertEquals(Arrays.asList("F3-a", "F3-b"), service.getNormalUserAuthorizedEntityIds("F3", USER_ID));
+        service.getNormalUserAuthorizedEntityIds(Arrays.asList("F1", "F2", "F3"), USER_ID);
+        assertEquals(1, service.bulkCalls.size());
+        assertTrue(service.calls.isEmpty());
+    }
+
+    @Test
+    void bulkWithoutResultIsEmptyAndNotCached() {
+        AuthService service = new AuthService(cache);
+        service.missing.add("F2");
+        Map<String, List<String>> result = service.getNormalUserAuthorizedEntityIds(Arrays.asList("F1", "F2"), USER_ID);
+        assertTrue(result.get("F2").isEmpty());
+        assertFalse(cache.values.containsKey(service.getAuthorizedEntityIdsCacheKey("F2", USER_ID)));
+        assertTrue(cache.values.containsKey(service.getAuthorizedEntityIdsCacheKey("F1", USER_ID)));
+    }
+
+    /**
+     * 默认的批量获取并发调用单个功能项的获取，并传递当前会话
+     */
+    @Test
+    void defaultBulkLoadsConcurrentlyWithSession() {
+        List<String> codes = Arrays.asList("F1", "F2", "F3", "F4");
+        CountDownLatch allStarted = new CountDownLatch(codes.size());
+        Map<String, String> users = new ConcurrentHashMap<>();
+        DataAuthEntityService service = (entityClassName, featureCode, userId) -> {
+            users.put(featureCode, ContextUtil.getSessionUser().getUserId());
+            allStarted.countDown();
+            try {
+                // 逐个获取时第一个功能项会在此超时
+                if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("功能项未并发获取");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return Collections.singletonList(featureCode + "-a");
+        };
+
+        Map<String, List<String>> result = service.getNormalUserAuthorizedEntitiesFromBasic(AuthDemo.class.getName(), codes, USER_ID);
+        assertEquals(codes, new ArrayList<>(result.keySet()));
+        assertEquals(Collections.singletonList("F4-a"), result.get("F4"));
+        for (String code : codes) {
+            assertEquals(USER_ID, users.get(code), code);
+        }
+        // 调用线程的线程变量不受影响
+        assertEquals(USER_ID, ContextUtil.getSessionUser().getUserId());
+    }
+
+    @Test
+    void defaultBulkRethrowsLoaderException() {
+        DataAuthEntityService service = (entityClassName, featureCode, userId) -> {
+            if ("F3".equals(featureCode)) {
+                throw new IllegalArgumentException(featureCode);
+            }
+            return Collections.emptyList();
+        };
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.getNormalUserAuthorizedEntitiesFromBasic(AuthDemo.class.getName(), Arrays.asList("F1", "F2", "F3"), USER_ID));
+        assertEquals("F3", e.getMessage());
+    }
+
+    public static class AuthDemo extends BaseEntity implements IDataAuthEntity {
+        private static final long serialVersionUID = 1L;
+        private String code;
+        private String name;
+        private String tenantCode;
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getTenantCode() {
+            return tenantCode;
+        }
+
+        @Override
+        public void setTenantCode(String tenantCode) {
+            this.tenantCode = tenantCode;
+        }
+    }
+
+    private static class AuthService extends BaseService<AuthDemo, String> implements DataAuthEntityService {
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+        private final List<List<String>> bulkCalls = new CopyOnWriteArrayList<>();
+        private final Set<String> missing = new HashSet<>();
+        @SuppressWarnings("unchecked")
+        private final BaseDao<AuthDemo, String> dao = (BaseDao<AuthDemo, String>) Proxy.newProxyInstance(
+                AuthorizedEntityIdsTest.class.getClassLoader(), new Class<?>[]{BaseDao.class}, (proxy, method, args) -> {
+                    if ("getEntityClass".equals(method.getName())) {
+                        return AuthDemo.class;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        AuthService(CacheBuilder cacheBuilder) {
+            this.cacheBuilder = cacheBuilder;
+        }
+
+        @Override
+        protected BaseDao<AuthDemo, String> getDao() {
+            return dao;
+        }
+
+        @Override
+        public List<String> getNormalUserAuthorizedEntitiesFromBasic(String entityClassName, String featureCode, String userId) {
+            calls.add(featureCode);
+            return load(featureCode);
+        }
+
+        @Override
+        public Map<String, List<String>> getNormalUserAuthorizedEntitiesFromBasic(String entityClassName, Collection<String> featureCodes, String userId) {
+            bulkCalls.add(new ArrayList<>(featureCodes));
+            Map<String, List<String>> result = new HashMap<>();
+            for (String featureCode : featureCodes) {
+                result.put(featureCode, load(featureCode));
+            }
+            return result;
+        }
+
+        private List<String> load(String featureCode) {
+            return missing.contains(featureCode) ? null : new ArrayList<>(Arrays.asList(featureCode + "-a", featureCode + "-b"));
+        }
+    }
+
+    /**
+     * 基于Map的缓存
+     */
+    private static class MapCacheBuilder extends CacheBuilder {
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+        MapCacheBuilder() {
+            super(null, null);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(String key) {
+            return (T) values.get(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getOrLoad(String key, Function<String, T> loader) {
+            Object value = values.get(key);
+            if (Objects.isNull(value)) {
+                value = loader.apply(key);
+                if (Objects.nonNull(value)) {
+                    values.put(key, value);
+                }
+            }
+            return (T) value;
+        }
+
+        @Override
+        public <T> void put(String key, T obj) {
+            values.put(key, obj);
+        }
+
+        @Override
+        public void remove(String key) {
+            values.remove(key);
+        }
+    }
+}